@@ -40,6 +40,18 @@ public class AnchoredStateProvider extends StateProviderImpl implements StatePro
             });
    }
 
+   @Override
+   protected boolean isSegmentTransferEnabled() {
+      // The values must be replaced with the location
+      return false;
+   }
+
+   @Override
+   protected boolean isIncrementalTransferEnabled() {
+      // The values must be replaced with the location
+      return false;
+   }
+
    private InternalCacheEntry<Object, Object> replaceValueWithLocation(InternalCacheEntry<Object, Object> ice) {
       if (ice.getMetadata() instanceof RemoteMetadata) {
          return ice;
@@ -596,6 +596,11 @@ private <K, V> InternalRemoteCache<K, V> createRemoteCache(String cacheName) {
          }
       }
 
+      if (started && cacheConfiguration != null && cacheConfiguration.hotKeyThreshold() > 0) {
+         remoteCache.clientStatistics().setHotKeyDetector(
+               dispatcher.getOrCreateHotKeyDetector(cacheName, cacheConfiguration.hotKeyThreshold()));
+      }
+
       synchronized (cacheName2RemoteCache) {
          startRemoteCache(remoteCache);
 
@@ -624,18 +629,21 @@ static <K, V> Function<InternalRemoteCache<K, V>, CacheOperationsFactory> wrapWi
 
    private <K, V> InternalRemoteCache<K, V> createRemoteCache(String cacheName, RemoteCacheConfiguration remoteCacheConfiguration,
                                                               Function<InternalRemoteCache<K, V>, CacheOperationsFactory> factoryFunction) {
+      long coalesceGetsWindow = remoteCacheConfiguration == null ? 0 : remoteCacheConfiguration.coalesceGetsWindow();
       if (remoteCacheConfiguration == null || remoteCacheConfiguration.nearCacheMode() == NearCacheMode.DISABLED) {
-         return new RemoteCacheImpl<>(this, cacheName, timeService, factoryFunction);
+         return new RemoteCacheImpl<>(this, cacheName, timeService, null, factoryFunction, coalesceGetsWindow);
       } else {
          NearCacheConfiguration nearCache = new NearCacheConfiguration(remoteCacheConfiguration.nearCacheMode(), remoteCacheConfiguration.nearCacheMaxEntries(),
-               remoteCacheConfiguration.nearCacheBloomFilter(), remoteCacheConfiguration.nearCacheFactory());
+               remoteCacheConfiguration.nearCacheMaxBytes(), remoteCacheConfiguration.nearCacheOffHeap(),
+               remoteCacheConfiguration.nearCacheBloomFilter(), remoteCacheConfiguration.nearCacheKeyTracking(),
+               remoteCacheConfiguration.nearCacheTrackedKeysMultiplier(), remoteCacheConfiguration.nearCacheFactory());
          NearCacheService<K, V> nearCacheService = createNearCacheService(cacheName, nearCache);
          if (log.isTraceEnabled()) {
             log.tracef("Enabling near-caching for cache '%s'", cacheName);
          }
 
          return InvalidatedNearRemoteCache.delegatingNearCache(
-               new RemoteCacheImpl<>(this, cacheName, timeService, nearCacheService, factoryFunction), nearCacheService);
+               new RemoteCacheImpl<>(this, cacheName, timeService, nearCacheService, factoryFunction, coalesceGetsWindow), nearCacheService);
       }
    }
 
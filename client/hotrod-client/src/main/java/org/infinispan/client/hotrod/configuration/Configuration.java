@@ -5,9 +5,15 @@
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.AUTH_CLIENT_SUBJECT;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.AUTH_SERVER_NAME;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.BATCH_SIZE;
+import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CACHE_COALESCE_GETS_WINDOW_SUFFIX;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CACHE_CONFIGURATION_SUFFIX;
+import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CACHE_HOT_KEY_THRESHOLD_SUFFIX;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CACHE_MARSHALLER;
+import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CACHE_NEAR_CACHE_KEY_TRACKING_SUFFIX;
+import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CACHE_NEAR_CACHE_MAX_BYTES_SUFFIX;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CACHE_NEAR_CACHE_MODE_SUFFIX;
+import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CACHE_NEAR_CACHE_OFF_HEAP_SUFFIX;
+import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CACHE_NEAR_CACHE_TRACKED_KEYS_MULTIPLIER_SUFFIX;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CACHE_PREFIX;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CACHE_TEMPLATE_NAME_SUFFIX;
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.CLIENT_INTELLIGENCE;
@@ -456,7 +462,21 @@ public Properties properties() {
             properties.setProperty(prefix + CACHE_CONFIGURATION_SUFFIX, remoteCache.configuration());
          }
          properties.setProperty(prefix + CACHE_NEAR_CACHE_MODE_SUFFIX, remoteCache.nearCacheMode().name());
+         if (remoteCache.coalesceGetsWindow() > 0) {
+            properties.setProperty(prefix + CACHE_COALESCE_GETS_WINDOW_SUFFIX, remoteCache.coalesceGetsWindow());
+         }
+         if (remoteCache.hotKeyThreshold() > 0) {
+            properties.setProperty(prefix + CACHE_HOT_KEY_THRESHOLD_SUFFIX, remoteCache.hotKeyThreshold());
+         }
          properties.setProperty(prefix + CACHE_NEAR_CACHE_MODE_SUFFIX, remoteCache.nearCacheMaxEntries());
+         if (remoteCache.nearCacheKeyTracking()) {
+            properties.setProperty(prefix + CACHE_NEAR_CACHE_KEY_TRACKING_SUFFIX, true);
+            properties.setProperty(prefix + CACHE_NEAR_CACHE_TRACKED_KEYS_MULTIPLIER_SUFFIX, remoteCache.nearCacheTrackedKeysMultiplier());
+         }
+         if (remoteCache.nearCacheMaxBytes() > 0) {
+            properties.setProperty(prefix + CACHE_NEAR_CACHE_MAX_BYTES_SUFFIX, remoteCache.nearCacheMaxBytes());
+            properties.setProperty(prefix + CACHE_NEAR_CACHE_OFF_HEAP_SUFFIX, remoteCache.nearCacheOffHeap());
+         }
          Marshaller marshaller = remoteCache.marshaller();
          if (marshaller != null) {
             properties.setProperty(prefix + CACHE_MARSHALLER, remoteCache.marshaller().getClass().getName());
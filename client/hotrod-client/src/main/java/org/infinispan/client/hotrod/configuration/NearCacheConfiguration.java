@@ -7,7 +7,11 @@ public class NearCacheConfiguration {
    // TODO: Consider an option to configure key equivalence function for near cache (e.g. for byte arrays)
    private final NearCacheMode mode;
    private final int maxEntries;
+   private final long maxBytes;
+   private final boolean offHeap;
    private final boolean bloomFilter;
+   private final boolean keyTracking;
+   private final int trackedKeysMultiplier;
    private final NearCacheFactory nearCacheFactory;
 
    public NearCacheConfiguration(NearCacheMode mode, int maxEntries, boolean bloomFilterOptimization) {
@@ -15,9 +19,28 @@ public NearCacheConfiguration(NearCacheMode mode, int maxEntries, boolean bloomF
    }
 
    public NearCacheConfiguration(NearCacheMode mode, int maxEntries, boolean bloomFilter, NearCacheFactory nearCacheFactory) {
+      this(mode, maxEntries, bloomFilter, false, nearCacheFactory);
+   }
+
+   public NearCacheConfiguration(NearCacheMode mode, int maxEntries, boolean bloomFilter, boolean keyTracking, NearCacheFactory nearCacheFactory) {
+      this(mode, maxEntries, -1, false, bloomFilter, keyTracking, nearCacheFactory);
+   }
+
+   public NearCacheConfiguration(NearCacheMode mode, int maxEntries, long maxBytes, boolean offHeap, boolean bloomFilter,
+                                 boolean keyTracking, NearCacheFactory nearCacheFactory) {
+      this(mode, maxEntries, maxBytes, offHeap, bloomFilter, keyTracking,
+            RemoteCacheConfiguration.NEAR_CACHE_TRACKED_KEYS_MULTIPLIER.getDefaultValue(), nearCacheFactory);
+   }
+
+   public NearCacheConfiguration(NearCacheMode mode, int maxEntries, long maxBytes, boolean offHeap, boolean bloomFilter,
+                                 boolean keyTracking, int trackedKeysMultiplier, NearCacheFactory nearCacheFactory) {
       this.mode = mode;
       this.maxEntries = maxEntries;
+      this.maxBytes = maxBytes;
+      this.offHeap = offHeap;
       this.bloomFilter = bloomFilter;
+      this.keyTracking = keyTracking;
+      this.trackedKeysMultiplier = trackedKeysMultiplier;
       this.nearCacheFactory = nearCacheFactory;
    }
 
@@ -25,6 +48,14 @@ public int maxEntries() {
       return maxEntries;
    }
 
+   public long maxBytes() {
+      return maxBytes;
+   }
+
+   public boolean offHeap() {
+      return offHeap;
+   }
+
    public NearCacheMode mode() {
       return mode;
    }
@@ -33,6 +64,14 @@ public boolean bloomFilter() {
       return bloomFilter;
    }
 
+   public boolean keyTracking() {
+      return keyTracking;
+   }
+
+   public int trackedKeysMultiplier() {
+      return trackedKeysMultiplier;
+   }
+
    public NearCacheFactory nearCacheFactory() {
       return nearCacheFactory;
    }
@@ -42,7 +81,11 @@ public String toString() {
       return "NearCacheConfiguration{" +
             "mode=" + mode +
             ", maxEntries=" + maxEntries +
+            ", maxBytes=" + maxBytes +
+            ", offHeap=" + offHeap +
             ", bloomFilter=" + bloomFilter +
+            ", keyTracking=" + keyTracking +
+            ", trackedKeysMultiplier=" + trackedKeysMultiplier +
             ", nearCacheFactory=" + nearCacheFactory +
             '}';
    }
@@ -20,10 +20,16 @@
 public class RemoteCacheConfiguration {
    public static final AttributeDefinition<String> CONFIGURATION = AttributeDefinition.builder("configuration", null, String.class).build();
    public static final AttributeDefinition<Boolean> FORCE_RETURN_VALUES = AttributeDefinition.builder("force-return-values", false, Boolean.class).build();
+   public static final AttributeDefinition<Long> COALESCE_GETS_WINDOW = AttributeDefinition.builder("coalesce-gets-window", 0L).build();
+   public static final AttributeDefinition<Integer> HOT_KEY_THRESHOLD = AttributeDefinition.builder("hot-key-threshold", 0).build();
    public static final AttributeDefinition<String> NAME = AttributeDefinition.builder("name", null, String.class).build();
    public static final AttributeDefinition<NearCacheMode> NEAR_CACHE_MODE = AttributeDefinition.builder("near-cache-mode", NearCacheMode.DISABLED).build();
    public static final AttributeDefinition<Integer> NEAR_CACHE_MAX_ENTRIES = AttributeDefinition.builder("near-cache-max-entries", -1).build();
+   public static final AttributeDefinition<Long> NEAR_CACHE_MAX_BYTES = AttributeDefinition.builder("near-cache-max-bytes", -1L).build();
+   public static final AttributeDefinition<Boolean> NEAR_CACHE_OFF_HEAP = AttributeDefinition.builder("near-cache-off-heap", false).build();
    public static final AttributeDefinition<Boolean> NEAR_CACHE_BLOOM_FILTER = AttributeDefinition.builder("near-cache-bloom-filter", false).build();
+   public static final AttributeDefinition<Boolean> NEAR_CACHE_KEY_TRACKING = AttributeDefinition.builder("near-cache-key-tracking", false).build();
+   public static final AttributeDefinition<Integer> NEAR_CACHE_TRACKED_KEYS_MULTIPLIER = AttributeDefinition.builder("near-cache-tracked-keys-multiplier", 4).build();
    public static final AttributeDefinition<NearCacheFactory> NEAR_CACHE_FACTORY = AttributeDefinition.builder("near-cache-factory", DefaultNearCacheFactory.INSTANCE, NearCacheFactory.class).build();
    public static final AttributeDefinition<String> TEMPLATE_NAME = AttributeDefinition.builder("template-name", null, String.class).build();
    public static final AttributeDefinition<TransactionMode> TRANSACTION_MODE = AttributeDefinition.builder("transaction-mode", TransactionMode.NONE).build();
@@ -32,17 +38,23 @@ public class RemoteCacheConfiguration {
    public static final AttributeDefinition<Class> MARSHALLER_CLASS = AttributeDefinition.builder("marshallerClass", null, Class.class).build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(RemoteCacheConfiguration.class, CONFIGURATION, FORCE_RETURN_VALUES, NAME, MARSHALLER, MARSHALLER_CLASS, NEAR_CACHE_MODE, NEAR_CACHE_MAX_ENTRIES, NEAR_CACHE_BLOOM_FILTER, NEAR_CACHE_FACTORY, TEMPLATE_NAME, TRANSACTION_MODE, TRANSACTION_MANAGER);
+      return new AttributeSet(RemoteCacheConfiguration.class, CONFIGURATION, FORCE_RETURN_VALUES, COALESCE_GETS_WINDOW, HOT_KEY_THRESHOLD, NAME, MARSHALLER, MARSHALLER_CLASS, NEAR_CACHE_MODE, NEAR_CACHE_MAX_ENTRIES, NEAR_CACHE_MAX_BYTES, NEAR_CACHE_OFF_HEAP, NEAR_CACHE_BLOOM_FILTER, NEAR_CACHE_KEY_TRACKING, NEAR_CACHE_TRACKED_KEYS_MULTIPLIER, NEAR_CACHE_FACTORY, TEMPLATE_NAME, TRANSACTION_MODE, TRANSACTION_MANAGER);
    }
 
    private final Attribute<String> configuration;
    private final Attribute<Boolean> forceReturnValues;
+   private final Attribute<Long> coalesceGetsWindow;
+   private final Attribute<Integer> hotKeyThreshold;
    private final Attribute<Marshaller> marshaller;
    private final Attribute<Class> marshallerClass;
    private final Attribute<String> name;
    private final Attribute<NearCacheMode> nearCacheMode;
    private final Attribute<Integer> nearCacheMaxEntries;
+   private final Attribute<Long> nearCacheMaxBytes;
+   private final Attribute<Boolean> nearCacheOffHeap;
    private final Attribute<Boolean> nearCacheBloomFilter;
+   private final Attribute<Boolean> nearCacheKeyTracking;
+   private final Attribute<Integer> nearCacheTrackedKeysMultiplier;
    private final Attribute<String> templateName;
    private final Attribute<TransactionMode> transactionMode;
    private final Attribute<TransactionManagerLookup> transactionManager;
@@ -52,12 +64,18 @@ static AttributeSet attributeDefinitionSet() {
       this.attributes = attributes.checkProtection();
       configuration = attributes.attribute(CONFIGURATION);
       forceReturnValues = attributes.attribute(FORCE_RETURN_VALUES);
+      coalesceGetsWindow = attributes.attribute(COALESCE_GETS_WINDOW);
+      hotKeyThreshold = attributes.attribute(HOT_KEY_THRESHOLD);
       name = attributes.attribute(NAME);
       marshaller = attributes.attribute(MARSHALLER);
       marshallerClass = attributes.attribute(MARSHALLER_CLASS);
       nearCacheMode = attributes.attribute(NEAR_CACHE_MODE);
       nearCacheMaxEntries = attributes.attribute(NEAR_CACHE_MAX_ENTRIES);
+      nearCacheMaxBytes = attributes.attribute(NEAR_CACHE_MAX_BYTES);
+      nearCacheOffHeap = attributes.attribute(NEAR_CACHE_OFF_HEAP);
       nearCacheBloomFilter = attributes.attribute(NEAR_CACHE_BLOOM_FILTER);
+      nearCacheKeyTracking = attributes.attribute(NEAR_CACHE_KEY_TRACKING);
+      nearCacheTrackedKeysMultiplier = attributes.attribute(NEAR_CACHE_TRACKED_KEYS_MULTIPLIER);
       templateName = attributes.attribute(TEMPLATE_NAME);
       transactionMode = attributes.attribute(TRANSACTION_MODE);
       transactionManager = attributes.attribute(TRANSACTION_MANAGER);
@@ -71,6 +89,20 @@ public boolean forceReturnValues() {
       return forceReturnValues.get();
    }
 
+   /**
+    * @return the window in microseconds during which concurrent gets are coalesced, 0 when disabled
+    */
+   public long coalesceGetsWindow() {
+      return coalesceGetsWindow.get();
+   }
+
+   /**
+    * @return the reads per second after which the reads of a key are spread across all its owners, 0 when disabled
+    */
+   public int hotKeyThreshold() {
+      return hotKeyThreshold.get();
+   }
+
    public String name() {
       return name.get();
    }
@@ -91,10 +123,29 @@ public int nearCacheMaxEntries() {
       return nearCacheMaxEntries.get();
    }
 
+   public long nearCacheMaxBytes() {
+      return nearCacheMaxBytes.get();
+   }
+
+   public boolean nearCacheOffHeap() {
+      return nearCacheOffHeap.get();
+   }
+
    public boolean nearCacheBloomFilter() {
       return nearCacheBloomFilter.get();
    }
 
+   public boolean nearCacheKeyTracking() {
+      return nearCacheKeyTracking.get();
+   }
+
+   /**
+    * @return how many times the near cache max entries the server tracks with key tracking enabled
+    */
+   public int nearCacheTrackedKeysMultiplier() {
+      return nearCacheTrackedKeysMultiplier.get();
+   }
+
    public NearCacheFactory nearCacheFactory() {
       return attributes.attribute(NEAR_CACHE_FACTORY).get();
    }
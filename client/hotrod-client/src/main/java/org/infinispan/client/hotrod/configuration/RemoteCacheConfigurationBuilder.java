@@ -1,14 +1,20 @@
 package org.infinispan.client.hotrod.configuration;
 
+import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.COALESCE_GETS_WINDOW;
 import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.CONFIGURATION;
 import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.FORCE_RETURN_VALUES;
+import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.HOT_KEY_THRESHOLD;
 import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.MARSHALLER;
 import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.MARSHALLER_CLASS;
 import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.NAME;
 import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.NEAR_CACHE_BLOOM_FILTER;
 import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.NEAR_CACHE_FACTORY;
+import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.NEAR_CACHE_KEY_TRACKING;
+import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.NEAR_CACHE_MAX_BYTES;
 import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.NEAR_CACHE_MAX_ENTRIES;
 import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.NEAR_CACHE_MODE;
+import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.NEAR_CACHE_OFF_HEAP;
+import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.NEAR_CACHE_TRACKED_KEYS_MULTIPLIER;
 import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.TEMPLATE_NAME;
 import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.TRANSACTION_MANAGER;
 import static org.infinispan.client.hotrod.configuration.RemoteCacheConfiguration.TRANSACTION_MODE;
@@ -21,6 +27,7 @@
 import java.nio.charset.StandardCharsets;
 import java.util.Properties;
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 import org.infinispan.client.hotrod.DefaultTemplate;
@@ -69,6 +76,34 @@ public RemoteCacheConfigurationBuilder forceReturnValues(boolean forceReturnValu
       return this;
    }
 
+   /**
+    * Coalesces the concurrent single-key gets of this cache issued within the given window into a single getAll
+    * request to each server. Gets of a key that is already being retrieved share the pending request. The window is
+    * stored with microsecond precision, and 0 disables coalescing, which is the default.
+    *
+    * @param window the time a get waits for other gets before being sent
+    * @param unit the unit of the window
+    * @return an instance of the builder
+    */
+   public RemoteCacheConfigurationBuilder coalesceGetsWindow(long window, TimeUnit unit) {
+      attributes.attribute(COALESCE_GETS_WINDOW).set(unit.toMicros(window));
+      return this;
+   }
+
+   /**
+    * Detects the keys of this cache that are read at least the given number of times per second, and spreads their
+    * reads across all the owners of the key instead of sending them to the primary owner. The read rates are estimated
+    * with a count-min sketch. Only applies with {@link ClientIntelligence#HASH_DISTRIBUTION_AWARE} intelligence, and 0
+    * disables the detection, which is the default.
+    *
+    * @param threshold the reads per second of a single key after which the key is considered hot
+    * @return an instance of the builder
+    */
+   public RemoteCacheConfigurationBuilder hotKeyThreshold(int threshold) {
+      attributes.attribute(HOT_KEY_THRESHOLD).set(threshold);
+      return this;
+   }
+
    /**
     * Specifies the near caching mode. See {@link NearCacheMode} for details on the available modes.
     *
@@ -92,6 +127,32 @@ public RemoteCacheConfigurationBuilder nearCacheMaxEntries(int maxEntries) {
       return this;
    }
 
+   /**
+    * Specifies the maximum size in bytes of the values held in the near cache, measured as the size of their marshalled
+    * form. When the near cache is full, the entries that are least likely to be read again are evicted. Cannot be used
+    * together with {@link #nearCacheMaxEntries(int)}.
+    *
+    * @param maxBytes maximum size of the near cache in bytes.
+    * @return an instance of the builder
+    */
+   public RemoteCacheConfigurationBuilder nearCacheMaxBytes(long maxBytes) {
+      attributes.attribute(NEAR_CACHE_MAX_BYTES).set(maxBytes);
+      return this;
+   }
+
+   /**
+    * Specifies whether the near cache should store the values in their marshalled form in direct memory, and only
+    * unmarshall them when they are read. This keeps large near caches out of the heap, at the cost of unmarshalling the
+    * value on every read. Requires {@link #nearCacheMaxBytes(long)}.
+    *
+    * @param enable whether to store the values off-heap
+    * @return an instance of this builder
+    */
+   public RemoteCacheConfigurationBuilder nearCacheOffHeap(boolean enable) {
+      attributes.attribute(NEAR_CACHE_OFF_HEAP).set(enable);
+      return this;
+   }
+
    /**
     * Specifies whether bloom filter should be used for near cache to limit the number of write notifications for
     * unrelated keys.
@@ -104,6 +165,33 @@ public RemoteCacheConfigurationBuilder nearCacheUseBloomFilter(boolean enable) {
       return this;
    }
 
+   /**
+    * Specifies whether the server should track the keys read by the near cache, so that it only sends invalidations for
+    * those keys. The invalidations are sent in batches, and if the server tracks too many keys it asks the client to
+    * clear the whole near cache. Cannot be used together with {@link #nearCacheUseBloomFilter(boolean)}.
+    *
+    * @param enable whether to enable key tracking
+    * @return an instance of this builder
+    */
+   public RemoteCacheConfigurationBuilder nearCacheUseKeyTracking(boolean enable) {
+      attributes.attribute(NEAR_CACHE_KEY_TRACKING).set(enable);
+      return this;
+   }
+
+   /**
+    * Specifies how many keys the server tracks for a near cache with {@link #nearCacheUseKeyTracking(boolean) key
+    * tracking}, as a multiple of {@link #nearCacheMaxEntries(int)}. The server is not told about the entries evicted
+    * from the near cache, so it must track more keys than the near cache can hold before it asks the client to clear
+    * it. Defaults to 4.
+    *
+    * @param multiplier the number of tracked keys for every near cache entry
+    * @return an instance of this builder
+    */
+   public RemoteCacheConfigurationBuilder nearCacheTrackedKeysMultiplier(int multiplier) {
+      attributes.attribute(NEAR_CACHE_TRACKED_KEYS_MULTIPLIER).set(multiplier);
+      return this;
+   }
+
    /**
     * Specifies a {@link NearCacheFactory} which is responsible for creating {@link org.infinispan.client.hotrod.near.NearCache} instances.
     *
@@ -240,10 +328,28 @@ public void validate() {
       if (attributes.attribute(TRANSACTION_MANAGER).get() == null) {
          throw HOTROD.invalidTransactionManagerLookup();
       }
+      if (attributes.attribute(COALESCE_GETS_WINDOW).get() < 0) {
+         throw HOTROD.invalidGetCoalescingWindow(attributes.attribute(COALESCE_GETS_WINDOW).get());
+      }
+      if (attributes.attribute(HOT_KEY_THRESHOLD).get() < 0) {
+         throw HOTROD.invalidHotKeyThreshold(attributes.attribute(HOT_KEY_THRESHOLD).get());
+      }
       if (attributes.attribute(NEAR_CACHE_MODE).get().enabled()) {
          if (attributes.attribute(NEAR_CACHE_BLOOM_FILTER).get() && attributes.attribute(NEAR_CACHE_MAX_ENTRIES).get() < 1) {
             throw HOTROD.nearCacheMaxEntriesPositiveWithBloom(attributes.attribute(NEAR_CACHE_MAX_ENTRIES).get());
          }
+         if (attributes.attribute(NEAR_CACHE_BLOOM_FILTER).get() && attributes.attribute(NEAR_CACHE_KEY_TRACKING).get()) {
+            throw HOTROD.nearCacheBloomFilterWithKeyTracking(attributes.attribute(NAME).get());
+         }
+         if (attributes.attribute(NEAR_CACHE_TRACKED_KEYS_MULTIPLIER).get() < 1) {
+            throw HOTROD.invalidNearCacheTrackedKeysMultiplier(attributes.attribute(NEAR_CACHE_TRACKED_KEYS_MULTIPLIER).get());
+         }
+         if (attributes.attribute(NEAR_CACHE_MAX_BYTES).get() > 0 && attributes.attribute(NEAR_CACHE_MAX_ENTRIES).get() > 0) {
+            throw HOTROD.nearCacheMaxEntriesWithMaxBytes(attributes.attribute(NAME).get());
+         }
+         if (attributes.attribute(NEAR_CACHE_OFF_HEAP).get() && attributes.attribute(NEAR_CACHE_MAX_BYTES).get() < 1) {
+            throw HOTROD.nearCacheOffHeapRequiresMaxBytes(attributes.attribute(NAME).get());
+         }
       }
    }
 
@@ -265,9 +371,15 @@ public ConfigurationBuilder withProperties(Properties properties) {
       findCacheProperty(typed, ConfigurationProperties.CACHE_CONFIGURATION_URI_SUFFIX, v -> this.configurationURI(URI.create(v)));
       findCacheProperty(typed, ConfigurationProperties.CACHE_TEMPLATE_NAME_SUFFIX, this::templateName);
       findCacheProperty(typed, ConfigurationProperties.CACHE_FORCE_RETURN_VALUES_SUFFIX, v -> this.forceReturnValues(Boolean.parseBoolean(v)));
+      findCacheProperty(typed, ConfigurationProperties.CACHE_COALESCE_GETS_WINDOW_SUFFIX, v -> this.coalesceGetsWindow(Long.parseLong(v), TimeUnit.MICROSECONDS));
+      findCacheProperty(typed, ConfigurationProperties.CACHE_HOT_KEY_THRESHOLD_SUFFIX, v -> this.hotKeyThreshold(Integer.parseInt(v)));
       findCacheProperty(typed, ConfigurationProperties.CACHE_NEAR_CACHE_MODE_SUFFIX, v -> this.nearCacheMode(NearCacheMode.valueOf(v)));
       findCacheProperty(typed, ConfigurationProperties.CACHE_NEAR_CACHE_MAX_ENTRIES_SUFFIX, v -> this.nearCacheMaxEntries(Integer.parseInt(v)));
+      findCacheProperty(typed, ConfigurationProperties.CACHE_NEAR_CACHE_MAX_BYTES_SUFFIX, v -> this.nearCacheMaxBytes(Long.parseLong(v)));
+      findCacheProperty(typed, ConfigurationProperties.CACHE_NEAR_CACHE_OFF_HEAP_SUFFIX, v -> this.nearCacheOffHeap(Boolean.parseBoolean(v)));
       findCacheProperty(typed, ConfigurationProperties.CACHE_NEAR_CACHE_BLOOM_FILTER_SUFFIX, v -> this.nearCacheUseBloomFilter(Boolean.parseBoolean(v)));
+      findCacheProperty(typed, ConfigurationProperties.CACHE_NEAR_CACHE_KEY_TRACKING_SUFFIX, v -> this.nearCacheUseKeyTracking(Boolean.parseBoolean(v)));
+      findCacheProperty(typed, ConfigurationProperties.CACHE_NEAR_CACHE_TRACKED_KEYS_MULTIPLIER_SUFFIX, v -> this.nearCacheTrackedKeysMultiplier(Integer.parseInt(v)));
       findCacheProperty(typed, ConfigurationProperties.CACHE_NEAR_CACHE_FACTORY_SUFFIX, v -> this.nearCacheFactory(getInstance(loadClass(v, RemoteCacheConfigurationBuilder.class.getClassLoader()))));
       findCacheProperty(typed, ConfigurationProperties.CACHE_TRANSACTION_MODE_SUFFIX, v -> this.transactionMode(TransactionMode.valueOf(v)));
       findCacheProperty(typed, ConfigurationProperties.CACHE_TRANSACTION_MANAGER_LOOKUP_SUFFIX, this::transactionManagerLookupClass);
@@ -479,12 +479,48 @@
  *          <td>The {@link org.infinispan.client.hotrod.configuration.RemoteCacheConfigurationBuilder#nearCacheMaxEntries(int) maximum} number of entries to keep locally for the specified cache.</td>
  *       </tr>
  *       <tr>
+ *          <td><b>infinispan.client.hotrod.cache.<i>cachename</i>.near_cache.max_bytes</b></td>
+ *          <td>Long</td>
+ *          <td>-1 (no limit)</td>
+ *          <td>The {@link org.infinispan.client.hotrod.configuration.RemoteCacheConfigurationBuilder#nearCacheMaxBytes(long) maximum} size in bytes of the values to keep locally for the specified cache.</td>
+ *       </tr>
+ *       <tr>
+ *          <td><b>infinispan.client.hotrod.cache.<i>cachename</i>.near_cache.off_heap</b></td>
+ *          <td>Boolean</td>
+ *          <td>false</td>
+ *          <td>Whether the near cache of the specified cache stores its values {@link org.infinispan.client.hotrod.configuration.RemoteCacheConfigurationBuilder#nearCacheOffHeap(boolean) off-heap}.</td>
+ *       </tr>
+ *       <tr>
+ *          <td><b>infinispan.client.hotrod.cache.<i>cachename</i>.near_cache.key_tracking</b></td>
+ *          <td>Boolean</td>
+ *          <td>false</td>
+ *          <td>Whether the server {@link org.infinispan.client.hotrod.configuration.RemoteCacheConfigurationBuilder#nearCacheUseKeyTracking(boolean) tracks} the keys read by the near cache of the specified cache and only sends invalidations for them.</td>
+ *       </tr>
+ *       <tr>
+ *          <td><b>infinispan.client.hotrod.cache.<i>cachename</i>.near_cache.tracked_keys_multiplier</b></td>
+ *          <td>Integer</td>
+ *          <td>4</td>
+ *          <td>How many {@link org.infinispan.client.hotrod.configuration.RemoteCacheConfigurationBuilder#nearCacheTrackedKeysMultiplier(int) times} the near cache max entries the server tracks with key tracking, before it asks the client to clear the near cache.</td>
+ *       </tr>
+ *       <tr>
  *          <td><b>infinispan.client.hotrod.cache.<i>cachename</i>.force_return_values</b></td>
  *          <td>Boolean</td>
  *          <td>false</td>
  *          <td>Whether to {@link org.infinispan.client.hotrod.configuration.RemoteCacheConfigurationBuilder#forceReturnValues(boolean) return&nbsp;values} for puts/removes for the specified cache.</td>
  *       </tr>
  *       <tr>
+ *          <td><b>infinispan.client.hotrod.cache.<i>cachename</i>.coalesce_gets_window</b></td>
+ *          <td>Long</td>
+ *          <td>0 (disabled)</td>
+ *          <td>The {@link org.infinispan.client.hotrod.configuration.RemoteCacheConfigurationBuilder#coalesceGetsWindow(long, java.util.concurrent.TimeUnit) window} in microseconds during which concurrent gets for the specified cache are coalesced into a single request.</td>
+ *       </tr>
+ *       <tr>
+ *          <td><b>infinispan.client.hotrod.cache.<i>cachename</i>.hot_key_threshold</b></td>
+ *          <td>Integer</td>
+ *          <td>0 (disabled)</td>
+ *          <td>The {@link org.infinispan.client.hotrod.configuration.RemoteCacheConfigurationBuilder#hotKeyThreshold(int) reads per second} after which the reads of a key of the specified cache are spread across all its owners.</td>
+ *       </tr>
+ *       <tr>
  *          <td><b>infinispan.client.hotrod.cache.<i>cachename</i>.transaction.transaction_mode</b></td>
  *          <td>String ({@link org.infinispan.client.hotrod.configuration.TransactionMode} enum name)</td>
  *          <td>{@link org.infinispan.client.hotrod.configuration.TransactionMode#NONE NONE}</td>
@@ -1,6 +1,7 @@
 package org.infinispan.client.hotrod.impl;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
@@ -8,6 +9,7 @@
 
 import org.infinispan.client.hotrod.impl.operations.CacheOperationsFactory;
 import org.infinispan.client.hotrod.impl.operations.StatsOperationsFactory;
+import org.infinispan.client.hotrod.impl.topology.HotKeyDetector;
 import org.infinispan.client.hotrod.jmx.RemoteCacheClientStatisticsMXBean;
 import org.infinispan.client.hotrod.metrics.HotRodClientMetricsRegistry;
 import org.infinispan.client.hotrod.near.NearCacheService;
@@ -29,6 +31,8 @@ public final class ClientStatistics implements RemoteCacheClientStatisticsMXBean
    private final CounterTracker nearCacheHits;
    private final CounterTracker nearCacheMisses;
    private final CounterTracker nearCacheInvalidations;
+   private final CounterTracker nearCacheEvictions;
+   private volatile HotKeyDetector hotKeyDetector;
 
    public static <K, V> Function<InternalRemoteCache<K, V>, CacheOperationsFactory> functionFor(
          Function<InternalRemoteCache<K, V>, CacheOperationsFactory> delegate) {
@@ -38,8 +42,10 @@ public static <K, V> Function<InternalRemoteCache<K, V>, CacheOperationsFactory>
    ClientStatistics(TimeService timeService, NearCacheService<?, ?> nearCacheService, HotRodClientMetricsRegistry metricRegistry) {
       this.timeService = timeService;
       this.nearCacheService = nearCacheService;
-      if (nearCacheService != null)
+      if (nearCacheService != null) {
          nearCacheService.setInvalidationCallback(this::incrementNearCacheInvalidations);
+         nearCacheService.setEvictionCallback(this::incrementNearCacheEvictions);
+      }
       readHitTimes = metricRegistry.createTimer("reads.hit", "The read hits duration", Map.of(), null);
       readMissTimes = metricRegistry.createTimer("reads.miss", "The read misses duration", Map.of(), null);
       writeTimes = metricRegistry.createTimer("writes", "The writes duration", Map.of(), null);
@@ -47,7 +53,9 @@ public static <K, V> Function<InternalRemoteCache<K, V>, CacheOperationsFactory>
       nearCacheHits = metricRegistry.createCounter("nearCache.hits", "The number of near-cache read hits", Map.of(), null);
       nearCacheMisses = metricRegistry.createCounter("nearCache.misses", "The number of near-cache misses", Map.of(), null);
       nearCacheInvalidations = metricRegistry.createCounter("nearCache.invalidations", "The number of near-cache invalidations", Map.of(), null);
+      nearCacheEvictions = metricRegistry.createCounter("nearCache.evictions", "The number of near-cache evictions", Map.of(), null);
       metricRegistry.createGauge("nearCache.size", "The current number of entries stored in the near-cache", this::getNearCacheSize, Map.of(), null);
+      metricRegistry.createGauge("hotKeys", "The current number of keys whose reads are spread across all their owners", this::getHotKeyCount, Map.of(), null);
    }
 
    ClientStatistics(TimeService timeService) {
@@ -128,11 +136,34 @@ public long getNearCacheInvalidations() {
       return counters.get(StripeB.nearCacheInvalidationsFieldUpdater);
    }
 
+   @Override
+   public long getNearCacheEvictions() {
+      return counters.get(StripeB.nearCacheEvictionsFieldUpdater);
+   }
+
    @Override
    public long getNearCacheSize() {
       return nearCacheService != null ? nearCacheService.size() : 0;
    }
 
+   @Override
+   public long getHotKeyCount() {
+      HotKeyDetector detector = hotKeyDetector;
+      return detector != null ? detector.hotKeyCount() : 0;
+   }
+
+   /**
+    * @return the keys whose reads are currently spread across all their owners, as sent to the server
+    */
+   public Set<Object> getHotKeys() {
+      HotKeyDetector detector = hotKeyDetector;
+      return detector != null ? detector.hotKeys() : Set.of();
+   }
+
+   public void setHotKeyDetector(HotKeyDetector hotKeyDetector) {
+      this.hotKeyDetector = hotKeyDetector;
+   }
+
    public long time() {
       return timeService.time();
    }
@@ -182,6 +213,11 @@ public void incrementNearCacheInvalidations() {
       nearCacheInvalidations.increment();
    }
 
+   public void incrementNearCacheEvictions() {
+      counters.increment(StripeB.nearCacheEvictionsFieldUpdater, counters.stripeForCurrentThread());
+      nearCacheEvictions.increment();
+   }
+
    @Override
    public void resetStatistics() {
       counters.reset(StripeB.remoteCacheHitsFieldUpdater);
@@ -195,6 +231,7 @@ public void resetStatistics() {
       counters.reset(StripeB.nearCacheHitsFieldUpdater);
       counters.reset(StripeB.nearCacheMissesFieldUpdater);
       counters.reset(StripeB.nearCacheInvalidationsFieldUpdater);
+      counters.reset(StripeB.nearCacheEvictionsFieldUpdater);
 
       startNanoseconds.set(timeService.time());
       resetNanoseconds.set(startNanoseconds.get());
@@ -234,6 +271,8 @@ private static class StripeB extends StripeA {
             AtomicLongFieldUpdater.newUpdater(StripeB.class, "nearCacheMisses");
       static final AtomicLongFieldUpdater<StripeB> nearCacheInvalidationsFieldUpdater =
             AtomicLongFieldUpdater.newUpdater(StripeB.class, "nearCacheInvalidations");
+      static final AtomicLongFieldUpdater<StripeB> nearCacheEvictionsFieldUpdater =
+            AtomicLongFieldUpdater.newUpdater(StripeB.class, "nearCacheEvictions");
 
       private volatile long remoteCacheHits = 0;
       private volatile long remoteCacheHitsTime = 0;
@@ -246,6 +285,7 @@ private static class StripeB extends StripeA {
       private volatile long nearCacheHits = 0;
       private volatile long nearCacheMisses = 0;
       private volatile long nearCacheInvalidations = 0;
+      private volatile long nearCacheEvictions = 0;
    }
 
    private static final class StripeC extends StripeB {
@@ -109,11 +109,17 @@ public class ConfigurationProperties {
    public static final String CACHE_CONFIGURATION_SUFFIX = ".configuration";
    public static final String CACHE_CONFIGURATION_URI_SUFFIX = ".configuration_uri";
    public static final String CACHE_FORCE_RETURN_VALUES_SUFFIX = ".force_return_values";
+   public static final String CACHE_COALESCE_GETS_WINDOW_SUFFIX = ".coalesce_gets_window";
+   public static final String CACHE_HOT_KEY_THRESHOLD_SUFFIX = ".hot_key_threshold";
    public static final String CACHE_MARSHALLER = ".marshaller";
    public static final String CACHE_NEAR_CACHE_MODE_SUFFIX = ".near_cache.mode";
    public static final String CACHE_NEAR_CACHE_MAX_ENTRIES_SUFFIX = ".near_cache.max_entries";
+   public static final String CACHE_NEAR_CACHE_MAX_BYTES_SUFFIX = ".near_cache.max_bytes";
+   public static final String CACHE_NEAR_CACHE_OFF_HEAP_SUFFIX = ".near_cache.off_heap";
    public static final String CACHE_NEAR_CACHE_FACTORY_SUFFIX = ".near_cache.factory";
    public static final String CACHE_NEAR_CACHE_BLOOM_FILTER_SUFFIX = ".near_cache.bloom_filter";
+   public static final String CACHE_NEAR_CACHE_KEY_TRACKING_SUFFIX = ".near_cache.key_tracking";
+   public static final String CACHE_NEAR_CACHE_TRACKED_KEYS_MULTIPLIER_SUFFIX = ".near_cache.tracked_keys_multiplier";
    public static final String CACHE_TEMPLATE_NAME_SUFFIX = ".template_name";
    public static final String CACHE_TRANSACTION_MODE_SUFFIX = ".transaction.transaction_mode";
    public static final String CACHE_TRANSACTION_MANAGER_LOOKUP_SUFFIX = ".transaction.transaction_manager_lookup";
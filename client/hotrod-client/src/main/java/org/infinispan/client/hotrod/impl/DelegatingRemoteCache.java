@@ -161,6 +161,11 @@ public Channel addNearCacheListener(Object listener, int bloomBits) {
       return delegate.addNearCacheListener(listener, bloomBits);
    }
 
+   @Override
+   public Channel addTrackingNearCacheListener(Object listener, int maxTrackedKeys) {
+      return delegate.addTrackingNearCacheListener(listener, maxTrackedKeys);
+   }
+
    @Override
    public <T> T execute(String taskName, Map<String, ?> params) {
       return delegate.execute(taskName, params);
@@ -222,8 +227,9 @@ public CompletableFuture<MetadataValue<V>> getWithMetadataAsync(K key) {
    }
 
    @Override
-   public CompletionStage<GetWithMetadataOperation.GetWithMetadataResult<V>> getWithMetadataAsync(K key, Channel channel) {
-      return delegate.getWithMetadataAsync(key, channel);
+   public CompletionStage<GetWithMetadataOperation.GetWithMetadataResult<V>> getWithMetadataAsync(K key, Channel channel,
+                                                                                                  byte[] trackingListenerId) {
+      return delegate.getWithMetadataAsync(key, channel, trackingListenerId);
    }
 
    @Override
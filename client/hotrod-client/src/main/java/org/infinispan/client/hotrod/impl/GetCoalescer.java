@@ -0,0 +1,147 @@
+package org.infinispan.client.hotrod.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.client.hotrod.DataFormat;
+import org.infinispan.client.hotrod.impl.operations.GetAllBulkOperation;
+import org.infinispan.client.hotrod.impl.operations.HotRodOperation;
+import org.infinispan.client.hotrod.impl.transport.netty.OperationDispatcher;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+import org.infinispan.commons.marshall.WrappedByteArray;
+
+/**
+ * Coalesces the single-key gets of a remote cache that are issued within a short window.
+ * <p>
+ * The first get of a window schedules a flush on the event loop after the window elapses, the gets issued in the
+ * meantime are added to the same batch. A flush sends a single getAll request to every server that owns keys of the
+ * batch, and completes the future of every get from the response. A get of a key that is already pending or in
+ * flight shares the request of the earlier get, and so may not observe a write that completes after that request was
+ * sent.
+ * <p>
+ * A single instance is shared by the remote cache and all the instances created from it with different flags or data
+ * formats. Only the gets with the same flags and data format are added to the same batch and share requests.
+ *
+ * @since 16.0
+ */
+class GetCoalescer {
+   private static final Log log = LogFactory.getLog(GetCoalescer.class, Log.class);
+
+   private final long windowNanos;
+   // Keyed by the marshalled key, so that equal keys with the same flags and data format share a request
+   private final ConcurrentMap<InFlightKey, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+   // Guarded by this
+   private final Map<Group, Batch<?>> batches = new HashMap<>();
+
+   GetCoalescer(long windowMicros) {
+      this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+   }
+
+   @SuppressWarnings("unchecked")
+   <V> CompletableFuture<V> get(RemoteCacheImpl<?, V> remoteCache, Object key) {
+      byte[] keyBytes = remoteCache.keyToBytes(key);
+      Group group = new Group(remoteCache.flagInt, remoteCache.getDataFormat());
+      InFlightKey inFlightKey = new InFlightKey(group, new WrappedByteArray(keyBytes));
+      CompletableFuture<V> future = (CompletableFuture<V>) inFlight.get(inFlightKey);
+      if (future == null) {
+         CompletableFuture<V> newFuture = new CompletableFuture<>();
+         future = (CompletableFuture<V>) inFlight.putIfAbsent(inFlightKey, newFuture);
+         if (future == null) {
+            future = newFuture;
+            add(remoteCache, group, new PendingGet<>(key, keyBytes, inFlightKey, newFuture));
+         }
+      }
+      // Callers must not be able to complete the shared future
+      return future.copy();
+   }
+
+   @SuppressWarnings("unchecked")
+   private <V> void add(RemoteCacheImpl<?, V> remoteCache, Group group, PendingGet<V> get) {
+      Batch<V> batch;
+      boolean schedule;
+      synchronized (this) {
+         batch = (Batch<V>) batches.get(group);
+         schedule = batch == null;
+         if (schedule) {
+            // Any instance with the same flags and data format can send the requests of the batch
+            batch = new Batch<>(remoteCache, new ArrayList<>());
+            batches.put(group, batch);
+         }
+         batch.gets.add(get);
+      }
+      if (schedule) {
+         OperationDispatcher dispatcher = remoteCache.getDispatcher();
+         try {
+            dispatcher.getChannelHandler().getEventLoopGroup().schedule(() -> flush(group), windowNanos, TimeUnit.NANOSECONDS);
+         } catch (RejectedExecutionException e) {
+            // The client is stopping, let the operations fail like any other
+            flush(group);
+         }
+      }
+   }
+
+   private void flush(Group group) {
+      Batch<?> batch;
+      synchronized (this) {
+         batch = batches.remove(group);
+      }
+      flush(batch);
+   }
+
+   private <V> void flush(Batch<V> batch) {
+      RemoteCacheImpl<?, V> remoteCache = batch.remoteCache;
+      List<PendingGet<V>> gets = batch.gets;
+      if (log.isTraceEnabled()) {
+         log.tracef("Coalesced %d gets for cache %s", gets.size(), remoteCache.getName());
+      }
+      OperationDispatcher dispatcher = remoteCache.getDispatcher();
+      if (gets.size() == 1) {
+         PendingGet<V> get = gets.get(0);
+         HotRodOperation<V> op = remoteCache.getOperationsFactory().newGetOperation(get.key);
+         dispatcher.execute(op).whenComplete((value, t) -> complete(get, value, t));
+         return;
+      }
+      Map<Object, byte[]> keys = new HashMap<>(gets.size());
+      for (PendingGet<V> get : gets) {
+         keys.put(get.key, get.keyBytes);
+      }
+      GetAllBulkOperation<Object, V> op = new GetAllBulkOperation<>(keys, remoteCache.getDataFormat(),
+            remoteCache.getOperationsFactory()::newGetAllBytesOperation);
+      dispatcher.executeBulk(remoteCache.getName(), op).whenComplete((values, t) -> {
+         for (PendingGet<V> get : gets) {
+            complete(get, t == null ? values.get(get.key) : null, t);
+         }
+      });
+   }
+
+   private <V> void complete(PendingGet<V> get, V value, Throwable t) {
+      // Removed first, so that a later get sends a new request instead of reading the completed value
+      inFlight.remove(get.inFlightKey, get.future);
+      if (t != null) {
+         get.future.completeExceptionally(t);
+      } else {
+         get.future.complete(value);
+      }
+   }
+
+   // DataFormat doesn't override equals, so only the instances created with the same data format share batches
+   private record Group(int flags, DataFormat dataFormat) {
+   }
+
+   private record InFlightKey(Group group, WrappedByteArray key) {
+   }
+
+   private record Batch<V>(RemoteCacheImpl<?, V> remoteCache, List<PendingGet<V>> gets) {
+   }
+
+   private record PendingGet<V>(Object key, byte[] keyBytes, InFlightKey inFlightKey, CompletableFuture<V> future) {
+   }
+}
@@ -52,7 +52,8 @@ default boolean removeEntry(K key, V value) {
             removeWithVersion(key, versionedValue.getVersion());
    }
 
-   CompletionStage<GetWithMetadataOperation.GetWithMetadataResult<V>> getWithMetadataAsync(K key, Channel channel);
+   CompletionStage<GetWithMetadataOperation.GetWithMetadataResult<V>> getWithMetadataAsync(K key, Channel channel,
+                                                                                           byte[] trackingListenerId);
 
    @Override
    InternalRemoteCache<K, V> withFlags(Flag... flags);
@@ -96,6 +97,13 @@ default void resolveStorage(MediaType key, MediaType value) {
     */
    Channel addNearCacheListener(Object listener, int bloomBits);
 
+   /**
+    * Add a client listener to handle near cache with server side key tracking. The server only sends invalidations
+    * for the keys read through the returned channel.
+    * The listener object must be annotated with @{@link org.infinispan.client.hotrod.annotation.ClientListener} annotation.
+    */
+   Channel addTrackingNearCacheListener(Object listener, int maxTrackedKeys);
+
    /**
     * Sends the current bloom filter to the listener node where a near cache listener is installed. If this
     * cache does not have near caching this will return an already completed stage.
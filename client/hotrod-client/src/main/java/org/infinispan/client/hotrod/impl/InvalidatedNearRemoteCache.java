@@ -94,7 +94,8 @@ public CompletableFuture<MetadataValue<V>> getWithMetadataAsync(K key) {
          MetadataValue<V> calculatingPlaceholder = new MetadataValueImpl<>(-1, -1, -1, -1, -1, null);
          boolean cache = nearcache.putIfAbsent(key, calculatingPlaceholder);
          int prevVersion = getCurrentVersion();
-         CompletionStage<GetWithMetadataOperation.GetWithMetadataResult<V>> remoteValue = super.getWithMetadataAsync(key, listenerChannel);
+         CompletionStage<GetWithMetadataOperation.GetWithMetadataResult<V>> remoteValue = super.getWithMetadataAsync(key, listenerChannel,
+               nearcache.getTrackingListenerId());
          // If previous version is odd we can't cache as that means it was started during
          // a bloom filter update.
          if (!cache || (prevVersion & 1) == 1) {
@@ -301,4 +302,11 @@ public Channel addNearCacheListener(Object listener, int bloomBits) {
             bloomBits);
       return getDispatcher().await(getDispatcher().executeAddListener(op));
    }
+
+   @Override
+   public Channel addTrackingNearCacheListener(Object listener, int maxTrackedKeys) {
+      ClientListenerOperation op = getOperationsFactory().newAddTrackingNearCacheListenerOperation(listener,
+            maxTrackedKeys);
+      return getDispatcher().await(getDispatcher().executeAddListener(op));
+   }
 }
@@ -86,6 +86,8 @@
 import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Maybe;
 import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.processors.FlowableProcessor;
+import io.reactivex.rxjava3.processors.UnicastProcessor;
 
 /**
  * @author Mircea.Markus@jboss.com
@@ -106,6 +108,7 @@
    protected DataFormat dataFormat;
    protected ClientStatistics clientStatistics;
    protected ObjectName mbeanObjectName;
+   private final GetCoalescer getCoalescer;
 
    public RemoteCacheImpl(RemoteCacheManager rcm, String name, TimeService timeService,
                           Function<InternalRemoteCache<K,V>, CacheOperationsFactory> factoryFunction) {
@@ -114,6 +117,14 @@ public RemoteCacheImpl(RemoteCacheManager rcm, String name, TimeService timeServ
 
    public RemoteCacheImpl(RemoteCacheManager rcm, String name, TimeService timeService, NearCacheService<K, V> nearCacheService,
                           Function<InternalRemoteCache<K,V>, CacheOperationsFactory> factoryFunction) {
+      this(rcm, name, timeService, nearCacheService, factoryFunction, 0);
+   }
+
+   /**
+    * @param coalesceGetsWindow the window in microseconds during which concurrent gets are coalesced, 0 to disable it
+    */
+   public RemoteCacheImpl(RemoteCacheManager rcm, String name, TimeService timeService, NearCacheService<K, V> nearCacheService,
+                          Function<InternalRemoteCache<K,V>, CacheOperationsFactory> factoryFunction, long coalesceGetsWindow) {
       if (log.isTraceEnabled()) {
          log.tracef("Creating remote cache: %s", name);
       }
@@ -126,6 +137,7 @@ public RemoteCacheImpl(RemoteCacheManager rcm, String name, TimeService timeServ
       this.clientListenerNotifier = rcm.getListenerNotifier();
       this.flagInt = rcm.getConfiguration().forceReturnValues() ? Flag.FORCE_RETURN_VALUE.getFlagInt() : 0;
       this.queryFactory = new RemoteQueryFactory(this);
+      this.getCoalescer = coalesceGetsWindow > 0 ? new GetCoalescer(coalesceGetsWindow) : null;
    }
 
    protected RemoteCacheImpl(RemoteCacheImpl<?, ?> other, int flagInt) {
@@ -145,6 +157,8 @@ protected RemoteCacheImpl(RemoteCacheImpl<?, ?> other, int flagInt) {
       this.batchSize = other.batchSize;
       this.dispatcher = other.dispatcher;
       this.queryFactory = new RemoteQueryFactory(this);
+      // Gets are only coalesced with the gets of instances with the same flags and data format
+      this.getCoalescer = other.getCoalescer;
    }
 
    @Override
@@ -277,16 +291,17 @@ public Publisher<Entry<K, MetadataValue<V>>> publishEntriesWithMetadata(Set<Inte
    @Override
    public CompletableFuture<MetadataValue<V>> getWithMetadataAsync(K key) {
       assertRemoteCacheManagerIsStarted();
-      var op = operationsFactory.<K, V>newGetWithMetadataOperation(key, null);
+      var op = operationsFactory.<K, V>newGetWithMetadataOperation(key, null, null);
       return dispatcher.execute(op)
             .thenApply(GetWithMetadataOperation.GetWithMetadataResult::value)
             .toCompletableFuture();
    }
 
    @Override
-   public CompletionStage<GetWithMetadataOperation.GetWithMetadataResult<V>> getWithMetadataAsync(K key, Channel channel) {
+   public CompletionStage<GetWithMetadataOperation.GetWithMetadataResult<V>> getWithMetadataAsync(K key, Channel channel,
+                                                                                                  byte[] trackingListenerId) {
       assertRemoteCacheManagerIsStarted();
-      var op = operationsFactory.<K, V>newGetWithMetadataOperation(key, channel);
+      var op = operationsFactory.<K, V>newGetWithMetadataOperation(key, channel, trackingListenerId);
       return channel != null ?
             dispatcher.executeOnSingleAddress(op, ChannelRecord.of(channel)) :
             dispatcher.execute(op);
@@ -607,6 +622,11 @@ public Channel addNearCacheListener(Object listener, int bloomBits) {
       throw new UnsupportedOperationException("Adding a near cache listener to a RemoteCache is not supported!");
    }
 
+   @Override
+   public Channel addTrackingNearCacheListener(Object listener, int maxTrackedKeys) {
+      throw new UnsupportedOperationException("Adding a near cache listener to a RemoteCache is not supported!");
+   }
+
    @Override
    public void removeClientListener(Object listener) {
       assertRemoteCacheManagerIsStarted();
@@ -674,6 +694,10 @@ public ClientListenerNotifier getListenerNotifier() {
    @Override
    public CompletableFuture<V> getAsync(Object key) {
       assertRemoteCacheManagerIsStarted();
+      // Array keys cannot be matched with the keys of a getAll response
+      if (getCoalescer != null && !key.getClass().isArray()) {
+         return getCoalescer.get(this, key);
+      }
       HotRodOperation<V> op = operationsFactory.newGetOperation(key);
       if (log.isTraceEnabled()) {
          op.asCompletableFuture().thenAccept(value -> log.tracef("For key(%s) returning %s", key, value));
@@ -852,7 +876,7 @@ public CompletionStage<V> get(K key, CacheOptions options) {
    @Override
    public CompletionStage<CacheEntry<K, V>> getEntry(K key, CacheOptions options) {
       assertRemoteCacheManagerIsStarted();
-      HotRodOperation<GetWithMetadataOperation.GetWithMetadataResult<V>> op = operationsFactory.newGetWithMetadataOperation(key, null);
+      HotRodOperation<GetWithMetadataOperation.GetWithMetadataResult<V>> op = operationsFactory.newGetWithMetadataOperation(key, null, null);
       return dispatcher.execute(new AdvancedHotRodOperation<>(op, options))
             .thenApply(GetWithMetadataOperation.GetWithMetadataResult::value)
             .thenApply(CacheEntryConversion.createCacheEntry(key));
@@ -987,12 +1011,21 @@ public Flow.Publisher<CacheEntry<K, V>> getAll(Set<K> keys, CacheOptions options
       if (log.isTraceEnabled()) {
          log.tracef("About to getAll entries (%s)", keys);
       }
-      var op = new GetAllBulkOperation<K, V>(keys, dataFormat, serialized ->
-            new AdvancedHotRodOperation<>(operationsFactory.newGetAllBytesOperation(serialized), options));
-      CompletionStage<Map<K, V>> cs = dispatcher.executeBulk(name, op)
-            .thenApply(Collections::unmodifiableMap);
       // FIXME: getAllOperation doesn't include entry metadata.
-      Flowable<CacheEntry<K, V>> flowable = Flowable.defer(() -> Flowable.fromCompletionStage(cs))
+      Flowable<CacheEntry<K, V>> flowable = Flowable.defer(() -> {
+               // The entries are emitted as every frame of the responses is received, from the event loop
+               FlowableProcessor<Map<K, V>> processor = UnicastProcessor.<Map<K, V>>create().toSerialized();
+               var op = new GetAllBulkOperation<K, V>(keys, dataFormat, serialized ->
+                     new AdvancedHotRodOperation<>(operationsFactory.newGetAllBytesOperation(serialized, processor::onNext), options));
+               dispatcher.executeBulk(name, op).whenComplete((ignore, t) -> {
+                  if (t != null) {
+                     processor.onError(t);
+                  } else {
+                     processor.onComplete();
+                  }
+               });
+               return processor;
+            })
             .concatMapIterable(Map::entrySet)
             .map(e -> new CacheEntryImpl<>(e.getKey(), e.getValue(), null));
       return FlowAdapters.toFlowPublisher(flowable);
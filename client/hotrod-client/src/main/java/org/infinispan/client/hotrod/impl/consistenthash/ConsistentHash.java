@@ -17,6 +17,16 @@ public interface ConsistentHash {
 
    SocketAddress getServer(Object key);
 
+   /**
+    * Returns all the owners of the given key, starting with the server returned by {@link #getServer(Object)}.
+    * The returned array must not be modified.
+    *
+    * @return the owners of the key, or {@code null} if only the primary owner is known
+    */
+   default SocketAddress[] getOwners(Object key) {
+      return null;
+   }
+
    /**
     * Computes hash code of a given object, and then normalizes it to ensure a positive
     * value is always returned.
@@ -46,6 +46,11 @@ public SocketAddress getServer(Object key) {
       return server;
    }
 
+   @Override
+   public SocketAddress[] getOwners(Object key) {
+      return segmentOwners[getSegment(key)];
+   }
+
    public int getSegment(Object key) {
       // The result must always be positive, so we make sure the dividend is positive first
       return getNormalizedHash(key) / segmentSize;
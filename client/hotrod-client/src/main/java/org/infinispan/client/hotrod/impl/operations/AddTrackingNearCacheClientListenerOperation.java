@@ -0,0 +1,58 @@
+package org.infinispan.client.hotrod.impl.operations;
+
+import org.infinispan.client.hotrod.impl.InternalRemoteCache;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.transport.netty.ByteBufUtil;
+import org.infinispan.client.hotrod.impl.transport.netty.HeaderDecoder;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+
+/**
+ * Adds a near cache listener for which the server tracks the keys read through the same channel. The server sends
+ * the invalidations of the tracked keys in batches, as the data of raw custom events.
+ *
+ * @since 16.0
+ */
+public class AddTrackingNearCacheClientListenerOperation extends ClientListenerOperation {
+
+   private final int maxTrackedKeys;
+
+   protected AddTrackingNearCacheClientListenerOperation(InternalRemoteCache<?, ?> remoteCache, Object listener,
+                                                         int maxTrackedKeys) {
+      super(remoteCache, listener);
+      this.maxTrackedKeys = maxTrackedKeys;
+   }
+
+   private AddTrackingNearCacheClientListenerOperation(InternalRemoteCache<?, ?> remoteCache, Object listener,
+                                                       byte[] listenerId, int maxTrackedKeys) {
+      super(remoteCache, listener, listenerId);
+      this.maxTrackedKeys = maxTrackedKeys;
+   }
+
+   @Override
+   public void writeOperationRequest(Channel channel, ByteBuf buf, Codec codec) {
+      ByteBufUtil.writeArray(buf, listenerId);
+      ByteBufUtil.writeVInt(buf, maxTrackedKeys);
+   }
+
+   @Override
+   public Channel createResponse(ByteBuf buf, short status, HeaderDecoder decoder, Codec codec, CacheUnmarshaller unmarshaller) {
+      return decoder.getChannel();
+   }
+
+   @Override
+   public short requestOpCode() {
+      return ADD_TRACKING_NEAR_CACHE_LISTENER_REQUEST;
+   }
+
+   @Override
+   public short responseOpCode() {
+      return ADD_TRACKING_NEAR_CACHE_LISTENER_RESPONSE;
+   }
+
+   @Override
+   public ClientListenerOperation copy() {
+      return new AddTrackingNearCacheClientListenerOperation(internalRemoteCache, listener, listenerId, maxTrackedKeys);
+   }
+}
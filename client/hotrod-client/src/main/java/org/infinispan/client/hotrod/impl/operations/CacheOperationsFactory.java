@@ -4,6 +4,7 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import javax.transaction.xa.Xid;
 
@@ -86,7 +87,9 @@ HotRodOperation<Void> newPutAllBytesOperation(Map<byte[], byte[]> map, long life
     */
    <K, V> HotRodOperation<Map<K, V>> newGetAllBytesOperation(Set<byte[]> keys);
 
-   <K, V> HotRodOperation<GetWithMetadataOperation.GetWithMetadataResult<V>> newGetWithMetadataOperation(K key, Channel channel);
+   <K, V> HotRodOperation<Map<K, V>> newGetAllBytesOperation(Set<byte[]> keys, Consumer<Map<K, V>> chunkConsumer);
+
+   <K, V> HotRodOperation<GetWithMetadataOperation.GetWithMetadataResult<V>> newGetWithMetadataOperation(K key, Channel channel, byte[] trackingListenerId);
 
    <K, V> HotRodOperation<VersionedOperationResponse<V>> newReplaceIfUnmodifiedOperation(K key, V value, long lifespan,
                                                                                          TimeUnit lifespanTimeUnit, long maxIdle,
@@ -98,6 +101,8 @@ <K, V> HotRodOperation<VersionedOperationResponse<V>> newReplaceIfUnmodifiedOper
 
    ClientListenerOperation newAddNearCacheListenerOperation(Object listener, int bloomBits);
 
+   ClientListenerOperation newAddTrackingNearCacheListenerOperation(Object listener, int maxTrackedKeys);
+
    <T> QueryOperation<T> newQueryOperation(RemoteQuery<T> ts, boolean withHitCount);
 
    AddClientListenerOperation newAddClientListenerOperation(Object listener);
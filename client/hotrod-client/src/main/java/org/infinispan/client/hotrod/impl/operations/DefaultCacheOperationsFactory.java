@@ -5,6 +5,7 @@
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import javax.transaction.xa.Xid;
 
@@ -140,8 +141,8 @@ public HotRodOperation<Integer> newSizeOperation() {
    }
 
    @Override
-   public <K, V> HotRodOperation<GetWithMetadataOperation.GetWithMetadataResult<V>> newGetWithMetadataOperation(K key, Channel channel) {
-      return new GetWithMetadataOperation<>(remoteCache, remoteCache.getDataFormat().keyToBytes(key), channel);
+   public <K, V> HotRodOperation<GetWithMetadataOperation.GetWithMetadataResult<V>> newGetWithMetadataOperation(K key, Channel channel, byte[] trackingListenerId) {
+      return new GetWithMetadataOperation<>(remoteCache, remoteCache.getDataFormat().keyToBytes(key), channel, trackingListenerId);
    }
 
    @Override
@@ -167,6 +168,11 @@ public <K, V> GetAllOperation<K, V> newGetAllBytesOperation(Set<byte[]> keys) {
       return new GetAllOperation<>(remoteCache, keys);
    }
 
+   @Override
+   public <K, V> GetAllOperation<K, V> newGetAllBytesOperation(Set<byte[]> keys, Consumer<Map<K, V>> chunkConsumer) {
+      return new GetAllOperation<>(remoteCache, keys, chunkConsumer);
+   }
+
    @Override
    public HotRodOperation<Void> newUpdateBloomFilterOperation(byte[] bloomFilterBits) {
       return new UpdateBloomFilterOperation(remoteCache, bloomFilterBits);
@@ -177,6 +183,11 @@ public ClientListenerOperation newAddNearCacheListenerOperation(Object listener,
       return new AddBloomNearCacheClientListenerOperation(remoteCache, listener, bloomBits);
    }
 
+   @Override
+   public ClientListenerOperation newAddTrackingNearCacheListenerOperation(Object listener, int maxTrackedKeys) {
+      return new AddTrackingNearCacheClientListenerOperation(remoteCache, listener, maxTrackedKeys);
+   }
+
    @Override
    public <T> QueryOperation<T> newQueryOperation(RemoteQuery<T> ts, boolean withHitCount) {
       return new QueryOperation<>(remoteCache, ts, withHitCount);
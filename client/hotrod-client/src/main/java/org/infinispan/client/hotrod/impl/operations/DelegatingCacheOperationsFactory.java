@@ -4,6 +4,7 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import javax.transaction.xa.Xid;
 
@@ -124,8 +125,8 @@ public HotRodOperation<Void> newPutAllBytesOperation(Map<byte[], byte[]> map, lo
    }
 
    @Override
-   public <K, V> HotRodOperation<GetWithMetadataOperation.GetWithMetadataResult<V>> newGetWithMetadataOperation(K key, Channel preferredChannel) {
-      return delegate.newGetWithMetadataOperation(key, preferredChannel);
+   public <K, V> HotRodOperation<GetWithMetadataOperation.GetWithMetadataResult<V>> newGetWithMetadataOperation(K key, Channel preferredChannel, byte[] trackingListenerId) {
+      return delegate.newGetWithMetadataOperation(key, preferredChannel, trackingListenerId);
    }
 
    @Override
@@ -143,6 +144,11 @@ public <K, V> HotRodOperation<Map<K, V>> newGetAllBytesOperation(Set<byte[]> key
       return delegate.newGetAllBytesOperation(keys);
    }
 
+   @Override
+   public <K, V> HotRodOperation<Map<K, V>> newGetAllBytesOperation(Set<byte[]> keys, Consumer<Map<K, V>> chunkConsumer) {
+      return delegate.newGetAllBytesOperation(keys, chunkConsumer);
+   }
+
    @Override
    public HotRodOperation<Void> newUpdateBloomFilterOperation(byte[] bloomFilterBits) {
       return delegate.newUpdateBloomFilterOperation(bloomFilterBits);
@@ -153,6 +159,11 @@ public ClientListenerOperation newAddNearCacheListenerOperation(Object listener,
       return delegate.newAddNearCacheListenerOperation(listener, bloomBits);
    }
 
+   @Override
+   public ClientListenerOperation newAddTrackingNearCacheListenerOperation(Object listener, int maxTrackedKeys) {
+      return delegate.newAddTrackingNearCacheListenerOperation(listener, maxTrackedKeys);
+   }
+
    @Override
    public <T> QueryOperation<T> newQueryOperation(RemoteQuery<T> ts, boolean withHitCount) {
       return delegate.newQueryOperation(ts, withHitCount);
@@ -14,11 +14,23 @@
 
 public class GetAllBulkOperation<K, V> extends HotRodBulkOperation<Set<byte[]>, Map<K, V>, HotRodOperation<Map<K, V>>> {
    private final Set<?> keys;
+   private final Map<?, byte[]> marshalledKeys;
 
    public GetAllBulkOperation(Set<?> keys, DataFormat dataFormat,
                               Function<Set<byte[]>, HotRodOperation<Map<K, V>>> setGetAllOperationFunction) {
       super(dataFormat, setGetAllOperationFunction);
       this.keys = keys;
+      this.marshalledKeys = null;
+   }
+
+   /**
+    * Creates an operation for keys that were already marshalled with the given data format.
+    */
+   public GetAllBulkOperation(Map<?, byte[]> marshalledKeys, DataFormat dataFormat,
+                              Function<Set<byte[]>, HotRodOperation<Map<K, V>>> setGetAllOperationFunction) {
+      super(dataFormat, setGetAllOperationFunction);
+      this.keys = marshalledKeys.keySet();
+      this.marshalledKeys = marshalledKeys;
    }
 
    @Override
@@ -26,7 +38,7 @@ protected Map<SocketAddress, HotRodOperation<Map<K, V>>> gatherOperations(
          Function<Object, SocketAddress> routingFunction) {
       Map<SocketAddress, Set<byte[]>> serializedKeys = new HashMap<>();
       for (Object key : keys) {
-         byte[] bytes = dataFormat.keyToBytes(key);
+         byte[] bytes = marshalledKeys != null ? marshalledKeys.get(key) : dataFormat.keyToBytes(key);
          SocketAddress socketAddress = getAddressForKey(key, bytes, routingFunction);
          Set<byte[]> keyBytes = serializedKeys.computeIfAbsent(socketAddress, ___ -> new HashSet<>());
          keyBytes.add(bytes);
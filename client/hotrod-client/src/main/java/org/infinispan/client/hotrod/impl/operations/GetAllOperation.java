@@ -3,6 +3,7 @@
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import org.infinispan.client.hotrod.impl.ClientStatistics;
 import org.infinispan.client.hotrod.impl.InternalRemoteCache;
@@ -21,12 +22,26 @@
  */
 public class GetAllOperation<K, V> extends AbstractCacheOperation<Map<K, V>> {
 
+   private final Consumer<Map<K, V>> chunkConsumer;
    private Map<K, V> result;
    private int size = -1;
+   private int read;
+   private int entries;
+   private boolean consumed;
 
    public GetAllOperation(InternalRemoteCache<?, ?> remoteCache, Set<byte[]> keys) {
+      this(remoteCache, keys, null);
+   }
+
+   /**
+    * Creates an operation that passes the entries to the consumer as they are received. When the server splits the
+    * response into several frames, the consumer is invoked once per frame and the operation completes with an empty
+    * map.
+    */
+   public GetAllOperation(InternalRemoteCache<?, ?> remoteCache, Set<byte[]> keys, Consumer<Map<K, V>> chunkConsumer) {
       super(remoteCache);
       this.keys = keys;
+      this.chunkConsumer = chunkConsumer;
    }
 
    protected final Set<byte[]> keys;
@@ -39,9 +54,17 @@ public void writeOperationRequest(Channel channel, ByteBuf buf, Codec codec) {
       }
    }
 
+   @Override
+   public boolean supportRetry() {
+      // Entries already passed to the consumer would be received twice
+      return !consumed;
+   }
+
    @Override
    public void reset() {
       size = -1;
+      read = 0;
+      entries = 0;
       result = null;
    }
 
@@ -49,22 +72,39 @@ public void reset() {
    public Map<K, V> createResponse(ByteBuf buf, short status, HeaderDecoder decoder, Codec codec, CacheUnmarshaller unmarshaller) {
       if (size < 0) {
          size = ByteBufUtil.readVInt(buf);
-         result = new HashMap<>(size);
+         read = 0;
+         if (result == null) {
+            result = new HashMap<>(size);
+         }
          decoder.checkpoint();
       }
-      while (result.size() < size) {
+      while (read < size) {
          K key = unmarshaller.readKey(buf);
          V value = unmarshaller.readValue(buf);
          result.put(key, value);
+         read++;
          decoder.checkpoint();
       }
-      return result;
+      boolean more = codec.isChunkedGetAllResponse() && buf.readBoolean();
+      entries += size;
+      size = -1;
+      if (chunkConsumer != null) {
+         consumed = true;
+         chunkConsumer.accept(result);
+         result = null;
+      }
+      if (more) {
+         decoder.expectMoreResponses();
+         return null;
+      }
+      // The bulk operation merges the results of every server into the first one
+      return result != null ? result : new HashMap<>();
    }
 
    @Override
    public void handleStatsCompletion(ClientStatistics statistics, long startTime, short status, Map<K, V> responseValue) {
-      statistics.dataRead(true, startTime, responseValue.size());
-      statistics.dataRead(false, startTime, keys.size() - responseValue.size());
+      statistics.dataRead(true, startTime, entries);
+      statistics.dataRead(false, startTime, keys.size() - entries);
    }
 
    @Override
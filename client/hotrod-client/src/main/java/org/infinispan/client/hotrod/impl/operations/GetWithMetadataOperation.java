@@ -1,5 +1,8 @@
 package org.infinispan.client.hotrod.impl.operations;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.infinispan.client.hotrod.MetadataValue;
 import org.infinispan.client.hotrod.impl.ClientStatistics;
 import org.infinispan.client.hotrod.impl.InternalRemoteCache;
@@ -28,11 +31,29 @@
    private static final Log log = LogFactory.getLog(GetWithMetadataOperation.class);
 
    private final Channel preferredChannel;
+   private final byte[] trackingListenerId;
 
    public GetWithMetadataOperation(InternalRemoteCache<?, ?> remoteCache, byte[] keyBytes, Channel preferredChannel) {
+      this(remoteCache, keyBytes, preferredChannel, null);
+   }
+
+   public GetWithMetadataOperation(InternalRemoteCache<?, ?> remoteCache, byte[] keyBytes, Channel preferredChannel,
+                                   byte[] trackingListenerId) {
       super(remoteCache, keyBytes);
       // We should always be passing resolved addresses here to confirm it matches
       this.preferredChannel = preferredChannel;
+      this.trackingListenerId = trackingListenerId;
+   }
+
+   @Override
+   public Map<String, byte[]> additionalParameters() {
+      if (trackingListenerId == null) {
+         return null;
+      }
+      // The server tracks the key for the near cache listener, whichever connection the read uses
+      Map<String, byte[]> parameters = new HashMap<>();
+      parameters.put(NEAR_CACHE_LISTENER_ID_PARAM, trackingListenerId);
+      return parameters;
    }
 
    @Override
@@ -33,8 +33,8 @@ public <V> HotRodOperation<V> newGetOperation(Object key) {
    }
 
    @Override
-   public <K, V> HotRodOperation<GetWithMetadataOperation.GetWithMetadataResult<V>> newGetWithMetadataOperation(K key, Channel preferredChannel) {
-      return wrapAsNecessary(super.newGetWithMetadataOperation(key, preferredChannel), key);
+   public <K, V> HotRodOperation<GetWithMetadataOperation.GetWithMetadataResult<V>> newGetWithMetadataOperation(K key, Channel preferredChannel, byte[] trackingListenerId) {
+      return wrapAsNecessary(super.newGetWithMetadataOperation(key, preferredChannel, trackingListenerId), key);
    }
 
    @Override
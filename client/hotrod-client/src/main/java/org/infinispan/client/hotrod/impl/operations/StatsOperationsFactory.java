@@ -3,6 +3,7 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import org.infinispan.client.hotrod.Flag;
 import org.infinispan.client.hotrod.MetadataValue;
@@ -25,8 +26,8 @@ public <V> HotRodOperation<V> newGetOperation(Object key) {
    }
 
    @Override
-   public <K, V> HotRodOperation<GetWithMetadataOperation.GetWithMetadataResult<V>> newGetWithMetadataOperation(K key, Channel preferredChannel) {
-      return new StatisticOperation<>(super.newGetWithMetadataOperation(key, preferredChannel), statistics);
+   public <K, V> HotRodOperation<GetWithMetadataOperation.GetWithMetadataResult<V>> newGetWithMetadataOperation(K key, Channel preferredChannel, byte[] trackingListenerId) {
+      return new StatisticOperation<>(super.newGetWithMetadataOperation(key, preferredChannel, trackingListenerId), statistics);
    }
 
    @Override
@@ -74,6 +75,11 @@ public <K, V> HotRodOperation<Map<K, V>> newGetAllBytesOperation(Set<byte[]> key
       return new StatisticOperation<>(super.newGetAllBytesOperation(keys), statistics);
    }
 
+   @Override
+   public <K, V> HotRodOperation<Map<K, V>> newGetAllBytesOperation(Set<byte[]> keys, Consumer<Map<K, V>> chunkConsumer) {
+      return new StatisticOperation<>(super.newGetAllBytesOperation(keys, chunkConsumer), statistics);
+   }
+
    @Override
    public HotRodOperation<Boolean> newPutStreamNextOperation(int id, boolean lastChunk, ByteBuf valueBytes, Channel channel) {
       // Here solely to document this is done in the StreamingRemoteCacheImpl
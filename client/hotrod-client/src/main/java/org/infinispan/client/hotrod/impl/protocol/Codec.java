@@ -77,6 +77,14 @@ default void writeIteratorStartOperation(ByteBuf buf, IntSet segments, String fi
     */
    void writeMultimapSupportDuplicates(ByteBuf buf, boolean supportsDuplicates);
 
+   /**
+    * Returns true if the server splits the response of a getAll into several frames with the same message id, each
+    * of them followed by a boolean that is true when more frames follow.
+    */
+   default boolean isChunkedGetAllResponse() {
+      return false;
+   }
+
    /**
     * Returns true if the current codec uses a latest codec version, that could be unsafe for the initial handshake.
     * This is necessary to check interoperability between versions during the protocol negotiation.
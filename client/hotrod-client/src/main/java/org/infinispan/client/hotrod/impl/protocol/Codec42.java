@@ -0,0 +1,21 @@
+package org.infinispan.client.hotrod.impl.protocol;
+
+import org.infinispan.client.hotrod.impl.ClientTopology;
+import org.infinispan.client.hotrod.impl.operations.HotRodOperation;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * @since 16.0
+ */
+public class Codec42 extends Codec41 {
+   @Override
+   public void writeHeader(ByteBuf buf, long messageId, ClientTopology clientTopology, HotRodOperation<?> operation) {
+      writeHeader(buf, messageId, clientTopology, operation, HotRodConstants.VERSION_42);
+   }
+
+   @Override
+   public boolean isChunkedGetAllResponse() {
+      return true;
+   }
+}
@@ -24,6 +24,7 @@ public interface HotRodConstants {
    byte VERSION_31 = 31;
    byte VERSION_40 = 40;
    byte VERSION_41 = 41;
+   byte VERSION_42 = 42;
 
    //requests
    byte ILLEGAL_OP_CODE = 0x00;
@@ -62,6 +63,7 @@ public interface HotRodConstants {
 
    byte ADD_BLOOM_FILTER_NEAR_CACHE_LISTENER_REQUEST = 0x41;
    byte UPDATE_BLOOM_FILTER_REQUEST = 0x43;
+   byte ADD_TRACKING_NEAR_CACHE_LISTENER_REQUEST = 0x45;
 
    byte COUNTER_CREATE_REQUEST = 0x4B;
    byte COUNTER_GET_CONFIGURATION_REQUEST = 0x4D;
@@ -122,6 +124,7 @@ public interface HotRodConstants {
    byte ROLLBACK_RESPONSE = 0x40;
    byte ADD_BLOOM_FILTER_NEAR_CACHE_LISTENER_RESPONSE = 0x42;
    byte UPDATE_BLOOM_FILTER_RESPONSE = 0x44;
+   byte ADD_TRACKING_NEAR_CACHE_LISTENER_RESPONSE = 0x46;
    byte FORGET_TX_RESPONSE = 0x7A;
    byte FETCH_TX_RECOVERY_RESPONSE = 0x7C;
    byte PREPARE_TX_2_RESPONSE = 0x7E;
@@ -176,6 +179,9 @@ public interface HotRodConstants {
    byte[] DEFAULT_CACHE_NAME_BYTES = new byte[]{};
    String DEFAULT_CACHE_NAME = "";
 
+   // Header parameter with the id of the key tracking near cache listener a read is tracked for
+   String NEAR_CACHE_LISTENER_ID_PARAM = "near-cache-listener-id";
+
    byte INFINITE_LIFESPAN = 0x01;
    byte INFINITE_MAXIDLE = 0x02;
 
@@ -0,0 +1,156 @@
+package org.infinispan.client.hotrod.impl.topology;
+
+import java.net.SocketAddress;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.infinispan.commons.time.TimeService;
+
+/**
+ * Detects the keys of a cache that are read so often that their primary owner could become a bottleneck.
+ * <p>
+ * The reads of every key are counted with a count-min sketch, which is cleared every second. A key is hot when its
+ * estimated reads in the current second reach the threshold, and it stays hot until a second ends without it reaching
+ * the threshold again. The counters are updated without synchronization, a lost increment only delays the detection.
+ *
+ * @since 16.0
+ */
+public final class HotKeyDetector {
+   static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+   // Upper limit on the keys reported as hot, a hot key that is not reported is still spread
+   static final int MAX_HOT_KEYS = 128;
+   private static final int DEPTH = 4;
+   private static final int WIDTH = 4096;
+   private static final int[] SEEDS = {0x97cb3127, 0xc2b2ae35, 0x85ebca6b, 0x9e3779b9};
+
+   private final int threshold;
+   private final TimeService timeService;
+   private final int[] table = new int[DEPTH * WIDTH];
+   private final ConcurrentMap<Integer, HotKey> hotKeys = new ConcurrentHashMap<>();
+   private volatile long windowEnd;
+   private volatile int window;
+
+   public HotKeyDetector(int threshold, TimeService timeService) {
+      this.threshold = threshold;
+      this.timeService = timeService;
+      this.windowEnd = timeService.time() + WINDOW_NANOS;
+   }
+
+   /**
+    * Records a read of the key and selects the server that should receive it.
+    *
+    * @param key the routing object of the read
+    * @param owners the owners of the key, starting with the primary owner
+    * @param failedServers the servers that must not be selected
+    * @return one of the owners, or {@code null} if the key is not hot
+    */
+   public SocketAddress route(Object key, SocketAddress[] owners, Set<SocketAddress> failedServers) {
+      if (!recordRead(key) || owners.length < 2) {
+         return null;
+      }
+      int start = ThreadLocalRandom.current().nextInt(owners.length);
+      for (int i = 0; i < owners.length; i++) {
+         SocketAddress owner = owners[(start + i) % owners.length];
+         if (failedServers.isEmpty() || !failedServers.contains(owner)) {
+            return owner;
+         }
+      }
+      return null;
+   }
+
+   /**
+    * Records a read of the key.
+    *
+    * @return whether the key is hot
+    */
+   public boolean recordRead(Object key) {
+      long now = timeService.time();
+      if (now - windowEnd >= 0) {
+         startWindow(now);
+      }
+      int hash = spread(key instanceof byte[] ? Arrays.hashCode((byte[]) key) : key.hashCode());
+      int estimate = Integer.MAX_VALUE;
+      for (int i = 0; i < DEPTH; i++) {
+         int index = i * WIDTH + (rehash(hash, i) & (WIDTH - 1));
+         int count = table[index] + 1;
+         table[index] = count;
+         estimate = Math.min(estimate, count);
+      }
+      if (estimate >= threshold) {
+         markHot(hash, key);
+         return true;
+      }
+      return !hotKeys.isEmpty() && hotKeys.containsKey(hash);
+   }
+
+   private void markHot(int hash, Object key) {
+      HotKey hotKey = hotKeys.get(hash);
+      if (hotKey != null) {
+         hotKey.window = window;
+      } else if (hotKeys.size() < MAX_HOT_KEYS) {
+         hotKeys.putIfAbsent(hash, new HotKey(key, window));
+      }
+   }
+
+   private synchronized void startWindow(long now) {
+      if (now - windowEnd < 0) {
+         // Another thread started the window
+         return;
+      }
+      Arrays.fill(table, 0);
+      int ended = window;
+      // Keys that did not reach the threshold in the window that just ended are no longer hot
+      hotKeys.values().removeIf(hotKey -> hotKey.window != ended);
+      window = ended + 1;
+      windowEnd = now + WINDOW_NANOS;
+   }
+
+   /**
+    * @return the keys that are currently hot, or a subset of them when there are too many
+    */
+   public Set<Object> hotKeys() {
+      return hotKeys.values().stream().map(hotKey -> hotKey.key).collect(Collectors.toSet());
+   }
+
+   public int hotKeyCount() {
+      return hotKeys.size();
+   }
+
+   private static int spread(int x) {
+      x ^= x >>> 17;
+      x *= 0xed5ad4bb;
+      x ^= x >>> 11;
+      x *= 0xac4c1b51;
+      x ^= x >>> 15;
+      return x;
+   }
+
+   private static int rehash(int hash, int i) {
+      int h = hash * SEEDS[i];
+      return h ^ (h >>> 16);
+   }
+
+   private static final class HotKey {
+      final Object key;
+      // The last window in which the key reached the threshold
+      volatile int window;
+
+      HotKey(Object key, int window) {
+         this.key = key;
+         this.window = window;
+      }
+   }
+
+   @Override
+   public String toString() {
+      return "HotKeyDetector{" +
+            "threshold=" + threshold +
+            ", hotKeys=" + hotKeys.size() +
+            '}';
+   }
+}
@@ -67,6 +67,8 @@ public class HeaderDecoder extends HintedReplayingDecoder<HeaderDecoder.State> {
 
    private long messageOffset;
    private Codec codec;
+   // Set by an operation while decoding a frame that is followed by more frames with the same message id
+   private boolean moreResponses;
 
    private ScheduledFuture<?> scheduledTimeout;
 
@@ -176,6 +178,14 @@ private void scheduleTimeout(HotRodOperation<?> op, Long messageIdLong) {
       timeouts.put(messageIdLong, future);
    }
 
+   /**
+    * Invoked by an operation while creating its response, when the frame being decoded is followed by more frames with
+    * the same message id. The operation is not completed, and receives the next frame instead.
+    */
+   public void expectMoreResponses() {
+      moreResponses = true;
+   }
+
    public void refreshTimeout(HotRodOperation<?> op, long messageId) {
       // Currently only supported for AddClientListenerOperation
       assert op.isInstanceOf(AddClientListenerOperation.class);
@@ -289,10 +299,19 @@ protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
                try {
                   unmarshaller.setDataFormat(operation.getDataFormat());
                   Object resp = operation.createResponse(in, status, this, codec, unmarshaller);
-                  dispatcher.handleResponse((HotRodOperation<Object>) operation, receivedMessageId, ctx.channel(), resp, null);
+                  if (moreResponses) {
+                     moreResponses = false;
+                     // Register the operation again, to receive the next frame with a new timeout
+                     Long messageIdLong = receivedMessageId;
+                     incomplete.put(messageIdLong, operation);
+                     scheduleTimeout(operation, messageIdLong);
+                  } else {
+                     dispatcher.handleResponse((HotRodOperation<Object>) operation, receivedMessageId, ctx.channel(), resp, null);
+                  }
                } catch (Signal signal) {
                   throw signal;
                } catch (Throwable t) {
+                  moreResponses = false;
                   dispatcher.handleResponse(operation, receivedMessageId, ctx.channel(), null, t);
                }
                checkpoint(State.READ_MESSAGE_ID);
@@ -16,6 +16,7 @@
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -51,6 +52,7 @@
 import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
 import org.infinispan.client.hotrod.impl.topology.CacheInfo;
 import org.infinispan.client.hotrod.impl.topology.ClusterInfo;
+import org.infinispan.client.hotrod.impl.topology.HotKeyDetector;
 import org.infinispan.client.hotrod.logging.Log;
 import org.infinispan.client.hotrod.logging.LogFactory;
 import org.infinispan.commons.reactive.RxJavaInterop;
@@ -109,6 +111,8 @@ public class OperationDispatcher {
 
    private final ClientListenerNotifier clientListenerNotifier;
    private final CounterTracker totalRetriesMetric;
+   // Only contains the caches that detect hot keys
+   private final ConcurrentMap<String, HotKeyDetector> hotKeyDetectors = new ConcurrentHashMap<>();
    private volatile boolean isRunning;
    private final long awaitTimeout;
 
@@ -198,6 +202,13 @@ public TimeService getTimeService() {
       return timeService;
    }
 
+   /**
+    * Starts detecting the hot keys of the cache, so that their reads are spread across all the owners.
+    */
+   public HotKeyDetector getOrCreateHotKeyDetector(String cacheName, int threshold) {
+      return hotKeyDetectors.computeIfAbsent(cacheName, ___ -> new HotKeyDetector(threshold, timeService));
+   }
+
    public ClientListenerNotifier getClientListenerNotifier() {
       return clientListenerNotifier;
    }
@@ -282,7 +293,8 @@ private <E> CompletionStage<E> execute(HotRodOperation<E> operation, Set<SocketA
       Object routingObj = operation.getRoutingObject();
       SocketAddress targetAddress = null;
       if (routingObj != null) {
-         targetAddress = addressForObject(routingObj, operation.getCacheName(), opFailedServers);
+         targetAddress = addressForObject(routingObj, operation.getCacheName(), opFailedServers,
+               !hotKeyDetectors.isEmpty() && isRead(operation));
       }
       if (targetAddress == null) {
          targetAddress = getBalancer(operation.getCacheName()).nextServer(opFailedServers);
@@ -295,9 +307,27 @@ public SocketAddress addressForObject(Object routingObject, String cacheName) {
    }
 
    protected SocketAddress addressForObject(Object routingObject, String cacheName, Set<SocketAddress> opFailedServers) {
+      return addressForObject(routingObject, cacheName, opFailedServers, false);
+   }
+
+   private SocketAddress addressForObject(Object routingObject, String cacheName, Set<SocketAddress> opFailedServers,
+                                          boolean read) {
       CacheInfo cacheInfo = getCacheInfo(cacheName);
       if (cacheInfo != null && cacheInfo.getConsistentHash() != null) {
-         SocketAddress server = cacheInfo.getConsistentHash().getServer(routingObject);
+         ConsistentHash ch = cacheInfo.getConsistentHash();
+         HotKeyDetector detector = read ? hotKeyDetectors.get(cacheName) : null;
+         SocketAddress[] owners = detector != null ? ch.getOwners(routingObject) : null;
+         SocketAddress server;
+         if (owners != null) {
+            // Reads of a hot key are spread across all the owners
+            server = detector.route(routingObject, owners, opFailedServers);
+            if (server != null) {
+               return server;
+            }
+            server = owners[0];
+         } else {
+            server = ch.getServer(routingObject);
+         }
          if (server != null && !opFailedServers.contains(server)) {
             return server;
          }
@@ -305,6 +335,12 @@ protected SocketAddress addressForObject(Object routingObject, String cacheName,
       return null;
    }
 
+   private static boolean isRead(HotRodOperation<?> operation) {
+      short opCode = operation.requestOpCode();
+      return opCode == HotRodConstants.GET_REQUEST || opCode == HotRodConstants.GET_WITH_METADATA ||
+            opCode == HotRodConstants.GET_WITH_VERSION || opCode == HotRodConstants.CONTAINS_KEY_REQUEST;
+   }
+
    public <E> CompletionStage<E> executeOnSingleAddress(HotRodOperation<E> operation, SocketAddress socketAddress) {
       // We do an empty check, as contains will perform hashCode on the socketAddress creating a String object
       if (!connectionFailedServers.isEmpty() && connectionFailedServers.contains(socketAddress)) {
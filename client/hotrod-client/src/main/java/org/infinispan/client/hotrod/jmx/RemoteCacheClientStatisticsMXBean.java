@@ -71,11 +71,23 @@ public interface RemoteCacheClientStatisticsMXBean {
     */
    long getNearCacheInvalidations();
 
+   /**
+    * Returns the number of entries evicted from the near-cache because it was full. Returns a value of 0 if
+    * near-caching is disabled.
+    */
+   long getNearCacheEvictions();
+
    /**
     * Returns the number of entries currently stored in the near-cache. Returns a value of 0 if near-caching is disabled.
     */
    long getNearCacheSize();
 
+   /**
+    * Returns the number of keys whose reads are currently spread across all their owners because they are read too
+    * often. Returns a value of 0 if hot key detection is disabled.
+    */
+   long getHotKeyCount();
+
    /**
     * Resets statistics.
     */
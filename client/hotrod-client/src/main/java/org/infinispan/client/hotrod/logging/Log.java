@@ -461,4 +461,22 @@ public interface Log extends BasicLogger {
    @Message(value = "Error raised when retrieving errors of schemas %s", id = 4126)
    void schemasInErrorRetrieveFailure(String schemas, @Cause Throwable throwable);
 
+   @Message(value = "Invalid get coalescing window %d, it must be 0 or positive", id = 4127)
+   CacheConfigurationException invalidGetCoalescingWindow(long window);
+
+   @Message(value = "Near cache of cache '%s' cannot use both the bloom filter and key tracking", id = 4128)
+   CacheConfigurationException nearCacheBloomFilterWithKeyTracking(String cacheName);
+
+   @Message(value = "Near cache of cache '%s' cannot be bounded by both the number of entries and their size in bytes", id = 4129)
+   CacheConfigurationException nearCacheMaxEntriesWithMaxBytes(String cacheName);
+
+   @Message(value = "Near cache of cache '%s' must be bounded by size in bytes to store its values off-heap", id = 4130)
+   CacheConfigurationException nearCacheOffHeapRequiresMaxBytes(String cacheName);
+
+   @Message(value = "Invalid hot key threshold %d, it must be 0 or positive", id = 4131)
+   CacheConfigurationException invalidHotKeyThreshold(int threshold);
+
+   @Message(value = "Invalid near cache tracked keys multiplier %d, it must be positive", id = 4132)
+   CacheConfigurationException invalidNearCacheTrackedKeysMultiplier(int multiplier);
+
 }
@@ -29,6 +29,12 @@ private BoundedConcurrentMapNearCache(Cache<K, MetadataValue<V>> cache) {
 
    public static <K, V> NearCache<K, V> create(final NearCacheConfiguration config,
                                                BiConsumer<? super K, ? super MetadataValue<V>> removedConsumer) {
+      return create(config, removedConsumer, null);
+   }
+
+   static <K, V> NearCache<K, V> create(final NearCacheConfiguration config,
+                                        BiConsumer<? super K, ? super MetadataValue<V>> removedConsumer,
+                                        Runnable evictionListener) {
       Cache<K, MetadataValue<V>> cache = Caffeine.newBuilder()
             .maximumSize(config.maxEntries())
             // Always run in the same thread to make operations synchronous
@@ -37,6 +43,9 @@ public static <K, V> NearCache<K, V> create(final NearCacheConfiguration config,
                if (cause != RemovalCause.REPLACED) {
                   removedConsumer.accept(key, value);
                }
+               if (cause.wasEvicted() && evictionListener != null) {
+                  evictionListener.run();
+               }
             })
             .build();
       return new BoundedConcurrentMapNearCache<>(cache);
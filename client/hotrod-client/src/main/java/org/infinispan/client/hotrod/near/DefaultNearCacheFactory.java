@@ -2,8 +2,10 @@
 
 import java.util.function.BiConsumer;
 
+import org.infinispan.client.hotrod.DataFormat;
 import org.infinispan.client.hotrod.MetadataValue;
 import org.infinispan.client.hotrod.configuration.NearCacheConfiguration;
+import org.infinispan.commons.configuration.ClassAllowList;
 
 /**
  * @since 14.0
@@ -18,6 +20,17 @@ public <K, V> NearCache<K, V> createNearCache(NearCacheConfiguration config, BiC
             : ConcurrentMapNearCache.create();
    }
 
+   @Override
+   public <K, V> NearCache<K, V> createNearCache(NearCacheConfiguration config, DataFormat dataFormat, ClassAllowList allowList,
+                                                 BiConsumer<K, MetadataValue<V>> removedConsumer, Runnable evictionListener) {
+      if (config.maxBytes() > 0) {
+         return WeightedConcurrentMapNearCache.create(config, dataFormat, allowList, removedConsumer, evictionListener);
+      }
+      return config.maxEntries() > 0
+            ? BoundedConcurrentMapNearCache.create(config, removedConsumer, evictionListener)
+            : ConcurrentMapNearCache.create();
+   }
+
    @Override
    public String toString() {
       return "DefaultNearCacheFactory{}";
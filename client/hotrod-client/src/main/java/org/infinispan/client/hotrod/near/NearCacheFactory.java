@@ -2,12 +2,30 @@
 
 import java.util.function.BiConsumer;
 
+import org.infinispan.client.hotrod.DataFormat;
 import org.infinispan.client.hotrod.MetadataValue;
 import org.infinispan.client.hotrod.configuration.NearCacheConfiguration;
+import org.infinispan.commons.configuration.ClassAllowList;
 
 /**
  * @since 14.0
  **/
 public interface NearCacheFactory {
    <K,V> NearCache<K, V> createNearCache(NearCacheConfiguration config, BiConsumer<K, MetadataValue<V>> removedConsumer);
+
+   /**
+    * Creates a near cache that can marshall its values with the data format of the remote cache, to bound the near
+    * cache by the size of the values or to store them off-heap.
+    *
+    * @param config the near cache configuration
+    * @param dataFormat the data format of the remote cache
+    * @param allowList the classes that can be unmarshalled
+    * @param removedConsumer invoked when an entry is removed or evicted from the near cache
+    * @param evictionListener invoked when an entry is evicted from the near cache
+    * @since 16.0
+    */
+   default <K, V> NearCache<K, V> createNearCache(NearCacheConfiguration config, DataFormat dataFormat, ClassAllowList allowList,
+                                                 BiConsumer<K, MetadataValue<V>> removedConsumer, Runnable evictionListener) {
+      return createNearCache(config, removedConsumer);
+   }
 }
@@ -5,6 +5,7 @@
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 
+import org.infinispan.client.hotrod.DataFormat;
 import org.infinispan.client.hotrod.MetadataValue;
 import org.infinispan.client.hotrod.RemoteCache;
 import org.infinispan.client.hotrod.annotation.ClientCacheEntryExpired;
@@ -13,19 +14,24 @@
 import org.infinispan.client.hotrod.annotation.ClientCacheFailover;
 import org.infinispan.client.hotrod.annotation.ClientListener;
 import org.infinispan.client.hotrod.configuration.NearCacheConfiguration;
+import org.infinispan.client.hotrod.event.ClientCacheEntryCustomEvent;
 import org.infinispan.client.hotrod.event.ClientCacheEntryExpiredEvent;
 import org.infinispan.client.hotrod.event.ClientCacheEntryModifiedEvent;
 import org.infinispan.client.hotrod.event.ClientCacheEntryRemovedEvent;
 import org.infinispan.client.hotrod.event.ClientCacheFailoverEvent;
 import org.infinispan.client.hotrod.event.impl.ClientListenerNotifier;
 import org.infinispan.client.hotrod.impl.InternalRemoteCache;
+import org.infinispan.client.hotrod.impl.transport.netty.ByteBufUtil;
 import org.infinispan.client.hotrod.logging.Log;
 import org.infinispan.client.hotrod.logging.LogFactory;
+import org.infinispan.commons.configuration.ClassAllowList;
 import org.infinispan.commons.util.BloomFilter;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.MurmurHash3BloomFilter;
 import org.infinispan.commons.util.Util;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 
 /**
@@ -42,6 +48,7 @@
    private byte[] listenerId;
    private NearCache<K, V> cache;
    private Runnable invalidationCallback;
+   private Runnable evictionCallback;
    private final int bloomFilterBits;
    private final int bloomFilterUpdateThreshold;
    private final AtomicInteger nearCacheRemovals;
@@ -70,13 +77,18 @@ protected NearCacheService(NearCacheConfiguration config, ClientListenerNotifier
 
    public Channel start(InternalRemoteCache<K, V> remote) {
       if (cache == null) {
+         this.remote = remote;
          // Create near cache
          cache = createNearCache(config, this::entryRemovedFromNearCache);
          // Add a listener that updates the near cache
-         listener = new InvalidatedNearCacheListener<>(this);
-         if (bloomFilterBits > 0) {
+         if (config.keyTracking()) {
+            listener = new TrackingNearCacheListener<>(this);
+            channelUsed = remote.addTrackingNearCacheListener(listener, determineMaxTrackedKeys(config));
+         } else if (bloomFilterBits > 0) {
+            listener = new InvalidatedNearCacheListener<>(this);
             channelUsed = remote.addNearCacheListener(listener, bloomFilterBits);
          } else {
+            listener = new InvalidatedNearCacheListener<>(this);
             remote.addClientListener(listener);
          }
          // Get the listener ID for faster listener connected lookups
@@ -86,11 +98,50 @@ public Channel start(InternalRemoteCache<K, V> remote) {
       return channelUsed;
    }
 
+   /**
+    * @return the id of the listener the server tracks the keys read by this near cache for, or {@code null} if the
+    * near cache does not use key tracking
+    */
+   public byte[] getTrackingListenerId() {
+      return config.keyTracking() ? listenerId : null;
+   }
+
    private static int determineBloomFilterBits(int maxEntries) {
       int bloomFilterBitScaler = Integer.parseInt(System.getProperty("infinispan.bloom-filter.bit-multiplier", "4"));
       return maxEntries * bloomFilterBitScaler;
    }
 
+   private static int determineMaxTrackedKeys(NearCacheConfiguration config) {
+      int maxEntries = config.maxEntries();
+      if (maxEntries <= 0) {
+         // Let the server decide
+         return 0;
+      }
+      // The server is not told about the entries evicted from the near cache, so it tracks more keys than the near
+      // cache can hold before asking to clear it
+      return (int) Math.min(Integer.MAX_VALUE, (long) maxEntries * config.trackedKeysMultiplier());
+   }
+
+   /**
+    * Applies a batch of invalidations sent by the server for a near cache with key tracking.
+    */
+   void invalidate(byte[] invalidations) {
+      ByteBuf buf = Unpooled.wrappedBuffer(invalidations);
+      boolean clearAll = buf.readByte() == 1;
+      int count = ByteBufUtil.readVInt(buf);
+      if (clearAll) {
+         if (log.isTraceEnabled())
+            log.tracef("Server forgot the keys of near cache (listenerId=%s), clearing it", Util.printArray(listenerId));
+         clear();
+      }
+      DataFormat dataFormat = remote.getDataFormat();
+      ClassAllowList allowList = remote.getRemoteCacheContainer().getConfiguration().getClassAllowList();
+      for (int i = 0; i < count; i++) {
+         K key = dataFormat.keyToObj(ByteBufUtil.readArray(buf), allowList);
+         remove(key);
+      }
+   }
+
    void entryRemovedFromNearCache(K key, MetadataValue<V> value) {
       if (nearCacheRemovals == null) {
          return;
@@ -122,7 +173,14 @@ public void stop(RemoteCache<K, V> remote) {
    }
 
    protected NearCache<K, V> createNearCache(NearCacheConfiguration config, BiConsumer<K, MetadataValue<V>> removedConsumer) {
-      return config.nearCacheFactory().createNearCache(config, removedConsumer);
+      return config.nearCacheFactory().createNearCache(config, remote.getDataFormat(),
+            remote.getRemoteCacheContainer().getConfiguration().getClassAllowList(), removedConsumer, this::entryEvicted);
+   }
+
+   private void entryEvicted() {
+      if (evictionCallback != null) {
+         evictionCallback.run();
+      }
    }
 
    public static <K, V> NearCacheService<K, V> create(
@@ -221,6 +279,10 @@ public void setInvalidationCallback(Runnable r) {
       this.invalidationCallback = r;
    }
 
+   public void setEvictionCallback(Runnable r) {
+      this.evictionCallback = r;
+   }
+
    public int getBloomFilterBits() {
       return bloomFilterBits;
    }
@@ -284,4 +346,29 @@ private void invalidate(K key) {
          cache.remove(key);
       }
    }
+
+   @ClientListener
+   private static class TrackingNearCacheListener<K, V> {
+      private static final Log log = LogFactory.getLog(TrackingNearCacheListener.class);
+      private final NearCacheService<K, V> nearCache;
+
+      private TrackingNearCacheListener(NearCacheService<K, V> nearCache) {
+         this.nearCache = nearCache;
+      }
+
+      // The server sends the invalidations of the tracked keys in batches, as raw custom events
+      @ClientCacheEntryRemoved
+      @SuppressWarnings("unused")
+      public void handleInvalidations(ClientCacheEntryCustomEvent<byte[]> event) {
+         nearCache.invalidate(event.getEventData());
+      }
+
+      @ClientCacheFailover
+      @SuppressWarnings("unused")
+      public void handleFailover(ClientCacheFailoverEvent e) {
+         // The new server did not track the keys read before
+         if (log.isTraceEnabled()) log.trace("Clear near cache after fail-over of server");
+         nearCache.clear();
+      }
+   }
 }
@@ -0,0 +1,226 @@
+package org.infinispan.client.hotrod.near;
+
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import org.infinispan.client.hotrod.DataFormat;
+import org.infinispan.client.hotrod.MetadataValue;
+import org.infinispan.client.hotrod.configuration.NearCacheConfiguration;
+import org.infinispan.client.hotrod.impl.MetadataValueImpl;
+import org.infinispan.commons.configuration.ClassAllowList;
+import org.infinispan.commons.util.IteratorMapper;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Near cache bounded by the size in bytes of its values, measured as the size of their marshalled form.
+ * <p>
+ * Eviction relies on the W-TinyLFU policy of {@link Caffeine}, so a large value that is rarely read does not evict
+ * several smaller values that are read often. When configured to store the values off-heap, every value is kept
+ * marshalled in an unpooled direct {@link ByteBuf} and unmarshalled on every read. The buffer is released when the
+ * entry is removed, replaced or evicted and no read is copying it anymore.
+ *
+ * @since 16.0
+ */
+final class WeightedConcurrentMapNearCache<K, V> implements NearCache<K, V> {
+   // Rough size of the key, the stored value and the node of the cache, which are not part of the marshalled value
+   static final int ENTRY_OVERHEAD = 64;
+
+   private final ConcurrentMap<K, StoredValue<V>> map;
+   private final Cache<K, StoredValue<V>> cache;
+   private final DataFormat dataFormat;
+   private final ClassAllowList allowList;
+   private final boolean offHeap;
+
+   private WeightedConcurrentMapNearCache(Cache<K, StoredValue<V>> cache, DataFormat dataFormat, ClassAllowList allowList,
+                                          boolean offHeap) {
+      this.cache = cache;
+      this.map = cache.asMap();
+      this.dataFormat = dataFormat;
+      this.allowList = allowList;
+      this.offHeap = offHeap;
+   }
+
+   static <K, V> NearCache<K, V> create(NearCacheConfiguration config, DataFormat dataFormat, ClassAllowList allowList,
+                                        BiConsumer<? super K, ? super MetadataValue<V>> removedConsumer,
+                                        Runnable evictionListener) {
+      Cache<K, StoredValue<V>> cache = Caffeine.newBuilder()
+            .maximumWeight(config.maxBytes())
+            .<K, StoredValue<V>>weigher((key, value) -> value.weight)
+            // Always run in the same thread to make operations synchronous
+            .executor(Runnable::run)
+            .<K, StoredValue<V>>removalListener((key, value, cause) -> {
+               if (cause != RemovalCause.REPLACED) {
+                  // Off-heap values are not unmarshalled only to be discarded
+                  removedConsumer.accept(key, value.onHeap);
+               }
+               if (cause.wasEvicted() && evictionListener != null) {
+                  evictionListener.run();
+               }
+               value.release();
+            })
+            .build();
+      return new WeightedConcurrentMapNearCache<>(cache, dataFormat, allowList, config.offHeap());
+   }
+
+   @Override
+   public boolean putIfAbsent(K key, MetadataValue<V> value) {
+      StoredValue<V> stored = store(value);
+      if (map.putIfAbsent(key, stored) == null) {
+         return true;
+      }
+      stored.release();
+      return false;
+   }
+
+   @Override
+   public boolean replace(K key, MetadataValue<V> prevValue, MetadataValue<V> newValue) {
+      StoredValue<V> prevStored = map.get(key);
+      // Only the placeholders are replaced, and those are always kept on-heap
+      if (prevStored == null || prevStored.onHeap != prevValue) {
+         return false;
+      }
+      StoredValue<V> stored = store(newValue);
+      if (map.replace(key, prevStored, stored)) {
+         return true;
+      }
+      stored.release();
+      return false;
+   }
+
+   @Override
+   public boolean remove(K key) {
+      return map.remove(key) != null;
+   }
+
+   @Override
+   public boolean remove(K key, MetadataValue<V> value) {
+      StoredValue<V> stored = map.get(key);
+      return stored != null && stored.onHeap == value && map.remove(key, stored);
+   }
+
+   @Override
+   public MetadataValue<V> get(K key) {
+      StoredValue<V> stored = map.get(key);
+      return stored != null ? load(stored) : null;
+   }
+
+   @Override
+   public void clear() {
+      map.clear();
+   }
+
+   @Override
+   public int size() {
+      // Make sure to clean up any evicted entries so the returned size is correct
+      cache.cleanUp();
+      return map.size();
+   }
+
+   @Override
+   public Iterator<Map.Entry<K, MetadataValue<V>>> iterator() {
+      return new IteratorMapper<>(map.entrySet().iterator(),
+            e -> new AbstractMap.SimpleImmutableEntry<>(e.getKey(), load(e.getValue())));
+   }
+
+   private StoredValue<V> store(MetadataValue<V> value) {
+      V v = value.getValue();
+      if (v == null) {
+         // Placeholder for a value that is being read from the server
+         return new StoredValue<>(value, ENTRY_OVERHEAD);
+      }
+      byte[] bytes = dataFormat.valueToBytes(v);
+      int weight = (int) Math.min(Integer.MAX_VALUE, (long) bytes.length + ENTRY_OVERHEAD);
+      if (!offHeap) {
+         return new StoredValue<>(value, weight);
+      }
+      ByteBuf buf = Unpooled.directBuffer(bytes.length, bytes.length);
+      buf.writeBytes(bytes);
+      return new OffHeapValue<>(value, buf, weight);
+   }
+
+   private MetadataValue<V> load(StoredValue<V> stored) {
+      if (stored.onHeap != null) {
+         return stored.onHeap;
+      }
+      OffHeapValue<V> offHeapValue = (OffHeapValue<V>) stored;
+      if (!offHeapValue.acquire()) {
+         // Removed concurrently
+         return null;
+      }
+      byte[] bytes;
+      try {
+         bytes = new byte[offHeapValue.buf.readableBytes()];
+         offHeapValue.buf.getBytes(offHeapValue.buf.readerIndex(), bytes);
+      } finally {
+         offHeapValue.release();
+      }
+      return new MetadataValueImpl<>(offHeapValue.created, offHeapValue.lifespan, offHeapValue.lastUsed,
+            offHeapValue.maxIdle, offHeapValue.version, dataFormat.valueToObj(bytes, allowList));
+   }
+
+   private static class StoredValue<V> {
+      // The value when it is kept on-heap, identity is used by the conditional operations
+      final MetadataValue<V> onHeap;
+      final int weight;
+
+      StoredValue(MetadataValue<V> onHeap, int weight) {
+         this.onHeap = onHeap;
+         this.weight = weight;
+      }
+
+      void release() {
+      }
+   }
+
+   private static final class OffHeapValue<V> extends StoredValue<V> {
+      final ByteBuf buf;
+      // One reference held by the cache plus one for every read copying the buffer, the buffer is released at 0
+      private final AtomicInteger references = new AtomicInteger(1);
+      final long created;
+      final int lifespan;
+      final long lastUsed;
+      final int maxIdle;
+      final long version;
+
+      OffHeapValue(MetadataValue<V> value, ByteBuf buf, int weight) {
+         super(null, weight);
+         this.buf = buf;
+         this.created = value.getCreated();
+         this.lifespan = value.getLifespan();
+         this.lastUsed = value.getLastUsed();
+         this.maxIdle = value.getMaxIdle();
+         this.version = value.getVersion();
+      }
+
+      /**
+       * @return {@code true} if the buffer can be read until {@link #release()}, {@code false} if it was already released
+       */
+      boolean acquire() {
+         int refs;
+         do {
+            refs = references.get();
+            if (refs == 0) {
+               return false;
+            }
+         } while (!references.compareAndSet(refs, refs + 1));
+         return true;
+      }
+
+      @Override
+      void release() {
+         if (references.decrementAndGet() == 0) {
+            buf.release();
+         }
+      }
+   }
+}
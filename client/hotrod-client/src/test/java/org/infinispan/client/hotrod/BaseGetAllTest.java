@@ -6,19 +6,27 @@
 import static org.testng.AssertJUnit.assertEquals;
 
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
+import org.infinispan.api.common.CacheEntry;
+import org.infinispan.api.common.CacheOptions;
+import org.infinispan.client.hotrod.impl.InternalRemoteCache;
 import org.infinispan.client.hotrod.test.HotRodClientTestingUtil;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.server.hotrod.HotRodServer;
 import org.infinispan.test.MultipleCacheManagersTest;
+import org.reactivestreams.FlowAdapters;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.Test;
 
+import io.reactivex.rxjava3.core.Flowable;
+
 /**
  * Tests functionality related to getting multiple entries from a HotRod server
  * using getAll method.
@@ -82,6 +90,29 @@ public void testBulkGetKeys() {
       }
    }
 
+   public void testBulkGetLargeValues() {
+      // The response is larger than the size of a single frame, so the server splits it
+      String value = "v".repeat(1024);
+      Map<Integer, String> entries = new HashMap<>();
+      for (int i = 0; i < 500; i++) {
+         entries.put(i, value + i);
+      }
+      remoteCache.putAll(entries);
+      Map<Object, Object> map = remoteCache.getAll(entries.keySet());
+      assertEquals(entries, map);
+   }
+
+   public void testBulkGetPublisher() {
+      Set<Object> keys = new HashSet<>(populateCacheManager());
+      InternalRemoteCache<Object, Object> cache = (InternalRemoteCache<Object, Object>) remoteCache;
+      List<CacheEntry<Object, Object>> list = Flowable.fromPublisher(FlowAdapters.toPublisher(
+            cache.getAll(keys, CacheOptions.DEFAULT))).toList().blockingGet();
+      assertEquals(100, list.size());
+      for (CacheEntry<Object, Object> entry : list) {
+         assertEquals(entry.key(), entry.value());
+      }
+   }
+
    public void testBulkGetAfterLifespanExpire() throws InterruptedException {
       Map<String, String> dataIn = new HashMap<String, String>();
       dataIn.put("aKey", "aValue");
@@ -0,0 +1,117 @@
+package org.infinispan.client.hotrod;
+
+import static org.infinispan.test.TestingUtil.extractInterceptorChain;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotSame;
+import static org.testng.AssertJUnit.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
+import org.infinispan.client.hotrod.test.HotRodClientTestingUtil;
+import org.infinispan.client.hotrod.test.SingleHotRodServerTest;
+import org.infinispan.commands.read.GetAllCommand;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.interceptors.DDAsyncInterceptor;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the gets coalesced in a single getAll request complete with the value of their own key.
+ */
+@Test(groups = "functional", testName = "client.hotrod.GetCoalescingTest")
+public class GetCoalescingTest extends SingleHotRodServerTest {
+   private final GetAllCounter getAllCounter = new GetAllCounter();
+
+   @Override
+   protected void setup() throws Exception {
+      super.setup();
+      extractInterceptorChain(cache).addInterceptor(getAllCounter, 0);
+   }
+
+   @Override
+   protected RemoteCacheManager getRemoteCacheManager() {
+      ConfigurationBuilder builder = HotRodClientTestingUtil.newRemoteConfigurationBuilder();
+      builder.addServer().host("127.0.0.1").port(hotrodServer.getPort());
+      builder.statistics().enable();
+      // Long enough for all the gets of a test to be issued in the same window
+      builder.remoteCache("").coalesceGetsWindow(100, TimeUnit.MILLISECONDS);
+      return new RemoteCacheManager(builder.build());
+   }
+
+   public void testCoalescedGets() {
+      RemoteCache<String, String> remoteCache = remoteCacheManager.getCache();
+      for (int i = 0; i < 50; i++) {
+         remoteCache.put("k" + i, "v" + i);
+      }
+      long readsBefore = remoteCache.clientStatistics().getRemoteHits();
+      getAllCounter.count.set(0);
+
+      List<CompletableFuture<String>> futures = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+         futures.add(remoteCache.getAsync("k" + i));
+      }
+      for (int i = 0; i < 100; i++) {
+         String value = futures.get(i).join();
+         if (i < 50) {
+            assertEquals("v" + i, value);
+         } else {
+            assertNull(value);
+         }
+      }
+      assertEquals(50, remoteCache.clientStatistics().getRemoteHits() - readsBefore);
+      assertEquals(1, getAllCounter.count.get());
+   }
+
+   public void testInstancesWithSameFlagsShareBatch() {
+      RemoteCache<String, String> remoteCache = remoteCacheManager.getCache();
+      remoteCache.put("k1", "v1");
+      remoteCache.put("k2", "v2");
+      getAllCounter.count.set(0);
+
+      // Every invocation creates a new instance with the same flags and data format
+      CompletableFuture<String> first = remoteCache.withFlags(Flag.SKIP_CACHE_LOAD).getAsync("k1");
+      CompletableFuture<String> second = remoteCache.withFlags(Flag.SKIP_CACHE_LOAD).getAsync("k2");
+      assertEquals("v1", first.join());
+      assertEquals("v2", second.join());
+      assertEquals(1, getAllCounter.count.get());
+   }
+
+   public void testDuplicateGetsShareRequest() {
+      RemoteCache<String, String> remoteCache = remoteCacheManager.getCache();
+      remoteCache.put("k", "v");
+      long readsBefore = remoteCache.clientStatistics().getRemoteHits();
+
+      CompletableFuture<String> first = remoteCache.getAsync("k");
+      CompletableFuture<String> second = remoteCache.getAsync("k");
+      // Every caller gets its own future
+      assertNotSame(first, second);
+      assertEquals("v", first.join());
+      assertEquals("v", second.join());
+      assertEquals(1, remoteCache.clientStatistics().getRemoteHits() - readsBefore);
+
+      // A get after the request completed reads the new value
+      remoteCache.put("k", "v2");
+      assertEquals("v2", remoteCache.get("k"));
+   }
+
+   public void testSingleGet() {
+      RemoteCache<String, String> remoteCache = remoteCacheManager.getCache();
+      remoteCache.put("k", "v");
+      assertEquals("v", remoteCache.get("k"));
+      assertNull(remoteCache.get("missing"));
+   }
+
+   static class GetAllCounter extends DDAsyncInterceptor {
+      final AtomicInteger count = new AtomicInteger();
+
+      @Override
+      public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+         count.incrementAndGet();
+         return invokeNext(ctx, command);
+      }
+   }
+}
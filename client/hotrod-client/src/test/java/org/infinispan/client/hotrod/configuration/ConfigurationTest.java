@@ -387,6 +387,48 @@ public void testNegativeRetriesPerServer() {
       builder.build();
    }
 
+   @Test(expectedExceptions = CacheConfigurationException.class,
+         expectedExceptionsMessageRegExp = "ISPN004128: Near cache of cache 'test' cannot use both the bloom filter and key tracking")
+   public void testNearCacheBloomFilterWithKeyTracking() {
+      ConfigurationBuilder builder = HotRodClientTestingUtil.newRemoteConfigurationBuilder();
+      builder.remoteCache("test").nearCacheMode(NearCacheMode.INVALIDATED).nearCacheMaxEntries(10)
+            .nearCacheUseBloomFilter(true).nearCacheUseKeyTracking(true);
+      builder.build();
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class,
+         expectedExceptionsMessageRegExp = "ISPN004132: Invalid near cache tracked keys multiplier 0, it must be positive")
+   public void testInvalidNearCacheTrackedKeysMultiplier() {
+      ConfigurationBuilder builder = HotRodClientTestingUtil.newRemoteConfigurationBuilder();
+      builder.remoteCache("test").nearCacheMode(NearCacheMode.INVALIDATED).nearCacheMaxEntries(10)
+            .nearCacheUseKeyTracking(true).nearCacheTrackedKeysMultiplier(0);
+      builder.build();
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class,
+         expectedExceptionsMessageRegExp = "ISPN004129: Near cache of cache 'test' cannot be bounded by both the number of entries and their size in bytes")
+   public void testNearCacheMaxEntriesWithMaxBytes() {
+      ConfigurationBuilder builder = HotRodClientTestingUtil.newRemoteConfigurationBuilder();
+      builder.remoteCache("test").nearCacheMode(NearCacheMode.INVALIDATED).nearCacheMaxEntries(10).nearCacheMaxBytes(1024);
+      builder.build();
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class,
+         expectedExceptionsMessageRegExp = "ISPN004130: Near cache of cache 'test' must be bounded by size in bytes to store its values off-heap")
+   public void testNearCacheOffHeapWithoutMaxBytes() {
+      ConfigurationBuilder builder = HotRodClientTestingUtil.newRemoteConfigurationBuilder();
+      builder.remoteCache("test").nearCacheMode(NearCacheMode.INVALIDATED).nearCacheOffHeap(true);
+      builder.build();
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class,
+         expectedExceptionsMessageRegExp = "ISPN004131: Invalid hot key threshold -1, it must be 0 or positive")
+   public void testNegativeHotKeyThreshold() {
+      ConfigurationBuilder builder = HotRodClientTestingUtil.newRemoteConfigurationBuilder();
+      builder.remoteCache("test").hotKeyThreshold(-1);
+      builder.build();
+   }
+
    @Test(expectedExceptions = CacheConfigurationException.class)
    public void testMissingClusterNameDefinition() {
       ConfigurationBuilder builder = HotRodClientTestingUtil.newRemoteConfigurationBuilder();
@@ -664,10 +706,17 @@ public void testCacheNames() throws IOException {
       RemoteCacheConfiguration cache = configuration.remoteCaches().get("mycache");
       assertEquals("org.infinispan.DIST_SYNC", cache.templateName());
       assertTrue(cache.forceReturnValues());
+      assertEquals(250, cache.coalesceGetsWindow());
+      assertEquals(1000, cache.hotKeyThreshold());
       assertTrue(configuration.remoteCaches().containsKey("org.infinispan.yourcache"));
       cache = configuration.remoteCaches().get("org.infinispan.yourcache");
       assertEquals("org.infinispan.DIST_ASYNC", cache.templateName());
       assertEquals(NearCacheMode.INVALIDATED, cache.nearCacheMode());
+      assertTrue(cache.nearCacheKeyTracking());
+      assertEquals(8, cache.nearCacheTrackedKeysMultiplier());
+      assertEquals(1048576, cache.nearCacheMaxBytes());
+      assertTrue(cache.nearCacheOffHeap());
+      assertEquals(0, cache.coalesceGetsWindow());
       assertTrue(configuration.remoteCaches().containsKey("org.infinispan.*"));
       cache = configuration.remoteCaches().get("org.infinispan.*");
       assertEquals("org.infinispan.REPL_SYNC", cache.templateName());
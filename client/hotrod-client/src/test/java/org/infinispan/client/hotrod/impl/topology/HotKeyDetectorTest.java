@@ -0,0 +1,67 @@
+package org.infinispan.client.hotrod.impl.topology;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.time.ControlledTimeService;
+import org.testng.annotations.Test;
+
+/**
+ * @since 16.0
+ */
+@Test(groups = "unit", testName = "client.hotrod.impl.topology.HotKeyDetectorTest")
+public class HotKeyDetectorTest {
+
+   private static final int THRESHOLD = 100;
+
+   public void testKeyReadOftenIsHot() {
+      ControlledTimeService timeService = new ControlledTimeService();
+      HotKeyDetector detector = new HotKeyDetector(THRESHOLD, timeService);
+      byte[] hotKey = {1, 2, 3};
+      for (int i = 1; i < THRESHOLD; i++) {
+         assertFalse(detector.recordRead(hotKey.clone()));
+      }
+      assertTrue(detector.recordRead(hotKey.clone()));
+      assertEquals(1, detector.hotKeyCount());
+      assertFalse(detector.recordRead(new byte[]{4, 5, 6}));
+
+      // The key stays hot for the next window
+      timeService.advance(1, TimeUnit.SECONDS);
+      assertTrue(detector.recordRead(hotKey));
+      // But not for the one after, since it was not read enough
+      timeService.advance(1, TimeUnit.SECONDS);
+      assertFalse(detector.recordRead(hotKey));
+      assertEquals(0, detector.hotKeyCount());
+   }
+
+   public void testHotKeyReadsAreSpread() {
+      ControlledTimeService timeService = new ControlledTimeService();
+      HotKeyDetector detector = new HotKeyDetector(THRESHOLD, timeService);
+      SocketAddress[] owners = {
+            InetSocketAddress.createUnresolved("a", 11222),
+            InetSocketAddress.createUnresolved("b", 11222),
+            InetSocketAddress.createUnresolved("c", 11222),
+      };
+      String key = "key";
+      for (int i = 1; i < THRESHOLD; i++) {
+         assertNull(detector.route(key, owners, Set.of()));
+      }
+      Set<SocketAddress> selected = new HashSet<>();
+      for (int i = 0; i < 100; i++) {
+         SocketAddress owner = detector.route(key, owners, Set.of(owners[2]));
+         assertNotNull(owner);
+         selected.add(owner);
+      }
+      assertEquals(Set.of(owners[0], owners[1]), selected);
+      assertEquals(Set.of(key), detector.hotKeys());
+   }
+}
@@ -0,0 +1,112 @@
+package org.infinispan.client.hotrod.near;
+
+import static org.infinispan.client.hotrod.test.HotRodClientTestingUtil.getIntKeyForServer;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.client.hotrod.RemoteCacheManager;
+import org.infinispan.client.hotrod.configuration.NearCacheMode;
+import org.infinispan.client.hotrod.test.HotRodClientTestingUtil;
+import org.infinispan.client.hotrod.test.MultiHotRodServersTest;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.server.hotrod.HotRodServer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the keys read by a near cache with key tracking are invalidated whichever server owns them and whichever
+ * server the write goes through.
+ *
+ * @since 16.0
+ */
+@Test(groups = "functional", testName = "client.hotrod.near.ClusterInvalidatedNearCacheKeyTrackingTest")
+public class ClusterInvalidatedNearCacheKeyTrackingTest extends MultiHotRodServersTest {
+   private static final int CLUSTER_MEMBERS = 2;
+   private static final int NEAR_CACHE_SIZE = 16;
+
+   List<AssertsNearCache<Integer, String>> assertClients = new ArrayList<>(CLUSTER_MEMBERS);
+
+   AssertsNearCache<Integer, String> client0;
+   AssertsNearCache<Integer, String> client1;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      createHotRodServers(CLUSTER_MEMBERS, getCacheConfiguration());
+
+      client0 = assertClients.get(0);
+      client1 = assertClients.get(1);
+   }
+
+   @AfterMethod
+   void afterMethod() throws InterruptedException {
+      for (AssertsNearCache<Integer, String> assertClient : assertClients) {
+         assertClient.expectNoNearEvents(50, TimeUnit.MILLISECONDS);
+      }
+      caches().forEach(Cache::clear);
+      assertClients.forEach(AssertsNearCache::resetEvents);
+   }
+
+   @AfterClass(alwaysRun = true)
+   @Override
+   protected void destroy() {
+      assertClients.forEach(AssertsNearCache::stop);
+      assertClients.clear();
+
+      super.destroy();
+   }
+
+   private ConfigurationBuilder getCacheConfiguration() {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().hash().numOwners(1);
+      return hotRodCacheConfiguration(builder);
+   }
+
+   @Override
+   protected RemoteCacheManager createClient(int i) {
+      org.infinispan.client.hotrod.configuration.ConfigurationBuilder clientBuilder =
+            HotRodClientTestingUtil.newRemoteConfigurationBuilder();
+      for (HotRodServer server : servers)
+         clientBuilder.addServer().host("127.0.0.1").port(server.getPort());
+      clientBuilder.remoteCache("").nearCacheMode(NearCacheMode.INVALIDATED)
+            .nearCacheMaxEntries(NEAR_CACHE_SIZE)
+            .nearCacheUseKeyTracking(true);
+      AssertsNearCache<Integer, String> asserts = AssertsNearCache.create(cache(0), clientBuilder);
+      assertClients.add(asserts);
+      return asserts.manager;
+   }
+
+   public void testKeysOfAllServersInvalidated() {
+      for (HotRodServer server : servers) {
+         Integer key = getIntKeyForServer(server);
+
+         client0.put(key, "v1").expectNearPreemptiveRemove(key);
+         client0.get(key, "v1").expectNearGetMissWithValue(key, "v1");
+         client0.get(key, "v1").expectNearGetValue(key, "v1");
+
+         // The write goes to the owner, which is not always the server with the listener of client0
+         client1.put(key, "v2").expectNearPreemptiveRemove(key, client0);
+         client0.get(key, "v2").expectNearGetMissWithValue(key, "v2");
+
+         client1.remove(key).expectNearPreemptiveRemove(key, client0);
+      }
+   }
+
+   public void testKeysReadByOneClientOnly() {
+      for (HotRodServer server : servers) {
+         Integer key = getIntKeyForServer(server);
+
+         client0.put(key, "v1").expectNearPreemptiveRemove(key);
+         client1.get(key, "v1").expectNearGetMissWithValue(key, "v1");
+
+         // Only the client that read the key is invalidated
+         client0.put(key, "v2").expectNearPreemptiveRemove(key, client1);
+         client0.put(key, "v3").expectNearPreemptiveRemove(key);
+      }
+   }
+}
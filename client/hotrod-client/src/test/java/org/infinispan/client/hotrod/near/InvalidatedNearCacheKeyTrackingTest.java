@@ -0,0 +1,80 @@
+package org.infinispan.client.hotrod.near;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.client.hotrod.RemoteCacheManager;
+import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
+import org.infinispan.client.hotrod.configuration.NearCacheMode;
+import org.infinispan.client.hotrod.impl.InvalidatedNearRemoteCache;
+import org.infinispan.client.hotrod.test.HotRodClientTestingUtil;
+import org.infinispan.client.hotrod.test.SingleHotRodServerTest;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+@Test(groups = "functional", testName = "client.hotrod.near.InvalidatedNearCacheKeyTrackingTest")
+public class InvalidatedNearCacheKeyTrackingTest extends SingleHotRodServerTest {
+
+   private static final int NEAR_CACHE_SIZE = 4;
+
+   private AssertsNearCache<Integer, String> assertClient;
+
+   @AfterMethod
+   void resetNearCache() throws InterruptedException {
+      assertClient.expectNoNearEvents(50, TimeUnit.MILLISECONDS);
+      ((InvalidatedNearRemoteCache<Integer, String>) assertClient.remote).clearNearCache();
+      assertClient.resetEvents();
+   }
+
+   @Override
+   protected RemoteCacheManager getRemoteCacheManager() {
+      ConfigurationBuilder builder = HotRodClientTestingUtil.newRemoteConfigurationBuilder();
+      builder.addServer().host("127.0.0.1").port(hotrodServer.getPort());
+      builder.remoteCache("")
+            .nearCacheMode(NearCacheMode.INVALIDATED)
+            .nearCacheMaxEntries(NEAR_CACHE_SIZE)
+            .nearCacheUseKeyTracking(true);
+      assertClient = AssertsNearCache.create(cache(), builder);
+      return assertClient.manager;
+   }
+
+   public void testReadKeyIsInvalidated() {
+      assertClient.put(1, "v1").expectNearPreemptiveRemove(1);
+      assertClient.get(1, "v1").expectNearGetMissWithValue(1, "v1");
+      assertClient.get(1, "v1").expectNearGetValue(1, "v1");
+      assertClient.put(1, "v2").expectNearRemove(1);
+      assertClient.get(1, "v2").expectNearGetMissWithValue(1, "v2");
+      assertClient.remove(1).expectNearRemove(1);
+      assertClient.get(1, null).expectNearGetMiss(1);
+   }
+
+   public void testKeyNotReadIsNotInvalidated() {
+      assertClient.put(2, "v1").expectNearPreemptiveRemove(2);
+      assertClient.put(2, "v2").expectNearPreemptiveRemove(2);
+      assertClient.remove(2).expectNearPreemptiveRemove(2);
+   }
+
+   public void testInvalidatedKeyIsNotTrackedUntilReadAgain() {
+      assertClient.put(3, "v1").expectNearPreemptiveRemove(3);
+      assertClient.get(3, "v1").expectNearGetMissWithValue(3, "v1");
+      assertClient.put(3, "v2").expectNearRemove(3);
+      // Not read since the invalidation
+      assertClient.put(3, "v3").expectNearPreemptiveRemove(3);
+   }
+
+   public void testTooManyTrackedKeysClearsNearCache() {
+      // The client asks the server to track 4 times the keys the near cache can hold
+      int trackedKeys = NEAR_CACHE_SIZE * 4;
+      for (int i = 0; i <= trackedKeys; i++) {
+         assertClient.remote.put(100 + i, "v" + i);
+         assertEquals("v" + i, assertClient.remote.get(100 + i));
+      }
+      // Clearing the near cache discards the previous events
+      eventually(() -> assertClient.events.stream().anyMatch(MockNearCacheService.MockClearEvent.class::isInstance));
+      assertClient.expectNearClear();
+      assertClient.resetEvents();
+      // The server forgot all the keys
+      assertClient.put(100, "v").expectNearPreemptiveRemove(100);
+   }
+}
@@ -0,0 +1,83 @@
+package org.infinispan.client.hotrod.near;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.infinispan.client.hotrod.RemoteCache;
+import org.infinispan.client.hotrod.RemoteCacheManager;
+import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
+import org.infinispan.client.hotrod.configuration.NearCacheMode;
+import org.infinispan.client.hotrod.test.HotRodClientTestingUtil;
+import org.infinispan.client.hotrod.test.SingleHotRodServerTest;
+import org.testng.annotations.Factory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the near cache bounded by the size in bytes of its values.
+ */
+@Test(groups = "functional", testName = "client.hotrod.near.WeightedNearCacheTest")
+public class WeightedNearCacheTest extends SingleHotRodServerTest {
+
+   private static final int MAX_BYTES = 16 * 1024;
+   private static final int VALUE_SIZE = 1024;
+
+   private boolean offHeap;
+
+   WeightedNearCacheTest offHeap(boolean offHeap) {
+      this.offHeap = offHeap;
+      return this;
+   }
+
+   @Factory
+   public Object[] factory() {
+      return new Object[]{
+            new WeightedNearCacheTest().offHeap(false),
+            new WeightedNearCacheTest().offHeap(true),
+      };
+   }
+
+   @Override
+   protected String parameters() {
+      return "offHeap=" + offHeap;
+   }
+
+   @Override
+   protected RemoteCacheManager getRemoteCacheManager() {
+      ConfigurationBuilder builder = HotRodClientTestingUtil.newRemoteConfigurationBuilder();
+      builder.addServer().host("127.0.0.1").port(hotrodServer.getPort());
+      builder.statistics().enable();
+      builder.remoteCache("")
+            .nearCacheMode(NearCacheMode.INVALIDATED)
+            .nearCacheMaxBytes(MAX_BYTES)
+            .nearCacheOffHeap(offHeap);
+      return new RemoteCacheManager(builder.build());
+   }
+
+   public void testReadFromNearCache() {
+      RemoteCache<String, String> remoteCache = remoteCacheManager.getCache();
+      remoteCache.put("k", "v1");
+      assertEquals("v1", remoteCache.get("k"));
+      long hits = remoteCache.clientStatistics().getNearCacheHits();
+      assertEquals("v1", remoteCache.get("k"));
+      assertEquals(hits + 1, remoteCache.clientStatistics().getNearCacheHits());
+
+      remoteCache.put("k", "v2");
+      eventually(() -> "v2".equals(remoteCache.get("k")));
+   }
+
+   public void testEvictionBySize() {
+      RemoteCache<String, String> remoteCache = remoteCacheManager.getCache();
+      String value = "x".repeat(VALUE_SIZE);
+      int count = 2 * MAX_BYTES / VALUE_SIZE;
+      for (int i = 0; i < count; i++) {
+         remoteCache.put("k" + i, value + i);
+         assertEquals(value + i, remoteCache.get("k" + i));
+      }
+      assertTrue(remoteCache.clientStatistics().getNearCacheSize() < MAX_BYTES / VALUE_SIZE);
+      assertTrue(remoteCache.clientStatistics().getNearCacheEvictions() > 0);
+      // The evicted values are read from the server
+      for (int i = 0; i < count; i++) {
+         assertEquals(value + i, remoteCache.get("k" + i));
+      }
+   }
+}
@@ -0,0 +1,25 @@
+package org.infinispan.commons.jdkspecific;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Releases the memory of direct and memory mapped {@link ByteBuffer}s without waiting for them to be garbage
+ * collected.
+ *
+ * @since 16.0
+ */
+public final class DirectBuffers {
+   private DirectBuffers() { }
+
+   /**
+    * Frees the native memory, or removes the mapping, behind the given buffer. The buffer, and any of its slices or
+    * duplicates, must not be accessed after this method returns.
+    *
+    * @param buffer a direct buffer that is not a slice or a duplicate
+    */
+   public static void release(ByteBuffer buffer) {
+      if (buffer.isDirect()) {
+         UnsafeHolder.UNSAFE.invokeCleaner(buffer);
+      }
+   }
+}
@@ -441,6 +441,8 @@ public interface ProtoStreamTypeIds {
    int COLLECTOR_FINALIZER_SUPPLIER = CORE_LOWER_BOUND + 335;
    int COLLECTOR_REDUCER_SUPPLIER = CORE_LOWER_BOUND + 336;
 
+   int CONFLICT_RESOLUTION_DIGEST_COMMAND = CORE_LOWER_BOUND + 337;
+
    // Counter range 4000 -> 4199
    int COUNTERS_LOWER_BOUND = 4000;
    int COUNTER_STATE = COUNTERS_LOWER_BOUND;
@@ -49,6 +49,7 @@
 import org.infinispan.commands.remote.recovery.GetInDoubtTransactionsCommand;
 import org.infinispan.commands.remote.recovery.GetInDoubtTxInfoCommand;
 import org.infinispan.commands.remote.recovery.TxCompletionNotificationCommand;
+import org.infinispan.commands.statetransfer.ConflictResolutionDigestCommand;
 import org.infinispan.commands.statetransfer.ConflictResolutionStartCommand;
 import org.infinispan.commands.statetransfer.StateResponseCommand;
 import org.infinispan.commands.statetransfer.StateTransferCancelCommand;
@@ -422,6 +423,10 @@ ComputeIfAbsentCommand buildComputeIfAbsentCommand(Object key, Function mappingF
 
    ConflictResolutionStartCommand buildConflictResolutionStartCommand(int topologyId, IntSet segments);
 
+   ConflictResolutionStartCommand buildConflictResolutionStartCommand(int topologyId, IntSet segments, IntSet buckets);
+
+   ConflictResolutionDigestCommand buildConflictResolutionDigestCommand(int topologyId, int segment, boolean buckets);
+
    StateTransferCancelCommand buildStateTransferCancelCommand(int topologyId, IntSet segments);
 
    StateTransferGetListenersCommand buildStateTransferGetListenersCommand(int topologyId);
@@ -430,6 +435,15 @@ ComputeIfAbsentCommand buildComputeIfAbsentCommand(Object key, Function mappingF
 
    StateTransferStartCommand buildStateTransferStartCommand(int topologyId, IntSet segments);
 
+   /**
+    * Builds a StateTransferStartCommand requesting the entries of the segments that changed since the given watermark,
+    * or the whole segments if the watermark is negative.
+    *
+    * @param storeRecords whether the entries can be sent as serialized by the stores of the provider
+    */
+   StateTransferStartCommand buildStateTransferStartCommand(int topologyId, IntSet segments, long watermark,
+                                                            boolean storeRecords);
+
    /**
     * Builds a StateResponseCommand used for pushing cache entries to another node.
     */
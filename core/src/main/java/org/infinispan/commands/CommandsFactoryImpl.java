@@ -49,6 +49,7 @@
 import org.infinispan.commands.remote.recovery.GetInDoubtTransactionsCommand;
 import org.infinispan.commands.remote.recovery.GetInDoubtTxInfoCommand;
 import org.infinispan.commands.remote.recovery.TxCompletionNotificationCommand;
+import org.infinispan.commands.statetransfer.ConflictResolutionDigestCommand;
 import org.infinispan.commands.statetransfer.ConflictResolutionStartCommand;
 import org.infinispan.commands.statetransfer.StateResponseCommand;
 import org.infinispan.commands.statetransfer.StateTransferCancelCommand;
@@ -325,6 +326,16 @@ public ConflictResolutionStartCommand buildConflictResolutionStartCommand(int to
       return new ConflictResolutionStartCommand(cacheName, topologyId, segments);
    }
 
+   @Override
+   public ConflictResolutionStartCommand buildConflictResolutionStartCommand(int topologyId, IntSet segments, IntSet buckets) {
+      return new ConflictResolutionStartCommand(cacheName, topologyId, segments, buckets);
+   }
+
+   @Override
+   public ConflictResolutionDigestCommand buildConflictResolutionDigestCommand(int topologyId, int segment, boolean buckets) {
+      return new ConflictResolutionDigestCommand(cacheName, topologyId, segment, buckets);
+   }
+
    @Override
    public StateTransferCancelCommand buildStateTransferCancelCommand(int topologyId, IntSet segments) {
       return new StateTransferCancelCommand(cacheName, topologyId, segments);
@@ -345,6 +356,12 @@ public StateTransferStartCommand buildStateTransferStartCommand(int topologyId,
       return new StateTransferStartCommand(cacheName, topologyId, segments);
    }
 
+   @Override
+   public StateTransferStartCommand buildStateTransferStartCommand(int topologyId, IntSet segments, long watermark,
+                                                                   boolean storeRecords) {
+      return new StateTransferStartCommand(cacheName, topologyId, segments, watermark, storeRecords);
+   }
+
    @Override
    public StateResponseCommand buildStateResponseCommand(int topologyId, Collection<StateChunk> stateChunks, boolean applyState) {
       return new StateResponseCommand(cacheName, topologyId, stateChunks, applyState);
@@ -0,0 +1,85 @@
+package org.infinispan.commands.statetransfer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.commands.TopologyAffectedCommand;
+import org.infinispan.commands.remote.BaseRpcCommand;
+import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.container.impl.InternalDataContainer;
+import org.infinispan.container.impl.SegmentDigest;
+import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.protostream.annotations.ProtoFactory;
+import org.infinispan.protostream.annotations.ProtoField;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+import org.infinispan.remoting.transport.NodeVersion;
+import org.infinispan.util.ByteString;
+
+/**
+ * Get the {@link SegmentDigest} of a segment, either the digest of the whole segment or the digests of its buckets,
+ * encoded with {@link SegmentDigest#toBytes(long...)}. The response is {@code null} if the node does not maintain
+ * digests.
+ *
+ * @since 16.0
+ */
+@ProtoTypeId(ProtoStreamTypeIds.CONFLICT_RESOLUTION_DIGEST_COMMAND)
+public class ConflictResolutionDigestCommand extends BaseRpcCommand implements StateTransferCommand, TopologyAffectedCommand {
+
+   @ProtoField(2)
+   int topologyId;
+
+   @ProtoField(3)
+   final int segment;
+
+   @ProtoField(4)
+   final boolean buckets;
+
+   @ProtoFactory
+   public ConflictResolutionDigestCommand(ByteString cacheName, int topologyId, int segment, boolean buckets) {
+      super(cacheName);
+      this.topologyId = topologyId;
+      this.segment = segment;
+      this.buckets = buckets;
+   }
+
+   @Override
+   public CompletionStage<byte[]> invokeAsync(ComponentRegistry registry) throws Throwable {
+      InternalDataContainer<?, ?> dataContainer = registry.getInternalDataContainer().running();
+      SegmentDigest digest = dataContainer.segmentDigest(segment);
+      if (digest == null) {
+         return CompletableFuture.completedFuture(null);
+      }
+      return CompletableFuture.completedFuture(buckets ? SegmentDigest.toBytes(digest.buckets()) :
+            SegmentDigest.toBytes(digest.root()));
+   }
+
+   @Override
+   public int getTopologyId() {
+      return topologyId;
+   }
+
+   @Override
+   public void setTopologyId(int topologyId) {
+      this.topologyId = topologyId;
+   }
+
+   @Override
+   public boolean isReturnValueExpected() {
+      return true;
+   }
+
+   @Override
+   public NodeVersion supportedSince() {
+      return NodeVersion.SIXTEEN;
+   }
+
+   @Override
+   public String toString() {
+      return "ConflictResolutionDigestCommand{" +
+            "topologyId=" + topologyId +
+            ", segment=" + segment +
+            ", buckets=" + buckets +
+            ", cacheName=" + cacheName +
+            '}';
+   }
+}
@@ -9,6 +9,7 @@
 import org.infinispan.marshall.protostream.impl.WrappedMessages;
 import org.infinispan.protostream.WrappedMessage;
 import org.infinispan.protostream.annotations.ProtoFactory;
+import org.infinispan.protostream.annotations.ProtoField;
 import org.infinispan.protostream.annotations.ProtoTypeId;
 import org.infinispan.remoting.transport.NodeVersion;
 import org.infinispan.statetransfer.StateProvider;
@@ -23,19 +24,45 @@
 @ProtoTypeId(ProtoStreamTypeIds.STATE_TRANSFER_START_COMMAND)
 public class StateTransferStartCommand extends AbstractStateTransferCommand {
 
+   /**
+    * The wall clock time when the requester stopped with the entries of the segments in its stores, or {@code -1} to
+    * request the whole segments.
+    */
+   @ProtoField(number = 4, defaultValue = "-1")
+   final long watermark;
+
+   /**
+    * Whether the requester can write the entries as serialized by the stores of the provider directly to its own
+    * stores. Requesters that don't set it always receive cache entries.
+    */
+   @ProtoField(number = 5, defaultValue = "false")
+   final boolean storeRecords;
+
    @ProtoFactory
-   StateTransferStartCommand(ByteString cacheName, int topologyId, WrappedMessage wrappedSegments) {
-      this(cacheName, topologyId, WrappedMessages.<IntSet>unwrap(wrappedSegments));
+   StateTransferStartCommand(ByteString cacheName, int topologyId, WrappedMessage wrappedSegments, long watermark,
+                             boolean storeRecords) {
+      this(cacheName, topologyId, WrappedMessages.<IntSet>unwrap(wrappedSegments), watermark, storeRecords);
    }
 
    public StateTransferStartCommand(ByteString cacheName, int topologyId, IntSet segments) {
+      this(cacheName, topologyId, segments, -1, false);
+   }
+
+   public StateTransferStartCommand(ByteString cacheName, int topologyId, IntSet segments, long watermark,
+                                    boolean storeRecords) {
       super(cacheName, topologyId, segments);
+      this.watermark = watermark;
+      this.storeRecords = storeRecords;
    }
 
    @Override
    public CompletionStage<?> invokeAsync(ComponentRegistry registry) throws Throwable {
       StateProvider stateProvider = registry.getStateTransferManager().getStateProvider();
-      stateProvider.startOutboundTransfer(origin, topologyId, segments, true);
+      if (watermark < 0) {
+         stateProvider.startOutboundTransfer(origin, topologyId, segments, true, storeRecords);
+      } else {
+         stateProvider.startIncrementalTransfer(origin, topologyId, segments, watermark, storeRecords);
+      }
       return CompletableFutures.completedNull();
    }
 
@@ -49,6 +76,8 @@ public String toString() {
       return "StateTransferStartCommand{" +
             "topologyId=" + topologyId +
             ", segments=" + segments +
+            (watermark < 0 ? "" : ", watermark=" + watermark) +
+            ", storeRecords=" + storeRecords +
             ", cacheName=" + cacheName +
             '}';
    }
@@ -16,10 +16,13 @@
 public class AsyncStoreConfiguration extends ConfigurationElement<AsyncStoreConfiguration> {
    public static final AttributeDefinition<Boolean> ENABLED = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.ENABLED, false).immutable().build();
    public static final AttributeDefinition<Integer> MODIFICATION_QUEUE_SIZE  = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.MODIFICATION_QUEUE_SIZE, 1024).immutable().build();
+   public static final AttributeDefinition<Long> MODIFICATION_QUEUE_MAX_BYTES = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.MODIFICATION_QUEUE_MAX_BYTES, -1L).immutable().build();
+   public static final AttributeDefinition<Boolean> SPILL_TO_DISK = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.SPILL_TO_DISK, false).immutable().build();
    public static final AttributeDefinition<Boolean> FAIL_SILENTLY = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.FAIL_SILENTLY, false).immutable().build();
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(AsyncStoreConfiguration.class, ENABLED, MODIFICATION_QUEUE_SIZE, FAIL_SILENTLY);
+      return new AttributeSet(AsyncStoreConfiguration.class, ENABLED, MODIFICATION_QUEUE_SIZE, MODIFICATION_QUEUE_MAX_BYTES,
+            SPILL_TO_DISK, FAIL_SILENTLY);
    }
 
    private final Attribute<Boolean> failSilently;
@@ -46,6 +49,25 @@ public int modificationQueueSize() {
       return attributes.attribute(MODIFICATION_QUEUE_SIZE).get();
    }
 
+   /**
+    * The maximum number of bytes that the modifications in the queue of the async store may retain, estimated from the
+    * marshalled size of their entries. When the bound is reached, writes are delayed until the modifications being
+    * written to the underlying store complete, unless {@link #spillToDisk()} is enabled. A value of -1 or less disables
+    * the bound.
+    */
+   public long modificationQueueMaxBytes() {
+      return attributes.attribute(MODIFICATION_QUEUE_MAX_BYTES).get();
+   }
+
+   /**
+    * If true, writes that would exceed {@link #modificationQueueMaxBytes()} are appended to a file in the temporary
+    * location of the global state instead of being delayed. The file is only a spill area for the queue, it is deleted
+    * when the store stops and its contents are not recovered on restart.
+    */
+   public boolean spillToDisk() {
+      return attributes.attribute(SPILL_TO_DISK).get();
+   }
+
    public boolean failSilently() {
       return failSilently.get();
    }
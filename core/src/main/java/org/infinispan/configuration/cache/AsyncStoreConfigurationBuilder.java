@@ -2,7 +2,10 @@
 
 import static org.infinispan.configuration.cache.AsyncStoreConfiguration.ENABLED;
 import static org.infinispan.configuration.cache.AsyncStoreConfiguration.FAIL_SILENTLY;
+import static org.infinispan.configuration.cache.AsyncStoreConfiguration.MODIFICATION_QUEUE_MAX_BYTES;
 import static org.infinispan.configuration.cache.AsyncStoreConfiguration.MODIFICATION_QUEUE_SIZE;
+import static org.infinispan.configuration.cache.AsyncStoreConfiguration.SPILL_TO_DISK;
+import static org.infinispan.util.logging.Log.CONFIG;
 
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.Combine;
@@ -62,6 +65,26 @@ public AsyncStoreConfigurationBuilder<S> modificationQueueSize(int i) {
       return this;
    }
 
+   /**
+    * Sets the maximum number of bytes that the modifications in the queue of the async store may retain, estimated
+    * from the marshalled size of their entries. Writes to the same key are coalesced in the queue, so only the last
+    * one counts towards the bound. Defaults to <code>-1</code>, which disables the bound.
+    */
+   public AsyncStoreConfigurationBuilder<S> modificationQueueMaxBytes(long maxBytes) {
+      attributes.attribute(MODIFICATION_QUEUE_MAX_BYTES).set(maxBytes);
+      return this;
+   }
+
+   /**
+    * If true, writes that would exceed the {@link #modificationQueueMaxBytes(long)} bound are appended to a file in
+    * the temporary location of the global state instead of being delayed. The file is deleted when the store stops.
+    * Defaults to <code>false</code>.
+    */
+   public AsyncStoreConfigurationBuilder<S> spillToDisk(boolean spillToDisk) {
+      attributes.attribute(SPILL_TO_DISK).set(spillToDisk);
+      return this;
+   }
+
    /**
     * @param failSilently If true, the async store attempts to perform write operations only
     *           as many times as configured with `connection-attempts` in the PersistenceConfiguration.
@@ -79,6 +102,13 @@ public AsyncStoreConfigurationBuilder<S> failSilently(boolean failSilently) {
       return this;
    }
 
+   @Override
+   public void validate() {
+      if (attributes.attribute(SPILL_TO_DISK).get() && attributes.attribute(MODIFICATION_QUEUE_MAX_BYTES).get() <= 0) {
+         throw CONFIG.spillToDiskRequiresModificationQueueMaxBytes();
+      }
+   }
+
    @Override
    public AsyncStoreConfiguration create() {
       return new AsyncStoreConfiguration(attributes.protect());
@@ -21,9 +21,11 @@ public class MemoryConfiguration extends ConfigurationElement<MemoryConfiguratio
    public static final AttributeDefinition<String> MAX_SIZE = AttributeDefinition.builder(Attribute.MAX_SIZE, null, String.class).matcher((a1, a2) -> maxSizeToBytes(a1.get()) == maxSizeToBytes(a2.get())).build();
    public static final AttributeDefinition<Long> MAX_COUNT = AttributeDefinition.builder(Attribute.MAX_COUNT, -1L).build();
    public static final AttributeDefinition<EvictionStrategy> WHEN_FULL = AttributeDefinition.builder(Attribute.WHEN_FULL, EvictionStrategy.NONE).immutable().build();
+   public static final AttributeDefinition<OffHeapTableType> TABLE_TYPE = AttributeDefinition.builder(Attribute.TABLE_TYPE, OffHeapTableType.CHAINED).immutable().build();
+   public static final AttributeDefinition<OffHeapAllocatorType> ALLOCATOR_TYPE = AttributeDefinition.builder(Attribute.ALLOCATOR_TYPE, OffHeapAllocatorType.UNPOOLED).immutable().build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(MemoryConfiguration.class, STORAGE, MAX_SIZE, MAX_COUNT, WHEN_FULL);
+      return new AttributeSet(MemoryConfiguration.class, STORAGE, MAX_SIZE, MAX_COUNT, WHEN_FULL, TABLE_TYPE, ALLOCATOR_TYPE);
    }
 
    MemoryConfiguration(AttributeSet attributes) {
@@ -85,6 +87,22 @@ public EvictionStrategy whenFull() {
       return attributes.attribute(WHEN_FULL).get();
    }
 
+   /**
+    * The hash table used to locate the entries when the storage is off-heap
+    * @return The configured {@link OffHeapTableType}.
+    */
+   public OffHeapTableType tableType() {
+      return attributes.attribute(TABLE_TYPE).get();
+   }
+
+   /**
+    * The allocator of the native memory when the storage is off-heap
+    * @return The configured {@link OffHeapAllocatorType}.
+    */
+   public OffHeapAllocatorType allocatorType() {
+      return attributes.attribute(ALLOCATOR_TYPE).get();
+   }
+
    /**
     * Returns whether remove eviction is in use
     */
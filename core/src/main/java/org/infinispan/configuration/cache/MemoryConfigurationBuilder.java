@@ -95,6 +95,39 @@ public EvictionStrategy whenFull() {
       return attributes.attribute(MemoryConfiguration.WHEN_FULL).get();
    }
 
+   /**
+    * Sets the hash table used to locate the entries when the storage is {@link StorageType#OFF_HEAP}. The
+    * {@link OffHeapTableType#OPEN_ADDRESSING} table is only supported when entries are not evicted.
+    *
+    * @param tableType the table type
+    * @return this configuration builder
+    */
+   public MemoryConfigurationBuilder tableType(OffHeapTableType tableType) {
+      attributes.attribute(MemoryConfiguration.TABLE_TYPE).set(tableType);
+      return this;
+   }
+
+   public OffHeapTableType tableType() {
+      return attributes.attribute(MemoryConfiguration.TABLE_TYPE).get();
+   }
+
+   /**
+    * Sets the allocator of the native memory when the storage is {@link StorageType#OFF_HEAP}. The
+    * {@link OffHeapAllocatorType#POOLED} allocator reuses the memory of freed entries instead of returning it to the
+    * native allocator of the process.
+    *
+    * @param allocatorType the allocator type
+    * @return this configuration builder
+    */
+   public MemoryConfigurationBuilder allocatorType(OffHeapAllocatorType allocatorType) {
+      attributes.attribute(MemoryConfiguration.ALLOCATOR_TYPE).set(allocatorType);
+      return this;
+   }
+
+   public OffHeapAllocatorType allocatorType() {
+      return attributes.attribute(MemoryConfiguration.ALLOCATOR_TYPE).get();
+   }
+
    boolean isSizeBounded() {
       return maxSize() != null;
    }
@@ -145,6 +178,17 @@ public void validate() {
          }
       }
       checkBinaryRequirement();
+      if (tableType() == OffHeapTableType.OPEN_ADDRESSING) {
+         if (storage() != StorageType.OFF_HEAP) {
+            throw CONFIG.offHeapTableTypeRequiresOffHeapStorage(tableType());
+         }
+         if ((isSizeBounded() || isCountBounded()) && !whenFull().isExceptionBased()) {
+            throw CONFIG.offHeapTableTypeNotSupportedWithEviction(tableType());
+         }
+      }
+      if (allocatorType() == OffHeapAllocatorType.POOLED && storage() != StorageType.OFF_HEAP) {
+         throw CONFIG.offHeapAllocatorTypeRequiresOffHeapStorage(allocatorType());
+      }
    }
 
    @Override
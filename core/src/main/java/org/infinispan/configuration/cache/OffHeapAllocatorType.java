@@ -0,0 +1,18 @@
+package org.infinispan.configuration.cache;
+
+/**
+ * Allocator of the native memory used by an off-heap data container.
+ *
+ * @since 16.0
+ */
+public enum OffHeapAllocatorType {
+   /**
+    * Every entry is allocated and freed by the native allocator of the process.
+    */
+   UNPOOLED,
+   /**
+    * Entries are allocated from slabs of fixed size classes that are reused after the entries are freed, so that the
+    * memory used by the process stays close to the memory used by the entries.
+    */
+   POOLED
+}
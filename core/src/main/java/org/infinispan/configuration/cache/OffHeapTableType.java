@@ -0,0 +1,19 @@
+package org.infinispan.configuration.cache;
+
+/**
+ * Hash table used to locate the entries of an off-heap data container.
+ *
+ * @since 16.0
+ */
+public enum OffHeapTableType {
+   /**
+    * Entries with the same hash bucket are linked together, every lookup walks the bucket until it finds the key.
+    * Supports all the containers, including the bounded ones.
+    */
+   CHAINED,
+   /**
+    * Entries are stored in open addressing tables that compare hash bits of a group of slots at once, so that a lookup
+    * usually reads a single entry. Only supported by unbounded containers.
+    */
+   OPEN_ADDRESSING
+}
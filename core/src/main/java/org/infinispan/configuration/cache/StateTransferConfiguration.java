@@ -18,9 +18,14 @@ public class StateTransferConfiguration extends ConfigurationElement<StateTransf
    public static final AttributeDefinition<Boolean> FETCH_IN_MEMORY_STATE = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.ENABLED, true).immutable().build();
    public static final AttributeDefinition<TimeQuantity> TIMEOUT = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.TIMEOUT, TimeQuantity.valueOf("4m")).parser(TimeQuantity.PARSER).immutable().build();
    public static final AttributeDefinition<Integer> CHUNK_SIZE = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.CHUNK_SIZE, 512).immutable().build();
+   public static final AttributeDefinition<Long> CHUNK_MAX_BYTES = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.CHUNK_MAX_BYTES, -1L).immutable().build();
+   public static final AttributeDefinition<Long> MAX_BANDWIDTH = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.MAX_BANDWIDTH, -1L).immutable().build();
+   public static final AttributeDefinition<TimeQuantity> BACKOFF_LATENCY = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.BACKOFF_LATENCY, TimeQuantity.valueOf(0)).parser(TimeQuantity.PARSER).immutable().build();
+   public static final AttributeDefinition<TimeQuantity> INCREMENTAL_RETENTION = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.INCREMENTAL_RETENTION, TimeQuantity.valueOf("0ms")).parser(TimeQuantity.PARSER).immutable().build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(StateTransferConfiguration.class, FETCH_IN_MEMORY_STATE, TIMEOUT, CHUNK_SIZE, AWAIT_INITIAL_TRANSFER);
+      return new AttributeSet(StateTransferConfiguration.class, FETCH_IN_MEMORY_STATE, TIMEOUT, CHUNK_SIZE, CHUNK_MAX_BYTES,
+            MAX_BANDWIDTH, BACKOFF_LATENCY, INCREMENTAL_RETENTION, AWAIT_INITIAL_TRANSFER);
    }
 
    private final Attribute<Boolean> awaitInitialTransfer;
@@ -63,6 +68,42 @@ public int chunkSize() {
       return chunkSize.get();
    }
 
+   /**
+    * The maximum number of bytes in each batch of cache entries, estimated from the size of the marshalled keys and
+    * values. A batch ends when it reaches either {@link #chunkSize()} entries or this size, but it always contains at
+    * least one entry. A value of -1 or less only limits the number of entries.
+    */
+   public long chunkMaxBytes() {
+      return attributes.attribute(CHUNK_MAX_BYTES).get();
+   }
+
+   /**
+    * The maximum number of bytes per second that this node sends to other nodes during state transfer, shared by all
+    * the outbound transfers of the cache. A value of -1 or less does not limit the bandwidth.
+    */
+   public long maxBandwidth() {
+      return attributes.attribute(MAX_BANDWIDTH).get();
+   }
+
+   /**
+    * When the average time - in milliseconds - for another node to acknowledge a batch of entries exceeds this value,
+    * this node halves the bandwidth of its outbound transfers, and it increases the bandwidth again gradually while
+    * the acknowledgements are faster. A value of 0 disables the back-off.
+    */
+   public long backoffLatency() {
+      return attributes.attribute(BACKOFF_LATENCY).get().longValue();
+   }
+
+   /**
+    * How long - in milliseconds - this node remembers the keys written in its segments, so that a node restarting with
+    * the entries of its segments in persistent stores within this time only receives the entries that changed while it
+    * was down. The changes are compared with the wall clock time of the restarted node, so the clocks of the nodes must
+    * not differ by more than one minute. A value of 0, the default, always transfers the whole segments.
+    */
+   public long incrementalRetention() {
+      return attributes.attribute(INCREMENTAL_RETENTION).get().longValue();
+   }
+
    /**
     * If {@code true}, this will cause the first call to method {@code CacheManager.getCache()} on the joiner node to
     * block and wait until the joining is complete and the cache has finished receiving state from neighboring caches
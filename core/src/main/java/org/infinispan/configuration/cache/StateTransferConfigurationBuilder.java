@@ -1,8 +1,12 @@
 package org.infinispan.configuration.cache;
 
 import static org.infinispan.configuration.cache.StateTransferConfiguration.AWAIT_INITIAL_TRANSFER;
+import static org.infinispan.configuration.cache.StateTransferConfiguration.BACKOFF_LATENCY;
+import static org.infinispan.configuration.cache.StateTransferConfiguration.CHUNK_MAX_BYTES;
 import static org.infinispan.configuration.cache.StateTransferConfiguration.CHUNK_SIZE;
 import static org.infinispan.configuration.cache.StateTransferConfiguration.FETCH_IN_MEMORY_STATE;
+import static org.infinispan.configuration.cache.StateTransferConfiguration.INCREMENTAL_RETENTION;
+import static org.infinispan.configuration.cache.StateTransferConfiguration.MAX_BANDWIDTH;
 import static org.infinispan.configuration.cache.StateTransferConfiguration.TIMEOUT;
 import static org.infinispan.util.logging.Log.CONFIG;
 
@@ -64,6 +68,66 @@ public StateTransferConfigurationBuilder chunkSize(int i) {
       return this;
    }
 
+   /**
+    * Sets the maximum number of bytes in each batch of cache entries, estimated from the size of the marshalled keys
+    * and values. A batch ends when it reaches either {@link #chunkSize(int)} entries or this size, but it always
+    * contains at least one entry. Defaults to <code>-1</code>, which only limits the number of entries.
+    */
+   public StateTransferConfigurationBuilder chunkMaxBytes(long maxBytes) {
+      attributes.attribute(CHUNK_MAX_BYTES).set(maxBytes);
+      return this;
+   }
+
+   /**
+    * Sets the maximum number of bytes per second that this node sends to other nodes during state transfer, shared by
+    * all the outbound transfers of the cache. The bandwidth must allow the transfer to complete within the
+    * {@link #timeout(long)}. Defaults to <code>-1</code>, which does not limit the bandwidth.
+    */
+   public StateTransferConfigurationBuilder maxBandwidth(long bytesPerSecond) {
+      attributes.attribute(MAX_BANDWIDTH).set(bytesPerSecond);
+      return this;
+   }
+
+   /**
+    * When the average time - in milliseconds - for another node to acknowledge a batch of entries exceeds this value,
+    * this node halves the bandwidth of its outbound transfers, and it increases the bandwidth again gradually while
+    * the acknowledgements are faster. Defaults to <code>0</code>, which disables the back-off.
+    */
+   public StateTransferConfigurationBuilder backoffLatency(long l) {
+      attributes.attribute(BACKOFF_LATENCY).set(TimeQuantity.valueOf(l));
+      return this;
+   }
+
+   /**
+    * Same as {@link #backoffLatency(long)} but supporting time units
+    */
+   public StateTransferConfigurationBuilder backoffLatency(String s) {
+      attributes.attribute(BACKOFF_LATENCY).set(TimeQuantity.valueOf(s));
+      return this;
+   }
+
+   /**
+    * Sets how long - in milliseconds - this node remembers the keys written in its segments, so that a node restarting
+    * with the entries of its segments in persistent stores within this time only receives the entries that changed
+    * while it was down. The changes are compared with the wall clock time of the restarted node, so the clocks of the
+    * nodes must not differ by more than one minute, otherwise the restarted node may keep stale entries. Every node
+    * remembers up to 4096 keys per segment.
+    * <p>
+    * Defaults to <code>0</code>, which always transfers the whole segments.
+    */
+   public StateTransferConfigurationBuilder incrementalRetention(long l) {
+      attributes.attribute(INCREMENTAL_RETENTION).set(TimeQuantity.valueOf(l));
+      return this;
+   }
+
+   /**
+    * Same as {@link #incrementalRetention(long)} but supporting time units
+    */
+   public StateTransferConfigurationBuilder incrementalRetention(String s) {
+      attributes.attribute(INCREMENTAL_RETENTION).set(TimeQuantity.valueOf(s));
+      return this;
+   }
+
    /**
     * This is the maximum amount of time - in milliseconds - to wait for state from neighboring
     * caches, before throwing an exception and aborting startup.
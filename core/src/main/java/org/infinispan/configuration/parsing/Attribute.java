@@ -18,14 +18,17 @@ public enum Attribute {
     ADDRESS_COUNT,
     AFTER,
     ALIASES,
+    ALLOCATOR_TYPE,
     @Deprecated(forRemoval=true, since = "11.0")
     ALLOW_DUPLICATE_DOMAINS("duplicate-domains"),
+    APPEND_ONLY,
     @Deprecated(forRemoval=true, since = "11.0")
     ASYNC_EXECUTOR,
     AUDIT_LOGGER,
     AUTO_COMMIT,
     AVAILABILITY_INTERVAL,
     AWAIT_INITIAL_TRANSFER,
+    BACKOFF_LATENCY,
     BACKUP_FAILURE_POLICY("failure-policy"),
     BEFORE,
     BIAS_ACQUISITION,
@@ -38,11 +41,14 @@ public enum Attribute {
     CAPACITY,
     CAPACITY_FACTOR,
     CATEGORIES,
+    CHUNK_MAX_BYTES,
     CHUNK_SIZE,
     CLASS,
     CLUSTER,
     COLLECTOR_ENDPOINT,
     COMMIT_INTERVAL,
+    COMPACTION_BACKLOG,
+    COMPACTION_THREADS,
     COMPACTION_THRESHOLD,
     COMPLETED_TX_TIMEOUT("complete-timeout"),
     CONCURRENCY_LEVEL,
@@ -75,10 +81,13 @@ public enum Attribute {
     FETCH_STATE,
     FRAGMENTATION_FACTOR,
     GAUGES,
+    GROUP_COMMIT_SIZE,
+    GROUP_COMMIT_WINDOW,
     GROUP_NAME,
     GROUP_ONLY_MAPPING,
     HISTOGRAMS,
     ID,
+    INCREMENTAL_RETENTION,
     INDEX,
     INDEX_QUEUE_LENGTH("max-queue-length"),
     INDEXED_ENTITIES,
@@ -108,6 +117,7 @@ public enum Attribute {
     MACHINE_ID("machine"),
     MAPPER,
     MARSHALLER,
+    MAX_BANDWIDTH,
     MAX_BATCH_SIZE,
     MAX_CLEANUP_DELAY,
     MAX_COUNT,
@@ -122,11 +132,13 @@ public enum Attribute {
     MAX_SIZE,
     MAX_THREADS,
     MBEAN_SERVER_LOOKUP,
+    MEMORY_MAPPED,
     MERGE_POLICY,
     MEDIA_TYPE,
     MIN_NODE_SIZE,
     MODE,
     NODE_NAME,
+    MODIFICATION_QUEUE_MAX_BYTES,
     MODIFICATION_QUEUE_SIZE,
     MODULE,
     NAME,
@@ -138,6 +150,7 @@ public enum Attribute {
     ON_REHASH("onRehash"),
     OPEN_FILES_LIMIT,
     OWNERS,
+    PAGE_CACHE_SIZE,
     PATH,
     PASSIVATION,
     PERMISSIONS,
@@ -163,6 +176,7 @@ public enum Attribute {
     REBATCH_REQUESTS_SIZE,
     RECOVERY_INFO_CACHE_NAME("recovery-cache"),
     REFRESH_INTERVAL,
+    REGION_SIZE,
     RELATIVE_TO,
     REMOTE_CACHE,
     REMOTE_COMMAND_EXECUTOR,
@@ -180,6 +194,7 @@ public enum Attribute {
     SIMPLE_CACHE,
     SITE,
     SIZE,
+    SPILL_TO_DISK,
     STATISTICS,
     START,
     STARTUP_MODE,
@@ -191,6 +206,7 @@ public enum Attribute {
     STACK,
     STOP_TIMEOUT,
     SYNC_WRITES,
+    TABLE_TYPE,
     TAKE_BACKUP_OFFLINE_AFTER_FAILURES("after-failures"),
     TAKE_BACKUP_OFFLINE_MIN_WAIT("min-wait"),
     THREAD_FACTORY,
@@ -971,6 +971,20 @@ protected void parseFileStore(ConfigurationReader reader, ConfigurationBuilderHo
                   throw ParseUtils.unexpectedAttribute(reader, i);
                }
                break;
+            case COMPACTION_THREADS:
+               if (fileStoreBuilder != null) {
+                  fileStoreBuilder.compactionThreads(ParseUtils.parseInt(reader, i, value));
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
+            case COMPACTION_BACKLOG:
+               if (fileStoreBuilder != null) {
+                  fileStoreBuilder.compactionBacklog(ParseUtils.parseInt(reader, i, value));
+               } else {
+                  throw ParseUtils.unexpectedAttribute(reader, i);
+               }
+               break;
             case COMPACTION_THRESHOLD:
                if (fileStoreBuilder != null) {
                   fileStoreBuilder.compactionThreshold(Double.parseDouble(value));
@@ -1030,6 +1044,15 @@ private void parseData(ConfigurationReader reader, SoftIndexFileStoreConfigurati
             case SYNC_WRITES:
                builder.syncWrites(ParseUtils.parseBoolean(reader, i, value));
                break;
+            case MEMORY_MAPPED:
+               builder.memoryMapped(ParseUtils.parseBoolean(reader, i, value));
+               break;
+            case GROUP_COMMIT_WINDOW:
+               builder.groupCommitWindow(ParseUtils.parseLong(reader, i, value));
+               break;
+            case GROUP_COMMIT_SIZE:
+               builder.groupCommitSize(ParseUtils.parseInt(reader, i, value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -1064,6 +1087,9 @@ private void parseIndex(ConfigurationReader reader, SoftIndexFileStoreConfigurat
             case MAX_NODE_SIZE:
                builder.maxNodeSize(ParseUtils.parseInt(reader, i, value));
                break;
+            case PAGE_CACHE_SIZE:
+               builder.indexPageCacheSize(ParseUtils.parseLong(reader, i, value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -1153,6 +1179,13 @@ public static void parseStoreWriteBehind(ConfigurationReader reader, AsyncStoreC
                storeBuilder.modificationQueueSize(ParseUtils.parseInt(reader, i, value));
                break;
             }
+            case MODIFICATION_QUEUE_MAX_BYTES: {
+               storeBuilder.modificationQueueMaxBytes(ParseUtils.parseLong(reader, i, value));
+               break;
+            }
+            case SPILL_TO_DISK:
+               storeBuilder.spillToDisk(ParseUtils.parseBoolean(reader, i, value));
+               break;
             case FAIL_SILENTLY:
                storeBuilder.failSilently(ParseUtils.parseBoolean(reader, i, value));
                break;
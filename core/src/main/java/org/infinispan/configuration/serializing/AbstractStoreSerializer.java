@@ -32,6 +32,8 @@ private void writeStoreWriteBehind(ConfigurationWriter writer, StoreConfiguratio
       if (writeBehind.isModified()) {
          writer.writeStartElement(Element.WRITE_BEHIND);
          writeBehind.write(writer, AsyncStoreConfiguration.MODIFICATION_QUEUE_SIZE, Attribute.MODIFICATION_QUEUE_SIZE);
+         writeBehind.write(writer, AsyncStoreConfiguration.MODIFICATION_QUEUE_MAX_BYTES, Attribute.MODIFICATION_QUEUE_MAX_BYTES);
+         writeBehind.write(writer, AsyncStoreConfiguration.SPILL_TO_DISK, Attribute.SPILL_TO_DISK);
          writeBehind.write(writer, AsyncStoreConfiguration.FAIL_SILENTLY, Attribute.FAIL_SILENTLY);
          writer.writeEndElement();
       }
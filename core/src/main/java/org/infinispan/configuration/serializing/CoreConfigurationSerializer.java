@@ -658,6 +658,8 @@ private void writeMemory(ConfigurationWriter writer, Configuration configuration
             attributes.write(writer, MemoryConfiguration.MAX_SIZE, Attribute.MAX_SIZE);
          }
          attributes.write(writer, MemoryConfiguration.WHEN_FULL, Attribute.WHEN_FULL);
+         attributes.write(writer, MemoryConfiguration.TABLE_TYPE, Attribute.TABLE_TYPE);
+         attributes.write(writer, MemoryConfiguration.ALLOCATOR_TYPE, Attribute.ALLOCATOR_TYPE);
          writer.writeEndElement();
       }
    }
@@ -830,7 +832,10 @@ private void writeDataElement(ConfigurationWriter writer, SoftIndexFileStoreConf
       configuration.data().attributes().write(writer, Element.DATA.getLocalName(),
             DataConfiguration.DATA_LOCATION,
             DataConfiguration.MAX_FILE_SIZE,
-            DataConfiguration.SYNC_WRITES);
+            DataConfiguration.SYNC_WRITES,
+            DataConfiguration.MEMORY_MAPPED,
+            DataConfiguration.GROUP_COMMIT_WINDOW,
+            DataConfiguration.GROUP_COMMIT_SIZE);
    }
 
    private void writeIndexElement(ConfigurationWriter writer, SoftIndexFileStoreConfiguration configuration) {
@@ -839,7 +844,8 @@ private void writeIndexElement(ConfigurationWriter writer, SoftIndexFileStoreCon
             IndexConfiguration.INDEX_QUEUE_LENGTH,
             IndexConfiguration.INDEX_SEGMENTS,
             IndexConfiguration.MIN_NODE_SIZE,
-            IndexConfiguration.MAX_NODE_SIZE);
+            IndexConfiguration.MAX_NODE_SIZE,
+            IndexConfiguration.PAGE_CACHE_SIZE);
    }
 
    private void writeCustomStore(ConfigurationWriter writer, CustomStoreConfiguration configuration) {
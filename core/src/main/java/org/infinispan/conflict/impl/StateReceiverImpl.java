@@ -10,17 +10,23 @@
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.remote.CacheRpcCommand;
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.logging.Log;
 import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.IntSets;
+import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.container.entries.NullCacheEntry;
 import org.infinispan.container.impl.InternalDataContainer;
+import org.infinispan.container.impl.SegmentDigest;
 import org.infinispan.distribution.LocalizedCacheTopology;
 import org.infinispan.executors.LimitedExecutor;
 import org.infinispan.factories.annotations.ComponentName;
@@ -33,8 +39,13 @@
 import org.infinispan.notifications.cachelistener.CacheNotifier;
 import org.infinispan.notifications.cachelistener.annotation.DataRehashed;
 import org.infinispan.notifications.cachelistener.event.DataRehashedEvent;
+import org.infinispan.remoting.inboundhandler.DeliverOrder;
+import org.infinispan.remoting.responses.Response;
+import org.infinispan.remoting.responses.SuccessfulResponse;
 import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.rpc.RpcOptions;
 import org.infinispan.remoting.transport.Address;
+import org.infinispan.remoting.transport.impl.MapResponseCollector;
 import org.infinispan.statetransfer.InboundTransferTask;
 import org.infinispan.statetransfer.StateChunk;
 import org.infinispan.topology.CacheTopology;
@@ -166,11 +177,118 @@ synchronized CompletableFuture<List<Map<Address, CacheEntry<K, V>>>> requestStat
             }
          });
 
+         if (dataContainer.segmentDigest(segmentId) == null) {
+            requestReplicas(null);
+         } else {
+            differingBuckets().whenComplete((buckets, throwable) -> {
+               if (throwable != null) {
+                  cancel(throwable);
+               } else {
+                  requestReplicas(buckets);
+               }
+            });
+         }
+         return future;
+      }
+
+      /**
+       * Compares the digests of the segment on all the replicas, first the digest of the whole segment and then the
+       * digests of its buckets if they differ.
+       *
+       * @return a stage that completes with the buckets whose digests differ, or with {@code null} if a replica does
+       * not maintain digests or is too old to compute them
+       */
+      private CompletionStage<IntSet> differingBuckets() {
+         return getDigests(false).thenCompose(roots -> {
+            if (roots == null) {
+               return CompletableFutures.completedNull();
+            }
+            if (isSameDigest(roots, 0)) {
+               return CompletableFuture.completedFuture(IntSets.immutableEmptySet());
+            }
+            return getDigests(true).thenApply(buckets -> {
+               if (buckets == null) {
+                  return null;
+               }
+               IntSet differing = IntSets.mutableEmptySet(SegmentDigest.BUCKETS);
+               for (int i = 0; i < SegmentDigest.BUCKETS; i++) {
+                  if (!isSameDigest(buckets, i)) {
+                     differing.set(i);
+                  }
+               }
+               return differing;
+            });
+         });
+      }
+
+      private CompletionStage<List<long[]>> getDigests(boolean buckets) {
+         List<long[]> digests = new ArrayList<>(replicaHosts.size());
+         List<Address> remoteReplicas = new ArrayList<>(replicaHosts.size());
+         for (Address replica : replicaHosts) {
+            if (replica.equals(rpcManager.getAddress())) {
+               SegmentDigest digest = dataContainer.segmentDigest(segmentId);
+               digests.add(buckets ? digest.buckets() : new long[]{digest.root()});
+            } else {
+               remoteReplicas.add(replica);
+            }
+         }
+         if (remoteReplicas.isEmpty()) {
+            return CompletableFuture.completedFuture(digests);
+         }
+
+         CacheRpcCommand cmd = commandsFactory.buildConflictResolutionDigestCommand(topology.getTopologyId(), segmentId, buckets);
+         for (Address replica : remoteReplicas) {
+            if (replica.getVersion().lessThan(cmd.supportedSince())) {
+               // The replica cannot compute digests, compare all the entries of the segment instead
+               if (log.isTraceEnabled()) log.tracef("Cache %s cannot request the digest of segment %s from %s with version %s",
+                     cacheName, segmentId, replica, replica.getVersion());
+               return CompletableFutures.completedNull();
+            }
+         }
+         RpcOptions rpcOptions = new RpcOptions(DeliverOrder.NONE, timeout, TimeUnit.MILLISECONDS);
+         return rpcManager.invokeCommand(remoteReplicas, cmd, MapResponseCollector.ignoreLeavers(remoteReplicas.size()), rpcOptions)
+               .thenApply(responses -> {
+                  for (Address replica : remoteReplicas) {
+                     Response response = responses.get(replica);
+                     Object digest = response instanceof SuccessfulResponse ? ((SuccessfulResponse<?>) response).getResponseValue() : null;
+                     if (digest == null) {
+                        if (log.isTraceEnabled()) log.tracef("Cache %s received no digest of segment %s from %s: %s", cacheName, segmentId, replica, response);
+                        return null;
+                     }
+                     digests.add(SegmentDigest.fromBytes((byte[]) digest));
+                  }
+                  return digests;
+               });
+      }
+
+      private boolean isSameDigest(List<long[]> digests, int index) {
+         long digest = digests.get(0)[index];
+         for (int i = 1; i < digests.size(); i++) {
+            if (digests.get(i)[index] != digest)
+               return false;
+         }
+         return true;
+      }
+
+      /**
+       * @param buckets the buckets of the entries to compare, or {@code null} to compare all the entries of the segment
+       */
+      synchronized void requestReplicas(IntSet buckets) {
+         if (future.isDone())
+            return;
+
+         if (log.isTraceEnabled()) log.tracef("Cache %s requesting replicas for segment %s, buckets %s", cacheName, segmentId, buckets);
+         if (buckets != null && buckets.isEmpty()) {
+            // The digests are the same on all the replicas
+            completeRequest();
+            return;
+         }
+
          for (final Address replica : replicaHosts) {
             if (replica.equals(rpcManager.getAddress())) {
                dataContainer.forEach(entry -> {
                   int keySegment = topology.getDistribution(entry.getKey()).segmentId();
-                  if (keySegment == segmentId) {
+                  if (keySegment == segmentId && (buckets == null || buckets.contains(SegmentDigest.bucket(entry.getKey())))) {
                      addKeyToReplicaMap(replica, entry);
                   }
                });
@@ -188,7 +306,9 @@ synchronized CompletableFuture<List<Map<Address, CacheEntry<K, V>>>> requestStat
                   if (!transferTaskMap.containsKey(replica))
                      return;
 
-                  transferTask.requestSegments().exceptionally(throwable -> {
+                  CompletionStage<Void> transferStage = buckets == null ? transferTask.requestSegments() :
+                        transferTask.requestBuckets(buckets);
+                  transferStage.exceptionally(throwable -> {
                      if (log.isTraceEnabled()) log.tracef(throwable, "Cache %s exception when processing InboundTransferTask", cacheName);
                      cancel(throwable);
                      return null;
@@ -196,7 +316,6 @@ synchronized CompletableFuture<List<Map<Address, CacheEntry<K, V>>>> requestStat
                });
             }
          }
-         return future;
       }
 
       synchronized void clear() {
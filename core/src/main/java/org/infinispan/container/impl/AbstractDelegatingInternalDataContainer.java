@@ -222,4 +222,19 @@ public void resize(long newSize) {
    public boolean hasExpirable() {
       return delegate().hasExpirable();
    }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> expirationCandidates(long currentTimeMillis) {
+      return delegate().expirationCandidates(currentTimeMillis);
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> expirationCandidates(IntSet segments, long currentTimeMillis) {
+      return delegate().expirationCandidates(segments, currentTimeMillis);
+   }
+
+   @Override
+   public SegmentDigest segmentDigest(int segment) {
+      return delegate().segmentDigest(segment);
+   }
 }
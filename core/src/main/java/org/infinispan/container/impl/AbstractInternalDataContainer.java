@@ -3,6 +3,7 @@
 import static org.infinispan.commons.util.Util.toStr;
 
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -14,7 +15,9 @@
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Consumer;
+import java.util.function.IntPredicate;
 import java.util.function.Predicate;
 
 import org.infinispan.commons.logging.Log;
@@ -24,10 +27,12 @@
 import org.infinispan.commons.util.ByRef;
 import org.infinispan.commons.util.FilterSpliterator;
 import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.ProcessorInfo;
 import org.infinispan.commons.util.Util;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.commons.util.concurrent.CompletionStages;
 import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.ExpirationConfiguration;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.distribution.ch.KeyPartitioner;
@@ -40,6 +45,7 @@
 import org.infinispan.factories.impl.ComponentRef;
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.marshall.persistence.PersistenceMarshaller;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.metadata.impl.L1Metadata;
 import org.infinispan.metadata.impl.PrivateMetadata;
@@ -61,6 +67,7 @@
 @Scope(Scopes.NAMED_CACHE)
 public abstract class AbstractInternalDataContainer<K, V> implements InternalDataContainer<K, V> {
    private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass());
+   private static final int EXPIRATION_STRIPES = Util.findNextHighestPowerOfTwo(ProcessorInfo.availableProcessors());
 
    @Inject protected TimeService timeService;
    @Inject protected EvictionManager<K, V> evictionManager;
@@ -70,6 +77,8 @@
    @Inject protected Configuration configuration;
    @Inject protected KeyPartitioner keyPartitioner;
    @Inject protected DataOperationOrderer orderer;
+   @Inject @ComponentName(KnownComponentNames.PERSISTENCE_MARSHALLER)
+   protected PersistenceMarshaller persistenceMarshaller;
    @Inject @ComponentName(KnownComponentNames.NON_BLOCKING_EXECUTOR)
    Executor nonBlockingExecutor;
 
@@ -81,6 +90,18 @@
     */
    private final AtomicLong expirable = new AtomicLong();
 
+   /**
+    * Keys of the entries that can expire, indexed by {@link #expirationIndex(int, Object)}. Created when the first
+    * entry that can expire is written, unless {@link #expirationWheelEnabled()} is false.
+    */
+   private volatile AtomicReferenceArray<ExpirationWheel<K>> expirationWheels;
+
+   /**
+    * The digests of the entries of each segment, or {@code null} if the container does not maintain them, see
+    * {@link #enableDigests(int)}.
+    */
+   private AtomicReferenceArray<SegmentDigest> digests;
+
    protected abstract PeekableTouchableMap<K, V> getMapForSegment(int segment);
    protected abstract int getSegmentForKey(Object key);
 
@@ -117,6 +138,8 @@ public void put(int segment, K k, V v, Metadata metadata, PrivateMetadata intern
             l1Entry = true;
          }
          InternalCacheEntry<K, V> e = entries.get(k);
+         // The update may modify the existing entry
+         long previousExpiryTime = expiryTime(e);
 
          if (log.isTraceEnabled()) {
             log.tracef("Creating new ICE for writing. Existing=%s, metadata=%s, new value=%s", e, metadata, toStr(v));
@@ -145,6 +168,8 @@ public void put(int segment, K k, V v, Metadata metadata, PrivateMetadata intern
          else entryAdded(copy);
 
          putEntryInMap(entries, segment, k, copy);
+         updateDigest(segment, k, copy);
+         scheduleExpiration(segment, k, copy, previousExpiryTime);
       } else {
          log.tracef("Insertion attempted for key: %s but there was no map created for it at segment: %d", k, segment);
       }
@@ -186,9 +211,11 @@ public InternalCacheEntry<K, V> remove(int segment, Object k) {
          if (e == null) {
             return null;
          }
+         updateDigest(segment, k, null);
 
          if (e.canExpire()) {
             entryRemoved(e);
+            cancelExpiration(segment, k);
             if (e.isExpired(timeService.wallClockTime())) {
                return null;
             }
@@ -211,6 +238,7 @@ public CompletionStage<Void> evict(int segment, K key) {
          return CompletableFutures.completedNull();
       }
       ByRef<CompletionStage<Void>> evictionStageRef = new ByRef<>(CompletableFutures.completedNull());
+      ByRef<InternalCacheEntry<K, V>> evictedRef = new ByRef<>(null);
       entries.computeIfPresent(key, (o, entry) -> {
          // Note this is non blocking but we are invoking it in the ConcurrentMap locked section - so we have to
          // return the value somehow
@@ -219,8 +247,14 @@ public CompletionStage<Void> evict(int segment, K key) {
          evictionStageRef.set(handleEviction(entry, null, passivator.running(), null, this, nonBlockingExecutor, null));
          computeEntryRemoved(o, entry);
          entryRemoved(entry);
+         updateDigest(segment, o, null);
+         evictedRef.set(entry);
          return null;
       });
+      InternalCacheEntry<K, V> evicted = evictedRef.get();
+      if (evicted != null && evicted.canExpire()) {
+         cancelExpiration(segment, key);
+      }
       return evictionStageRef.get();
    }
 
@@ -232,21 +266,42 @@ public void evict(K key) {
    @Override
    public InternalCacheEntry<K, V> compute(int segment, K key, DataContainer.ComputeAction<K, V> action) {
       PeekableTouchableMap<K, V> entries = getMapForSegment(segment);
-      return entries != null ? entries.compute(key, (k, oldEntry) -> {
+      if (entries == null) {
+         return null;
+      }
+      ByRef<InternalCacheEntry<K, V>> previousRef = new ByRef<>(null);
+      ByRef.Long previousExpiryTime = new ByRef.Long(-1);
+      InternalCacheEntry<K, V> result = entries.compute(key, (k, oldEntry) -> {
+         // The action may modify the existing entry
+         previousExpiryTime.set(expiryTime(oldEntry));
          InternalCacheEntry<K, V> newEntry = action.compute(k, oldEntry, entryFactory);
          if (newEntry == oldEntry) {
+            updateDigest(segment, k, oldEntry);
             return oldEntry;
          } else if (newEntry == null) {
             computeEntryRemoved(k, oldEntry);
             entryRemoved(oldEntry);
+            updateDigest(segment, k, null);
+            previousRef.set(oldEntry);
             return null;
          }
          computeEntryWritten(k, newEntry);
          entryAdded(newEntry);
+         updateDigest(segment, k, newEntry);
+         previousRef.set(oldEntry);
          if (log.isTraceEnabled())
             log.tracef("Store %s in container", newEntry);
          return newEntry;
-      }) : null;
+      });
+      // Scheduled once the entry is in the map, otherwise the reaper could drop the key
+      if (result == null) {
+         if (previousRef.get() != null && previousExpiryTime.get() >= 0) {
+            cancelExpiration(segment, key);
+         }
+      } else {
+         scheduleExpiration(segment, key, result, previousExpiryTime.get());
+      }
+      return result;
    }
 
    @Override
@@ -262,6 +317,7 @@ public void clear(IntSet segments) {
             segmentRemoved(map);
             map.clear();
          }
+         clearDigest(segment);
       });
    }
 
@@ -284,6 +340,48 @@ protected void computeEntryRemoved(K key, InternalCacheEntry<K, V> value) {
       // Do nothing by default
    }
 
+   /**
+    * Starts maintaining a {@link SegmentDigest} for each segment. Must be invoked before any entry is written.
+    *
+    * @param numSegments the number of segments
+    */
+   protected final void enableDigests(int numSegments) {
+      AtomicReferenceArray<SegmentDigest> digests = new AtomicReferenceArray<>(numSegments);
+      for (int i = 0; i < numSegments; i++) {
+         digests.set(i, new SegmentDigest());
+      }
+      this.digests = digests;
+   }
+
+   @Override
+   public SegmentDigest segmentDigest(int segment) {
+      AtomicReferenceArray<SegmentDigest> digests = this.digests;
+      return digests != null ? digests.get(segment) : null;
+   }
+
+   protected final void clearDigest(int segment) {
+      AtomicReferenceArray<SegmentDigest> digests = this.digests;
+      if (digests != null) {
+         digests.get(segment).clear();
+      }
+   }
+
+   /**
+    * Updates the digest with the hash of the entry written for the key, or removes the key if the entry is {@code null}.
+    * The digest keeps the hash of the previous entry, so only the new entry is hashed.
+    */
+   private void updateDigest(int segment, Object key, InternalCacheEntry<K, V> entry) {
+      AtomicReferenceArray<SegmentDigest> digests = this.digests;
+      if (digests != null) {
+         SegmentDigest digest = digests.get(segment);
+         if (entry != null) {
+            digest.update(key, SegmentDigest.hash(persistenceMarshaller, entry));
+         } else {
+            digest.remove(key);
+         }
+      }
+   }
+
    protected void putEntryInMap(PeekableTouchableMap<K, V> map, int segment, K key, InternalCacheEntry<K, V> ice) {
       map.putNoReturn(key, ice);
    }
@@ -307,6 +405,220 @@ public boolean hasExpirable() {
       return expirable.get() > 0;
    }
 
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> expirationCandidates(long currentTimeMillis) {
+      if (!expirationWheelEnabled()) {
+         return iteratorIncludingExpired();
+      }
+      return expirationCandidates(index -> true, currentTimeMillis);
+   }
+
+   /**
+    * The keys of the entries that can expire are only indexed when the reaper runs periodically, otherwise nothing
+    * would ever remove the keys of the entries that expire without being read. Off-heap containers don't index them
+    * either, as the wheels would keep a copy of every key on heap.
+    *
+    * @return whether {@link #expirationCandidates(long)} only returns the entries whose expiration is due
+    */
+   protected boolean expirationWheelEnabled() {
+      // Containers created without configuration, e.g. in tests
+      if (configuration == null) {
+         return true;
+      }
+      ExpirationConfiguration expiration = configuration.expiration();
+      return expiration.reaperEnabled() && expiration.wakeUpInterval() > 0 && !configuration.memory().isOffHeap();
+   }
+
+   /**
+    * Returns the entries that may have expired from the expiration indexes. Indexes that are not requested are
+    * still advanced, so that they do not keep the keys of entries that were removed.
+    *
+    * @param requestedIndexes the indexes whose entries are returned
+    * @param currentTimeMillis the current time
+    * @return the entries that may have expired
+    */
+   protected Iterator<InternalCacheEntry<K, V>> expirationCandidates(IntPredicate requestedIndexes, long currentTimeMillis) {
+      AtomicReferenceArray<ExpirationWheel<K>> wheels = expirationWheels;
+      if (wheels == null) {
+         return Collections.emptyIterator();
+      }
+      return new ExpirationCandidateIterator(wheels, requestedIndexes, currentTimeMillis);
+   }
+
+   /**
+    * @return the number of expiration indexes, see {@link #expirationIndex(int, Object)}
+    */
+   protected int expirationIndexCount() {
+      return EXPIRATION_STRIPES;
+   }
+
+   /**
+    * Returns the expiration index of a key, which must always be the same for a given key. The reaper looks up the
+    * entries with {@link #peek(int, Object)}, passing the index as the segment, so an index must be the segment of the
+    * key unless the container ignores the segment when reading. By default, the keys are striped by hash code.
+    *
+    * @param segment the segment of the key
+    * @param key the key
+    * @return the index of the key, between 0 (inclusive) and {@link #expirationIndexCount()} (exclusive)
+    */
+   protected int expirationIndex(int segment, Object key) {
+      int h = key.hashCode();
+      return (h ^ (h >>> 16)) & (EXPIRATION_STRIPES - 1);
+   }
+
+   /**
+    * @return the expiration time of the entry, or -1 if there is no entry or it cannot expire. Must be read before the
+    * entry is updated, as the update may modify it in place.
+    */
+   private static long expiryTime(InternalCacheEntry<?, ?> entry) {
+      return entry != null && entry.canExpire() ? entry.getExpiryTime() : -1;
+   }
+
+   /**
+    * @param previousExpiryTime the expiration time of the entry before the write, as returned by
+    *                           {@link #expiryTime(InternalCacheEntry)}
+    */
+   private void scheduleExpiration(int segment, K key, InternalCacheEntry<K, V> entry, long previousExpiryTime) {
+      if (!entry.canExpire()) {
+         if (previousExpiryTime >= 0) {
+            cancelExpiration(segment, key);
+         }
+         return;
+      }
+      if (!expirationWheelEnabled()) {
+         return;
+      }
+      long expiryTime = entry.getExpiryTime();
+      if (previousExpiryTime >= 0 && previousExpiryTime <= expiryTime) {
+         // The key is already scheduled earlier, and rescheduled when its slot is due
+         return;
+      }
+      ExpirationWheel<K> wheel = expirationWheel(expirationIndex(segment, key));
+      synchronized (wheel) {
+         wheel.schedule(key, expiryTime);
+      }
+   }
+
+   /**
+    * Removes the key of an entry that was removed or can no longer expire. Must be invoked after the entry is updated
+    * in the map, as a concurrent write may have scheduled the key again meanwhile.
+    */
+   @SuppressWarnings("unchecked")
+   private void cancelExpiration(int segment, Object key) {
+      AtomicReferenceArray<ExpirationWheel<K>> wheels = expirationWheels;
+      if (wheels == null) {
+         return;
+      }
+      ExpirationWheel<K> wheel = wheels.get(expirationIndex(segment, key));
+      if (wheel == null) {
+         return;
+      }
+      K k = (K) key;
+      synchronized (wheel) {
+         if (!wheel.cancel(k)) {
+            return;
+         }
+      }
+      InternalCacheEntry<K, V> current = peek(segment, key);
+      if (current != null && current.canExpire()) {
+         synchronized (wheel) {
+            wheel.schedule(k, current.getExpiryTime());
+         }
+      }
+   }
+
+   private ExpirationWheel<K> expirationWheel(int index) {
+      AtomicReferenceArray<ExpirationWheel<K>> wheels = expirationWheels;
+      if (wheels == null) {
+         synchronized (this) {
+            wheels = expirationWheels;
+            if (wheels == null) {
+               expirationWheels = wheels = new AtomicReferenceArray<>(expirationIndexCount());
+            }
+         }
+      }
+      ExpirationWheel<K> wheel = wheels.get(index);
+      if (wheel == null) {
+         wheel = new ExpirationWheel<>(timeService.wallClockTime());
+         if (!wheels.compareAndSet(index, null, wheel)) {
+            wheel = wheels.get(index);
+         }
+      }
+      return wheel;
+   }
+
+   /**
+    * Removes the due keys of an expiration index and schedules them again, unless their entry was removed or can no
+    * longer expire. Expired entries are scheduled for the next tick, until they are removed.
+    */
+   private List<InternalCacheEntry<K, V>> pollExpirationIndex(ExpirationWheel<K> wheel, int index, long currentTimeMillis,
+                                                              boolean collect) {
+      List<K> keys;
+      synchronized (wheel) {
+         keys = wheel.advance(currentTimeMillis);
+      }
+      if (keys.isEmpty()) {
+         return Collections.emptyList();
+      }
+      List<InternalCacheEntry<K, V>> candidates = collect ? new ArrayList<>() : Collections.emptyList();
+      long[] expiryTimes = new long[keys.size()];
+      for (int i = 0; i < keys.size(); i++) {
+         InternalCacheEntry<K, V> ice = peek(index, keys.get(i));
+         if (ice == null || !ice.canExpire()) {
+            keys.set(i, null);
+         } else if (ice.isExpired(currentTimeMillis)) {
+            if (collect) {
+               candidates.add(ice);
+            }
+            expiryTimes[i] = currentTimeMillis;
+         } else {
+            expiryTimes[i] = ice.getExpiryTime();
+         }
+      }
+      synchronized (wheel) {
+         for (int i = 0; i < keys.size(); i++) {
+            K key = keys.get(i);
+            if (key != null) {
+               wheel.schedule(key, expiryTimes[i]);
+            }
+         }
+      }
+      if (log.isTraceEnabled()) {
+         log.tracef("Checked %d keys of expiration index %d, %d entries expired", keys.size(), index, candidates.size());
+      }
+      return candidates;
+   }
+
+   private class ExpirationCandidateIterator extends AbstractIterator<InternalCacheEntry<K, V>> {
+      private final AtomicReferenceArray<ExpirationWheel<K>> wheels;
+      private final IntPredicate requestedIndexes;
+      private final long currentTimeMillis;
+      private int nextIndex;
+      private Iterator<InternalCacheEntry<K, V>> candidates = Collections.emptyIterator();
+
+      ExpirationCandidateIterator(AtomicReferenceArray<ExpirationWheel<K>> wheels, IntPredicate requestedIndexes,
+                                  long currentTimeMillis) {
+         this.wheels = wheels;
+         this.requestedIndexes = requestedIndexes;
+         this.currentTimeMillis = currentTimeMillis;
+      }
+
+      @Override
+      protected InternalCacheEntry<K, V> getNext() {
+         while (!candidates.hasNext()) {
+            if (nextIndex == wheels.length()) {
+               return null;
+            }
+            int index = nextIndex++;
+            ExpirationWheel<K> wheel = wheels.get(index);
+            if (wheel != null) {
+               candidates = pollExpirationIndex(wheel, index, currentTimeMillis, requestedIndexes.test(index)).iterator();
+            }
+         }
+         return candidates.next();
+      }
+   }
+
    protected final void entryAdded(InternalCacheEntry<K, V> ice) {
       if (ice.canExpire()) {
          expirable.incrementAndGet();
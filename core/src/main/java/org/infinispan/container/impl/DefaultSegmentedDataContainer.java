@@ -63,6 +63,9 @@ public void start() {
       // Distributed is the only mode that allows for dynamic addition/removal of maps as others own all segments
       // in some fashion
       shouldStopSegments = configuration.clustering().cacheMode().isDistributed();
+      if (SegmentDigest.isEnabled(configuration)) {
+         enableDigests(maps.length());
+      }
    }
 
    @Stop
@@ -78,6 +81,24 @@ public int getSegmentForKey(Object key) {
       return keyPartitioner.getSegment(key);
    }
 
+   @Override
+   protected int expirationIndexCount() {
+      return maps.length();
+   }
+
+   @Override
+   protected int expirationIndex(int segment, Object key) {
+      return segment;
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> expirationCandidates(IntSet segments, long currentTimeMillis) {
+      if (!expirationWheelEnabled()) {
+         return iteratorIncludingExpired(segments);
+      }
+      return expirationCandidates(segments::contains, currentTimeMillis);
+   }
+
    @Override
    public PeekableTouchableMap<K, V> getMapForSegment(int segment) {
       return maps.get(segment);
@@ -215,6 +236,7 @@ public void clear() {
          if (map != null) {
             map.clear();
          }
+         clearDigest(i);
       }
    }
 
@@ -289,6 +311,7 @@ private void stopMap(int segment, boolean notifyListener) {
             listeners.forEach(c -> c.accept(map.values()));
          }
          segmentRemoved(map);
+         clearDigest(segment);
          if (map instanceof AutoCloseable) {
             try {
                ((AutoCloseable) map).close();
@@ -0,0 +1,184 @@
+package org.infinispan.container.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarchical timing wheel of the keys that can expire, so that the reaper only looks at the keys whose expiration
+ * is due instead of iterating over the whole container.
+ * <p>
+ * Time is split in ticks of {@link #TICK_MILLIS}. The first level has a slot for each of the next 64 ticks, every
+ * other level has 64 slots, each spanning all the slots of the level below. A key is placed at the lowest level that
+ * can hold its expiration time, so a slot of a higher level fires before the keys in it are actually due.
+ * <p>
+ * The wheel only stores keys, the caller has to look at the current entry of every key returned by
+ * {@link #advance(long)} and schedule it again if it did not expire yet, which also moves the keys of higher levels to
+ * the lower ones. A key is only in one slot: scheduling it again keeps the slot that is due first, so an entry whose
+ * expiration moved later is checked early and scheduled again, and {@link #cancel(Object)} removes it.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @since 16.0
+ */
+final class ExpirationWheel<K> {
+   static final long TICK_MILLIS = 1000;
+   private static final int SLOT_BITS = 6;
+   private static final int SLOTS = 1 << SLOT_BITS;
+   private static final int LEVELS = 6;
+   // The last tick that can be scheduled without overflowing the highest level
+   private static final long MAX_TICK_OFFSET = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+   @SuppressWarnings("unchecked")
+   private final Set<K>[][] slots = new Set[LEVELS][];
+   // A bit for every slot that holds keys
+   private final long[] occupied = new long[LEVELS];
+   // The slot of every key, level * SLOTS + slot
+   private final Map<K, Integer> positions = new HashMap<>();
+   // The last tick passed to advance, its slots can still receive keys that expire later in the same tick
+   private long time;
+
+   ExpirationWheel(long currentTimeMillis) {
+      this.time = currentTimeMillis / TICK_MILLIS;
+   }
+
+   /**
+    * Adds a key that expires at the given time, unless it is already in a slot that is due earlier. A time that
+    * already passed schedules the key for the next invocation of {@link #advance(long)}.
+    */
+   void schedule(K key, long expirationTimeMillis) {
+      long tick = Math.max(expirationTimeMillis / TICK_MILLIS, time);
+      long diff = tick ^ time;
+      int level = diff == 0 ? 0 : (63 - Long.numberOfLeadingZeros(diff)) / SLOT_BITS;
+      if (level >= LEVELS) {
+         // Too far in the future, the key is checked again when the highest level wraps around
+         level = LEVELS - 1;
+         tick = time | MAX_TICK_OFFSET;
+      }
+      int slot = (int) (tick >>> (level * SLOT_BITS)) & (SLOTS - 1);
+      int position = level * SLOTS + slot;
+      Integer previous = positions.get(key);
+      if (previous != null) {
+         if (slotTick(previous) <= slotTick(position)) {
+            return;
+         }
+         removeFromSlot(key, previous);
+      }
+      positions.put(key, position);
+      Set<K>[] levelSlots = slots[level];
+      if (levelSlots == null) {
+         levelSlots = slots[level] = newSlots();
+      }
+      Set<K> keys = levelSlots[slot];
+      if (keys == null) {
+         keys = levelSlots[slot] = new HashSet<>();
+         occupied[level] |= 1L << slot;
+      }
+      keys.add(key);
+   }
+
+   /**
+    * Removes a key, invoked when its entry is removed or can no longer expire.
+    *
+    * @return <code>true</code> if the key was in the wheel
+    */
+   boolean cancel(K key) {
+      Integer position = positions.remove(key);
+      if (position == null) {
+         return false;
+      }
+      removeFromSlot(key, position);
+      return true;
+   }
+
+   private void removeFromSlot(K key, int position) {
+      int level = position / SLOTS;
+      int slot = position % SLOTS;
+      Set<K> keys = slots[level][slot];
+      keys.remove(key);
+      if (keys.isEmpty()) {
+         slots[level][slot] = null;
+         occupied[level] &= ~(1L << slot);
+      }
+   }
+
+   /**
+    * @return the first tick of a slot, the slots before the current one of every level are always empty
+    */
+   private long slotTick(int position) {
+      int shift = (position / SLOTS) * SLOT_BITS;
+      return (((time >>> shift) & ~(long) (SLOTS - 1)) | (position % SLOTS)) << shift;
+   }
+
+   /**
+    * Removes the keys of all the slots that are due at the given time. This includes the keys that expire at or
+    * before the given time, the keys that expire later in the same tick, and the keys of the higher levels that must
+    * be scheduled again.
+    *
+    * @return the keys that must be checked
+    */
+   List<K> advance(long currentTimeMillis) {
+      long currentTick = currentTimeMillis / TICK_MILLIS;
+      if (currentTick < time) {
+         return Collections.emptyList();
+      }
+      List<K> due = positions.isEmpty() ? Collections.emptyList() : new ArrayList<>();
+      while (!positions.isEmpty()) {
+         // Find the slot that starts first, the current slot of a higher level may start before the current tick
+         int nextLevel = -1;
+         int nextSlot = 0;
+         long nextTick = Long.MAX_VALUE;
+         for (int level = 0; level < LEVELS; level++) {
+            int shift = level * SLOT_BITS;
+            // Slots before the current one are always empty
+            int current = (int) (time >>> shift) & (SLOTS - 1);
+            long pending = occupied[level] & (-1L << current);
+            if (pending != 0) {
+               int slot = Long.numberOfTrailingZeros(pending);
+               long slotTick = slotTick(level * SLOTS + slot);
+               if (slotTick < nextTick) {
+                  nextLevel = level;
+                  nextSlot = slot;
+                  nextTick = slotTick;
+               }
+            }
+         }
+         if (nextTick > currentTick) {
+            break;
+         }
+         Set<K> keys = slots[nextLevel][nextSlot];
+         slots[nextLevel][nextSlot] = null;
+         occupied[nextLevel] &= ~(1L << nextSlot);
+         for (K key : keys) {
+            positions.remove(key);
+         }
+         due.addAll(keys);
+      }
+      time = currentTick;
+      return due;
+   }
+
+   /**
+    * @return the number of keys in the wheel
+    */
+   int size() {
+      return positions.size();
+   }
+
+   @SuppressWarnings("unchecked")
+   private Set<K>[] newSlots() {
+      return new Set[SLOTS];
+   }
+
+   @Override
+   public String toString() {
+      return "ExpirationWheel{" +
+            "time=" + time +
+            ", size=" + positions.size() +
+            '}';
+   }
+}
@@ -267,4 +267,42 @@ default void cleanUp() {
     * @return true if any entry can expire, false otherwise.
     */
    boolean hasExpirable();
+
+   /**
+    * Returns the entries that may have expired at the given time. Implementations can return only the entries whose
+    * expiration is due, instead of iterating over all the entries that can expire. The caller must still verify that
+    * the returned entries are expired, and an expired entry that is not removed is returned again by later
+    * invocations.
+    * <p>
+    * The default implementation returns all the entries, like {@link #iteratorIncludingExpired()}.
+    *
+    * @param currentTimeMillis the current wall clock time
+    * @return iterator of the entries that may have expired
+    */
+   default Iterator<InternalCacheEntry<K, V>> expirationCandidates(long currentTimeMillis) {
+      return iteratorIncludingExpired();
+   }
+
+   /**
+    * Same as {@link #expirationCandidates(long)} except that only entries that map to the provided segments are
+    * returned.
+    *
+    * @param segments segments of entries to use
+    * @param currentTimeMillis the current wall clock time
+    * @return iterator of the entries mapped to the given segments that may have expired
+    */
+   default Iterator<InternalCacheEntry<K, V>> expirationCandidates(IntSet segments, long currentTimeMillis) {
+      return iteratorIncludingExpired(segments);
+   }
+
+   /**
+    * Returns the digest of the entries of a segment, maintained as the entries are written. Conflict resolution uses
+    * the digests to only compare the entries of the segments that differ between the owners.
+    *
+    * @param segment the segment
+    * @return the digest of the segment, or {@code null} if the container does not maintain digests
+    */
+   default SegmentDigest segmentDigest(int segment) {
+      return null;
+   }
 }
@@ -0,0 +1,173 @@
+package org.infinispan.container.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.marshall.MarshallingException;
+import org.infinispan.configuration.cache.ClusteringConfiguration;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.container.entries.InternalCacheEntry;
+
+/**
+ * Digest of the entries of a segment, updated by the data container every time an entry of the segment is written or
+ * removed.
+ * <p>
+ * The keys of a segment are spread over {@link #BUCKETS} buckets by hash code. The digest of a bucket is the XOR of the
+ * hashes of its entries, so it does not depend on the order of the writes and an update only needs the hash of the
+ * previous entry. The hash of the current entry of every key is kept, so a write only hashes the new entry. The digest of the segment is computed from the digests of its buckets, forming a two level hash
+ * tree: conflict resolution compares the segment digests of the owners first, and then only compares the bucket
+ * digests and the entries of the segments that differ.
+ * <p>
+ * The hash of an entry is the first 64 bits of the SHA-256 digest of its marshalled key, value and metadata, so the
+ * digests of the owners only match if their entries are the same, independently of the hash codes of the values.
+ *
+ * @since 16.0
+ */
+public final class SegmentDigest {
+   public static final int BUCKETS = 256;
+   private static final String HASH_ALGORITHM = "SHA-256";
+
+   private static final ThreadLocal<MessageDigest> MESSAGE_DIGEST = ThreadLocal.withInitial(() -> {
+      try {
+         return MessageDigest.getInstance(HASH_ALGORITHM);
+      } catch (NoSuchAlgorithmException e) {
+         throw new CacheException(e);
+      }
+   });
+
+   private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+   private final ConcurrentMap<Object, Long> entryHashes = new ConcurrentHashMap<>();
+
+   /**
+    * Digests are only maintained by caches that resolve conflicts after a merge, when all the entries of a segment are
+    * in the data container.
+    */
+   public static boolean isEnabled(Configuration configuration) {
+      ClusteringConfiguration clustering = configuration.clustering();
+      return clustering.cacheMode().needsStateTransfer() && clustering.partitionHandling().resolveConflictsOnMerge() &&
+            !clustering.l1().enabled() && !configuration.memory().isEvictionEnabled() &&
+            !configuration.persistence().usingStores();
+   }
+
+   /**
+    * @return the bucket of the key, between 0 (inclusive) and {@link #BUCKETS} (exclusive)
+    */
+   public static int bucket(Object key) {
+      int h = key.hashCode();
+      return (h ^ (h >>> 16)) & (BUCKETS - 1);
+   }
+
+   static long hash(Marshaller marshaller, InternalCacheEntry<?, ?> entry) {
+      MessageDigest digest = MESSAGE_DIGEST.get();
+      digest.reset();
+      update(digest, marshaller, entry.getKey());
+      update(digest, marshaller, entry.getValue());
+      update(digest, marshaller, entry.getMetadata());
+      return ByteBuffer.wrap(digest.digest()).getLong();
+   }
+
+   private static void update(MessageDigest digest, Marshaller marshaller, Object object) {
+      if (object == null) {
+         digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(-1).array());
+         return;
+      }
+      byte[] bytes;
+      try {
+         bytes = marshaller.objectToByteBuffer(object);
+      } catch (IOException e) {
+         throw new MarshallingException(e);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new CacheException(e);
+      }
+      // Prefix the length so that the boundaries between the key, the value and the metadata are part of the hash
+      digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+      digest.update(bytes);
+   }
+
+   /**
+    * Replaces the hash of the entry of the key.
+    */
+   void update(Object key, long hash) {
+      Long previousHash = entryHashes.put(key, hash);
+      xor(key, previousHash != null ? previousHash ^ hash : hash);
+   }
+
+   /**
+    * Removes the hash of the entry of the key, if it had one.
+    */
+   void remove(Object key) {
+      Long previousHash = entryHashes.remove(key);
+      if (previousHash != null) {
+         xor(key, previousHash);
+      }
+   }
+
+   private void xor(Object key, long delta) {
+      if (delta != 0) {
+         int bucket = bucket(key);
+         long current;
+         do {
+            current = buckets.get(bucket);
+         } while (!buckets.compareAndSet(bucket, current, current ^ delta));
+      }
+   }
+
+   void clear() {
+      entryHashes.clear();
+      for (int i = 0; i < BUCKETS; i++) {
+         buckets.set(i, 0);
+      }
+   }
+
+   /**
+    * @return the digest of all the entries of the segment
+    */
+   public long root() {
+      long h = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+         h = mix(h ^ buckets.get(i)) + i;
+      }
+      return h;
+   }
+
+   /**
+    * @return a copy of the digests of the buckets
+    */
+   public long[] buckets() {
+      long[] digests = new long[BUCKETS];
+      for (int i = 0; i < BUCKETS; i++) {
+         digests[i] = buckets.get(i);
+      }
+      return digests;
+   }
+
+   public static byte[] toBytes(long... digests) {
+      ByteBuffer buffer = ByteBuffer.allocate(digests.length * Long.BYTES);
+      buffer.asLongBuffer().put(digests);
+      return buffer.array();
+   }
+
+   public static long[] fromBytes(byte[] bytes) {
+      long[] digests = new long[bytes.length / Long.BYTES];
+      ByteBuffer.wrap(bytes).asLongBuffer().get(digests);
+      return digests;
+   }
+
+   // Finalization mix of MurmurHash3
+   private static long mix(long h) {
+      h ^= h >>> 33;
+      h *= 0xff51afd7ed558ccdL;
+      h ^= h >>> 33;
+      h *= 0xc4ceb9fe1a85ec53L;
+      h ^= h >>> 33;
+      return h;
+   }
+}
@@ -8,6 +8,8 @@
 import org.infinispan.commons.util.FilterIterator;
 import org.infinispan.commons.util.FilterSpliterator;
 import org.infinispan.commons.util.IntSet;
+import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.OffHeapTableType;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.container.impl.AbstractInternalDataContainer;
 import org.infinispan.container.impl.PeekableTouchableMap;
@@ -23,17 +25,21 @@ public class OffHeapDataContainer extends AbstractInternalDataContainer<WrappedB
    @Inject protected OffHeapMemoryAllocator allocator;
    @Inject protected OffHeapEntryFactory offHeapEntryFactory;
 
-   private OffHeapConcurrentMap map;
+   private PeekableTouchableMap<WrappedBytes, WrappedBytes> map;
 
    @Start
    public void start() {
-      map = new OffHeapConcurrentMap(allocator, offHeapEntryFactory, null);
+      if (configuration.memory().tableType() == OffHeapTableType.OPEN_ADDRESSING) {
+         map = new OpenAddressingOffHeapMap(allocator, offHeapEntryFactory);
+      } else {
+         map = new OffHeapConcurrentMap(allocator, offHeapEntryFactory, null);
+      }
    }
 
    @Stop
    public void stop() {
       clear();
-      map.close();
+      Util.close((AutoCloseable) map);
    }
 
    @Override
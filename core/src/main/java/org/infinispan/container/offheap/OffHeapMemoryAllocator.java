@@ -23,4 +23,14 @@ public interface OffHeapMemoryAllocator {
    void deallocate(long memoryAddress, long size);
 
    long getAllocatedAmount();
+
+   /**
+    * Returns the memory used by an allocation of the given length, including the housekeeping of the allocator and
+    * the alignment of the allocated address.
+    * @param memoryLength the size of memory to allocate
+    * @return the size of memory the allocation takes
+    */
+   default long allocationSize(long memoryLength) {
+      return UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(memoryLength);
+   }
 }
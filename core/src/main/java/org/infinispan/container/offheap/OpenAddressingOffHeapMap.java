@@ -0,0 +1,710 @@
+package org.infinispan.container.offheap;
+
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteOrder;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiFunction;
+
+import org.infinispan.commons.marshall.WrappedBytes;
+import org.infinispan.commons.spi.OffHeapMemory;
+import org.infinispan.commons.util.IteratorMapper;
+import org.infinispan.commons.util.ProcessorInfo;
+import org.infinispan.commons.util.Util;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.impl.PeekableTouchableMap;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+
+/**
+ * A {@link ConcurrentMap} that stores the keys and values off the JVM heap, like {@link OffHeapConcurrentMap}, but
+ * locates the entries through open addressing tables instead of chaining them in buckets. This map does not permit
+ * null for key or values.
+ * <p>
+ * The map is split in a fixed number of tables, each protected by its own {@link StampedLock} and resized on its own.
+ * A table is a single native memory block holding a control byte per slot followed by the address of the entry stored
+ * in the slot. The control byte is either empty, deleted or holds 7 bits of the key hash. Slots are probed in groups of
+ * 8: the control bytes of a group are read as a single long and compared with the hash bits all at once, so that the
+ * entry itself, which may live anywhere in native memory, is only read when its hash bits match. A lookup usually
+ * touches the control bytes and a single entry, where a chained bucket has to follow the next pointer of every entry
+ * before the one requested.
+ * <p>
+ * A table is resized when 7/8 of its slots are used or deleted, either doubling its capacity or purging the deleted
+ * slots if there are many. Only the lock of the table being resized is held, operations on the other tables proceed.
+ * <p>
+ * Iteration over the collection views reads a whole table at a time while holding its read lock, and is weakly
+ * consistent: entries added or removed in a table that was not read yet are reflected, the others are not.
+ * <p>
+ * Unlike {@link OffHeapConcurrentMap} this map doesn't notify an entry listener, so it can't be used by the bounded
+ * containers which track the entries for eviction.
+ * <p>
+ * Users need to ensure they invoke {@link #close()} when the map is no longer in use to free all allocated native
+ * memory.
+ *
+ * @since 16.0
+ */
+public class OpenAddressingOffHeapMap implements ConcurrentMap<WrappedBytes, InternalCacheEntry<WrappedBytes, WrappedBytes>>,
+      PeekableTouchableMap<WrappedBytes, WrappedBytes>, AutoCloseable {
+   private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass());
+   private static final OffHeapMemory MEMORY = org.infinispan.commons.jdkspecific.OffHeapMemory.getInstance();
+   private static final boolean BIG_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
+
+   private static final int TABLE_COUNT = Math.min(Util.findNextHighestPowerOfTwo(ProcessorInfo.availableProcessors()) << 1,
+         256);
+   private static final int TABLE_MASK = TABLE_COUNT - 1;
+
+   static final int GROUP_SIZE = 8;
+   // Capacity of every table when the map is created or cleared
+   static final int INITIAL_CAPACITY = GROUP_SIZE;
+   private static final int MAX_CAPACITY = 1 << 30;
+
+   private static final byte EMPTY = (byte) 0x80;
+   private static final byte DELETED = (byte) 0xFE;
+   private static final long LSB = 0x0101010101010101L;
+   private static final long MSB = 0x8080808080808080L;
+   // Multiplicative hashing with the 64 bit golden ratio, the high bits of the product are the best distributed
+   private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+   // Bits 57-63 are stored in the control byte, bits 49-56 select the table, bits 18-48 select the group
+   private static final int CONTROL_SHIFT = 57;
+   private static final int TABLE_SHIFT = 49;
+   private static final int GROUP_SHIFT = 18;
+
+   private final AtomicLong size = new AtomicLong();
+   private final Table[] tables = new Table[TABLE_COUNT];
+
+   private final OffHeapMemoryAllocator allocator;
+   private final OffHeapEntryFactory offHeapEntryFactory;
+
+   public OpenAddressingOffHeapMap(OffHeapMemoryAllocator allocator, OffHeapEntryFactory offHeapEntryFactory) {
+      this.allocator = Objects.requireNonNull(allocator);
+      this.offHeapEntryFactory = Objects.requireNonNull(offHeapEntryFactory);
+      for (int i = 0; i < TABLE_COUNT; i++) {
+         tables[i] = new Table(INITIAL_CAPACITY);
+      }
+   }
+
+   private static long hash(int hashCode) {
+      return hashCode * GOLDEN_RATIO;
+   }
+
+   private static byte control(long hash) {
+      return (byte) (hash >>> CONTROL_SHIFT);
+   }
+
+   private Table table(long hash) {
+      return tables[(int) (hash >>> TABLE_SHIFT) & TABLE_MASK];
+   }
+
+   /**
+    * @return a mask with the highest bit set for every byte of the group that is equal to <code>control</code>
+    */
+   static long match(long group, byte control) {
+      long x = group ^ (LSB * (control & 0xFF));
+      // May report a false positive for a byte following a match, which is only a full slot with different hash bits
+      return (x - LSB) & ~x & MSB;
+   }
+
+   static long matchEmpty(long group) {
+      // Only EMPTY has the highest bit set and the second lowest bit cleared
+      return group & (~group << 6) & MSB;
+   }
+
+   static long matchEmptyOrDeleted(long group) {
+      // EMPTY and DELETED have the highest bit set and the lowest bit cleared
+      return group & ~(group << 7) & MSB;
+   }
+
+   private static int firstIndex(long mask) {
+      return Long.numberOfTrailingZeros(mask) >>> 3;
+   }
+
+   /**
+    * An open addressing table with its own lock. The memory block holds the control bytes of all the slots followed by
+    * the entry addresses.
+    */
+   private final class Table {
+      final StampedLock lock = new StampedLock();
+      @GuardedBy("lock")
+      long memory;
+      @GuardedBy("lock")
+      int capacity;
+      @GuardedBy("lock")
+      int used;
+      // How many empty slots can still be filled before the table must be resized
+      @GuardedBy("lock")
+      int growthLeft;
+
+      Table(int capacity) {
+         allocate(capacity);
+      }
+
+      @GuardedBy("lock")
+      private void allocate(int capacity) {
+         long bytes = (long) capacity * (1 + Long.BYTES);
+         long memory = allocator.allocate(bytes);
+         // Addresses are 0 and control bytes are EMPTY
+         MEMORY.setMemory(memory, bytes, (byte) 0);
+         MEMORY.setMemory(memory, capacity, EMPTY);
+         this.memory = memory;
+         this.capacity = capacity;
+         this.used = 0;
+         this.growthLeft = capacity - (capacity >>> 3);
+      }
+
+      @GuardedBy("lock")
+      void deallocate() {
+         allocator.deallocate(memory, (long) capacity * (1 + Long.BYTES));
+         memory = 0;
+      }
+
+      void checkDeallocation() {
+         if (memory == 0) {
+            throw new IllegalStateException("Map was already shut down!");
+         }
+      }
+
+      @GuardedBy("lock")
+      long group(int group) {
+         long value = MEMORY.getLong(memory, (long) group * GROUP_SIZE);
+         return BIG_ENDIAN ? Long.reverseBytes(value) : value;
+      }
+
+      @GuardedBy("lock")
+      byte controlAt(int slot) {
+         return MEMORY.getByte(memory, slot);
+      }
+
+      @GuardedBy("lock")
+      long addressAt(int slot) {
+         return MEMORY.getLong(memory, capacity + ((long) slot << 3));
+      }
+
+      @GuardedBy("lock")
+      void set(int slot, byte control, long address) {
+         MEMORY.putByte(memory, slot, control);
+         MEMORY.putLong(memory, capacity + ((long) slot << 3), address);
+      }
+
+      /**
+       * @return the slot holding the key or -1 if it isn't present
+       */
+      @GuardedBy("lock#readLock")
+      int find(WrappedBytes key, int hashCode, long hash) {
+         byte control = control(hash);
+         int mask = (capacity / GROUP_SIZE) - 1;
+         int group = (int) (hash >>> GROUP_SHIFT) & mask;
+         // Triangular probing visits every group, and there is always at least an empty slot
+         for (int step = 1; ; step++) {
+            long controls = group(group);
+            for (long match = match(controls, control); match != 0; match &= match - 1) {
+               int slot = group * GROUP_SIZE + firstIndex(match);
+               if (offHeapEntryFactory.equalsKey(addressAt(slot), key, hashCode)) {
+                  return slot;
+               }
+            }
+            if (matchEmpty(controls) != 0) {
+               return -1;
+            }
+            group = (group + step) & mask;
+         }
+      }
+
+      @GuardedBy("lock#writeLock")
+      private int findInsertSlot(long hash) {
+         int mask = (capacity / GROUP_SIZE) - 1;
+         int group = (int) (hash >>> GROUP_SHIFT) & mask;
+         for (int step = 1; ; step++) {
+            long match = matchEmptyOrDeleted(group(group));
+            if (match != 0) {
+               return group * GROUP_SIZE + firstIndex(match);
+            }
+            group = (group + step) & mask;
+         }
+      }
+
+      /**
+       * Adds the address of an entry whose key is not present in the table.
+       */
+      @GuardedBy("lock#writeLock")
+      void insert(long hash, long address) {
+         if (growthLeft == 0) {
+            // Purge the deleted slots in place if they take at least half of the table, otherwise grow
+            resize(used <= (capacity >>> 2) + (capacity >>> 3) ? capacity : capacity << 1);
+         }
+         int slot = findInsertSlot(hash);
+         if (controlAt(slot) == EMPTY) {
+            growthLeft--;
+         }
+         set(slot, control(hash), address);
+         used++;
+      }
+
+      @GuardedBy("lock#writeLock")
+      void erase(int slot) {
+         // A lookup stops at a group with an empty slot, so if the group has one the slot can be emptied as well
+         boolean groupHasEmpty = matchEmpty(group(slot / GROUP_SIZE)) != 0;
+         set(slot, groupHasEmpty ? EMPTY : DELETED, 0);
+         if (groupHasEmpty) {
+            growthLeft++;
+         }
+         used--;
+      }
+
+      @GuardedBy("lock#writeLock")
+      private void resize(int newCapacity) {
+         if (newCapacity > MAX_CAPACITY) {
+            throw new IllegalStateException("Off-heap table cannot grow beyond " + MAX_CAPACITY + " entries");
+         }
+         long oldMemory = memory;
+         int oldCapacity = capacity;
+         int oldUsed = used;
+         allocate(newCapacity);
+         for (int slot = 0; slot < oldCapacity; slot++) {
+            if (MEMORY.getByte(oldMemory, slot) >= 0) {
+               long address = MEMORY.getLong(oldMemory, oldCapacity + ((long) slot << 3));
+               long hash = hash(offHeapEntryFactory.getHashCode(address));
+               int newSlot = findInsertSlot(hash);
+               set(newSlot, control(hash), address);
+            }
+         }
+         used = oldUsed;
+         growthLeft -= oldUsed;
+         allocator.deallocate(oldMemory, (long) oldCapacity * (1 + Long.BYTES));
+         if (log.isTraceEnabled()) {
+            log.tracef("Resized off-heap table from %d to %d slots holding %d entries", oldCapacity, newCapacity, used);
+         }
+      }
+
+      /**
+       * Frees all the entries and shrinks the table back to its initial capacity.
+       * @return how many entries were removed
+       */
+      @GuardedBy("lock#writeLock")
+      int clear(boolean close) {
+         int removed = used;
+         for (int slot = 0; slot < capacity; slot++) {
+            if (controlAt(slot) >= 0) {
+               deallocateEntry(addressAt(slot));
+            }
+         }
+         deallocate();
+         if (!close) {
+            allocate(INITIAL_CAPACITY);
+         }
+         return removed;
+      }
+
+      @GuardedBy("lock#readLock")
+      void readAll(Queue<InternalCacheEntry<WrappedBytes, WrappedBytes>> values) {
+         for (int group = 0; group < capacity / GROUP_SIZE; group++) {
+            // Full slots have the highest bit of the control byte cleared
+            for (long full = ~group(group) & MSB; full != 0; full &= full - 1) {
+               values.add(offHeapEntryFactory.fromMemory(addressAt(group * GROUP_SIZE + firstIndex(full))));
+            }
+         }
+      }
+   }
+
+   private void deallocateEntry(long address) {
+      allocator.deallocate(address, offHeapEntryFactory.getSize(address, false));
+   }
+
+   @Override
+   public boolean touchKey(Object k, long currentTimeMillis) {
+      if (!(k instanceof WrappedBytes)) {
+         return false;
+      }
+      int hashCode = k.hashCode();
+      long hash = hash(hashCode);
+      Table table = table(hash);
+      // We need the write lock as we may have to replace the value entirely
+      long writeStamp = table.lock.writeLock();
+      try {
+         table.checkDeallocation();
+         int slot = table.find((WrappedBytes) k, hashCode, hash);
+         if (slot < 0) {
+            return false;
+         }
+         long address = table.addressAt(slot);
+         long newAddress = offHeapEntryFactory.updateMaxIdle(address, currentTimeMillis);
+         if (newAddress != 0) {
+            table.set(slot, control(hash), newAddress);
+            deallocateEntry(address);
+         }
+         return true;
+      } finally {
+         table.lock.unlockWrite(writeStamp);
+      }
+   }
+
+   @Override
+   public void touchAll(long currentTimeMillis) {
+      Iterator<InternalCacheEntry<WrappedBytes, WrappedBytes>> iterator = entryIterator();
+      while (iterator.hasNext()) {
+         InternalCacheEntry<WrappedBytes, WrappedBytes> ice = iterator.next();
+         touchKey(ice.getKey(), currentTimeMillis);
+      }
+   }
+
+   @Override
+   public void close() {
+      lockAll();
+      try {
+         for (Table table : tables) {
+            if (table.memory != 0) {
+               size.addAndGet(-table.clear(true));
+            }
+         }
+      } finally {
+         unlockAll();
+      }
+   }
+
+   private void lockAll() {
+      for (Table table : tables) {
+         table.lock.asWriteLock().lock();
+      }
+   }
+
+   private void unlockAll() {
+      for (Table table : tables) {
+         table.lock.asWriteLock().unlock();
+      }
+   }
+
+   @Override
+   public int size() {
+      return (int) Math.min(size.get(), Integer.MAX_VALUE);
+   }
+
+   @Override
+   public boolean isEmpty() {
+      return size.get() == 0;
+   }
+
+   @Override
+   public InternalCacheEntry<WrappedBytes, WrappedBytes> compute(WrappedBytes key, BiFunction<? super WrappedBytes,
+         ? super InternalCacheEntry<WrappedBytes, WrappedBytes>, ? extends InternalCacheEntry<WrappedBytes, WrappedBytes>> remappingFunction) {
+      int hashCode = key.hashCode();
+      long hash = hash(hashCode);
+      Table table = table(hash);
+      long writeStamp = table.lock.writeLock();
+      try {
+         table.checkDeallocation();
+         int slot = table.find(key, hashCode, hash);
+         long address = slot < 0 ? 0 : table.addressAt(slot);
+         InternalCacheEntry<WrappedBytes, WrappedBytes> prev = address == 0 ? null : offHeapEntryFactory.fromMemory(address);
+         InternalCacheEntry<WrappedBytes, WrappedBytes> result = remappingFunction.apply(key, prev);
+         if (prev == result) {
+            // noop
+         } else if (result != null) {
+            long newAddress = offHeapEntryFactory.create(key, hashCode, result);
+            if (slot < 0) {
+               table.insert(hash, newAddress);
+               size.incrementAndGet();
+            } else {
+               table.set(slot, control(hash), newAddress);
+               deallocateEntry(address);
+            }
+         } else if (slot >= 0) {
+            table.erase(slot);
+            deallocateEntry(address);
+            size.decrementAndGet();
+         }
+         return result;
+      } finally {
+         table.lock.unlockWrite(writeStamp);
+      }
+   }
+
+   @Override
+   public boolean containsKey(Object key) {
+      throw new UnsupportedOperationException();
+   }
+
+   @Override
+   public boolean containsValue(Object value) {
+      throw new UnsupportedOperationException();
+   }
+
+   @Override
+   public InternalCacheEntry<WrappedBytes, WrappedBytes> get(Object key) {
+      if (!(key instanceof WrappedBytes)) {
+         return null;
+      }
+      int hashCode = key.hashCode();
+      long hash = hash(hashCode);
+      Table table = table(hash);
+      long readStamp = table.lock.readLock();
+      try {
+         table.checkDeallocation();
+         int slot = table.find((WrappedBytes) key, hashCode, hash);
+         return slot < 0 ? null : offHeapEntryFactory.fromMemory(table.addressAt(slot));
+      } finally {
+         table.lock.unlockRead(readStamp);
+      }
+   }
+
+   @Override
+   public InternalCacheEntry<WrappedBytes, WrappedBytes> peek(Object key) {
+      // There is no listener to notify on retrieval
+      return get(key);
+   }
+
+   @Override
+   public void putNoReturn(WrappedBytes key, InternalCacheEntry<WrappedBytes, WrappedBytes> value) {
+      put(key, value, false);
+   }
+
+   @Override
+   public InternalCacheEntry<WrappedBytes, WrappedBytes> put(WrappedBytes key,
+         InternalCacheEntry<WrappedBytes, WrappedBytes> value) {
+      return put(key, value, true);
+   }
+
+   private InternalCacheEntry<WrappedBytes, WrappedBytes> put(WrappedBytes key,
+         InternalCacheEntry<WrappedBytes, WrappedBytes> value, boolean requireReturn) {
+      int hashCode = key.hashCode();
+      long hash = hash(hashCode);
+      Table table = table(hash);
+      long writeStamp = table.lock.writeLock();
+      try {
+         table.checkDeallocation();
+         long newAddress = offHeapEntryFactory.create(key, hashCode, value);
+         int slot = table.find(key, hashCode, hash);
+         if (slot < 0) {
+            table.insert(hash, newAddress);
+            size.incrementAndGet();
+            return null;
+         }
+         long address = table.addressAt(slot);
+         InternalCacheEntry<WrappedBytes, WrappedBytes> previousValue = requireReturn ?
+               offHeapEntryFactory.fromMemory(address) : null;
+         table.set(slot, control(hash), newAddress);
+         deallocateEntry(address);
+         return previousValue;
+      } finally {
+         table.lock.unlockWrite(writeStamp);
+      }
+   }
+
+   @Override
+   public InternalCacheEntry<WrappedBytes, WrappedBytes> remove(Object key) {
+      if (!(key instanceof WrappedBytes)) {
+         return null;
+      }
+      return removeEntry((WrappedBytes) key, null);
+   }
+
+   @Override
+   public boolean remove(Object key, Object value) {
+      if (!(key instanceof WrappedBytes) || !(value instanceof InternalCacheEntry)) {
+         return false;
+      }
+      Object innerValue = ((InternalCacheEntry) value).getValue();
+      if (!(innerValue instanceof WrappedBytes)) {
+         return false;
+      }
+      return removeEntry((WrappedBytes) key, (WrappedBytes) innerValue) != null;
+   }
+
+   /**
+    * Removes the entry for the key, if its value matches the given one when it is not null.
+    * @return the removed entry or null if nothing was removed
+    */
+   private InternalCacheEntry<WrappedBytes, WrappedBytes> removeEntry(WrappedBytes key, WrappedBytes value) {
+      int hashCode = key.hashCode();
+      long hash = hash(hashCode);
+      Table table = table(hash);
+      long writeStamp = table.lock.writeLock();
+      try {
+         table.checkDeallocation();
+         int slot = table.find(key, hashCode, hash);
+         if (slot < 0) {
+            return null;
+         }
+         long address = table.addressAt(slot);
+         InternalCacheEntry<WrappedBytes, WrappedBytes> ice = offHeapEntryFactory.fromMemory(address);
+         if (value != null && !value.equalsWrappedBytes(ice.getValue())) {
+            return null;
+         }
+         table.erase(slot);
+         deallocateEntry(address);
+         size.decrementAndGet();
+         return ice;
+      } finally {
+         table.lock.unlockWrite(writeStamp);
+      }
+   }
+
+   @Override
+   public void putAll(Map<? extends WrappedBytes, ? extends InternalCacheEntry<WrappedBytes, WrappedBytes>> m) {
+      for (Entry<? extends WrappedBytes, ? extends InternalCacheEntry<WrappedBytes, WrappedBytes>> entry : m.entrySet()) {
+         put(entry.getKey(), entry.getValue());
+      }
+   }
+
+   @Override
+   public void clear() {
+      if (log.isTraceEnabled()) {
+         log.trace("Clearing off-heap data");
+      }
+      lockAll();
+      try {
+         for (Table table : tables) {
+            table.checkDeallocation();
+            size.addAndGet(-table.clear(false));
+         }
+      } finally {
+         unlockAll();
+      }
+   }
+
+   @Override
+   public InternalCacheEntry<WrappedBytes, WrappedBytes> putIfAbsent(WrappedBytes key,
+         InternalCacheEntry<WrappedBytes, WrappedBytes> value) {
+      return compute(key, (k, v) -> {
+         if (v == null) {
+            return value;
+         }
+         return v;
+      });
+   }
+
+   @Override
+   public boolean replace(WrappedBytes key, InternalCacheEntry<WrappedBytes, WrappedBytes> oldValue,
+         InternalCacheEntry<WrappedBytes, WrappedBytes> newValue) {
+      return replaceEntry(key, oldValue, newValue, true) != null;
+   }
+
+   @Override
+   public InternalCacheEntry<WrappedBytes, WrappedBytes> replace(WrappedBytes key,
+         InternalCacheEntry<WrappedBytes, WrappedBytes> value) {
+      return replaceEntry(key, null, value, false);
+   }
+
+   /**
+    * Replaces the entry for the key, if its value matches the value of <code>oldValue</code> when it is not null.
+    * @return the replaced entry or null if nothing was replaced
+    */
+   private InternalCacheEntry<WrappedBytes, WrappedBytes> replaceEntry(WrappedBytes key,
+         InternalCacheEntry<WrappedBytes, WrappedBytes> oldValue, InternalCacheEntry<WrappedBytes, WrappedBytes> newValue,
+         boolean matchValue) {
+      int hashCode = key.hashCode();
+      long hash = hash(hashCode);
+      Table table = table(hash);
+      long writeStamp = table.lock.writeLock();
+      try {
+         table.checkDeallocation();
+         int slot = table.find(key, hashCode, hash);
+         if (slot < 0) {
+            return null;
+         }
+         long address = table.addressAt(slot);
+         InternalCacheEntry<WrappedBytes, WrappedBytes> ice = offHeapEntryFactory.fromMemory(address);
+         if (matchValue && !ice.getValue().equalsWrappedBytes(oldValue.getValue())) {
+            return null;
+         }
+         table.set(slot, control(hash), offHeapEntryFactory.create(key, hashCode, newValue));
+         deallocateEntry(address);
+         return ice;
+      } finally {
+         table.lock.unlockWrite(writeStamp);
+      }
+   }
+
+   @Override
+   public Set<WrappedBytes> keySet() {
+      throw new UnsupportedOperationException("keySet is not supported as it doesn't contain expiration data");
+   }
+
+   @Override
+   public Collection<InternalCacheEntry<WrappedBytes, WrappedBytes>> values() {
+      return new AbstractCollection<>() {
+         @Override
+         public Iterator<InternalCacheEntry<WrappedBytes, WrappedBytes>> iterator() {
+            return entryIterator();
+         }
+
+         @Override
+         public int size() {
+            return OpenAddressingOffHeapMap.this.size();
+         }
+
+         @Override
+         public boolean remove(Object o) {
+            return o instanceof InternalCacheEntry && OpenAddressingOffHeapMap.this.remove(((InternalCacheEntry) o).getKey(),
+                  ((InternalCacheEntry) o).getValue());
+         }
+      };
+   }
+
+   /**
+    * Iterator that reads the entries of one table at a time, while holding its read lock.
+    */
+   private class ValueIterator implements Iterator<InternalCacheEntry<WrappedBytes, WrappedBytes>> {
+      int tablePosition;
+      final Queue<InternalCacheEntry<WrappedBytes, WrappedBytes>> values = new ArrayDeque<>();
+
+      @Override
+      public boolean hasNext() {
+         while (values.isEmpty() && tablePosition < TABLE_COUNT) {
+            Table table = tables[tablePosition++];
+            long readStamp = table.lock.readLock();
+            try {
+               table.checkDeallocation();
+               table.readAll(values);
+            } finally {
+               table.lock.unlockRead(readStamp);
+            }
+         }
+         return !values.isEmpty();
+      }
+
+      @Override
+      public InternalCacheEntry<WrappedBytes, WrappedBytes> next() {
+         if (!hasNext()) {
+            throw new NoSuchElementException();
+         }
+         return values.poll();
+      }
+   }
+
+   private Iterator<InternalCacheEntry<WrappedBytes, WrappedBytes>> entryIterator() {
+      if (size.get() == 0) {
+         return Collections.emptyIterator();
+      }
+      return new ValueIterator();
+   }
+
+   @Override
+   public Set<Entry<WrappedBytes, InternalCacheEntry<WrappedBytes, WrappedBytes>>> entrySet() {
+      return new AbstractSet<>() {
+         @Override
+         public Iterator<Entry<WrappedBytes, InternalCacheEntry<WrappedBytes, WrappedBytes>>> iterator() {
+            Iterator<InternalCacheEntry<WrappedBytes, WrappedBytes>> entryIterator = entryIterator();
+            return new IteratorMapper<>(entryIterator, ice -> new AbstractMap.SimpleImmutableEntry<>(ice.getKey(), ice));
+         }
+
+         @Override
+         public int size() {
+            return OpenAddressingOffHeapMap.this.size();
+         }
+      };
+   }
+}
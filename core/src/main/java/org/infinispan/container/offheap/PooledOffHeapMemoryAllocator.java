@@ -0,0 +1,389 @@
+package org.infinispan.container.offheap;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.infinispan.commons.spi.OffHeapMemory;
+import org.infinispan.commons.util.ProcessorInfo;
+import org.infinispan.commons.util.Util;
+import org.infinispan.factories.annotations.Stop;
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.Units;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Memory allocator that carves the allocations out of larger slabs instead of invoking the native allocator for every
+ * entry.
+ * <p>
+ * Allocations are rounded up to a size class: multiples of 16 bytes up to 512 bytes, then four classes for every power
+ * of two up to {@link #MAX_POOLED_SIZE}. A slab only holds blocks of a single size class, and a freed block is kept in
+ * a free list of its size class until it is allocated again, so the native memory cannot fragment over time. Larger
+ * allocations are not pooled and go directly to the native allocator.
+ * <p>
+ * The free lists and slabs are split in arenas, and a thread always allocates from the same arena, so that concurrent
+ * writers rarely contend. A freed block always goes back to the free list of the arena that owns its slab, whichever
+ * thread frees it.
+ * <p>
+ * Slabs are only released when the cache stops. When the memory of the cache is bounded, the slabs never reserve more
+ * than the bound: an arena that needs a new slab past the bound takes a free block from another arena instead, or
+ * falls back to the native allocator, whose allocations are released as soon as they are freed. The difference between
+ * the reserved memory and the memory requested by the container is exposed as the fragmentation of the allocator.
+ *
+ * @since 16.0
+ */
+@MBean(objectName = "OffHeapAllocator", description = "Pooled allocator of the off-heap memory of the cache")
+@Scope(Scopes.NAMED_CACHE)
+public class PooledOffHeapMemoryAllocator implements OffHeapMemoryAllocator {
+   private static final Log log = LogFactory.getLog(PooledOffHeapMemoryAllocator.class, Log.class);
+   private static final OffHeapMemory MEMORY = org.infinispan.commons.jdkspecific.OffHeapMemory.getInstance();
+
+   private static final int SMALL_CLASS_LIMIT = 512;
+   private static final int SMALL_CLASSES = SMALL_CLASS_LIMIT >>> 4;
+   private static final int SMALL_CLASS_SHIFT = Integer.numberOfTrailingZeros(SMALL_CLASS_LIMIT);
+   static final long MAX_POOLED_SIZE = 32 * 1024;
+   static final int SIZE_CLASSES = sizeClass(MAX_POOLED_SIZE) + 1;
+   // Holds 8 blocks of the largest size class
+   static final long SLAB_SIZE = 256 * 1024;
+   private static final int ARENA_COUNT = Math.min(Util.findNextHighestPowerOfTwo(ProcessorInfo.availableProcessors()), 64);
+
+   private final Arena[] arenas;
+   private final int arenaMask;
+   // Maximum memory reserved by the slabs, or -1 if unbounded
+   private final long maxReserved;
+   // Start address of every slab, to find the arena that owns a freed block
+   private final ConcurrentSkipListMap<Long, Arena> slabOwners = new ConcurrentSkipListMap<>();
+
+   private final LongAdder requested = new LongAdder();
+   private final LongAdder allocated = new LongAdder();
+   private final LongAdder reserved = new LongAdder();
+   private final LongAdder slabCount = new LongAdder();
+   private final AtomicLong reservedSlabBytes = new AtomicLong();
+   private final LongAdder unpooledCount = new LongAdder();
+
+   public PooledOffHeapMemoryAllocator() {
+      this(-1L);
+   }
+
+   /**
+    * @param maxReserved the maximum memory the slabs can reserve, usually the memory bound of the cache, or -1 if the
+    *                    reserved memory is only bounded by the peak memory of every size class
+    */
+   public PooledOffHeapMemoryAllocator(long maxReserved) {
+      this(ARENA_COUNT, maxReserved);
+   }
+
+   PooledOffHeapMemoryAllocator(int arenaCount, long maxReserved) {
+      if (Integer.bitCount(arenaCount) != 1) {
+         throw new IllegalArgumentException("Arena count " + arenaCount + " must be a power of two");
+      }
+      arenas = new Arena[arenaCount];
+      for (int i = 0; i < arenaCount; i++) {
+         arenas[i] = new Arena();
+      }
+      arenaMask = arenaCount - 1;
+      this.maxReserved = maxReserved;
+   }
+
+   private static final class Arena {
+      final ReentrantLock lock = new ReentrantLock();
+      // Head of the free list of every size class, the first 8 bytes of a free block hold the address of the next one
+      final long[] freeBlocks = new long[SIZE_CLASSES];
+      // Next unused block and end of the slab that is being carved for every size class
+      final long[] slabPosition = new long[SIZE_CLASSES];
+      final long[] slabLimit = new long[SIZE_CLASSES];
+      long[] slabs = new long[16];
+      int slabCount;
+   }
+
+   /**
+    * @return the size class of an allocation, only valid for lengths up to {@link #MAX_POOLED_SIZE}
+    */
+   static int sizeClass(long memoryLength) {
+      long size = Math.max(memoryLength, 1) - 1;
+      if (size < SMALL_CLASS_LIMIT) {
+         return (int) (size >>> 4);
+      }
+      int shift = 63 - Long.numberOfLeadingZeros(size);
+      return SMALL_CLASSES + ((shift - SMALL_CLASS_SHIFT) << 2) + (int) ((size >>> (shift - 2)) & 3);
+   }
+
+   static long blockSize(int sizeClass) {
+      if (sizeClass < SMALL_CLASSES) {
+         return (long) (sizeClass + 1) << 4;
+      }
+      int shift = SMALL_CLASS_SHIFT + ((sizeClass - SMALL_CLASSES) >>> 2);
+      return (1L << shift) + ((long) ((sizeClass & 3) + 1) << (shift - 2));
+   }
+
+   private Arena arena() {
+      return arenas[(int) Thread.currentThread().getId() & arenaMask];
+   }
+
+   @Override
+   public long allocate(long memoryLength) {
+      if (memoryLength > MAX_POOLED_SIZE) {
+         return allocateUnpooled(memoryLength);
+      }
+      int sizeClass = sizeClass(memoryLength);
+      long blockSize = blockSize(sizeClass);
+      Arena arena = arena();
+      long memoryLocation;
+      arena.lock.lock();
+      try {
+         memoryLocation = arena.freeBlocks[sizeClass];
+         if (memoryLocation != 0) {
+            arena.freeBlocks[sizeClass] = MEMORY.getLong(memoryLocation, 0);
+         } else {
+            memoryLocation = arena.slabPosition[sizeClass];
+            if (memoryLocation + blockSize > arena.slabLimit[sizeClass]) {
+               memoryLocation = allocateSlab(arena);
+               if (memoryLocation != 0) {
+                  arena.slabLimit[sizeClass] = memoryLocation + SLAB_SIZE;
+               }
+            }
+            if (memoryLocation != 0) {
+               arena.slabPosition[sizeClass] = memoryLocation + blockSize;
+            }
+         }
+      } finally {
+         arena.lock.unlock();
+      }
+      if (memoryLocation == 0) {
+         // The slabs reached the memory bound, reuse the free blocks of the other arenas or allocate natively
+         memoryLocation = takeFreeBlock(arena, sizeClass);
+         if (memoryLocation == 0) {
+            return allocateOverflow(memoryLength, blockSize);
+         }
+      }
+      requested.add(memoryLength);
+      allocated.add(blockSize);
+      if (log.isTraceEnabled()) {
+         log.tracef("Allocated off-heap memory at 0x%016x with %d bytes. Total size: %d", memoryLocation,
+               blockSize, allocated.sum());
+      }
+      return memoryLocation;
+   }
+
+   /**
+    * @return the address of a new slab, or 0 if it would exceed the memory bound
+    */
+   private long allocateSlab(Arena arena) {
+      long slabBytes;
+      do {
+         slabBytes = reservedSlabBytes.get();
+         if (maxReserved >= 0 && slabBytes + SLAB_SIZE > maxReserved) {
+            return 0;
+         }
+      } while (!reservedSlabBytes.compareAndSet(slabBytes, slabBytes + SLAB_SIZE));
+      long slab = MEMORY.allocate(SLAB_SIZE);
+      if (arena.slabCount == arena.slabs.length) {
+         arena.slabs = Arrays.copyOf(arena.slabs, arena.slabCount << 1);
+      }
+      arena.slabs[arena.slabCount++] = slab;
+      slabOwners.put(slab, arena);
+      reserved.add(SLAB_SIZE);
+      slabCount.increment();
+      return slab;
+   }
+
+   private long takeFreeBlock(Arena current, int sizeClass) {
+      for (Arena arena : arenas) {
+         if (arena == current || !arena.lock.tryLock()) {
+            continue;
+         }
+         try {
+            long memoryLocation = arena.freeBlocks[sizeClass];
+            if (memoryLocation != 0) {
+               arena.freeBlocks[sizeClass] = MEMORY.getLong(memoryLocation, 0);
+               return memoryLocation;
+            }
+         } finally {
+            arena.lock.unlock();
+         }
+      }
+      return 0;
+   }
+
+   /**
+    * Allocates a block of a size class outside the slabs, it is released as soon as it is freed.
+    */
+   private long allocateOverflow(long memoryLength, long blockSize) {
+      long memoryLocation = MEMORY.allocate(blockSize);
+      requested.add(memoryLength);
+      allocated.add(blockSize);
+      reserved.add(blockSize);
+      unpooledCount.increment();
+      if (log.isTraceEnabled()) {
+         log.tracef("Allocated off-heap memory outside the slabs at 0x%016x with %d bytes. Total size: %d",
+               memoryLocation, blockSize, allocated.sum());
+      }
+      return memoryLocation;
+   }
+
+   /**
+    * @return the arena that owns the slab containing the given block, or {@code null} if it was allocated outside the
+    * slabs
+    */
+   private Arena slabOwner(long memoryAddress) {
+      Map.Entry<Long, Arena> slab = slabOwners.floorEntry(memoryAddress);
+      return slab != null && memoryAddress < slab.getKey() + SLAB_SIZE ? slab.getValue() : null;
+   }
+
+   private long allocateUnpooled(long memoryLength) {
+      long estimatedMemoryLength = UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(memoryLength);
+      long memoryLocation = MEMORY.allocate(memoryLength);
+      requested.add(memoryLength);
+      allocated.add(estimatedMemoryLength);
+      reserved.add(estimatedMemoryLength);
+      unpooledCount.increment();
+      if (log.isTraceEnabled()) {
+         log.tracef("Allocated unpooled off-heap memory at 0x%016x with %d bytes. Total size: %d", memoryLocation,
+               estimatedMemoryLength, allocated.sum());
+      }
+      return memoryLocation;
+   }
+
+   @Override
+   public void deallocate(long memoryAddress, long size) {
+      if (size > MAX_POOLED_SIZE) {
+         deallocateUnpooled(memoryAddress, size);
+         return;
+      }
+      int sizeClass = sizeClass(size);
+      long blockSize = blockSize(sizeClass);
+      Arena arena = slabOwner(memoryAddress);
+      if (arena == null) {
+         deallocateOverflow(memoryAddress, size, blockSize);
+         return;
+      }
+      arena.lock.lock();
+      try {
+         MEMORY.putLong(memoryAddress, 0, arena.freeBlocks[sizeClass]);
+         arena.freeBlocks[sizeClass] = memoryAddress;
+      } finally {
+         arena.lock.unlock();
+      }
+      requested.add(-size);
+      allocated.add(-blockSize);
+      if (log.isTraceEnabled()) {
+         log.tracef("Deallocating off-heap memory at 0x%016x with %d bytes. Total size: %d", memoryAddress,
+               blockSize, allocated.sum());
+      }
+   }
+
+   private void deallocateOverflow(long memoryAddress, long size, long blockSize) {
+      requested.add(-size);
+      allocated.add(-blockSize);
+      reserved.add(-blockSize);
+      unpooledCount.decrement();
+      if (log.isTraceEnabled()) {
+         log.tracef("Deallocating off-heap memory outside the slabs at 0x%016x with %d bytes. Total size: %d",
+               memoryAddress, blockSize, allocated.sum());
+      }
+      MEMORY.free(memoryAddress);
+   }
+
+   private void deallocateUnpooled(long memoryAddress, long size) {
+      long estimatedMemoryLength = UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(size);
+      requested.add(-size);
+      allocated.add(-estimatedMemoryLength);
+      reserved.add(-estimatedMemoryLength);
+      unpooledCount.decrement();
+      if (log.isTraceEnabled()) {
+         log.tracef("Deallocating unpooled off-heap memory at 0x%016x with %d bytes. Total size: %d", memoryAddress,
+               estimatedMemoryLength, allocated.sum());
+      }
+      MEMORY.free(memoryAddress);
+   }
+
+   @Override
+   public long allocationSize(long memoryLength) {
+      if (memoryLength > MAX_POOLED_SIZE) {
+         return UnpooledOffHeapMemoryAllocator.estimateSizeOverhead(memoryLength);
+      }
+      return blockSize(sizeClass(memoryLength));
+   }
+
+   /**
+    * Releases all the slabs. Any block still allocated from them must not be used afterwards.
+    */
+   @Stop
+   public void stop() {
+      for (Arena arena : arenas) {
+         arena.lock.lock();
+         try {
+            for (int i = 0; i < arena.slabCount; i++) {
+               slabOwners.remove(arena.slabs[i]);
+               MEMORY.free(arena.slabs[i]);
+            }
+            reserved.add(-arena.slabCount * SLAB_SIZE);
+            reservedSlabBytes.addAndGet(-arena.slabCount * SLAB_SIZE);
+            slabCount.add(-arena.slabCount);
+            arena.slabCount = 0;
+            Arrays.fill(arena.freeBlocks, 0);
+            Arrays.fill(arena.slabPosition, 0);
+            Arrays.fill(arena.slabLimit, 0);
+         } finally {
+            arena.lock.unlock();
+         }
+      }
+   }
+
+   @ManagedAttribute(description = "Amount of off-heap memory used by the allocated blocks, rounded up to their size class (bytes)",
+         displayName = "Allocated off-heap memory")
+   @Override
+   public long getAllocatedAmount() {
+      return allocated.sum();
+   }
+
+   @ManagedAttribute(description = "Amount of off-heap memory requested by the allocations that were not freed (bytes)",
+         displayName = "Requested off-heap memory")
+   public long getRequestedAmount() {
+      return requested.sum();
+   }
+
+   @ManagedAttribute(description = "Amount of off-heap memory obtained from the operating system, including free blocks (bytes)",
+         displayName = "Reserved off-heap memory")
+   public long getReservedAmount() {
+      return reserved.sum();
+   }
+
+   @ManagedAttribute(description = "Number of slabs reserved by the allocator", displayName = "Slab count")
+   public long getSlabCount() {
+      return slabCount.sum();
+   }
+
+   @ManagedAttribute(description = "Number of allocations not carved out of a slab, because they are too large for a size class or the slabs reached the memory bound",
+         displayName = "Unpooled allocations")
+   public long getUnpooledCount() {
+      return unpooledCount.sum();
+   }
+
+   @ManagedAttribute(description = "Fraction of the reserved off-heap memory that is not requested by any allocation",
+         displayName = "Off-heap fragmentation", units = Units.PERCENTAGE)
+   public double getFragmentation() {
+      long reservedAmount = reserved.sum();
+      if (reservedAmount <= 0) {
+         return 0;
+      }
+      return 1 - (double) requested.sum() / reservedAmount;
+   }
+
+   @Override
+   public String toString() {
+      return "PooledOffHeapMemoryAllocator{" +
+            "arenas=" + arenas.length +
+            ", allocated=" + allocated.sum() +
+            ", reserved=" + reserved.sum() +
+            ", slabs=" + slabCount.sum() +
+            '}';
+   }
+}
@@ -5,6 +5,7 @@
 import org.infinispan.commons.marshall.WrappedBytes;
 import org.infinispan.configuration.cache.ClusteringConfiguration;
 import org.infinispan.configuration.cache.MemoryConfiguration;
+import org.infinispan.configuration.cache.OffHeapTableType;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.impl.BoundedSegmentedDataContainer;
 import org.infinispan.container.impl.DefaultDataContainer;
@@ -18,6 +19,7 @@
 import org.infinispan.container.offheap.OffHeapDataContainer;
 import org.infinispan.container.offheap.OffHeapEntryFactory;
 import org.infinispan.container.offheap.OffHeapMemoryAllocator;
+import org.infinispan.container.offheap.OpenAddressingOffHeapMap;
 import org.infinispan.container.offheap.SegmentedBoundedOffHeapDataContainer;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.factories.annotations.DefaultFactoryFor;
@@ -101,9 +103,12 @@ public Object construct(String componentName) {
    }
 
    /* visible for testing */
-   OffHeapConcurrentMap createAndStartOffHeapConcurrentMap() {
+   PeekableTouchableMap<WrappedBytes, WrappedBytes> createAndStartOffHeapConcurrentMap() {
       OffHeapEntryFactory entryFactory = componentRegistry.getOrCreateComponent(OffHeapEntryFactory.class);
       OffHeapMemoryAllocator memoryAllocator = componentRegistry.getOrCreateComponent(OffHeapMemoryAllocator.class);
+      if (configuration.memory().tableType() == OffHeapTableType.OPEN_ADDRESSING) {
+         return new OpenAddressingOffHeapMap(memoryAllocator, entryFactory);
+      }
       return new OffHeapConcurrentMap(memoryAllocator, entryFactory, null);
    }
 }
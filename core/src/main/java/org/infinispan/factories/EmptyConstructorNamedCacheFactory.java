@@ -11,9 +11,11 @@
 import org.infinispan.commons.io.ByteBufferFactory;
 import org.infinispan.commons.io.ByteBufferFactoryImpl;
 import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.OffHeapAllocatorType;
 import org.infinispan.container.offheap.OffHeapEntryFactory;
 import org.infinispan.container.offheap.OffHeapEntryFactoryImpl;
 import org.infinispan.container.offheap.OffHeapMemoryAllocator;
+import org.infinispan.container.offheap.PooledOffHeapMemoryAllocator;
 import org.infinispan.container.offheap.UnpooledOffHeapMemoryAllocator;
 import org.infinispan.container.versioning.irac.DefaultIracVersionGenerator;
 import org.infinispan.container.versioning.irac.IracVersionGenerator;
@@ -178,7 +180,9 @@ public Object construct(String componentName) {
       } else if (componentName.equals(OffHeapEntryFactory.class.getName())) {
          return new OffHeapEntryFactoryImpl();
       } else if (componentName.equals(OffHeapMemoryAllocator.class.getName())) {
-         return new UnpooledOffHeapMemoryAllocator();
+         return configuration.memory().allocatorType() == OffHeapAllocatorType.POOLED ?
+               new PooledOffHeapMemoryAllocator(configuration.memory().maxSizeBytes()) :
+               new UnpooledOffHeapMemoryAllocator();
       } else if (componentName.equals(ClusterCacheNotifier.class.getName())) {
          return ComponentAlias.of(CacheNotifier.class);
       } else if (componentName.equals(RemoteValueRetrievedListener.class.getName())) {
@@ -14,6 +14,7 @@
 import org.infinispan.statetransfer.StateProviderImpl;
 import org.infinispan.statetransfer.StateTransferManager;
 import org.infinispan.statetransfer.StateTransferManagerImpl;
+import org.infinispan.statetransfer.StateTransferThrottle;
 
 /**
  * Constructs {@link org.infinispan.statetransfer.StateTransferManager},
@@ -26,7 +27,7 @@
  * @since 4.0
  */
 @DefaultFactoryFor(classes = {StateTransferManager.class, StateConsumer.class, StateProvider.class, StateReceiver.class,
-      ConflictManager.class, InternalConflictManager.class})
+      ConflictManager.class, InternalConflictManager.class, StateTransferThrottle.class})
 public class StateTransferComponentFactory extends AbstractNamedCacheComponentFactory implements AutoInstantiableFactory {
    @Override
    public Object construct(String componentName) {
@@ -39,6 +40,8 @@ public Object construct(String componentName) {
          return new StateProviderImpl();
       } else if (componentName.equals(StateConsumer.class.getName())) {
          return new StateConsumerImpl();
+      } else if (componentName.equals(StateTransferThrottle.class.getName())) {
+         return new StateTransferThrottle();
       } else if (componentName.equals(StateReceiver.class.getName())) {
          return new StateReceiverImpl<>();
       } else if (componentName.equals(ConflictManager.class.getName()) || componentName.equals(InternalConflictManager.class.getName())) {
@@ -223,6 +223,8 @@ public final CompletionStage<Void> commitEntry(CacheEntry entry, FlagAffectedCom
 
       private CompletionStage<Void> commitClearCommand(DataContainer<Object, Object> dataContainer, InvocationContext context,
             FlagAffectedCommand command) {
+         // The removed keys are not logged, so a restarted node must receive all the segments again
+         commitManager.restartChangeLog();
          if (notifier.hasListener(CacheEntryRemoved.class)) {
             Iterator<InternalCacheEntry<Object, Object>> iterator = dataContainer.iteratorIncludingExpired();
 
@@ -67,6 +67,7 @@
             org.infinispan.commands.remote.recovery.GetInDoubtTransactionsCommand.class,
             org.infinispan.commands.remote.recovery.GetInDoubtTxInfoCommand.class,
             org.infinispan.commands.remote.recovery.TxCompletionNotificationCommand.class,
+            org.infinispan.commands.statetransfer.ConflictResolutionDigestCommand.class,
             org.infinispan.commands.statetransfer.ConflictResolutionStartCommand.class,
             org.infinispan.commands.statetransfer.StateResponseCommand.class,
             org.infinispan.commands.statetransfer.StateTransferCancelCommand.class,
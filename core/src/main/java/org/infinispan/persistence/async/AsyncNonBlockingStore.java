@@ -1,9 +1,12 @@
 package org.infinispan.persistence.async;
 
+import java.io.IOException;
 import java.lang.invoke.MethodHandles;
+import java.nio.file.Paths;
 import java.util.AbstractMap;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -19,6 +22,7 @@
 import org.infinispan.commons.IllegalLifecycleStateException;
 import org.infinispan.commons.marshall.WrappedByteArray;
 import org.infinispan.commons.reactive.RxJavaInterop;
+import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.commons.util.concurrent.CompletionStages;
@@ -26,13 +30,16 @@
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.PersistenceConfiguration;
 import org.infinispan.configuration.cache.StoreConfiguration;
+import org.infinispan.factories.ComponentRegistry;
 import org.infinispan.factories.KnownComponentNames;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.persistence.spi.NonBlockingStore;
+import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.persistence.support.DelegatingNonBlockingStore;
 import org.infinispan.persistence.support.SegmentPublisherWrapper;
 import org.infinispan.security.actions.SecurityActions;
+import org.infinispan.util.concurrent.BlockingManager;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 import org.reactivestreams.Publisher;
@@ -41,6 +48,7 @@
 
 import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Maybe;
 import io.reactivex.rxjava3.flowables.ConnectableFlowable;
 import io.reactivex.rxjava3.functions.Function;
 
@@ -56,6 +64,12 @@
  * subsequent write will be added to the queue, but the returned Stage will not complete until the current batch completes
  * in an attempt to provide some backpressure to slow writes.
  * <p>
+ * The queue can also be bounded by the estimated size of the entries of the pending modifications, in which case
+ * a write that would exceed the bound is delayed the same way. If spilling to disk is enabled, the entry of such a
+ * write is instead appended to a {@link SpillFile} and only its key and position are kept in memory, until the batch
+ * containing it reads the entry back and writes it to the delegate store. The state of the queue is exposed by
+ * {@link AsyncStoreStatistics}.
+ * <p>
  * Read operations may be resolved by this store immediately if the given key is still being updated in the
  * delegate store or if it is enqueued for the next batch. If the key is in neither it will query the underlying store
  * to acquire it.
@@ -66,11 +80,19 @@
  */
 public class AsyncNonBlockingStore<K, V> extends DelegatingNonBlockingStore<K, V> {
    private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass());
+   // Rough size of a queued modification and of its map entry, besides the marshalled entry
+   static final int MODIFICATION_OVERHEAD = 64;
    private final NonBlockingStore<K, V> actual;
 
    private Executor nonBlockingExecutor;
    private int segmentCount;
    private int modificationQueueSize;
+   private long modificationQueueMaxBytes;
+   private BlockingManager blockingManager;
+   private TimeService timeService;
+   private AsyncStoreStatistics statistics;
+   // Non null when the entries of the writes exceeding modificationQueueMaxBytes are spilled to disk
+   private SpillFile spillFile;
    private PersistenceConfiguration persistenceConfiguration;
    private AsyncStoreConfiguration asyncConfiguration;
 
@@ -95,6 +117,12 @@
    // If there is a pending clear this will be true
    @GuardedBy("this")
    private boolean hasPendingClear;
+   // Estimated bytes of the pending modifications, only tracked when modificationQueueMaxBytes is positive
+   @GuardedBy("this")
+   private long pendingBytes;
+   // Number of pending modifications whose entry is in the spill file
+   @GuardedBy("this")
+   private int pendingSpilled;
    // The next two variables are held temporarily until a replication of the values is complete. We need to retain
    // these values until we are sure the entries are actually in the store - note these variables are only written to
    // via reference (thus the map is safe to read outside of this lock, but the reference must be read in synchronized)
@@ -104,6 +132,10 @@
    // True if there is an outstanding clear that is being ran on the delegating store
    @GuardedBy("this")
    private boolean isReplicatingClear;
+   @GuardedBy("this")
+   private long replicatingBytes;
+   @GuardedBy("this")
+   private int replicatingSpilled;
    private volatile boolean stopped = true;
 
    public AsyncNonBlockingStore(NonBlockingStore<K, V> actual) {
@@ -128,9 +160,33 @@ public CompletionStage<Void> start(InitializationContext ctx) {
       segmentCount = storeConfiguration.segmented() ? cacheConfiguration.clustering().hash().numSegments() : 1;
       asyncConfiguration = storeConfiguration.async();
       modificationQueueSize = asyncConfiguration.modificationQueueSize();
+      modificationQueueMaxBytes = asyncConfiguration.modificationQueueMaxBytes();
       nonBlockingExecutor = ctx.getNonBlockingExecutor();
-      stopped = false;
-      return actual.start(ctx);
+      blockingManager = ctx.getBlockingManager();
+      timeService = ctx.getTimeService();
+      statistics = ComponentRegistry.componentOf(ctx.getCache(), AsyncStoreStatistics.class);
+      if (statistics == null) {
+         // The cache was not configured with a write-behind store, the statistics are not exposed
+         statistics = new AsyncStoreStatistics();
+      }
+      CompletionStage<Void> spillStage;
+      if (asyncConfiguration.spillToDisk()) {
+         spillStage = blockingManager.runBlocking(() -> {
+            try {
+               spillFile = SpillFile.create(Paths.get(ctx.getGlobalConfiguration().globalState().temporaryLocation()),
+                     ctx.getMarshallableEntryFactory(), ctx.getByteBufferFactory());
+            } catch (IOException e) {
+               throw new PersistenceException(e);
+            }
+         }, "async-store-spill-create");
+      } else {
+         spillStage = CompletableFutures.completedNull();
+      }
+      return spillStage.thenCompose(ignore -> {
+         statistics.addStore(this);
+         stopped = false;
+         return actual.start(ctx);
+      });
    }
 
    @Override
@@ -145,7 +201,19 @@ public CompletionStage<Void> stop() {
             log.tracef("Stopping store %s from async store", actual);
          }
          stopped = true;
-         return actual.stop();
+         statistics.removeStore(this);
+         SpillFile spillFile = this.spillFile;
+         if (spillFile == null) {
+            return actual.stop();
+         }
+         this.spillFile = null;
+         return blockingManager.runBlocking(() -> {
+            try {
+               spillFile.close();
+            } catch (IOException e) {
+               log.debugf(e, "Unable to delete the spill file %s", spillFile.path());
+            }
+         }, "async-store-spill-close").thenCompose(ignore2 -> actual.stop());
       });
    }
 
@@ -167,14 +235,48 @@ private CompletionStage<Void> awaitQuiescence() {
    }
 
    void putModification(Object key, Modification modification) {
-      pendingModifications.put(key, modification);
+      Modification previous = pendingModifications.put(key, modification);
+      if (previous != null) {
+         statistics.coalescedWrite();
+         removedModification(previous);
+      }
+      if (modificationQueueMaxBytes > 0) {
+         pendingBytes += modification.weight();
+      }
+      if (modification instanceof SpilledPutModification) {
+         pendingSpilled++;
+      }
    }
 
    void putClearModification() {
       pendingModifications.clear();
+      pendingBytes = 0;
+      pendingSpilled = 0;
       hasPendingClear = true;
    }
 
+   @GuardedBy("this")
+   private void removedModification(Modification modification) {
+      if (modificationQueueMaxBytes > 0) {
+         pendingBytes -= modification.weight();
+      }
+      if (modification instanceof SpilledPutModification) {
+         pendingSpilled--;
+      }
+   }
+
+   synchronized int queueSize() {
+      return pendingModifications.size() + replicatingModifications.size();
+   }
+
+   synchronized long queueBytes() {
+      return pendingBytes + replicatingBytes;
+   }
+
+   synchronized int spilledModifications() {
+      return pendingSpilled + replicatingSpilled;
+   }
+
    /**
     * This method submits a batch of modifications to the underlying store and completes {@code batchFuture}
     * when the modifications are done.
@@ -191,7 +293,9 @@ private void submitTask() {
          log.tracef("Starting new batch with id %s", System.identityHashCode(newMap));
       }
       boolean ourClearToReplicate;
+      boolean ourSpilledToReplicate;
       Map<Object, Modification> ourModificationsToReplicate;
+      long start = timeService.time();
       synchronized (this) {
          // The isReplicatingClear would be true or replicatingModifications non empty if an update was currently pending
          // But we should only allow one at a time
@@ -202,6 +306,11 @@ private void submitTask() {
          isReplicatingClear = hasPendingClear;
          ourClearToReplicate = hasPendingClear;
          hasPendingClear = false;
+         replicatingBytes = pendingBytes;
+         pendingBytes = 0;
+         replicatingSpilled = pendingSpilled;
+         ourSpilledToReplicate = pendingSpilled > 0;
+         pendingSpilled = 0;
       }
 
       CompletionStage<Void> asyncBatchStage;
@@ -224,10 +333,16 @@ private void submitTask() {
                log.tracef("Sending batch of %d write/remove operations to underlying store with id %s", ourModificationsToReplicate.size(),
                      System.identityHashCode(ourModificationsToReplicate));
             }
-            return retry(() -> replicateModifications(ourModificationsToReplicate), persistenceConfiguration.connectionAttempts())
+            return retry(() -> replicateModifications(ourModificationsToReplicate, ourSpilledToReplicate),
+                  persistenceConfiguration.connectionAttempts())
                   .whenComplete((ignore2, t) -> {
                synchronized (this) {
                   replicatingModifications = Collections.emptyMap();
+                  replicatingBytes = 0;
+                  replicatingSpilled = 0;
+                  if (spillFile != null && pendingSpilled == 0) {
+                     spillFile.reset();
+                  }
                }
             });
          });
@@ -237,6 +352,7 @@ private void submitTask() {
          if (log.isTraceEnabled()) {
             log.tracef("Async operations completed for id %s", System.identityHashCode(ourModificationsToReplicate));
          }
+         statistics.flushed(timeService.timeDuration(start, TimeUnit.NANOSECONDS));
          boolean submitNewBatch;
          CompletableFuture<Void> future;
          synchronized (this) {
@@ -310,10 +426,16 @@ public void run() {
       }
    }
 
-   private CompletionStage<Void> replicateModifications(Map<Object, Modification> modifications) {
+   private CompletionStage<Void> replicateModifications(Map<Object, Modification> modifications, boolean hasSpilled) {
+      Flowable<Modification> flowable = Flowable.fromIterable(modifications.values());
+      if (hasSpilled) {
+         // The space of the spilled entries is not reused until the batch completes, so they can always be read
+         flowable = Flowable.fromPublisher(blockingManager.blockingPublisher(flowable.map(modification ->
+               modification instanceof SpilledPutModification spilled ?
+                     new PutModification(spilled.getSegment(), spilled.load()) : modification)));
+      }
       // Use a connected flowable, so we don't have to iterate over the modifications twice
-      ConnectableFlowable<Modification> connectableModifications = Flowable.fromIterable(modifications.values())
-            .publish();
+      ConnectableFlowable<Modification> connectableModifications = flowable.publish();
 
       // The method below may subscribe to the Flowable on a different thread, thus we must auto connect after both are
       // subscribed to (e.g. NonBlockingStoreAdapter subscribes on a blocking thread)
@@ -346,7 +468,7 @@ public Publisher<MarshallableEntry<K, V>> publishEntries(IntSet segments, Predic
          if (log.isTraceEnabled()) {
             log.tracef("Publisher subscribed to retrieve entries for segments %s", segments);
          }
-         return abstractPublish(segments, filter, PutModification::getEntry, MarshallableEntry::getKey,
+         return abstractPublish(segments, filter, PutModification::getEntry, this::loadSpilled, MarshallableEntry::getKey,
                (innerSegments, predicate) -> actual.publishEntries(innerSegments, predicate, includeValues));
       });
    }
@@ -359,11 +481,13 @@ public Publisher<K> publishKeys(IntSet segments, Predicate<? super K> filter) {
             log.tracef("Publisher subscribed to retrieve keys for segments %s", segments);
          }
          return abstractPublish(segments, filter, putModification -> putModification.<K, Object>getEntry().getKey(),
+               spilled -> spilled.map(spilledModification -> (K) spilledModification.getKey()),
                RxJavaInterop.identityFunction(), actual::publishKeys);
       });
    }
 
    private <E> Publisher<E> abstractPublish(IntSet segments, Predicate<? super K> filter, Function<PutModification, E> putFunction,
+         java.util.function.Function<Flowable<SpilledPutModification>, Flowable<E>> spilledFunction,
          Function<E, K> toKeyFunction, BiFunction<IntSet, Predicate<K>, Publisher<E>> publisherFunction) {
       Map.Entry<Boolean, Map<Object, Modification>> entryModifications = flattenModificationMaps();
 
@@ -374,6 +498,12 @@ private <E> Publisher<E> abstractPublish(IntSet segments, Predicate<? super K> f
             .filter(modification -> segments.contains(modification.getSegment()))
             .map(putFunction);
 
+      if (spillFile != null) {
+         modPublisher = modPublisher.concatWith(spilledFunction.apply(Flowable.fromIterable(modificationCopy.values())
+               .ofType(SpilledPutModification.class)
+               .filter(modification -> segments.contains(modification.getSegment()))));
+      }
+
       if (filter != null) {
          modPublisher = modPublisher.filter(e -> filter.test(toKeyFunction.apply(e)));
       }
@@ -411,6 +541,20 @@ private Map.Entry<Boolean, Map<Object, Modification>> flattenModificationMaps()
       return new AbstractMap.SimpleImmutableEntry<>(clearToReplicate, modificationCopy);
    }
 
+   /**
+    * Reads the entries of the given spilled modifications on a blocking thread. If the space of a modification was
+    * reused, the modification is already in the delegate store and the entry is loaded from it instead.
+    */
+   private Flowable<MarshallableEntry<K, V>> loadSpilled(Flowable<SpilledPutModification> spilled) {
+      return Flowable.fromPublisher(blockingManager.blockingPublisher(spilled.map(modification -> {
+               MarshallableEntry<K, V> entry = modification.load();
+               return entry != null ? entry : modification;
+            })))
+            .concatMapMaybe(value -> value instanceof SpilledPutModification modification ?
+                  Maybe.fromCompletionStage(actual.load(modification.getSegment(), modification.getKey())) :
+                  Maybe.just((MarshallableEntry<K, V>) value));
+   }
+
    @Override
    public CompletionStage<MarshallableEntry<K, V>> load(int segment, Object key) {
       assertNotStopped();
@@ -432,7 +576,7 @@ private CompletionStage<MarshallableEntry<K, V>> getStageFromPending(Object key)
             if (log.isTraceEnabled()) {
                log.tracef("Found entry was pending write in async store: %s", modification);
             }
-            return modification.asStage();
+            return modificationStage(modification);
          }
          if (hasPendingClear) {
             if (log.isTraceEnabled()) {
@@ -449,7 +593,7 @@ private CompletionStage<MarshallableEntry<K, V>> getStageFromPending(Object key)
          if (log.isTraceEnabled()) {
             log.tracef("Found entry was replicating write in async store: %s", modification);
          }
-         return modification.asStage();
+         return modificationStage(modification);
       } else if (clearToReplicate) {
          if (log.isTraceEnabled()) {
             log.trace("There is a clear being replicated from async store, returning null");
@@ -459,6 +603,13 @@ private CompletionStage<MarshallableEntry<K, V>> getStageFromPending(Object key)
       return null;
    }
 
+   private CompletionStage<MarshallableEntry<K, V>> modificationStage(Modification modification) {
+      if (modification instanceof SpilledPutModification spilled) {
+         return loadSpilled(Flowable.just(spilled)).firstElement().toCompletionStage(null);
+      }
+      return modification.asStage();
+   }
+
    public int segmentToUse(int segment) {
       return segmentCount == 1 ? 0 : segment;
    }
@@ -481,6 +632,12 @@ CompletionStage<Void> submitModification(Modification modification) {
       boolean isTraceEnabled = log.isTraceEnabled();
       boolean startNewBatch;
       CompletionStage<Void> submitStage;
+      SpilledPutModification spilled = null;
+      if (modification != ClearModification.INSTANCE) {
+         statistics.write();
+      }
+      // Computing the weight may need to marshall the entry, better not to do it while holding the lock
+      int weight = modificationQueueMaxBytes > 0 ? modification.weight() : 0;
       synchronized (this) {
          int previousBatchId;
          if (isTraceEnabled) {
@@ -490,6 +647,11 @@ CompletionStage<Void> submitModification(Modification modification) {
          } else {
             previousBatchId = 0;
          }
+         if (spillFile != null && modification instanceof PutModification &&
+               pendingBytes + replicatingBytes + weight > modificationQueueMaxBytes) {
+            spilled = spillFile.allocate((PutModification) modification);
+            modification = spilled;
+         }
          modification.apply(this);
 
          startNewBatch = batchFuture == null;
@@ -498,18 +660,30 @@ CompletionStage<Void> submitModification(Modification modification) {
          }
 
          int queueSize = pendingModifications.size() + replicatingModifications.size();
-         submitStage = queueSize > modificationQueueSize ? batchFuture : null;
+         long queueBytes = pendingBytes + replicatingBytes;
+         // Spilled modifications only retain their key, so only the number of modifications bounds the queue
+         boolean queueFull = queueSize > modificationQueueSize ||
+               (modificationQueueMaxBytes > 0 && spillFile == null && queueBytes > modificationQueueMaxBytes);
+         submitStage = queueFull ? batchFuture : null;
          if (submitStage != null && isTraceEnabled) {
-            log.tracef("Too many modifications queued (%d), operation must wait until previous batch %d completes",
-                       queueSize, previousBatchId);
+            log.tracef("Too many modifications queued (%d, %d bytes), operation must wait until previous batch %d completes",
+                       queueSize, queueBytes, previousBatchId);
          }
       }
 
       if (startNewBatch) {
          submitTask();
       }
-      return submitStage == null ? CompletableFutures.completedNull() :
-             submitStage.thenApplyAsync(CompletableFutures.toNullFunction(), nonBlockingExecutor);
+      CompletionStage<Void> stage = submitStage == null ? CompletableFutures.completedNull() :
+            submitStage.thenApplyAsync(CompletableFutures.toNullFunction(), nonBlockingExecutor);
+      if (spilled != null) {
+         statistics.spilledWrite();
+         SpilledPutModification toSpill = spilled;
+         SpillFile spillFile = this.spillFile;
+         // The write completes once the entry is on disk, which throttles writers to the speed of the spill file
+         stage = CompletionStages.allOf(stage, blockingManager.runBlocking(() -> spillFile.write(toSpill), "async-store-spill"));
+      }
+      return stage;
    }
 
    @Override
@@ -552,7 +726,14 @@ public CompletionStage<Void> addSegments(IntSet segments) {
    public CompletionStage<Void> removeSegments(IntSet segments) {
       assertNotStopped();
       synchronized (this) {
-         pendingModifications.values().removeIf(modification -> segments.contains(modification.getSegment()));
+         Iterator<Modification> iterator = pendingModifications.values().iterator();
+         while (iterator.hasNext()) {
+            Modification modification = iterator.next();
+            if (segments.contains(modification.getSegment())) {
+               iterator.remove();
+               removedModification(modification);
+            }
+         }
       }
       return actual.removeSegments(segments);
    }
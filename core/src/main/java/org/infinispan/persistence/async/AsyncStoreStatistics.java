@@ -0,0 +1,127 @@
+package org.infinispan.persistence.async;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.factories.annotations.SurvivesRestarts;
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
+
+/**
+ * Exposes the state of the modification queues of the {@link AsyncNonBlockingStore}s of a cache.
+ * <p>
+ * The component is only registered for caches configured with a write-behind store, and it aggregates all of them.
+ * The counters are kept when the stores are restarted, while the queue attributes only include the running stores.
+ *
+ * @since 16.0
+ */
+@MBean(objectName = "AsyncStore", description = "Statistics for the modification queues of the write-behind stores")
+@Scope(Scopes.NAMED_CACHE)
+@SurvivesRestarts
+public final class AsyncStoreStatistics {
+   private final LongAdder writes = new LongAdder();
+   private final LongAdder coalescedWrites = new LongAdder();
+   private final LongAdder spilledWrites = new LongAdder();
+   private final LongAdder flushes = new LongAdder();
+   private final LongAdder flushTime = new LongAdder();
+   private final Set<AsyncNonBlockingStore<?, ?>> stores = ConcurrentHashMap.newKeySet();
+
+   void addStore(AsyncNonBlockingStore<?, ?> store) {
+      stores.add(store);
+   }
+
+   void removeStore(AsyncNonBlockingStore<?, ?> store) {
+      stores.remove(store);
+   }
+
+   void write() {
+      writes.increment();
+   }
+
+   void coalescedWrite() {
+      coalescedWrites.increment();
+   }
+
+   void spilledWrite() {
+      spilledWrites.increment();
+   }
+
+   void flushed(long nanos) {
+      flushes.increment();
+      flushTime.add(nanos);
+   }
+
+   @ManagedAttribute(description = "Number of modifications waiting to be written or being written to the underlying store",
+         displayName = "Queue size")
+   public int getQueueSize() {
+      int queueSize = 0;
+      for (AsyncNonBlockingStore<?, ?> store : stores) {
+         queueSize += store.queueSize();
+      }
+      return queueSize;
+   }
+
+   @ManagedAttribute(description = "Estimated bytes retained by the queued modifications, only tracked when the queue is bounded by size",
+         displayName = "Queue bytes", units = Units.BYTES)
+   public long getQueueBytes() {
+      long queueBytes = 0;
+      for (AsyncNonBlockingStore<?, ?> store : stores) {
+         queueBytes += store.queueBytes();
+      }
+      return queueBytes;
+   }
+
+   @ManagedAttribute(description = "Number of queued modifications whose entry was spilled to disk",
+         displayName = "Spilled modifications")
+   public int getSpilledModifications() {
+      int spilled = 0;
+      for (AsyncNonBlockingStore<?, ?> store : stores) {
+         spilled += store.spilledModifications();
+      }
+      return spilled;
+   }
+
+   @ManagedAttribute(description = "Number of writes and removes received by the store",
+         displayName = "Writes", measurementType = MeasurementType.TRENDSUP)
+   public long getWrites() {
+      return writes.sum();
+   }
+
+   @ManagedAttribute(description = "Number of writes and removes that replaced a queued modification for the same key",
+         displayName = "Coalesced writes", measurementType = MeasurementType.TRENDSUP)
+   public long getCoalescedWrites() {
+      return coalescedWrites.sum();
+   }
+
+   @ManagedAttribute(description = "Ratio of the writes and removes that replaced a queued modification for the same key",
+         displayName = "Coalescing ratio", units = Units.PERCENTAGE)
+   public double getCoalescingRatio() {
+      long writes = this.writes.sum();
+      return writes == 0 ? 0 : (double) coalescedWrites.sum() / writes;
+   }
+
+   @ManagedAttribute(description = "Number of writes whose entry was spilled to disk",
+         displayName = "Spilled writes", measurementType = MeasurementType.TRENDSUP)
+   public long getSpilledWrites() {
+      return spilledWrites.sum();
+   }
+
+   @ManagedAttribute(description = "Number of batches written to the underlying store",
+         displayName = "Flushes", measurementType = MeasurementType.TRENDSUP)
+   public long getFlushes() {
+      return flushes.sum();
+   }
+
+   @ManagedAttribute(description = "Average time to write a batch to the underlying store",
+         displayName = "Average flush time", units = Units.MILLISECONDS)
+   public long getAverageFlushTime() {
+      long flushes = this.flushes.sum();
+      return flushes == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(flushTime.sum() / flushes);
+   }
+}
@@ -20,6 +20,11 @@ public int getSegment() {
       throw new UnsupportedOperationException("This should never be invoked");
    }
 
+   @Override
+   public int weight() {
+      return 0;
+   }
+
    @Override
    public <K, V> CompletionStage<MarshallableEntry<K, V>> asStage() {
       throw new UnsupportedOperationException("This should never be invoked");
@@ -22,6 +22,13 @@ interface Modification {
     */
    int getSegment();
 
+   /**
+    * Returns an estimate of the bytes retained by this modification while it is queued. Only invoked when the queue of
+    * the store is bounded by size, since it may require marshalling the entry.
+    * @return the estimated size of the modification in bytes
+    */
+   int weight();
+
    /**
     * Returns this modification as a stage that is already complete.
     * @param <K> key type
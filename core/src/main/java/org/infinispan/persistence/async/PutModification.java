@@ -3,11 +3,13 @@
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
+import org.infinispan.commons.io.ByteBuffer;
 import org.infinispan.persistence.spi.MarshallableEntry;
 
 class PutModification implements Modification {
    private final int segment;
    private final MarshallableEntry entry;
+   private int weight;
 
    PutModification(int segment, MarshallableEntry entry) {
       this.segment = segment;
@@ -24,6 +26,21 @@ public int getSegment() {
       return segment;
    }
 
+   @Override
+   public int weight() {
+      int weight = this.weight;
+      if (weight == 0) {
+         weight = AsyncNonBlockingStore.MODIFICATION_OVERHEAD + length(entry.getKeyBytes()) + length(entry.getValueBytes()) +
+               length(entry.getMetadataBytes()) + length(entry.getInternalMetadataBytes());
+         this.weight = weight;
+      }
+      return weight;
+   }
+
+   private static int length(ByteBuffer buffer) {
+      return buffer == null ? 0 : buffer.getLength();
+   }
+
    @SuppressWarnings("unchecked")
    @Override
    public <K, V> CompletionStage<MarshallableEntry<K, V>> asStage() {
@@ -24,6 +24,11 @@ public int getSegment() {
       return segment;
    }
 
+   @Override
+   public int weight() {
+      return AsyncNonBlockingStore.MODIFICATION_OVERHEAD;
+   }
+
    @Override
    public <K, V> CompletionStage<MarshallableEntry<K, V>> asStage() {
       return CompletableFutures.completedNull();
@@ -0,0 +1,187 @@
+package org.infinispan.persistence.async;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.io.ByteBufferFactory;
+import org.infinispan.persistence.spi.MarshallableEntry;
+import org.infinispan.persistence.spi.MarshallableEntryFactory;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Append-only file that holds the entries of the writes that did not fit in the memory bound of the queue of an
+ * {@link AsyncNonBlockingStore}.
+ * <p>
+ * Space is allocated at the end of the file while holding the lock of the store, and the entry is then written to it
+ * on a blocking thread. Once no spilled modification is queued or being written, the store resets the file and the
+ * next allocation starts again at the beginning. Every reset increments the generation of the file, which lets a
+ * reader detect that the space of the modification it read was reused, meaning that the modification was already
+ * written to the underlying store.
+ *
+ * @since 16.0
+ */
+final class SpillFile {
+   private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass());
+   // Lengths of the 4 byte arrays, created and last used timestamps
+   private static final int HEADER_SIZE = 4 * Integer.BYTES + 2 * Long.BYTES;
+
+   private final Path path;
+   private final FileChannel channel;
+   private final MarshallableEntryFactory<?, ?> entryFactory;
+   private final ByteBufferFactory byteBufferFactory;
+   private final AtomicInteger writesInFlight = new AtomicInteger();
+   // Only accessed while holding the lock of the store
+   private long position;
+   private volatile int generation;
+
+   private SpillFile(Path path, FileChannel channel, MarshallableEntryFactory<?, ?> entryFactory,
+                     ByteBufferFactory byteBufferFactory) {
+      this.path = path;
+      this.channel = channel;
+      this.entryFactory = entryFactory;
+      this.byteBufferFactory = byteBufferFactory;
+   }
+
+   static SpillFile create(Path directory, MarshallableEntryFactory<?, ?> entryFactory,
+                           ByteBufferFactory byteBufferFactory) throws IOException {
+      Files.createDirectories(directory);
+      Path path = Files.createTempFile(directory, "write-behind-", ".spill");
+      FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      return new SpillFile(path, channel, entryFactory, byteBufferFactory);
+   }
+
+   /**
+    * Reserves the space for the entry of the given write. Must be invoked while holding the lock of the store.
+    */
+   SpilledPutModification allocate(PutModification modification) {
+      MarshallableEntry<?, ?> entry = modification.getEntry();
+      int length = HEADER_SIZE + length(entry.getKeyBytes()) + length(entry.getValueBytes()) +
+            length(entry.getMetadataBytes()) + length(entry.getInternalMetadataBytes());
+      long offset = position;
+      position += length;
+      writesInFlight.incrementAndGet();
+      return new SpilledPutModification(modification.getSegment(), entry, this, offset, length, generation);
+   }
+
+   /**
+    * Writes the entry of the modification to its reserved space. If the write fails the modification keeps its entry
+    * in memory. Must be invoked on a blocking thread.
+    */
+   void write(SpilledPutModification modification) {
+      try {
+         MarshallableEntry<?, ?> entry = modification.entry();
+         java.nio.ByteBuffer buffer = java.nio.ByteBuffer.allocate(modification.length());
+         writeBytes(buffer, entry.getKeyBytes());
+         writeBytes(buffer, entry.getValueBytes());
+         writeBytes(buffer, entry.getMetadataBytes());
+         writeBytes(buffer, entry.getInternalMetadataBytes());
+         buffer.putLong(entry.created());
+         buffer.putLong(entry.lastUsed());
+         buffer.flip();
+         long offset = modification.offset();
+         while (buffer.hasRemaining()) {
+            offset += channel.write(buffer, offset);
+         }
+         modification.spilled();
+      } catch (IOException e) {
+         log.asyncStoreSpillFailed(path, e);
+      } finally {
+         writesInFlight.decrementAndGet();
+      }
+   }
+
+   /**
+    * Reads the entry of a spilled modification. Must be invoked on a blocking thread.
+    * @return the entry, or {@code null} if the space of the modification was reused since it was allocated
+    */
+   MarshallableEntry<?, ?> read(SpilledPutModification modification) throws IOException {
+      if (generation != modification.generation()) {
+         return null;
+      }
+      java.nio.ByteBuffer buffer = java.nio.ByteBuffer.allocate(modification.length());
+      long offset = modification.offset();
+      while (buffer.hasRemaining()) {
+         int read = channel.read(buffer, offset);
+         if (read < 0) {
+            throw new IOException("Unexpected end of " + path + " at " + offset);
+         }
+         offset += read;
+      }
+      // The space may have been reused while reading
+      if (generation != modification.generation()) {
+         return null;
+      }
+      buffer.flip();
+      byte[] bytes = buffer.array();
+      ByteBuffer keyBytes = readBytes(buffer, bytes);
+      ByteBuffer valueBytes = readBytes(buffer, bytes);
+      ByteBuffer metadataBytes = readBytes(buffer, bytes);
+      ByteBuffer internalMetadataBytes = readBytes(buffer, bytes);
+      return entryFactory.create(keyBytes, valueBytes, metadataBytes, internalMetadataBytes, buffer.getLong(),
+            buffer.getLong());
+   }
+
+   /**
+    * Starts allocating from the beginning of the file again if no entry is being written. Must be invoked while holding
+    * the lock of the store, and only when no spilled modification is queued.
+    */
+   void reset() {
+      if (position > 0 && writesInFlight.get() == 0) {
+         position = 0;
+         generation++;
+      }
+   }
+
+   /**
+    * Closes and deletes the file. Must be invoked on a blocking thread.
+    */
+   void close() throws IOException {
+      try {
+         channel.close();
+      } finally {
+         Files.deleteIfExists(path);
+      }
+   }
+
+   Path path() {
+      return path;
+   }
+
+   private static int length(ByteBuffer bytes) {
+      return bytes == null ? 0 : bytes.getLength();
+   }
+
+   private static void writeBytes(java.nio.ByteBuffer buffer, ByteBuffer bytes) {
+      if (bytes == null) {
+         buffer.putInt(-1);
+      } else {
+         buffer.putInt(bytes.getLength());
+         buffer.put(bytes.getBuf(), bytes.getOffset(), bytes.getLength());
+      }
+   }
+
+   private ByteBuffer readBytes(java.nio.ByteBuffer buffer, byte[] bytes) {
+      int length = buffer.getInt();
+      if (length < 0) {
+         return null;
+      }
+      int offset = buffer.position();
+      buffer.position(offset + length);
+      return byteBufferFactory.newByteBuffer(bytes, offset, length);
+   }
+
+   @Override
+   public String toString() {
+      return "SpillFile{" +
+            "path=" + path +
+            ", generation=" + generation +
+            '}';
+   }
+}
@@ -0,0 +1,106 @@
+package org.infinispan.persistence.async;
+
+import java.io.IOException;
+import java.util.concurrent.CompletionStage;
+
+import org.infinispan.persistence.spi.MarshallableEntry;
+import org.infinispan.persistence.spi.PersistenceException;
+
+/**
+ * A write whose entry is appended to the {@link SpillFile} of the store, so that the queue only retains its key and
+ * the position of the entry in the file. The entry is kept in memory until it has been written to the file.
+ *
+ * @since 16.0
+ */
+class SpilledPutModification implements Modification {
+   private final int segment;
+   private final Object key;
+   private final SpillFile spillFile;
+   private final long offset;
+   private final int length;
+   private final int generation;
+   private volatile MarshallableEntry<?, ?> entry;
+
+   SpilledPutModification(int segment, MarshallableEntry<?, ?> entry, SpillFile spillFile, long offset, int length,
+                          int generation) {
+      this.segment = segment;
+      this.key = entry.getKey();
+      this.entry = entry;
+      this.spillFile = spillFile;
+      this.offset = offset;
+      this.length = length;
+      this.generation = generation;
+   }
+
+   @Override
+   public <K, V> void apply(AsyncNonBlockingStore<K, V> store) {
+      store.putModification(AsyncNonBlockingStore.wrapKeyIfNeeded(key), this);
+   }
+
+   @Override
+   public int getSegment() {
+      return segment;
+   }
+
+   @Override
+   public int weight() {
+      return AsyncNonBlockingStore.MODIFICATION_OVERHEAD;
+   }
+
+   @Override
+   public <K, V> CompletionStage<MarshallableEntry<K, V>> asStage() {
+      throw new UnsupportedOperationException("Spilled modifications must be loaded on a blocking thread");
+   }
+
+   public Object getKey() {
+      return key;
+   }
+
+   /**
+    * Returns the entry of this modification, reading it from the spill file if it was already written to it. Must be
+    * invoked on a blocking thread.
+    * @return the entry, or {@code null} if the modification was already written to the underlying store and its space
+    * in the spill file was reused
+    */
+   @SuppressWarnings("unchecked")
+   <K, V> MarshallableEntry<K, V> load() {
+      MarshallableEntry<?, ?> entry = this.entry;
+      if (entry != null) {
+         return (MarshallableEntry<K, V>) entry;
+      }
+      try {
+         return (MarshallableEntry<K, V>) spillFile.read(this);
+      } catch (IOException e) {
+         throw new PersistenceException(e);
+      }
+   }
+
+   MarshallableEntry<?, ?> entry() {
+      return entry;
+   }
+
+   void spilled() {
+      entry = null;
+   }
+
+   long offset() {
+      return offset;
+   }
+
+   int length() {
+      return length;
+   }
+
+   int generation() {
+      return generation;
+   }
+
+   @Override
+   public String toString() {
+      return "SpilledPutModification{" +
+            "segment=" + segment +
+            ", key=" + key +
+            ", offset=" + offset +
+            '}';
+   }
+}
@@ -0,0 +1,340 @@
+package org.infinispan.persistence.file;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Keeps track of the space of a {@link SingleFileStore} file when the store runs in append-only mode.
+ * <p>
+ * The file is split in regions of a fixed size. New entries are appended sequentially, either at the end of the file
+ * or in a region that was completely freed, and every region counts the bytes allocated in it and how many of them
+ * were freed since. A region whose freed bytes reach the compaction threshold is a candidate for compaction: its live
+ * entries are copied at the write position, after which the whole region is free and can be written again, or it is
+ * truncated if it is the last region of the file.
+ * <p>
+ * An entry belongs to the region it starts in. Entries never cross a region boundary, unless they are larger than a
+ * region or they were written before the append-only mode was enabled: in that case the region is merged with the
+ * following regions that the entry covers, and the merged regions are handled as a single region.
+ * <p>
+ * This class is not thread safe, the store guards it with a lock.
+ *
+ * @since 16.0
+ */
+final class RegionTable {
+   private static final int NONE = -1;
+
+   private final long regionSize;
+   // The first bytes of the file are the magic number, not an entry
+   private final long fileStart;
+   // Any free space left at the end of a region must fit the header of a free entry
+   private final int minFreeSize;
+   private final float compactionThreshold;
+
+   // head[i] is the first region of the merged regions that region i is part of
+   private int[] head = new int[0];
+   // Number of consecutive regions merged in a head region
+   private int[] span = new int[0];
+   private long[] allocated = new long[0];
+   private long[] freed = new long[0];
+   private boolean[] reusable = new boolean[0];
+   // Number of regions up to the end of the file
+   private int count;
+   private final ArrayDeque<Integer> freeRegions = new ArrayDeque<>();
+   // A freed region receiving the new entries, or NONE if the entries are appended at the end of the file
+   private int current = NONE;
+   private long cursor;
+   private long end;
+   // The lowest end of the file since the store last truncated it, or -1 if the file did not shrink
+   private long truncatedEnd = -1;
+   private boolean compactionPending;
+
+   RegionTable(long regionSize, long fileStart, int minFreeSize, float compactionThreshold) {
+      if (regionSize < fileStart + minFreeSize) {
+         throw new IllegalArgumentException("Region size " + regionSize + " is too small");
+      }
+      this.regionSize = regionSize;
+      this.fileStart = fileStart;
+      this.minFreeSize = minFreeSize;
+      this.compactionThreshold = compactionThreshold;
+      clear();
+   }
+
+   /**
+    * Allocated space of an entry. If <code>freeSize</code> is not zero, the store must also write the header of a free
+    * entry of that size at <code>freeOffset</code> before writing the entry.
+    */
+   static final class Slot {
+      final long offset;
+      final int size;
+      final long freeOffset;
+      final int freeSize;
+
+      Slot(long offset, int size, long freeOffset, int freeSize) {
+         this.offset = offset;
+         this.size = size;
+         this.freeOffset = freeOffset;
+         this.freeSize = freeSize;
+      }
+   }
+
+   void clear() {
+      count = 0;
+      freeRegions.clear();
+      current = NONE;
+      end = fileStart;
+      truncatedEnd = -1;
+      compactionPending = false;
+   }
+
+   long end() {
+      return end;
+   }
+
+   private int index(long offset) {
+      return (int) (offset / regionSize);
+   }
+
+   private long start(int region) {
+      return Math.max(region * regionSize, fileStart);
+   }
+
+   private long limit(int region) {
+      return (region + span[region]) * regionSize;
+   }
+
+   private boolean isLast(int region) {
+      return head[count - 1] == region;
+   }
+
+   private boolean isDead(int region) {
+      return freed[region] == allocated[region];
+   }
+
+   /**
+    * Records an entry found in the file while the store rebuilds its index.
+    */
+   void add(long offset, int size, boolean free) {
+      int region = extend(offset, size);
+      allocated[region] += size;
+      if (free) {
+         freed[region] += size;
+      }
+   }
+
+   /**
+    * Makes the completely free regions available for writing and checks if any region needs compaction, invoked after
+    * all the entries of the file were added.
+    */
+   void releaseFreeRegions() {
+      for (int region = count - 1; region >= 0; region--) {
+         // Releasing the last region truncates the file, so the count may change
+         if (region >= count || head[region] != region || region == current) {
+            continue;
+         }
+         if (isDead(region)) {
+            release(region);
+         } else if (!isLast(region) && freed[region] >= compactionThreshold * allocated[region]) {
+            compactionPending = true;
+         }
+      }
+   }
+
+   /**
+    * @return the size the file must be truncated to, or <code>-1</code> if the last regions were not freed since the
+    * previous invocation
+    */
+   long pollTruncation() {
+      long truncation = truncatedEnd;
+      truncatedEnd = -1;
+      return truncation;
+   }
+
+   /**
+    * Allocates the space for a new entry, possibly larger than requested so that the space left in the region can
+    * still hold a free entry.
+    */
+   Slot allocate(int length) {
+      if (current != NONE) {
+         if (limit(current) - cursor >= length) {
+            return allocateInCurrent(length);
+         }
+         int previous = current;
+         current = NONE;
+         if (isDead(previous)) {
+            release(previous);
+         }
+      }
+      Integer region = freeRegions.peek();
+      if (region != null && limit(region) - start(region) >= length) {
+         freeRegions.poll();
+         reusable[region] = false;
+         allocated[region] = 0;
+         freed[region] = 0;
+         current = region;
+         cursor = start(region);
+         return allocateInCurrent(length);
+      }
+      return append(length);
+   }
+
+   private Slot allocateInCurrent(int length) {
+      long offset = cursor;
+      long limit = limit(current);
+      int size = padded(length, limit - offset);
+      cursor += size;
+      allocated[current] += size;
+      // The remaining space of the region must be a free entry, otherwise the file could not be read sequentially
+      return new Slot(offset, size, cursor, (int) (limit - cursor));
+   }
+
+   private Slot append(int length) {
+      long offset = end;
+      long freeOffset = 0;
+      int freeSize = 0;
+      int index = index(offset);
+      long limit = index < count ? limit(head[index]) : (index + 1) * regionSize;
+      long remaining = limit - offset;
+      if (length > remaining && offset % regionSize != 0 && remaining >= minFreeSize) {
+         // Start the entry in a new region and leave the rest of the region free
+         freeOffset = offset;
+         freeSize = (int) remaining;
+         add(offset, freeSize, true);
+         offset = limit;
+         remaining = regionSize;
+      }
+      int size = padded(length, remaining);
+      int region = extend(offset, size);
+      allocated[region] += size;
+      return new Slot(offset, size, freeOffset, freeSize);
+   }
+
+   private int padded(int length, long remaining) {
+      long left = remaining - length;
+      return left > 0 && left < minFreeSize ? (int) remaining : length;
+   }
+
+   /**
+    * Moves the end of the file after the given entry, merging all the regions it covers.
+    *
+    * @return the region the entry belongs to
+    */
+   private int extend(long offset, long size) {
+      int first = index(offset);
+      int last = index(offset + size - 1);
+      ensureCapacity(last + 1);
+      int region;
+      if (first < count) {
+         region = head[first];
+      } else {
+         region = first;
+         span[region] = 1;
+         allocated[region] = 0;
+         freed[region] = 0;
+         reusable[region] = false;
+      }
+      for (int i = count; i <= last; i++) {
+         head[i] = region;
+      }
+      count = Math.max(count, last + 1);
+      span[region] = Math.max(span[region], last - region + 1);
+      end = Math.max(end, offset + size);
+      return region;
+   }
+
+   private void ensureCapacity(int regions) {
+      if (head.length < regions) {
+         int capacity = Math.max(regions, head.length * 2);
+         head = Arrays.copyOf(head, capacity);
+         span = Arrays.copyOf(span, capacity);
+         allocated = Arrays.copyOf(allocated, capacity);
+         freed = Arrays.copyOf(freed, capacity);
+         reusable = Arrays.copyOf(reusable, capacity);
+      }
+   }
+
+   /**
+    * Records that an entry is no longer used.
+    */
+   void free(long offset, int size) {
+      if (index(offset) >= count) {
+         // The file was cleared after the entry was allocated
+         return;
+      }
+      int region = head[index(offset)];
+      freed[region] += size;
+      if (region == current) {
+         return;
+      }
+      if (isDead(region)) {
+         release(region);
+      } else if (!isLast(region) && freed[region] >= compactionThreshold * allocated[region]) {
+         compactionPending = true;
+      }
+   }
+
+   private void release(int region) {
+      if (!isLast(region)) {
+         if (!reusable[region]) {
+            reusable[region] = true;
+            freeRegions.add(region);
+         }
+         return;
+      }
+      // Drop the region and any free region before it
+      while (count > 0) {
+         int last = head[count - 1];
+         if (last == current || !isDead(last)) {
+            break;
+         }
+         if (reusable[last]) {
+            reusable[last] = false;
+            freeRegions.remove(last);
+         }
+         end = start(last);
+         count = last;
+         truncatedEnd = truncatedEnd < 0 ? end : Math.min(truncatedEnd, end);
+      }
+   }
+
+   boolean isCompactionPending() {
+      return compactionPending;
+   }
+
+   /**
+    * @return the regions whose live entries should be copied, with a bit set for every region they cover
+    */
+   BitSet compactionCandidates() {
+      compactionPending = false;
+      BitSet candidates = new BitSet();
+      for (int region = 0; region < count; region += span[region]) {
+         if (region != current && !reusable[region] && !isLast(region) && !isDead(region)
+               && freed[region] >= compactionThreshold * allocated[region]) {
+            candidates.set(region, region + span[region]);
+         }
+      }
+      return candidates;
+   }
+
+   int regionIndex(long offset) {
+      return index(offset);
+   }
+
+   long freeBytes() {
+      long total = 0;
+      for (int region = 0; region < count; region += span[region]) {
+         total += reusable[region] ? limit(region) - start(region) : freed[region];
+      }
+      return total;
+   }
+
+   @Override
+   public String toString() {
+      return "RegionTable{" +
+            "regions=" + count +
+            ", free=" + freeRegions.size() +
+            ", current=" + current +
+            ", end=" + end +
+            '}';
+   }
+}
@@ -3,6 +3,7 @@
 import static io.reactivex.rxjava3.core.Flowable.defer;
 import static org.infinispan.util.logging.Log.PERSISTENCE;
 
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
@@ -15,6 +16,7 @@
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.EnumSet;
@@ -28,6 +30,7 @@
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.StampedLock;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -145,6 +148,10 @@
    private long filePos;
    private File file;
    private float fragmentationFactor = .75f;
+   private boolean appendOnly;
+   // Tracks the space used in append-only mode, its monitor also guards the allocation of new entries
+   private RegionTable regions;
+   private final AtomicBoolean compactionScheduled = new AtomicBoolean();
    // Prevent clear() from truncating the file after a write() allocated the entry but before it wrote the data
    private final StampedLock resizeLock = new StampedLock();
    private TimeService timeService;
@@ -176,6 +183,11 @@ public CompletionStage<Void> start(InitializationContext ctx) {
 
       entries = new Map[actualNumSegments];
       freeList = Collections.synchronizedSortedSet(new TreeSet<>());
+      appendOnly = configuration.appendOnly();
+      if (appendOnly) {
+         regions = new RegionTable(configuration.regionSize(), MAGIC_LATEST.length, KEY_POS_LATEST,
+               configuration.compactionThreshold());
+      }
 
       // Not really blocking because no other thread can access the lock during start
       blockingAddSegments(IntSets.immutableRangeSet(actualNumSegments));
@@ -385,6 +397,11 @@ private void rebuildIndex() throws Exception {
             // We start by owning all the segments
             Map<K, FileEntry> segmentEntries = getSegmentEntries(getSegment(key));
             segmentEntries.put(key, fe);
+            if (appendOnly) {
+               regions.add(fe.offset, fe.size, false);
+            }
+         } else if (appendOnly) {
+            regions.add(fe.offset, fe.size, true);
          } else {
             // add to free list
             freeList.add(fe);
@@ -786,6 +803,19 @@ private ByteBuffer readChannel(ByteBuffer buf, long offset, int length, FileChan
       return buf;
    }
 
+   /**
+    * Reads from the channel until the buffer is full, as a single read may return fewer bytes than requested.
+    */
+   private static void readFully(FileChannel channel, ByteBuffer buf, long offset) throws IOException {
+      while (buf.hasRemaining()) {
+         int read = channel.read(buf, offset);
+         if (read < 0) {
+            throw new EOFException("Unexpected end of file at offset " + offset);
+         }
+         offset += read;
+      }
+   }
+
    private ByteBuffer allocate(ByteBuffer buf, int length) {
       buf.flip();
       if (buf.capacity() < length) {
@@ -825,7 +855,10 @@ private boolean blockingContainsKey(int segment, Object key) {
     * @return allocated file position and length as FileEntry object
     */
    @GuardedBy("resizeLock.readLock()")
-   private FileEntry allocate(int len) {
+   private FileEntry allocate(int len, FileChannel channel) {
+      if (appendOnly) {
+         return allocateInRegion(len, channel);
+      }
       synchronized (freeList) {
          // lookup a free entry of sufficient size
          SortedSet<FileEntry> candidates = freeList.tailSet(new FileEntry(0, len));
@@ -878,10 +911,37 @@ private FileEntry allocateExistingEntry(FileEntry free, int len) {
       return free;
    }
 
+   /**
+    * Allocates the requested space at the write position of the file in append-only mode.
+    */
+   @GuardedBy("resizeLock.readLock()")
+   private FileEntry allocateInRegion(int len, FileChannel channel) {
+      synchronized (regions) {
+         RegionTable.Slot slot = regions.allocate(len);
+         try {
+            // Leaving a region may free the last regions of the file
+            truncateRegions(channel);
+            if (slot.freeSize > 0) {
+               // The rest of the region must be readable as a free entry when the index is rebuilt
+               writeFreeEntry(new FileEntry(slot.freeOffset, slot.freeSize), channel);
+            }
+         } catch (IOException e) {
+            throw new PersistenceException("Cannot add new free entry", e);
+         }
+         if (log.isTraceEnabled()) log.tracef("New entry allocated at %d:%d, %s", slot.offset, slot.size, regions);
+         return new FileEntry(slot.offset, slot.size);
+      }
+   }
+
    /**
     * Writes a new free entry to the file and also adds it to the free list
     */
    private void addNewFreeEntry(FileEntry fe) throws IOException {
+      writeFreeEntry(fe, channel);
+      freeList.add(fe);
+   }
+
+   private void writeFreeEntry(FileEntry fe, FileChannel channel) throws IOException {
       ByteBuffer buf = ByteBuffer.allocate(KEY_POS_LATEST);
       buf.putInt(fe.size);
       buf.putInt(0);
@@ -891,7 +951,6 @@ private void addNewFreeEntry(FileEntry fe) throws IOException {
       buf.putLong(-1);
       buf.flip();
       channel.write(buf, fe.offset);
-      freeList.add(fe);
    }
 
    /**
@@ -907,7 +966,9 @@ private void free(FileEntry fe) throws IOException {
          // No need to wait for readers to unlock here, the FileEntry instance is not modified,
          // and allocate() won't return an entry as long as it has a reader.
          channel.write(ByteBuffer.wrap(ZERO_INT), fe.offset + KEYLEN_POS);
-         if (!freeList.add(fe)) {
+         if (appendOnly) {
+            freeInRegion(fe);
+         } else if (!freeList.add(fe)) {
             throw new IllegalStateException(String.format("Trying to free an entry that was not allocated: %s", fe));
          }
          if (log.isTraceEnabled()) log.tracef("Deleted entry at %d:%d, there are now %d free entries", fe.offset, fe.size, freeList.size());
@@ -943,7 +1004,7 @@ private void write(int segment, MarshallableEntry<? extends K, ? extends V> mars
             return;
          }
 
-         FileEntry newEntry = allocate(len);
+         FileEntry newEntry = allocate(len, channel);
          newEntry = new FileEntry(newEntry.offset, newEntry.size, key.getLength(), data.getLength(), metadataLength, internalMetadataLength, marshalledEntry.expiryTime());
 
          ByteBuffer buf = ByteBuffer.allocate(len);
@@ -1008,6 +1069,11 @@ private void blockingClear() {
             // clear in-memory state
             freeList.clear();
          }
+         if (appendOnly) {
+            synchronized (regions) {
+               regions.clear();
+            }
+         }
 
          // All readers are done, reset file
          if (log.isTraceEnabled()) log.tracef("Truncating file, current size is %d", filePos);
@@ -1142,7 +1208,7 @@ private MarshallableEntry<K, V> readFromDisk(FileEntry fe, Object key, boolean l
          // load serialized data from disk
          data = new byte[fe.keyLen + fe.dataLen + (loadMetadata ? fe.metadataLen + fe.internalMetadataLen : 0)];
          // The entry lock will prevent clear() from truncating the file at this point
-         channel.read(ByteBuffer.wrap(data), fe.offset + KEY_POS_LATEST);
+         readFully(channel, ByteBuffer.wrap(data), fe.offset + KEY_POS_LATEST);
       } catch (Exception e) {
          throw new PersistenceException(e);
       } finally {
@@ -1322,6 +1388,10 @@ private Flowable<MarshallableEntry<K, V>> blockingPublishSegmentEntries(int segm
     * Manipulates the free entries for optimizing disk space.
     */
    private void processFreeEntries() {
+      if (appendOnly) {
+         processFreeRegions();
+         return;
+      }
       long stamp = resizeLock.readLock();
       try {
          synchronized (freeList) {
@@ -1430,6 +1500,161 @@ private void mergeAndLogEntry(FileEntry entry, int mergeCounter) {
       }
    }
 
+   /**
+    * Records the space of an entry as free in append-only mode, truncating the file if its last region is now empty.
+    */
+   private void freeInRegion(FileEntry fe) throws IOException {
+      boolean compact;
+      synchronized (regions) {
+         regions.free(fe.offset, fe.size);
+         truncateRegions(channel);
+         compact = regions.isCompactionPending();
+      }
+      if (compact) {
+         scheduleCompaction();
+      }
+   }
+
+   /**
+    * Truncates the file if its last regions were freed and updates the file size.
+    */
+   @GuardedBy("regions")
+   private void truncateRegions(FileChannel channel) throws IOException {
+      long truncateOffset = regions.pollTruncation();
+      if (truncateOffset >= 0) {
+         if (log.isTraceEnabled()) log.tracef("Truncating file to %d, current size is %d", truncateOffset, filePos);
+         channel.truncate(truncateOffset);
+      }
+      filePos = regions.end();
+   }
+
+   /**
+    * Makes the empty regions available for writing and compacts the fragmented ones in append-only mode.
+    */
+   private void processFreeRegions() {
+      long stamp = resizeLock.readLock();
+      boolean compact;
+      try {
+         synchronized (regions) {
+            regions.releaseFreeRegions();
+            truncateRegions(channel);
+            compact = regions.isCompactionPending();
+         }
+      } catch (IOException e) {
+         throw new PersistenceException("Error while truncating file", e);
+      } finally {
+         resizeLock.unlockRead(stamp);
+      }
+      if (compact) {
+         scheduleCompaction();
+      }
+   }
+
+   private void scheduleCompaction() {
+      if (compactionScheduled.compareAndSet(false, true)) {
+         blockingManager.runBlocking(this::compactRegions, "sfs-compact");
+      }
+   }
+
+   /**
+    * Copies the live entries of the regions with the most freed space to the write position, after which the regions
+    * are empty and can be written again or truncated.
+    */
+   private void compactRegions() {
+      try {
+         BitSet candidates;
+         synchronized (regions) {
+            candidates = regions.compactionCandidates();
+         }
+         if (log.isTraceEnabled()) log.tracef("Compacting regions %s of store %s", candidates, cacheName());
+         for (int segment = 0; segment < actualNumSegments && !candidates.isEmpty(); segment++) {
+            for (KeyValuePair<K, FileEntry> kvp : collectEntriesInRegions(segment, candidates)) {
+               moveEntry(segment, kvp.getKey(), kvp.getValue());
+            }
+         }
+      } catch (Throwable t) {
+         PERSISTENCE.singleFileStoreCompactionFailed(cacheName(), t);
+      } finally {
+         compactionScheduled.set(false);
+      }
+      boolean compact;
+      synchronized (regions) {
+         compact = regions.isCompactionPending();
+      }
+      if (compact) {
+         scheduleCompaction();
+      }
+   }
+
+   private List<KeyValuePair<K, FileEntry>> collectEntriesInRegions(int segment, BitSet candidates) {
+      long stamp = resizeLock.readLock();
+      try {
+         Map<K, FileEntry> segmentEntries = channel != null ? getSegmentEntries(segment) : null;
+         if (segmentEntries == null) {
+            return Collections.emptyList();
+         }
+
+         List<KeyValuePair<K, FileEntry>> entriesToMove = new ArrayList<>();
+         synchronized (segmentEntries) {
+            for (Map.Entry<K, FileEntry> e : segmentEntries.entrySet()) {
+               if (candidates.get(regions.regionIndex(e.getValue().offset))) {
+                  entriesToMove.add(new KeyValuePair<>(e.getKey(), e.getValue()));
+               }
+            }
+         }
+         entriesToMove.sort(Comparator.comparingLong(kvp -> kvp.getValue().offset));
+         return entriesToMove;
+      } finally {
+         resizeLock.unlockRead(stamp);
+      }
+   }
+
+   /**
+    * Copies an entry to the write position, unless it was modified or removed meanwhile.
+    */
+   private void moveEntry(int segment, K key, FileEntry fe) throws IOException {
+      long stamp = resizeLock.readLock();
+      try {
+         Map<K, FileEntry> segmentEntries = channel != null ? getSegmentEntries(segment) : null;
+         if (segmentEntries == null) {
+            return;
+         }
+         synchronized (segmentEntries) {
+            if (segmentEntries.get(key) != fe)
+               return;
+            fe.lock();
+         }
+
+         int len = fe.actualSize();
+         ByteBuffer buf = ByteBuffer.allocate(len);
+         try {
+            readFully(channel, buf, fe.offset);
+         } finally {
+            fe.unlock();
+         }
+
+         FileEntry newEntry = allocate(len, channel);
+         newEntry = new FileEntry(newEntry.offset, newEntry.size, fe.keyLen, fe.dataLen, fe.metadataLen, fe.internalMetadataLen, fe.expiryTime);
+         // Only the header changes, as the new entry may be padded to the end of its region
+         buf.clear();
+         newEntry.writeToBuf(buf);
+         buf.clear();
+         channel.write(buf, newEntry.offset);
+         if (log.isTraceEnabled()) log.tracef("Moved entry %s from %d:%d to %d:%d", key, fe.offset, fe.size, newEntry.offset, newEntry.size);
+
+         boolean replaced;
+         synchronized (segmentEntries) {
+            replaced = segmentEntries.get(key) == fe;
+            if (replaced) {
+               segmentEntries.put(key, newEntry);
+            }
+         }
+         free(replaced ? fe : newEntry);
+      } finally {
+         resizeLock.unlockRead(stamp);
+      }
+   }
+
    @Override
    public Publisher<MarshallableEntry<K, V>> purgeExpired() {
       UnicastProcessor<MarshallableEntry<K, V>> processor = UnicastProcessor.create();
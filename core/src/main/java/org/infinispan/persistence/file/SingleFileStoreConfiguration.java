@@ -19,9 +19,13 @@
 public class SingleFileStoreConfiguration extends AbstractStoreConfiguration<SingleFileStoreConfiguration> {
    public static final AttributeDefinition<String> LOCATION = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.PATH, null, String.class).immutable().global(false).build();
    public static final AttributeDefinition<Float> FRAGMENTATION_FACTOR = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.FRAGMENTATION_FACTOR, 0.75f).immutable().build();
+   public static final AttributeDefinition<Boolean> APPEND_ONLY = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.APPEND_ONLY, false).immutable().build();
+   public static final AttributeDefinition<Integer> REGION_SIZE = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.REGION_SIZE, 16 * 1024 * 1024).immutable().build();
+   public static final AttributeDefinition<Float> COMPACTION_THRESHOLD = AttributeDefinition.builder(org.infinispan.configuration.parsing.Attribute.COMPACTION_THRESHOLD, 0.5f).immutable().build();
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(SingleFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), LOCATION, FRAGMENTATION_FACTOR);
+      return new AttributeSet(SingleFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), LOCATION, FRAGMENTATION_FACTOR,
+            APPEND_ONLY, REGION_SIZE, COMPACTION_THRESHOLD);
    }
 
    public SingleFileStoreConfiguration(AttributeSet attributes, AsyncStoreConfiguration async) {
@@ -35,4 +39,25 @@ public String location() {
    public float fragmentationFactor() {
       return attributes.attribute(FRAGMENTATION_FACTOR).get();
    }
+
+   /**
+    * @return whether entries are always written sequentially instead of in the free space of the file
+    */
+   public boolean appendOnly() {
+      return attributes.attribute(APPEND_ONLY).get();
+   }
+
+   /**
+    * @return the size of the regions compacted independently in append-only mode
+    */
+   public int regionSize() {
+      return attributes.attribute(REGION_SIZE).get();
+   }
+
+   /**
+    * @return the ratio of freed bytes in a region that triggers its compaction in append-only mode
+    */
+   public float compactionThreshold() {
+      return attributes.attribute(COMPACTION_THRESHOLD).get();
+   }
 }
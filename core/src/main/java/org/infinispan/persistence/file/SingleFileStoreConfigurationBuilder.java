@@ -1,7 +1,11 @@
 package org.infinispan.persistence.file;
 
+import static org.infinispan.persistence.file.SingleFileStoreConfiguration.APPEND_ONLY;
+import static org.infinispan.persistence.file.SingleFileStoreConfiguration.COMPACTION_THRESHOLD;
 import static org.infinispan.persistence.file.SingleFileStoreConfiguration.FRAGMENTATION_FACTOR;
 import static org.infinispan.persistence.file.SingleFileStoreConfiguration.LOCATION;
+import static org.infinispan.persistence.file.SingleFileStoreConfiguration.REGION_SIZE;
+import static org.infinispan.util.logging.Log.CONFIG;
 
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.Combine;
@@ -55,8 +59,50 @@ public SingleFileStoreConfigurationBuilder fragmentationFactor(float fragmentati
       return this;
    }
 
+   /**
+    * Writes entries sequentially, at the end of the file or in a completely free region, instead of reusing the
+    * free space left by removed entries. The live bytes of every region are tracked and the regions with the most
+    * freed space are compacted in the background, which keeps the writes sequential and avoids fragmentation when the
+    * entries have very different sizes. The {@link #fragmentationFactor(float)} is ignored in this mode.
+    * <p>
+    * Defaults to <code>false</code>.
+    */
+   public SingleFileStoreConfigurationBuilder appendOnly(boolean appendOnly) {
+      attributes.attribute(APPEND_ONLY).set(appendOnly);
+      return this;
+   }
+
+   /**
+    * Sets the size of the regions of the file in append-only mode, in bytes. Entries larger than a region take several
+    * consecutive regions.
+    * <p>
+    * Defaults to <code>16777216</code> (16MB).
+    */
+   public SingleFileStoreConfigurationBuilder regionSize(int regionSize) {
+      attributes.attribute(REGION_SIZE).set(regionSize);
+      return this;
+   }
+
+   /**
+    * Sets the ratio of freed bytes in a region above which the live entries of the region are copied to the write
+    * position, so that the region can be written again. Only used in append-only mode.
+    * <p>
+    * Defaults to <code>0.5</code>.
+    */
+   public SingleFileStoreConfigurationBuilder compactionThreshold(float compactionThreshold) {
+      attributes.attribute(COMPACTION_THRESHOLD).set(compactionThreshold);
+      return this;
+   }
+
    @Override
    public void validate(GlobalConfiguration globalConfig) {
+      float compactionThreshold = attributes.attribute(COMPACTION_THRESHOLD).get();
+      if (compactionThreshold <= 0 || compactionThreshold > 1) {
+         throw CONFIG.invalidCompactionThreshold(compactionThreshold);
+      }
+      if (attributes.attribute(REGION_SIZE).get() < 1024) {
+         throw CONFIG.invalidSingleFileStoreRegionSize(attributes.attribute(REGION_SIZE).get());
+      }
       PersistenceUtil.validateGlobalStateStoreLocation(globalConfig, SingleFileStore.class.getSimpleName(), attributes.attribute(LOCATION));
       super.validate(globalConfig);
    }
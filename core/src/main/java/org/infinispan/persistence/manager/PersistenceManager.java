@@ -42,6 +42,18 @@ public interface PersistenceManager extends Lifecycle {
 
    boolean hasStore(Predicate<StoreConfiguration> test);
 
+   /**
+    * Returns whether state transfer can ship the entries of a segment as they are serialized in the stores, and
+    * write them to the stores of the receiving node without applying them to the cache.
+    * <p>
+    * This requires all the stores to have the
+    * {@link org.infinispan.persistence.spi.NonBlockingStore.Characteristic#SEGMENT_TRANSFER} characteristic and to be
+    * private, synchronous and not preloaded, and the cache to not use passivation.
+    */
+   default boolean isSegmentTransferSupported() {
+      return false;
+   }
+
    /**
     * Loads the data from the external store into memory during cache startup.
     */
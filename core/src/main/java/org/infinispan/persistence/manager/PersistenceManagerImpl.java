@@ -473,6 +473,22 @@ public boolean hasWriter() {
       return getStore(storeStatus -> !storeStatus.hasCharacteristic(Characteristic.READ_ONLY)) != null;
    }
 
+   @Override
+   public boolean isSegmentTransferSupported() {
+      return enabled && !configuration.persistence().passivation() &&
+            getStore(storeStatus -> !supportsSegmentTransfer(storeStatus)) == null;
+   }
+
+   private static boolean supportsSegmentTransfer(StoreStatus storeStatus) {
+      StoreConfiguration config = storeStatus.config;
+      return storeStatus.hasCharacteristic(Characteristic.SEGMENT_TRANSFER) &&
+            storeStatus.hasCharacteristic(Characteristic.BULK_READ) &&
+            storeStatus.hasCharacteristic(Characteristic.SEGMENTABLE) &&
+            !storeStatus.hasCharacteristic(Characteristic.READ_ONLY) &&
+            !storeStatus.hasCharacteristic(Characteristic.TRANSACTIONAL) &&
+            !config.shared() && !config.async().enabled() && !config.preload();
+   }
+
    @Override
    public boolean hasStore(Predicate<StoreConfiguration> test) {
       return getStore(storeStatus -> test.test(storeStatus.config)) != null;
@@ -0,0 +1,101 @@
+package org.infinispan.persistence.sifs;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Tracks the compaction requests of a {@link Compactor} that are not completed yet, and delays the log appender while
+ * there are more of them than the limit.
+ * <p>
+ * The log appender waits until a compaction request completes and brings the backlog back to the limit, but never for
+ * longer than {@link #MAX_WAIT_NANOS} per data file, so a compactor that cannot keep up only slows down the writes.
+ * A limit of 0 disables the throttling and the backlog is only tracked for the statistics.
+ *
+ * @since 16.0
+ */
+final class CompactionBacklog {
+   private static final Log log = LogFactory.getLog(CompactionBacklog.class, Log.class);
+   static final long MAX_WAIT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+   private final int maxFiles;
+   private final AtomicInteger files = new AtomicInteger();
+   private final AtomicLong bytes = new AtomicLong();
+   private final LongAdder throttledWrites = new LongAdder();
+   private final LongAdder throttledNanos = new LongAdder();
+
+   CompactionBacklog(int maxFiles) {
+      this.maxFiles = maxFiles;
+   }
+
+   void added(int liveBytes) {
+      files.incrementAndGet();
+      bytes.addAndGet(liveBytes);
+   }
+
+   void completed(int liveBytes) {
+      bytes.addAndGet(-liveBytes);
+      if (files.decrementAndGet() == maxFiles) {
+         wakeUp();
+      }
+   }
+
+   /**
+    * Wakes up the log appender, e.g. because the compactor is cleared or stopped and the condition passed to
+    * {@link #awaitCatchUp(BooleanSupplier)} changed.
+    */
+   void wakeUp() {
+      synchronized (this) {
+         notifyAll();
+      }
+   }
+
+   /**
+    * Blocks until the backlog is back to the limit, until the compactor can no longer complete the requests, or for at
+    * most {@link #MAX_WAIT_NANOS}. Returns immediately if the throttling is disabled. Must only be invoked from a
+    * blocking thread.
+    *
+    * @param released whether the compactor is stopped, cleared or failed, so the compactions won't complete
+    */
+   void awaitCatchUp(BooleanSupplier released) {
+      if (maxFiles <= 0 || files.get() <= maxFiles) {
+         return;
+      }
+      long start = System.nanoTime();
+      long remaining = MAX_WAIT_NANOS;
+      synchronized (this) {
+         try {
+            while (files.get() > maxFiles && !released.getAsBoolean() && remaining > 0) {
+               TimeUnit.NANOSECONDS.timedWait(this, remaining);
+               remaining = MAX_WAIT_NANOS - (System.nanoTime() - start);
+            }
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+         }
+      }
+      long throttled = System.nanoTime() - start;
+      log.tracef("Log appender throttled for %d ns with a compaction backlog of %d files", throttled, files.get());
+      throttledWrites.increment();
+      throttledNanos.add(throttled);
+   }
+
+   int getFiles() {
+      return files.get();
+   }
+
+   long getBytes() {
+      return bytes.get();
+   }
+
+   long getThrottledWrites() {
+      return throttledWrites.sum();
+   }
+
+   long getThrottledTime(TimeUnit unit) {
+      return unit.convert(throttledNanos.sum(), TimeUnit.NANOSECONDS);
+   }
+}
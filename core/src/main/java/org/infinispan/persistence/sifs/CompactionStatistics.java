@@ -0,0 +1,70 @@
+package org.infinispan.persistence.sifs;
+
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
+
+/**
+ * Exposes the compaction progress of a {@link NonBlockingSoftIndexFileStore}.
+ * <p>
+ * The store creates a new {@link Compactor} every time it is started, so this bean delegates to whichever compactor
+ * is currently in use and reports zero while the store is stopped.
+ *
+ * @since 16.0
+ */
+@MBean(objectName = "SoftIndexFileStoreCompaction", description = "Compaction statistics for the soft-index file store")
+@Scope(Scopes.NAMED_CACHE)
+public final class CompactionStatistics {
+   private volatile Compactor compactor;
+
+   void setCompactor(Compactor compactor) {
+      this.compactor = compactor;
+   }
+
+   @ManagedAttribute(description = "Number of data files waiting to be compacted or being compacted",
+         displayName = "Compaction backlog files")
+   public int getBacklogFiles() {
+      Compactor compactor = this.compactor;
+      return compactor == null ? 0 : compactor.getBacklogFiles();
+   }
+
+   @ManagedAttribute(description = "Approximate number of live bytes still to be copied by the pending compactions",
+         displayName = "Compaction backlog bytes")
+   public long getBacklogBytes() {
+      Compactor compactor = this.compactor;
+      return compactor == null ? 0 : compactor.getBacklogBytes();
+   }
+
+   @ManagedAttribute(description = "Number of data files compacted and removed since the store was started",
+         displayName = "Compacted files", measurementType = MeasurementType.TRENDSUP)
+   public long getCompactedFiles() {
+      Compactor compactor = this.compactor;
+      return compactor == null ? 0 : compactor.getCompactedFiles();
+   }
+
+   @ManagedAttribute(description = "Number of bytes written by compaction since the store was started",
+         displayName = "Compacted bytes", measurementType = MeasurementType.TRENDSUP)
+   public long getCompactedBytes() {
+      Compactor compactor = this.compactor;
+      return compactor == null ? 0 : compactor.getCompactedBytes();
+   }
+
+   @ManagedAttribute(description = "Number of times writes were delayed because compaction was falling behind",
+         displayName = "Throttled writes", measurementType = MeasurementType.TRENDSUP)
+   public long getThrottledWrites() {
+      Compactor compactor = this.compactor;
+      return compactor == null ? 0 : compactor.getThrottledWrites();
+   }
+
+   @ManagedAttribute(description = "Total time writes were delayed because compaction was falling behind",
+         displayName = "Throttled write time", units = Units.MILLISECONDS, measurementType = MeasurementType.TRENDSUP)
+   public long getThrottledTime() {
+      Compactor compactor = this.compactor;
+      return compactor == null ? 0 : compactor.getThrottledTime(TimeUnit.MILLISECONDS);
+   }
+}
@@ -234,6 +234,31 @@ static void writeEntry(FileChannel fileChannel, ByteBuffer reusedBuffer, ByteBuf
       }
    }
 
+   /**
+    * Writes the entry into the buffer instead of the file, so several entries can be appended with a single write.
+    * The buffer must have at least as many bytes remaining as the length of the entry.
+    */
+   static void writeEntry(ByteBuffer buffer, ByteBuffer serializedKey, ByteBuffer serializedMetadata,
+                          ByteBuffer serializedInternalMetadata, ByteBuffer serializedValue,
+                          long seqId, long expiration, long created, long lastUsed) {
+      EntryHeader.writeHeader(buffer, (short) serializedKey.remaining(), EntryMetadata.size(serializedMetadata),
+            serializedValue == null ? 0 : serializedValue.remaining(),
+            serializedInternalMetadata == null ? 0 : (short) serializedInternalMetadata.remaining(),
+            seqId, expiration);
+      buffer.put(serializedKey);
+      if (serializedMetadata != null) {
+         buffer.put(serializedMetadata);
+         buffer.putLong(created);
+         buffer.putLong(lastUsed);
+      }
+      if (serializedValue != null) {
+         buffer.put(serializedValue);
+      }
+      if (serializedInternalMetadata != null) {
+         buffer.put(serializedInternalMetadata);
+      }
+   }
+
    private static void writeTimestamps(FileChannel fileChannel, ByteBuffer reusedBuffer, long created, long lastUsed) throws IOException {
       assert reusedBuffer.position() == 0;
       int previousLimit = reusedBuffer.limit();
@@ -9,6 +9,7 @@
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -24,6 +25,7 @@
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.infinispan.commons.jdkspecific.DirectBuffers;
 import org.infinispan.commons.util.CloseableIterator;
 import org.infinispan.commons.util.ProgressTracker;
 import org.infinispan.persistence.sifs.pmem.PmemUtilWrapper;
@@ -52,6 +54,7 @@ public class FileProvider {
    private final Set<FileIterator> iterators = ConcurrentHashMap.newKeySet();
    private final String prefix;
    private final int maxFileSize;
+   private final boolean memoryMapped;
 
    private boolean canTryPmem = true;
 
@@ -70,11 +73,20 @@ public class FileProvider {
    }
 
    public FileProvider(Path fileDirectory, int openFileLimit, String prefix, int maxFileSize) {
+      this(fileDirectory, openFileLimit, prefix, maxFileSize, false);
+   }
+
+   /**
+    * @param memoryMapped whether files that are no longer written to are read through a read-only memory mapping
+    *                     instead of positional reads on their channel
+    */
+   public FileProvider(Path fileDirectory, int openFileLimit, String prefix, int maxFileSize, boolean memoryMapped) {
       this.openFileLimit = openFileLimit;
       this.recordQueue = new ArrayBlockingQueue<>(openFileLimit);
       this.directoryFile = fileDirectory.toFile();
       this.prefix = prefix;
       this.maxFileSize = maxFileSize;
+      this.memoryMapped = memoryMapped;
       try {
          Files.createDirectories(fileDirectory);
       } catch (IOException e) {
@@ -136,10 +148,11 @@ public Handle getFile(int fileId) throws IOException {
                      log.debugf(e, "File %d was not found", fileId);
                      return null;
                   }
-                  Record newRecord = new Record(fileChannel, fileId);
+                  Record newRecord = new Record(fileChannel, fileId, mapIfSealed(fileChannel, fileId));
                   Record other = openFiles.putIfAbsent(fileId, newRecord);
                   if (other != null) {
-                     fileChannel.close();
+                     // also releases the mapping, nobody else can reach it
+                     newRecord.closeChannel();
                      synchronized (other) {
                         if (other.isOpen()) {
                            // we have allocated opening a new file but then we use an old one
@@ -176,6 +189,28 @@ public Handle getFile(int fileId) throws IOException {
       }
    }
 
+   /**
+    * Maps the whole file if memory mapping is enabled and the file is not being appended to anymore. The mapping is
+    * created while the record is opened, so a log file that has been completed is only mapped after its record has been
+    * closed and opened again. Must be invoked while holding the read lock.
+    */
+   private MappedByteBuffer mapIfSealed(FileChannel fileChannel, int fileId) {
+      if (!memoryMapped || logFiles.contains(fileId)) {
+         return null;
+      }
+      try {
+         long size = fileChannel.size();
+         if (size > Integer.MAX_VALUE) {
+            return null;
+         }
+         return fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      } catch (IOException | UnsupportedOperationException e) {
+         // e.g. persistent memory channels cannot be mapped, just use positional reads
+         log.debugf(e, "Unable to map file %d, falling back to channel reads", fileId);
+         return null;
+      }
+   }
+
    public long getFileSize(int file) {
       lock.readLock().lock();
       try {
@@ -337,7 +372,7 @@ public void deleteFile(int fileId) {
       lock.readLock().lock();
       try {
          for (;;) {
-            Record newRecord = new Record(null, fileId);
+            Record newRecord = new Record(null, fileId, null);
             Record record = openFiles.putIfAbsent(fileId, newRecord);
             if (record == null) {
                try {
@@ -417,6 +452,17 @@ private Handle(Record record) {
 
       public int read(ByteBuffer buffer, long offset) throws IOException {
          if (!usable) throw new IllegalStateException();
+         MappedByteBuffer mapped = record.mapped;
+         if (mapped != null) {
+            int limit = mapped.limit();
+            if (offset >= limit) {
+               return -1;
+            }
+            int length = (int) Math.min(buffer.remaining(), limit - offset);
+            buffer.put(buffer.position(), mapped, (int) offset, length);
+            buffer.position(buffer.position() + length);
+            return length;
+         }
          return record.getFileChannel().read(buffer, offset);
       }
 
@@ -436,13 +482,20 @@ public int getFileId() {
          return record.getFileId();
       }
 
+      // Package private for tests
+      boolean isMemoryMapped() {
+         return record.mapped != null;
+      }
+
       public void truncate(long i) throws IOException {
          if (!usable) throw new IllegalStateException();
+         assert record.mapped == null : "Mapped files are never modified";
          record.getFileChannel().truncate(i);
       }
 
       public int write(ByteBuffer buffer, long l) throws IOException {
          if (!usable) throw new IllegalStateException();
+         assert record.mapped == null : "Mapped files are never modified";
          return record.getFileChannel().write(buffer, l);
       }
 
@@ -455,12 +508,24 @@ public void force(boolean metaData) throws IOException {
    private class Record {
       private final int fileId;
       private FileChannel fileChannel;
+      // only released when there are no handles, so readers holding a handle can use it without synchronization
+      private MappedByteBuffer mapped;
       private int handleCount;
       private boolean deleteOnClose = false;
 
-      private Record(FileChannel fileChannel, int fileId) {
+      private Record(FileChannel fileChannel, int fileId, MappedByteBuffer mapped) {
          this.fileChannel = fileChannel;
          this.fileId = fileId;
+         this.mapped = mapped;
+      }
+
+      private void closeChannel() throws IOException {
+         if (mapped != null) {
+            DirectBuffers.release(mapped);
+            mapped = null;
+         }
+         fileChannel.close();
+         fileChannel = null;
       }
 
       FileChannel getFileChannel() {
@@ -476,8 +541,7 @@ void decreaseHandleCount() throws IOException {
          if (handleCount == 0 && deleteOnClose) {
             // we cannot easily remove the record from queue - keep it there until collection,
             // but physically close and delete the file
-            fileChannel.close();
-            fileChannel = null;
+            closeChannel();
             openFiles.remove(fileId, this);
             delete();
          }
@@ -496,8 +560,7 @@ public int getFileId() {
       }
 
       public void close() throws IOException {
-         fileChannel.close();
-         fileChannel = null;
+         closeChannel();
          if (deleteOnClose) {
             delete();
          }
@@ -512,8 +575,7 @@ public void delete() throws IOException {
       public void deleteOnClose() throws IOException {
          if (handleCount == 0) {
             if (fileChannel != null) {
-               fileChannel.close();
-               fileChannel = null;
+               closeChannel();
             }
             openFiles.remove(fileId, this);
             delete();
@@ -72,6 +72,7 @@ class Index {
    private final Compactor compactor;
    private final int minNodeSize;
    private final int maxNodeSize;
+   private final IndexPageCache pageCache;
    private final StampedLock lock = new StampedLock();
    @GuardedBy("lock")
    private final Segment[] segments;
@@ -132,7 +133,7 @@ public void setOverwritten(IndexRequest request, int cacheSegment, boolean overw
 
    public Index(NonBlockingManager nonBlockingManager, FileProvider dataFileProvider, Path indexDir, int cacheSegments,
                 int minNodeSize, int maxNodeSize, TemporaryTable temporaryTable, Compactor compactor,
-                TimeService timeService, Executor executor, int maxOpenFiles) throws IOException {
+                TimeService timeService, Executor executor, int maxOpenFiles, long pageCacheSize) throws IOException {
       this.nonBlockingManager = nonBlockingManager;
       this.dataFileProvider = dataFileProvider;
       this.compactor = compactor;
@@ -140,6 +141,7 @@ public Index(NonBlockingManager nonBlockingManager, FileProvider dataFileProvide
       this.indexDir = indexDir;
       this.minNodeSize = minNodeSize;
       this.maxNodeSize = maxNodeSize;
+      this.pageCache = pageCacheSize > 0 ? new IndexPageCache(pageCacheSize, maxNodeSize) : null;
       this.sizePerSegment = new AtomicLongArray(cacheSegments);
       this.indexFileProvider = new FileProvider(indexDir, maxOpenFiles, "index.", Integer.MAX_VALUE);
       this.indexSizeFile = new File(indexDir.toFile(), "index-count");
@@ -231,7 +233,7 @@ static byte[] toIndexKey(byte[] bytes, int offset, int length) {
          return bytes;
       }
       byte[] indexKey = new byte[length];
-      System.arraycopy(bytes, 0, indexKey, 0, length);
+      System.arraycopy(bytes, offset, indexKey, 0, length);
 
       return indexKey;
    }
@@ -441,6 +443,15 @@ public CompletionStage<Void> stop(long maxSeqId) throws InterruptedException {
       // After all SIFS segments are complete we write the size
       return aggregateCompletionStage.freeze().thenRun(() -> {
          indexFileProvider.stop();
+         if (pageCache != null) {
+            // Readers parse nodes straight from the page cache memory while holding the read lock
+            long innerStamp = lock.writeLock();
+            try {
+               pageCache.stop();
+            } finally {
+               lock.unlockWrite(innerStamp);
+            }
+         }
          try {
             // Create the file first as it should not be present as we deleted during startup
             indexSizeFile.createNewFile();
@@ -761,6 +772,7 @@ boolean load() throws IOException {
                // as this means we didn't own the segment before
                loaded = handle.getFileSize() == 0 && index.sizePerSegment.get(id) == 0;
                handle.truncate(0);
+               invalidatePageCache();
                root = IndexNode.emptyWithLeaves(this);
                // reserve space for shutdown
                indexFileSize = INDEX_FILE_HEADER_SIZE;
@@ -779,12 +791,14 @@ void delete() {
          if (id >= 0) {
             log.tracef("Deleting file for index %s", id);
             index.indexFileProvider.deleteFile(id);
+            invalidatePageCache();
          }
       }
 
       void reset() throws IOException {
          try (FileProvider.Handle handle = index.indexFileProvider.getFile(id)) {
             handle.truncate(0);
+            invalidatePageCache();
             root = IndexNode.emptyWithLeaves(this);
             // reserve space for shutdown
             indexFileSize = INDEX_FILE_HEADER_SIZE;
@@ -809,6 +823,7 @@ public void accept(IndexRequest request) throws Throwable {
                try (FileProvider.Handle handle = index.indexFileProvider.getFile(id)) {
                   handle.truncate(0);
                }
+               invalidatePageCache();
                indexFileSize = INDEX_FILE_HEADER_SIZE;
                freeBlocks.clear();
                index.nonBlockingManager.complete(request, null);
@@ -946,6 +961,21 @@ public FileProvider.Handle getIndexFile() throws IOException {
          return index.indexFileProvider.getFile(id);
       }
 
+      /**
+       * @return the cache of serialized nodes of this segment, or <code>null</code> if nodes are always read from the
+       * index file
+       */
+      IndexPageCache getPageCache() {
+         return id >= 0 ? index.pageCache : null;
+      }
+
+      private void invalidatePageCache() {
+         IndexPageCache pageCache = getPageCache();
+         if (pageCache != null) {
+            pageCache.invalidate(id);
+         }
+      }
+
       public void forceIndexIfOpen(boolean metaData) throws IOException {
          FileProvider.Handle handle = index.indexFileProvider.getFileIfOpen(id);
          if (handle != null) {
@@ -1014,6 +1044,10 @@ void freeIndexSpace(long offset, short length) {
          if (length <= 0) throw new IllegalArgumentException("Offset=" + offset + ", length=" + length);
          // TODO: fragmentation!
          // TODO: memory bounds!
+         IndexPageCache pageCache = getPageCache();
+         if (pageCache != null) {
+            pageCache.remove(id, offset);
+         }
          if (offset + length < indexFileSize) {
             freeBlocks.computeIfAbsent(length, k -> new ArrayList<>()).add(new IndexSpace(offset, length));
          } else {
@@ -82,11 +82,23 @@ public enum RecordChange {
       this.offset = offset;
       this.occupiedSpace = occupiedSpace;
 
+      IndexPageCache pageCache = segment.getPageCache();
+      // The node is parsed straight from off-heap memory, a concurrent eviction makes it fall back to the file
+      if (pageCache != null && pageCache.read(segment.getId(), offset, occupiedSpace, this::load)) {
+         return;
+      }
+
       ByteBuffer buffer;
       try (FileProvider.Handle handle = segment.getIndexFile()) {
          buffer = loadBuffer(handle, offset, occupiedSpace);
       }
+      if (pageCache != null) {
+         pageCache.putIfAbsent(segment.getId(), offset, buffer);
+      }
+      load(buffer);
+   }
 
+   private void load(ByteBuffer buffer) {
       prefix = new byte[buffer.getShort()];
       buffer.get(prefix);
 
@@ -102,6 +114,8 @@ public enum RecordChange {
       assert (buffer.position() - afterHeaderPos) < Short.MAX_VALUE;
       keyPartsLength = (short) (buffer.position() - afterHeaderPos);
 
+      innerNodes = null;
+      leafNodes = LeafNode.EMPTY_ARRAY;
       if ((flags & HAS_LEAVES) != 0) {
          leafNodes = new LeafNode[numKeyParts + 1];
          for (int i = 0; i < numKeyParts + 1; ++i) {
@@ -225,6 +239,10 @@ void store(Index.IndexSpace indexSpace) throws IOException {
       try (FileProvider.Handle handle = segment.getIndexFile()) {
          handle.write(buffer, offset);
       }
+      IndexPageCache pageCache = segment.getPageCache();
+      if (pageCache != null) {
+         pageCache.put(segment.getId(), offset, buffer.rewind());
+      }
 
       if (log.isTraceEnabled()) {
          log.tracef("Persisted %08x (length %d, %d %s) to %d:%d", System.identityHashCode(this), length(),
@@ -394,6 +412,10 @@ private void updateFileOffsetInFile(int leafOffset, int newFile, int newOffset,
       try (FileProvider.Handle handle = this.segment.getIndexFile()) {
          handle.write(buffer, offset);
       }
+      IndexPageCache pageCache = segment.getPageCache();
+      if (pageCache != null && this.offset >= 0) {
+         pageCache.remove(segment.getId(), this.offset);
+      }
    }
 
    private static IndexNode findParentNode(IndexNode root, byte[] indexKey, Deque<Path> stack) throws IOException {
@@ -0,0 +1,268 @@
+package org.infinispan.persistence.sifs;
+
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.infinispan.commons.jdkspecific.DirectBuffers;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Cache of serialized index nodes that lives off-heap within a fixed memory budget.
+ * <p>
+ * The budget is split up front in frames of the maximum node size, allocated in a few direct buffers, and every frame
+ * holds the bytes of a single node as they are stored in the index file. When all the frames are taken, one is
+ * reclaimed with the CLOCK algorithm: the hand sweeps the frames clearing their reference bit and evicts the first one
+ * that was not read since the previous sweep.
+ * <p>
+ * Nodes are parsed straight from their frame. Writers are serialized and bump the version of a frame before and after
+ * changing it, so the version is odd while the frame is being modified. Readers are not blocked: they compare the
+ * version before and after parsing a frame and treat the lookup as a miss if the frame was modified meanwhile.
+ *
+ * @since 16.0
+ */
+class IndexPageCache {
+   private static final Log log = LogFactory.getLog(IndexPageCache.class, Log.class);
+
+   private static final int MAX_SLAB_SIZE = 1 << 30;
+   private static final int SEGMENT_SHIFT = 44;
+   private static final long NO_KEY = -1;
+
+   private final int pageSize;
+   private final int framesPerSlab;
+   private final int frameCount;
+   private final ByteBuffer[] slabs;
+   private final Map<Long, Integer> frames = new ConcurrentHashMap<>();
+   private final AtomicLongArray versions;
+   private final long[] keys;
+   private final short[] lengths;
+   // CLOCK reference bits, set by readers without synchronization as a lost update only affects the eviction order
+   private final byte[] referenced;
+   private final ArrayDeque<Integer> freeFrames = new ArrayDeque<>();
+   private int hand;
+   private boolean stopped;
+
+   private final LongAdder hits = new LongAdder();
+   private final LongAdder misses = new LongAdder();
+   private final LongAdder evictions = new LongAdder();
+
+   /**
+    * @param capacity the memory budget in bytes
+    * @param pageSize the maximum size of a node, larger nodes are not cached
+    */
+   IndexPageCache(long capacity, int pageSize) {
+      this.pageSize = pageSize;
+      this.frameCount = (int) Math.min(Integer.MAX_VALUE, capacity / pageSize);
+      if (frameCount <= 0) {
+         throw new IllegalArgumentException("Index page cache size " + capacity + " is smaller than a node (" + pageSize + ")");
+      }
+      this.framesPerSlab = MAX_SLAB_SIZE / pageSize;
+      int slabCount = (frameCount + framesPerSlab - 1) / framesPerSlab;
+      this.slabs = new ByteBuffer[slabCount];
+      for (int i = 0; i < slabCount; i++) {
+         int slabFrames = Math.min(framesPerSlab, frameCount - i * framesPerSlab);
+         slabs[i] = ByteBuffer.allocateDirect(slabFrames * pageSize);
+      }
+      this.versions = new AtomicLongArray(frameCount);
+      this.keys = new long[frameCount];
+      this.lengths = new short[frameCount];
+      this.referenced = new byte[frameCount];
+      Arrays.fill(keys, NO_KEY);
+      for (int i = 0; i < frameCount; i++) {
+         freeFrames.add(i);
+      }
+      log.debugf("Allocated %d index page cache frames of %d bytes", frameCount, pageSize);
+   }
+
+   private static long key(int segment, long offset) {
+      assert segment >= 0 && segment < (1 << (Long.SIZE - 1 - SEGMENT_SHIFT)) && offset < (1L << SEGMENT_SHIFT);
+      return ((long) segment << SEGMENT_SHIFT) | offset;
+   }
+
+   private ByteBuffer frame(int frame, int length) {
+      int position = (frame % framesPerSlab) * pageSize;
+      return slabs[frame / framesPerSlab].slice(position, length);
+   }
+
+   /**
+    * Passes the cached bytes of the node to the reader, without copying them.
+    * <p>
+    * The reader may observe a frame that is being modified, in which case any exception it throws is ignored.
+    *
+    * @return <code>true</code> if the node was cached and the reader completed without the frame being modified
+    * concurrently, <code>false</code> if the node has to be read from the index file
+    */
+   boolean read(int segment, long offset, short length, Consumer<ByteBuffer> reader) {
+      long key = key(segment, offset);
+      Integer frame = frames.get(key);
+      if (frame != null) {
+         int f = frame;
+         long version = versions.get(f);
+         if ((version & 1) == 0 && keys[f] == key && lengths[f] == length) {
+            RuntimeException failure = null;
+            try {
+               reader.accept(frame(f, length));
+            } catch (RuntimeException e) {
+               failure = e;
+            }
+            // Make sure the frame reads are not reordered after the version check
+            VarHandle.acquireFence();
+            if (versions.get(f) == version) {
+               if (failure != null) {
+                  throw failure;
+               }
+               referenced[f] = 1;
+               hits.increment();
+               return true;
+            }
+         }
+      }
+      misses.increment();
+      return false;
+   }
+
+   /**
+    * Stores the bytes of a node written to the index file, replacing the previous content at the same position.
+    */
+   void put(int segment, long offset, ByteBuffer page) {
+      put(key(segment, offset), page, true);
+   }
+
+   /**
+    * Stores the bytes of a node read from the index file, unless a node was written at the same position meanwhile.
+    */
+   void putIfAbsent(int segment, long offset, ByteBuffer page) {
+      put(key(segment, offset), page, false);
+   }
+
+   /**
+    * Drops the node at the given position, invoked when the node is modified in place or its space is freed.
+    */
+   synchronized void remove(int segment, long offset) {
+      Integer frame = frames.get(key(segment, offset));
+      if (frame != null) {
+         release(frame);
+      }
+   }
+
+   private synchronized void put(long key, ByteBuffer page, boolean replace) {
+      if (stopped) {
+         return;
+      }
+      int length = page.remaining();
+      Integer frame = frames.get(key);
+      if (length > pageSize) {
+         if (frame != null) {
+            release(frame);
+         }
+         return;
+      }
+      int f;
+      if (frame != null) {
+         if (!replace) {
+            return;
+         }
+         f = frame;
+      } else {
+         f = allocate();
+      }
+      long version = versions.get(f);
+      versions.set(f, version + 1);
+      // The frame must be marked as modified before its content changes
+      VarHandle.storeStoreFence();
+      frame(f, length).put(page.duplicate());
+      keys[f] = key;
+      lengths[f] = (short) length;
+      versions.set(f, version + 2);
+      referenced[f] = 1;
+      frames.put(key, f);
+   }
+
+   private int allocate() {
+      Integer free = freeFrames.poll();
+      if (free != null) {
+         return free;
+      }
+      for (;;) {
+         int f = hand;
+         hand = f + 1 == frameCount ? 0 : f + 1;
+         if (referenced[f] != 0) {
+            referenced[f] = 0;
+         } else {
+            frames.remove(keys[f], f);
+            evictions.increment();
+            return f;
+         }
+      }
+   }
+
+   private void release(int f) {
+      frames.remove(keys[f], f);
+      long version = versions.get(f);
+      versions.set(f, version + 1);
+      keys[f] = NO_KEY;
+      versions.set(f, version + 2);
+      freeFrames.add(f);
+   }
+
+   /**
+    * Drops all the nodes of an index file, invoked when the file is truncated.
+    */
+   synchronized void invalidate(int segment) {
+      for (Iterator<Map.Entry<Long, Integer>> iterator = frames.entrySet().iterator(); iterator.hasNext(); ) {
+         Map.Entry<Long, Integer> entry = iterator.next();
+         if (entry.getKey() >>> SEGMENT_SHIFT == segment) {
+            int f = entry.getValue();
+            iterator.remove();
+            release(f);
+         }
+      }
+   }
+
+   /**
+    * Drops all the nodes and frees the memory of the cache. The caller must make sure that no reads are in progress,
+    * later reads and writes are ignored.
+    */
+   synchronized void stop() {
+      if (stopped) {
+         return;
+      }
+      stopped = true;
+      frames.clear();
+      for (ByteBuffer slab : slabs) {
+         DirectBuffers.release(slab);
+      }
+      log.debugf("Released %d index page cache frames", frameCount);
+   }
+
+   long hits() {
+      return hits.sum();
+   }
+
+   long misses() {
+      return misses.sum();
+   }
+
+   long evictions() {
+      return evictions.sum();
+   }
+
+   @Override
+   public String toString() {
+      return "IndexPageCache{" +
+            "frames=" + frameCount +
+            ", pageSize=" + pageSize +
+            ", cached=" + frames.size() +
+            ", hits=" + hits +
+            ", misses=" + misses +
+            ", evictions=" + evictions +
+            '}';
+   }
+}
@@ -103,4 +103,13 @@ public interface Log extends BasicLogger {
 
    @Message(value = "Failed acquiring lock '%s' for SIFS", id = 29025)
    PersistenceException failedAcquiringLockFile(@Cause Throwable cause, FileSystemLock lock);
+
+   @Message(value = "Compaction threads (%d) should be greater than 0.", id = 29026)
+   CacheConfigurationException invalidCompactionThreads(int value);
+
+   @Message(value = "Index page cache size (%d) must be 0 or at least the maximum node size (%d).", id = 29027)
+   CacheConfigurationException invalidPageCacheSize(long value, int maxNodeSize);
+
+   @Message(value = "Compaction backlog (%d) must be 0 or positive.", id = 29028)
+   CacheConfigurationException invalidCompactionBacklog(int value);
 }
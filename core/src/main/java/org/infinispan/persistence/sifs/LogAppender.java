@@ -1,13 +1,15 @@
 package org.infinispan.persistence.sifs;
 
+import java.io.IOException;
 import java.lang.invoke.MethodHandles;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.infinispan.commons.io.ByteBuffer;
 import org.infinispan.commons.util.Util;
@@ -32,12 +34,15 @@ public class LogAppender implements Consumer<LogAppender.WriteOperation> {
    private final FileProvider fileProvider;
    private final boolean syncWrites;
    private final int maxFileSize;
+   private final long groupCommitWindow;
+   private final int groupCommitSize;
    // Used to keep track of how many log requests have been submitted. This way if the blocking thread has consumed
    // the same number of log requests it can immediately flush.
    private final AtomicInteger submittedCount = new AtomicInteger();
    // This variable is null unless sync writes are enabled. When sync writes are enabled this list holds
    // all the log requests that should be completed when the disk is ensured to be flushed
-   private final List<Consumer<LogAppender>> toSyncLogRequests;
+   private final List<LogRequest> toSyncLogRequests;
+   private final LongAdder syncCount = new LongAdder();
 
    // This buffer is used by the log appender thread to avoid allocating buffers per entry written that are smaller
    // than the header size
@@ -51,6 +56,15 @@ public class LogAppender implements Consumer<LogAppender.WriteOperation> {
    private List<LogRequest> delayedLogRequests;
    private FileProvider.Log logFile;
    private long nextExpirationTime = -1;
+   // The entries of the sync writes that were not written to the log file yet, so they can be written at once
+   private java.nio.ByteBuffer groupCommitBuffer;
+   // The bytes of the sync writes since the last fsync, the time the first of them was received and its offset
+   private int groupCommitBytes;
+   private long groupCommitStart;
+   private int groupCommitOffset;
+
+   // Completed when a sync write is submitted while the group commit waits for more writes
+   private volatile CompletableFuture<Void> groupCommitWait;
 
    // This is volatile as it can be read from different threads when submitting
    private volatile FlowableProcessor<LogRequest> requestProcessor;
@@ -63,7 +77,8 @@ public class LogAppender implements Consumer<LogAppender.WriteOperation> {
 
    public LogAppender(NonBlockingManager nonBlockingManager, Index index,
                       TemporaryTable temporaryTable, Compactor compactor,
-                      FileProvider fileProvider, boolean syncWrites, int maxFileSize) {
+                      FileProvider fileProvider, boolean syncWrites, int maxFileSize,
+                      long groupCommitWindow, int groupCommitSize) {
       this.nonBlockingManager = nonBlockingManager;
       this.index = index;
       this.temporaryTable = temporaryTable;
@@ -71,6 +86,8 @@ public LogAppender(NonBlockingManager nonBlockingManager, Index index,
       this.fileProvider = fileProvider;
       this.syncWrites = syncWrites;
       this.maxFileSize = maxFileSize;
+      this.groupCommitWindow = TimeUnit.MILLISECONDS.toNanos(groupCommitWindow);
+      this.groupCommitSize = groupCommitSize;
 
       this.toSyncLogRequests = syncWrites ? new ArrayList<>() : null;
    }
@@ -241,6 +258,10 @@ private void sendToWriteProcessor(LogRequest request) {
       // Write requests must be synced - so keep track of count to compare later
       if (syncWrites && request.getKey() != null) {
          submittedCount.incrementAndGet();
+         CompletableFuture<Void> wait = groupCommitWait;
+         if (wait != null) {
+            wait.complete(null);
+         }
       }
 
       writeProcessor.onNext(WriteOperation.fromLogRequest(request));
@@ -256,6 +277,7 @@ public void accept(WriteOperation writeOperation) {
          }
 
          if (actualRequest.isClear()) {
+            syncPendingLogRequests();
             logFile.close();
             completePendingLogRequests();
             nextExpirationTime = -1;
@@ -272,6 +294,7 @@ public void accept(WriteOperation writeOperation) {
          int actualLength = actualRequest.length();
          if (currentOffset != 0 && currentOffset + actualLength > maxFileSize) {
             // switch to next file
+            syncPendingLogRequests();
             logFile.close();
             completePendingLogRequests();
 
@@ -282,6 +305,8 @@ public void accept(WriteOperation writeOperation) {
             // index updates. Then we can do a sync index call to ensure the compactor is ran after all updates are done
             completionProcessor.onNext(la -> la.index.ensureRunOnLast(() -> compactor.completeFile(fileId, offset, exp)));
 
+            // Give the compactor a chance to catch up before the next file is started
+            compactor.throttleWrites();
             logFile = fileProvider.getFileForLog();
             nextExpirationTime = -1;
             currentOffset = 0;
@@ -290,28 +315,155 @@ public void accept(WriteOperation writeOperation) {
          long seqId = nextSeqId();
          log.tracef("Appending record to %s:%s", logFile.fileId, currentOffset);
          nextExpirationTime = ExpiryHelper.mostRecentExpirationTime(nextExpirationTime, actualRequest.getExpiration());
-         EntryRecord.writeEntry(logFile.fileChannel, REUSED_BUFFER, writeOperation.serializedKey,
-               writeOperation.serializedMetadata, writeOperation.serializedInternalMetadata,
-               writeOperation.serializedValue, seqId, actualRequest.getExpiration(), actualRequest.getCreated(),
-               actualRequest.getLastUsed());
+         if (!syncWrites) {
+            EntryRecord.writeEntry(logFile.fileChannel, REUSED_BUFFER, writeOperation.serializedKey,
+                  writeOperation.serializedMetadata, writeOperation.serializedInternalMetadata,
+                  writeOperation.serializedValue, seqId, actualRequest.getExpiration(), actualRequest.getCreated(),
+                  actualRequest.getLastUsed());
+         } else {
+            appendToGroupCommit(writeOperation, seqId, actualLength);
+         }
          actualRequest.setFile(logFile.fileId);
          actualRequest.setFileOffset(currentOffset);
+         currentOffset += actualLength;
 
          if (!syncWrites) {
             completionProcessor.onNext(writeOperation);
          } else {
             // This cannot be null when sync writes is true
-            toSyncLogRequests.add(la -> la.handleRequestCompletion(actualRequest));
-            if (submittedCount.get() == ++receivedCount || toSyncLogRequests.size() == 1000) {
-               logFile.fileChannel.force(false);
+            toSyncLogRequests.add(actualRequest);
+            ++receivedCount;
+            if (groupCommitComplete()) {
+               syncPendingLogRequests();
                completePendingLogRequests();
             }
          }
-         currentOffset += actualLength;
       } catch (Exception e) {
          log.debugf("Exception encountered while processing log request %s", actualRequest);
          actualRequest.completeExceptionally(e);
+         if (toSyncLogRequests != null) {
+            // The grouped writes are not known to be durable either
+            toSyncLogRequests.forEach(request -> request.completeExceptionally(e));
+            toSyncLogRequests.clear();
+            discardGroupCommit();
+         }
+      }
+   }
+
+   /**
+    * Must only be invoked by {@link #accept(WriteOperation)} method. Rolls the log file back to the offset of the first
+    * write of the failed group, so the next writes are appended where their offsets say they are.
+    */
+   private void discardGroupCommit() {
+      if (groupCommitBuffer != null) {
+         groupCommitBuffer.clear();
       }
+      if (groupCommitBytes == 0) {
+         return;
+      }
+      groupCommitBytes = 0;
+      currentOffset = groupCommitOffset;
+      if (logFile != null) {
+         try {
+            // Some of the entries may have been written before the failure
+            logFile.fileChannel.truncate(groupCommitOffset);
+         } catch (IOException e) {
+            log.debugf(e, "Could not truncate log file %d to offset %d", logFile.fileId, groupCommitOffset);
+         }
+      }
+   }
+
+   /**
+    * Must only be invoked by {@link #accept(WriteOperation)} method. Appends the entry to the group commit buffer, so
+    * that all the entries of the group are written to the log file at once. An entry that does not fit in the buffer
+    * is written directly after the buffered entries.
+    */
+   private void appendToGroupCommit(WriteOperation writeOperation, long seqId, int length) throws IOException {
+      if (groupCommitBytes == 0) {
+         groupCommitStart = System.nanoTime();
+         groupCommitOffset = currentOffset;
+      }
+      groupCommitBytes += length;
+      if (groupCommitBuffer == null) {
+         groupCommitBuffer = java.nio.ByteBuffer.allocate(Math.min(groupCommitSize, maxFileSize));
+      }
+      LogRequest request = writeOperation.logRequest;
+      if (groupCommitBuffer.remaining() < length) {
+         writeGroupCommitBuffer();
+         if (groupCommitBuffer.capacity() < length) {
+            EntryRecord.writeEntry(logFile.fileChannel, REUSED_BUFFER, writeOperation.serializedKey,
+                  writeOperation.serializedMetadata, writeOperation.serializedInternalMetadata,
+                  writeOperation.serializedValue, seqId, request.getExpiration(), request.getCreated(),
+                  request.getLastUsed());
+            return;
+         }
+      }
+      EntryRecord.writeEntry(groupCommitBuffer, writeOperation.serializedKey, writeOperation.serializedMetadata,
+            writeOperation.serializedInternalMetadata, writeOperation.serializedValue, seqId, request.getExpiration(),
+            request.getCreated(), request.getLastUsed());
+   }
+
+   /**
+    * Must only be invoked by {@link #accept(WriteOperation)} method. Decides whether the writes received so far must
+    * be fsynced now. When more writes were already submitted they join the group, unless the group is full or its
+    * window elapsed. Otherwise the group waits until a new write is submitted or its window elapses.
+    */
+   private boolean groupCommitComplete() {
+      if (groupCommitBytes >= groupCommitSize) {
+         return true;
+      }
+      for (;;) {
+         long remaining = groupCommitStart + groupCommitWindow - System.nanoTime();
+         if (submittedCount.get() != receivedCount) {
+            return groupCommitWindow > 0 && remaining <= 0;
+         }
+         if (remaining <= 0) {
+            return true;
+         }
+         CompletableFuture<Void> wait = new CompletableFuture<>();
+         groupCommitWait = wait;
+         try {
+            // A write submitted before the wait was published is seen by this check
+            if (submittedCount.get() == receivedCount && !CompletableFutures.await(wait, remaining, TimeUnit.NANOSECONDS)) {
+               return true;
+            }
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+         } finally {
+            groupCommitWait = null;
+         }
+      }
+   }
+
+   private void writeGroupCommitBuffer() throws IOException {
+      if (groupCommitBuffer != null && groupCommitBuffer.position() > 0) {
+         groupCommitBuffer.flip();
+         while (groupCommitBuffer.hasRemaining()) {
+            logFile.fileChannel.write(groupCommitBuffer);
+         }
+         groupCommitBuffer.clear();
+      }
+   }
+
+   /**
+    * Must only be invoked by {@link #accept(WriteOperation)} method. Writes the grouped entries to the log file and
+    * fsyncs it, so the pending log requests can be completed.
+    */
+   private void syncPendingLogRequests() throws IOException {
+      if (toSyncLogRequests != null && !toSyncLogRequests.isEmpty()) {
+         writeGroupCommitBuffer();
+         logFile.fileChannel.force(false);
+         groupCommitBytes = 0;
+         syncCount.increment();
+      }
+   }
+
+   /**
+    * @return how many times the log file was fsynced to complete sync writes
+    */
+   long getSyncCount() {
+      return syncCount.sum();
    }
 
    public void complete(Consumer<LogAppender> consumer) throws Throwable {
@@ -323,11 +475,10 @@ public void complete(Consumer<LogAppender> consumer) throws Throwable {
     */
    private void completePendingLogRequests() {
       if (toSyncLogRequests != null) {
-         for (Iterator<Consumer<LogAppender>> iter = toSyncLogRequests.iterator(); iter.hasNext(); ) {
-            Consumer<LogAppender> consumer = iter.next();
-            iter.remove();
-            completionProcessor.onNext(consumer);
+         for (LogRequest request : toSyncLogRequests) {
+            completionProcessor.onNext(la -> la.handleRequestCompletion(request));
          }
+         toSyncLogRequests.clear();
       }
    }
 
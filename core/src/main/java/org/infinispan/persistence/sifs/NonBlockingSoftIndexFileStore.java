@@ -21,6 +21,9 @@
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
+
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.configuration.ConfiguredBy;
 import org.infinispan.commons.io.ByteBuffer;
@@ -43,8 +46,10 @@
 import org.infinispan.container.entries.ExpiryHelper;
 import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.factories.ComponentRegistry;
+import org.infinispan.jmx.CacheJmxRegistration;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.metadata.impl.PrivateMetadata;
+import org.infinispan.metrics.impl.CacheMetricsRegistration;
 import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration;
 import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfigurationBuilder;
 import org.infinispan.persistence.spi.InitializationContext;
@@ -150,6 +155,11 @@
    private LogAppender logAppender;
    private Index index;
    private Compactor compactor;
+   private final CompactionStatistics compactionStatistics = new CompactionStatistics();
+   private CacheJmxRegistration jmxRegistration;
+   private ObjectName statisticsObjectName;
+   private CacheMetricsRegistration metricsRegistration;
+   private Set<Object> statisticsMetricIds;
    private Marshaller marshaller;
    private ByteBufferFactory byteBufferFactory;
    private MarshallableEntryFactory<K, V> marshallableEntryFactory;
@@ -173,7 +183,8 @@ private IntSet segmentsUsed(IntSet segments) {
 
    @Override
    public Set<Characteristic> characteristics() {
-      return EnumSet.of(Characteristic.BULK_READ, Characteristic.SEGMENTABLE, Characteristic.EXPIRATION);
+      return EnumSet.of(Characteristic.BULK_READ, Characteristic.SEGMENTABLE, Characteristic.EXPIRATION,
+            Characteristic.SEGMENT_TRANSFER);
    }
 
    @Override
@@ -233,20 +244,25 @@ public CompletionStage<Void> start(InitializationContext ctx) {
       }
 
       fileProvider = new FileProvider(getDataLocation(), maxOpenDataFiles, PREFIX_LATEST,
-            configuration.maxFileSize());
+            configuration.maxFileSize(), configuration.memoryMapped());
       compactor = new Compactor(ctx.getNonBlockingManager(), fileProvider, temporaryTable, marshaller, timeService,
             keyPartitioner, configuration.maxFileSize(), configuration.compactionThreshold(),
+            configuration.compactionThreads(), configuration.compactionBacklog(),
             blockingManager.asExecutor("sifs-compactor"));
+      compactionStatistics.setCompactor(compactor);
+      registerStatistics(ComponentRegistry.of(ctx.getCache()));
       try {
          index = new Index(ctx.getNonBlockingManager(), fileProvider, getIndexLocation(), cacheSegments,
                configuration.minNodeSize(), configuration.maxNodeSize(), temporaryTable, compactor,
-               timeService, blockingManager.asExecutor("sifs-index"), maxOpenIndexFiles);
+               timeService, blockingManager.asExecutor("sifs-index"), maxOpenIndexFiles,
+               configuration.index().pageCacheSize());
       } catch (IOException e) {
          throw log.cannotOpenIndex(configuration.indexLocation(), e);
       }
       compactor.setIndex(index);
       logAppender = new LogAppender(ctx.getNonBlockingManager(), index, temporaryTable, compactor, fileProvider,
-            configuration.syncWrites(), configuration.maxFileSize());
+            configuration.syncWrites(), configuration.maxFileSize(), configuration.groupCommitWindow(),
+            configuration.groupCommitSize());
       logAppender.start(blockingManager.asExecutor("sifs-log-processor"));
       startIndex(segments);
       final AtomicLong maxSeqId = new AtomicLong(0);
@@ -511,6 +527,41 @@ protected boolean isSeqIdOld(long seqId, int segment, Object key, byte[] seriali
       }
    }
 
+   private void registerStatistics(ComponentRegistry componentRegistry) {
+      // The statistics are not a component of the cache, so they are unregistered when the store stops
+      jmxRegistration = componentRegistry.getComponent(CacheJmxRegistration.class);
+      if (jmxRegistration != null && jmxRegistration.enabled()) {
+         try {
+            statisticsObjectName = jmxRegistration.registerExternalMBean(compactionStatistics, jmxRegistration.getGroupName());
+         } catch (JMException e) {
+            // e.g. another store of the same cache already registered its statistics
+            log.debugf(e, "Unable to register the compaction statistics MBean for cache %s", ctx.getCache().getName());
+         } catch (Exception e) {
+            throw new CacheException(e);
+         }
+      }
+      metricsRegistration = componentRegistry.getComponent(CacheMetricsRegistration.class);
+      if (metricsRegistration != null && metricsRegistration.metricsEnabled()) {
+         statisticsMetricIds = metricsRegistration.registerExternalMetrics(compactionStatistics, "persistence_sifs");
+      }
+   }
+
+   private void unregisterStatistics() {
+      if (statisticsObjectName != null) {
+         try {
+            jmxRegistration.unregisterMBean(statisticsObjectName);
+         } catch (Exception e) {
+            throw new CacheException(e);
+         } finally {
+            statisticsObjectName = null;
+         }
+      }
+      if (statisticsMetricIds != null) {
+         metricsRegistration.unregisterMetrics(statisticsMetricIds);
+         statisticsMetricIds = null;
+      }
+   }
+
    protected void startIndex(IntSet segments) {
       // this call is extracted for better testability
       index.start(segments);
@@ -522,6 +573,8 @@ public CompletionStage<Void> stop() {
          try {
             long maxSeqId = CompletionStages.join(logAppender.stop());
             compactor.stopOperations();
+            unregisterStatistics();
+            compactionStatistics.setCompactor(null);
             compactor = null;
             CompletionStages.join(index.stop(maxSeqId));
             index = null;
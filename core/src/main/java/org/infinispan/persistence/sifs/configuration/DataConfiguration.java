@@ -10,9 +10,13 @@ public class DataConfiguration extends ConfigurationElement<DataConfiguration> {
    public static final AttributeDefinition<String> DATA_LOCATION = AttributeDefinition.builder(Attribute.PATH, null, String.class).immutable().autoPersist(false).build();
    public static final AttributeDefinition<Integer> MAX_FILE_SIZE = AttributeDefinition.builder(Attribute.MAX_FILE_SIZE, 16 * 1024 * 1024).immutable().autoPersist(false).build();
    public static final AttributeDefinition<Boolean> SYNC_WRITES = AttributeDefinition.builder(Attribute.SYNC_WRITES, false).immutable().autoPersist(false).build();
+   public static final AttributeDefinition<Boolean> MEMORY_MAPPED = AttributeDefinition.builder(Attribute.MEMORY_MAPPED, false).immutable().autoPersist(false).build();
+   public static final AttributeDefinition<Long> GROUP_COMMIT_WINDOW = AttributeDefinition.builder(Attribute.GROUP_COMMIT_WINDOW, 0L).immutable().autoPersist(false).build();
+   public static final AttributeDefinition<Integer> GROUP_COMMIT_SIZE = AttributeDefinition.builder(Attribute.GROUP_COMMIT_SIZE, 1024 * 1024).immutable().autoPersist(false).build();
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(DataConfiguration.class, DATA_LOCATION, MAX_FILE_SIZE, SYNC_WRITES);
+      return new AttributeSet(DataConfiguration.class, DATA_LOCATION, MAX_FILE_SIZE, SYNC_WRITES, MEMORY_MAPPED,
+            GROUP_COMMIT_WINDOW, GROUP_COMMIT_SIZE);
    }
 
    DataConfiguration(AttributeSet attributes) {
@@ -27,6 +31,18 @@ public boolean syncWrites() {
       return attributes.attribute(SYNC_WRITES).get();
    }
 
+   public boolean memoryMapped() {
+      return attributes.attribute(MEMORY_MAPPED).get();
+   }
+
+   public long groupCommitWindow() {
+      return attributes.attribute(GROUP_COMMIT_WINDOW).get();
+   }
+
+   public int groupCommitSize() {
+      return attributes.attribute(GROUP_COMMIT_SIZE).get();
+   }
+
    public String dataLocation() {
       return attributes.attribute(DATA_LOCATION).get();
    }
@@ -1,8 +1,12 @@
 package org.infinispan.persistence.sifs.configuration;
 
 import static org.infinispan.persistence.sifs.configuration.DataConfiguration.DATA_LOCATION;
+import static org.infinispan.persistence.sifs.configuration.DataConfiguration.GROUP_COMMIT_SIZE;
+import static org.infinispan.persistence.sifs.configuration.DataConfiguration.GROUP_COMMIT_WINDOW;
 import static org.infinispan.persistence.sifs.configuration.DataConfiguration.MAX_FILE_SIZE;
+import static org.infinispan.persistence.sifs.configuration.DataConfiguration.MEMORY_MAPPED;
 import static org.infinispan.persistence.sifs.configuration.DataConfiguration.SYNC_WRITES;
+import static org.infinispan.util.logging.Log.CONFIG;
 
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.Combine;
@@ -35,6 +39,33 @@ public DataConfigurationBuilder syncWrites(boolean syncWrites) {
       return this;
    }
 
+   public DataConfigurationBuilder memoryMapped(boolean memoryMapped) {
+      attributes.attribute(MEMORY_MAPPED).set(memoryMapped);
+      return this;
+   }
+
+   public DataConfigurationBuilder groupCommitWindow(long groupCommitWindow) {
+      attributes.attribute(GROUP_COMMIT_WINDOW).set(groupCommitWindow);
+      return this;
+   }
+
+   public DataConfigurationBuilder groupCommitSize(int groupCommitSize) {
+      attributes.attribute(GROUP_COMMIT_SIZE).set(groupCommitSize);
+      return this;
+   }
+
+   @Override
+   public void validate() {
+      long groupCommitWindow = attributes.attribute(GROUP_COMMIT_WINDOW).get();
+      if (groupCommitWindow < 0) {
+         throw CONFIG.invalidGroupCommitWindow(groupCommitWindow);
+      }
+      int groupCommitSize = attributes.attribute(GROUP_COMMIT_SIZE).get();
+      if (groupCommitSize <= 0) {
+         throw CONFIG.invalidGroupCommitSize(groupCommitSize);
+      }
+   }
+
    @Override
    public DataConfiguration create() {
       return new DataConfiguration(attributes.protect());
@@ -13,9 +13,10 @@ public class IndexConfiguration extends ConfigurationElement<IndexConfiguration>
    public static final AttributeDefinition<Integer> INDEX_SEGMENTS = AttributeDefinition.builder(Attribute.SEGMENTS, 3).immutable().autoPersist(false).build();
    public static final AttributeDefinition<Integer> MIN_NODE_SIZE = AttributeDefinition.builder(Attribute.MIN_NODE_SIZE, 0).immutable().autoPersist(false).build();
    public static final AttributeDefinition<Integer> MAX_NODE_SIZE = AttributeDefinition.builder(Attribute.MAX_NODE_SIZE, 4096).immutable().autoPersist(false).build();
+   public static final AttributeDefinition<Long> PAGE_CACHE_SIZE = AttributeDefinition.builder(Attribute.PAGE_CACHE_SIZE, 0L).immutable().autoPersist(false).build();
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(IndexConfiguration.class, INDEX_LOCATION, INDEX_QUEUE_LENGTH, INDEX_SEGMENTS, MIN_NODE_SIZE, MAX_NODE_SIZE);
+      return new AttributeSet(IndexConfiguration.class, INDEX_LOCATION, INDEX_QUEUE_LENGTH, INDEX_SEGMENTS, MIN_NODE_SIZE, MAX_NODE_SIZE, PAGE_CACHE_SIZE);
    }
 
    public IndexConfiguration(AttributeSet attributes) {
@@ -46,6 +47,13 @@ public int maxNodeSize() {
       return attributes.attribute(MAX_NODE_SIZE).get();
    }
 
+   /**
+    * @return the number of bytes of off-heap memory used to cache index pages, <code>0</code> when disabled
+    */
+   public long pageCacheSize() {
+      return attributes.attribute(PAGE_CACHE_SIZE).get();
+   }
+
    public int indexQueueLength() {
       return attributes.attribute(INDEX_QUEUE_LENGTH).get();
    }
@@ -5,6 +5,7 @@
 import static org.infinispan.persistence.sifs.configuration.IndexConfiguration.INDEX_SEGMENTS;
 import static org.infinispan.persistence.sifs.configuration.IndexConfiguration.MAX_NODE_SIZE;
 import static org.infinispan.persistence.sifs.configuration.IndexConfiguration.MIN_NODE_SIZE;
+import static org.infinispan.persistence.sifs.configuration.IndexConfiguration.PAGE_CACHE_SIZE;
 
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.Combine;
@@ -51,6 +52,11 @@ public IndexConfigurationBuilder maxNodeSize(int maxNodeSize) {
       return this;
    }
 
+   public IndexConfigurationBuilder pageCacheSize(long pageCacheSize) {
+      attributes.attribute(PAGE_CACHE_SIZE).set(pageCacheSize);
+      return this;
+   }
+
    public IndexConfigurationBuilder indexQueueLength(int indexQueueLength) {
       attributes.attribute(INDEX_QUEUE_LENGTH).set(indexQueueLength);
       return this;
@@ -76,6 +82,10 @@ public void validate() {
       } else if (minNodeSize < 0 || minNodeSize > maxNodeSize) {
          throw log.minNodeSizeMustBeLessOrEqualToMax(minNodeSize, maxNodeSize);
       }
+      long pageCacheSize = attributes.attribute(PAGE_CACHE_SIZE).get();
+      if (pageCacheSize != 0 && pageCacheSize < maxNodeSize) {
+         throw log.invalidPageCacheSize(pageCacheSize, maxNodeSize);
+      }
    }
 
    @Override
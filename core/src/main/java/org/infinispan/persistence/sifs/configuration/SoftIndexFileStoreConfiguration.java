@@ -19,11 +19,13 @@ public class SoftIndexFileStoreConfiguration extends AbstractStoreConfiguration<
 
    public static final AttributeDefinition<Integer> OPEN_FILES_LIMIT = AttributeDefinition.builder(Attribute.OPEN_FILES_LIMIT, 1000).immutable().build();
    public static final AttributeDefinition<Double> COMPACTION_THRESHOLD = AttributeDefinition.builder(Attribute.COMPACTION_THRESHOLD, 0.5d).immutable().build();
+   public static final AttributeDefinition<Integer> COMPACTION_THREADS = AttributeDefinition.builder(Attribute.COMPACTION_THREADS, 1).immutable().build();
+   public static final AttributeDefinition<Integer> COMPACTION_BACKLOG = AttributeDefinition.builder(Attribute.COMPACTION_BACKLOG, 0).immutable().build();
    private final IndexConfiguration index;
    private final DataConfiguration data;
 
    public static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(SoftIndexFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), OPEN_FILES_LIMIT, COMPACTION_THRESHOLD);
+      return new AttributeSet(SoftIndexFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), OPEN_FILES_LIMIT, COMPACTION_THRESHOLD, COMPACTION_THREADS, COMPACTION_BACKLOG);
    }
 
    public SoftIndexFileStoreConfiguration(AttributeSet attributes,
@@ -71,9 +73,30 @@ public boolean syncWrites() {
       return data.syncWrites();
    }
 
+   /**
+    * @return whether the sealed data files are read through a memory mapping instead of positional channel reads
+    */
+   public boolean memoryMapped() {
+      return data.memoryMapped();
+   }
+
+   /**
+    * @return the time in milliseconds a synchronous write waits for other writes to share its fsync
+    */
+   public long groupCommitWindow() {
+      return data.groupCommitWindow();
+   }
+
+   /**
+    * @return the maximum size in bytes of the writes that share a single fsync
+    */
+   public int groupCommitSize() {
+      return data.groupCommitSize();
+   }
+
    /**
     * The maximum number of files that will be open at a given time for all the data and index files, which does
-    * not include compactor and current log file (which will always be 2).
+    * not include the compactor files (one per compaction thread) and current log file.
     * Note that the number of data files is effectively unlimited, where as we have an index file per segment.
     * <p>
     * Index files will reserve 1/10th of the open files, with a minimum value of 1 and a maximum equal to the
@@ -89,6 +112,20 @@ public double compactionThreshold() {
       return attributes.attribute(COMPACTION_THRESHOLD).get();
    }
 
+   /**
+    * @return how many data files can be compacted concurrently, each compaction thread writes to its own file
+    */
+   public int compactionThreads() {
+      return attributes.attribute(COMPACTION_THREADS).get();
+   }
+
+   /**
+    * @return how many data files can wait for compaction before new writes are delayed, 0 if writes are never delayed
+    */
+   public int compactionBacklog() {
+      return attributes.attribute(COMPACTION_BACKLOG).get();
+   }
+
    public IndexConfiguration index() {
       return index;
    }
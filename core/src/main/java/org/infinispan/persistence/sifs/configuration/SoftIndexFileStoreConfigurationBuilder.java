@@ -1,5 +1,7 @@
 package org.infinispan.persistence.sifs.configuration;
 
+import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.COMPACTION_BACKLOG;
+import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.COMPACTION_THREADS;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.COMPACTION_THRESHOLD;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.OPEN_FILES_LIMIT;
 
@@ -98,6 +100,18 @@ public SoftIndexFileStoreConfigurationBuilder maxNodeSize(int maxNodeSize) {
       return this;
    }
 
+   /**
+    * Sets the amount of off-heap memory, in bytes, used to cache index nodes. Nodes are kept in the cache in their
+    * serialized form and are evicted with the CLOCK algorithm, so lookups of nodes that are no longer referenced on
+    * heap are served from memory instead of the index files.
+    * <p>
+    * Defaults to <code>0</code>, which disables the cache. Otherwise it must be at least the maximum node size.
+    */
+   public SoftIndexFileStoreConfigurationBuilder indexPageCacheSize(long pageCacheSize) {
+      index.pageCacheSize(pageCacheSize);
+      return this;
+   }
+
    /**
     * Sets the maximum number of entry writes that are waiting to be written to the index, per index segment.
     * <p>
@@ -118,6 +132,42 @@ public SoftIndexFileStoreConfigurationBuilder syncWrites(boolean syncWrites) {
       return this;
    }
 
+   /**
+    * Sets whether data files that are no longer written to are memory mapped. Reads from mapped files are served
+    * from the operating system page cache without a system call.
+    * <p>
+    * Defaults to <code>false</code>.
+    */
+   public SoftIndexFileStoreConfigurationBuilder memoryMapped(boolean memoryMapped) {
+      data.memoryMapped(memoryMapped);
+      return this;
+   }
+
+   /**
+    * Sets the time in milliseconds that a write waits for other writes before the data file is fsynced, when
+    * {@link #syncWrites(boolean)} is enabled. All the writes that arrive in the meantime are appended with a single
+    * write and made durable with a single fsync. When <code>0</code>, the writes are only grouped with the writes that
+    * are already queued.
+    * <p>
+    * Defaults to <code>0</code>.
+    */
+   public SoftIndexFileStoreConfigurationBuilder groupCommitWindow(long groupCommitWindow) {
+      data.groupCommitWindow(groupCommitWindow);
+      return this;
+   }
+
+   /**
+    * Sets the maximum size in bytes of the writes that share a single fsync, when {@link #syncWrites(boolean)} is
+    * enabled. The data file is fsynced as soon as the grouped writes reach this size, even if the
+    * {@link #groupCommitWindow(long)} has not elapsed.
+    * <p>
+    * Defaults to <code>1048576</code>.
+    */
+   public SoftIndexFileStoreConfigurationBuilder groupCommitSize(int groupCommitSize) {
+      data.groupCommitSize(groupCommitSize);
+      return this;
+   }
+
    /**
     * Sets the maximum number of open files.
     * <p>
@@ -138,6 +188,29 @@ public SoftIndexFileStoreConfigurationBuilder compactionThreshold(double compact
       return this;
    }
 
+   /**
+    * Sets how many data files can be compacted concurrently. Every compaction thread copies the live entries to its own
+    * file, so increasing this value helps compaction keep up with heavy overwrite loads at the cost of more open files.
+    * <p>
+    * Defaults to <code>1</code>.
+    */
+   public SoftIndexFileStoreConfigurationBuilder compactionThreads(int compactionThreads) {
+      attributes.attribute(COMPACTION_THREADS).set(compactionThreads);
+      return this;
+   }
+
+   /**
+    * Sets how many data files can be waiting for compaction before the store delays new writes. When the limit is
+    * exceeded, every write that starts a new data file waits, for at most a second, until compaction catches up, so the
+    * disk usage cannot grow without bound under heavy overwrite loads.
+    * <p>
+    * Defaults to <code>0</code>, which never delays writes.
+    */
+   public SoftIndexFileStoreConfigurationBuilder compactionBacklog(int compactionBacklog) {
+      attributes.attribute(COMPACTION_BACKLOG).set(compactionBacklog);
+      return this;
+   }
+
    @Override
    public SoftIndexFileStoreConfiguration create() {
       return new SoftIndexFileStoreConfiguration(attributes.protect(), async.create(), index.create(), data.create());
@@ -160,10 +233,19 @@ public SoftIndexFileStoreConfigurationBuilder self() {
    public void validate() {
       super.validate();
       index.validate();
+      data.validate();
       double compactionThreshold = attributes.attribute(COMPACTION_THRESHOLD).get();
       if (compactionThreshold <= 0 || compactionThreshold > 1) {
          throw log.invalidCompactionThreshold(compactionThreshold);
       }
+      int compactionThreads = attributes.attribute(COMPACTION_THREADS).get();
+      if (compactionThreads < 1) {
+         throw log.invalidCompactionThreads(compactionThreads);
+      }
+      int compactionBacklog = attributes.attribute(COMPACTION_BACKLOG).get();
+      if (compactionBacklog < 0) {
+         throw log.invalidCompactionBacklog(compactionBacklog);
+      }
    }
 
    @Override
@@ -154,7 +154,21 @@ enum Characteristic {
        * <p>
        * Stores that have this characteristic must override the {@link #purgeExpired()} method.
        */
-      EXPIRATION
+      EXPIRATION,
+      /**
+       * If this store can publish the entries of a segment without unmarshalling them and can write the entries of a
+       * segment as a whole. State transfer then ships the entries of the segments as the serialized bytes returned by
+       * {@link #publishEntries(IntSet, Predicate, boolean)}, and the receiving node writes them to its stores with
+       * {@link #batch(int, Publisher, Publisher)} instead of applying each entry through the cache.
+       * <p>
+       * The {@link MarshallableEntry} instances published by stores with this characteristic should be created from
+       * bytes, so that {@link MarshallableEntry#getValueBytes()} and {@link MarshallableEntry#getMetadataBytes()} do
+       * not marshall the value and metadata again.
+       * <p>
+       * This characteristic is ignored unless the store also contains {@link #BULK_READ} and {@link #SEGMENTABLE},
+       * and it is only used when every store of the cache is private, writes synchronously and is not preloaded.
+       */
+      SEGMENT_TRANSFER
    }
 
    /**
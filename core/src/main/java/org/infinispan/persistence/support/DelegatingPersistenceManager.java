@@ -69,6 +69,11 @@ public boolean hasWriter() {
       return persistenceManager.hasWriter();
    }
 
+   @Override
+   public boolean isSegmentTransferSupported() {
+      return persistenceManager.isSegmentTransferSupported();
+   }
+
    @Override
    public boolean hasStore(Predicate<StoreConfiguration> test) {
       return persistenceManager.hasStore(test);
@@ -2,6 +2,8 @@
 
 import static org.infinispan.commons.util.Util.toStr;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
@@ -9,16 +11,21 @@
 
 import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.ByRef;
+import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.container.entries.ReadCommittedEntry;
 import org.infinispan.container.impl.InternalDataContainer;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
 import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -42,9 +49,21 @@ public class CommitManager {
    @Inject InternalDataContainer dataContainer;
    @Inject PersistenceManager persistenceManager;
    @Inject TimeService timeService;
+   @Inject Configuration configuration;
+   @Inject GlobalConfiguration globalConfiguration;
 
    private volatile boolean trackStateTransfer;
    private volatile boolean trackXSiteStateTransfer;
+   // Only present if restarted nodes can receive the changed entries instead of their whole segments
+   private SegmentChangeLog changeLog;
+
+   @Start
+   public void start() {
+      if (SegmentChangeLog.isEnabled(globalConfiguration, configuration)) {
+         changeLog = new SegmentChangeLog(timeService, configuration.clustering().stateTransfer().incrementalRetention(),
+               configuration.clustering().hash().numSegments());
+      }
+   }
 
    /**
     * It starts tracking keys committed. All the keys committed will be flagged with this flag. State transfer received
@@ -113,6 +132,9 @@ public final CompletionStage<Void> commit(final CacheEntry entry, final Flag ope
             log.tracef("Committing key=%s. It is a L1 invalidation or a normal put and no tracking is enabled!",
                   toStr(entry.getKey()));
          }
+         if (!l1Only) {
+            logChange(entry, operation, segment);
+         }
          return commitEntry(entry, segment, ctx);
       }
       if (isTrackDisabled(operation)) {
@@ -133,6 +155,7 @@ public final CompletionStage<Void> commit(final CacheEntry entry, final Flag ope
             }
             return discardPolicy;
          }
+         logChange(entry, operation, segment);
          byRef.set(commitEntry(entry, segment, ctx));
          DiscardPolicy newDiscardPolicy = calculateDiscardPolicy(operation);
          if (log.isTraceEnabled()) {
@@ -170,6 +193,111 @@ private CompletionStage<Void> commitEntry(CacheEntry entry, int segment, Invocat
       return CompletableFutures.completedNull();
    }
 
+   private void logChange(CacheEntry entry, Flag operation, int segment) {
+      // The entries received by state transfer are not newer than the ones already logged by the sender
+      if (changeLog != null && operation != Flag.PUT_FOR_STATE_TRANSFER && entry.isChanged()) {
+         changeLog.record(segment, entry.getKey());
+      }
+   }
+
+   /**
+    * Starts logging the keys changed in the given segments, if they are not logged already.
+    *
+    * @param segments the segments the local node is now a write owner of.
+    */
+   public final void startChangeLog(IntSet segments) {
+      if (changeLog != null) {
+         changeLog.start(segments);
+      }
+   }
+
+   /**
+    * Stops logging the keys changed in the given segments and discards their changes.
+    *
+    * @param segments the segments the local node is no longer an owner of.
+    */
+   public final void stopChangeLog(IntSet segments) {
+      if (changeLog != null) {
+         changeLog.stop(segments);
+      }
+   }
+
+   /**
+    * Restarts the logs of all the segments, because all the entries were removed without logging their keys.
+    */
+   public final void restartChangeLog() {
+      if (changeLog != null) {
+         changeLog.restart();
+      }
+   }
+
+   /**
+    * @param segment the segment of the keys.
+    * @param since   the wall clock time of the oldest change to return.
+    * @return the keys written or removed in the segment since the given time, or {@code null} if the changes since that
+    * time are not known.
+    */
+   public final List<Object> changedKeys(int segment, long since) {
+      return changeLog != null ? changeLog.changedKeys(segment, since) : null;
+   }
+
+   /**
+    * Writes the entries originated from state transfer directly to the private stores, without committing them to the
+    * data container. The entries are not written if other operation already has updated their keys.
+    * <p>
+    * As with {@link #commit(CacheEntry, Flag, int, boolean, InvocationContext)}, the keys are checked and tracked, and
+    * the write is started, while holding the tracker of the segment. An operation updating one of the keys is either
+    * committed before, and the entry is discarded, or after the entry is written.
+    *
+    * @param entries   the entries of the segment, as serialized by the stores of the sender.
+    * @param operation the state transfer flag.
+    * @param segment   the segment of the entries.
+    * @return a stage that completes when the entries that were not discarded are written.
+    */
+   public final CompletionStage<Void> commitToStores(List<MarshallableEntry<Object, Object>> entries, Flag operation,
+                                                     int segment) {
+      if (isTrackDisabled(operation)) {
+         if (log.isTraceEnabled()) {
+            log.tracef("Not writing %d entries of segment %d. No track is enabled!", entries.size(), segment);
+         }
+         return CompletableFutures.completedNull();
+      }
+      ByRef<CompletionStage<Void>> byRef = new ByRef<>(null);
+      tracker.compute(segment, (key, keys) -> {
+         List<MarshallableEntry<Object, Object>> toWrite = new ArrayList<>(entries.size());
+         for (MarshallableEntry<Object, Object> entry : entries) {
+            Object entryKey = entry.getKey();
+            DiscardPolicy discardPolicy = keys == null ? null : keys.get(entryKey);
+            if (discardPolicy != null && discardPolicy.ignore(operation)) {
+               if (log.isTraceEnabled()) {
+                  log.tracef("Not writing key=%s. It was already overwritten! Discard policy=%s", toStr(entryKey),
+                        discardPolicy);
+               }
+               continue;
+            }
+            toWrite.add(entry);
+            DiscardPolicy newDiscardPolicy = calculateDiscardPolicy(operation);
+            if (newDiscardPolicy != null) {
+               if (keys == null) {
+                  keys = new ConcurrentHashMap<>();
+               }
+               keys.put(entryKey, newDiscardPolicy);
+            } else if (keys != null) {
+               keys.remove(entryKey);
+            }
+         }
+         if (!toWrite.isEmpty()) {
+            byRef.set(persistenceManager.writeEntries(toWrite, PersistenceManager.AccessMode.PRIVATE));
+         }
+         return keys;
+      });
+      CompletionStage<Void> stage = byRef.get();
+      if (stage != null) {
+         return stage;
+      }
+      return CompletableFutures.completedNull();
+   }
+
    /**
     * @return {@code true} if the flag is being tracked, {@code false} otherwise.
     */
@@ -118,9 +118,45 @@ public Address getSource() {
     * @return a {@code CompletableFuture} that completes when the transfer is done.
     */
    public CompletionStage<Void> requestSegments() {
-      return startTransfer(applyState ?
-            segments -> commandsFactory.buildStateTransferStartCommand(topologyId, segments) :
-            segments -> commandsFactory.buildConflictResolutionStartCommand(topologyId, segments));
+      return requestSegments(false);
+   }
+
+   /**
+    * Send START_STATE_TRANSFER request to source node.
+    *
+    * @param storeRecords whether the entries can be sent as serialized by the stores of the source node, see
+    *                     {@link StoreRecords}
+    * @return a {@code CompletableFuture} that completes when the transfer is done.
+    */
+   public CompletionStage<Void> requestSegments(boolean storeRecords) {
+      if (!applyState) {
+         return startTransfer(segments -> commandsFactory.buildConflictResolutionStartCommand(topologyId, segments));
+      }
+      return startTransfer(storeRecords ?
+            segments -> commandsFactory.buildStateTransferStartCommand(topologyId, segments, -1, true) :
+            segments -> commandsFactory.buildStateTransferStartCommand(topologyId, segments));
+   }
+
+   /**
+    * Request the entries of the segments that changed since this node stopped, and the keys removed since then.
+    *
+    * @param watermark the wall clock time when this node stopped with the entries of the segments in its stores
+    * @param storeRecords whether the whole segments can be sent as serialized by the stores of the source node
+    * @return a {@code CompletableFuture} that completes when the transfer is done.
+    */
+   public CompletionStage<Void> requestChanges(long watermark, boolean storeRecords) {
+      return startTransfer(segments -> commandsFactory.buildStateTransferStartCommand(topologyId, segments, watermark,
+            storeRecords));
+   }
+
+   /**
+    * Request the entries of the segments whose keys map to the given
+    * {@link org.infinispan.container.impl.SegmentDigest} buckets from the source node, for conflict resolution.
+    *
+    * @return a {@code CompletableFuture} that completes when the transfer is done.
+    */
+   public CompletionStage<Void> requestBuckets(IntSet buckets) {
+      return startTransfer(segments -> commandsFactory.buildConflictResolutionStartCommand(topologyId, segments, buckets));
    }
 
    /**
@@ -4,10 +4,14 @@
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.ToLongFunction;
 
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commands.statetransfer.StateResponseCommand;
@@ -16,6 +20,7 @@
 import org.infinispan.commons.util.IntSets;
 import org.infinispan.commons.util.concurrent.CompletableFutures;
 import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.reactive.publisher.impl.SegmentPublisherSupplier;
 import org.infinispan.remoting.inboundhandler.DeliverOrder;
 import org.infinispan.remoting.rpc.RpcManager;
@@ -25,9 +30,11 @@
 import org.infinispan.remoting.transport.jgroups.SuspectException;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
+import org.reactivestreams.Publisher;
 
 import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Maybe;
 
 /**
  * Outbound state transfer task. Pushes data segments to another cluster member on request. Instances of
@@ -63,11 +70,27 @@ public class OutboundTransferTask {
 
    private final RpcOptions rpcOptions;
 
+   private final StateTransferThrottle throttle;
+
+   private final AtomicInteger sentSegments = new AtomicInteger();
+
    private volatile boolean cancelled;
 
    public OutboundTransferTask(Address destination, IntSet segments, int segmentCount, int chunkSize, int topologyId,
                                Consumer<Collection<StateChunk>> onChunkReplicated, RpcManager rpcManager,
                                CommandsFactory commandsFactory, long timeout, String cacheName, boolean applyState) {
+      this(destination, segments, segmentCount, chunkSize, topologyId, onChunkReplicated, rpcManager, commandsFactory,
+           timeout, cacheName, applyState, null);
+   }
+
+   /**
+    * @param throttle paces the chunks and limits their size in bytes, or {@code null} to send the chunks as soon as
+    *                 they are ready and only limit their number of entries
+    */
+   public OutboundTransferTask(Address destination, IntSet segments, int segmentCount, int chunkSize, int topologyId,
+                               Consumer<Collection<StateChunk>> onChunkReplicated, RpcManager rpcManager,
+                               CommandsFactory commandsFactory, long timeout, String cacheName, boolean applyState,
+                               StateTransferThrottle throttle) {
       if (segments == null || segments.isEmpty()) {
          throw new IllegalArgumentException("Segments must not be null or empty");
       }
@@ -87,6 +110,7 @@ public OutboundTransferTask(Address destination, IntSet segments, int segmentCou
       this.timeout = timeout;
       this.cacheName = cacheName;
       this.applyState = applyState;
+      this.throttle = throttle;
 
       this.rpcOptions = new RpcOptions(DeliverOrder.NONE, timeout, TimeUnit.MILLISECONDS);
    }
@@ -103,6 +127,13 @@ public int getTopologyId() {
       return topologyId;
    }
 
+   /**
+    * @return the number of segments not cancelled and not sent yet
+    */
+   int getPendingSegmentCount() {
+      return Math.max(segments.size() - sentSegments.get(), 0);
+   }
+
    /**
     * Starts sending entries from the data container and the first loader with fetch persistent data enabled
     * to the target node.
@@ -111,8 +142,7 @@ public int getTopologyId() {
     * @param notifications a {@code Flowable} with all the entries that need to be sent
     */
    public CompletionStage<Void> execute(Flowable<SegmentPublisherSupplier.Notification<InternalCacheEntry<?, ?>>> notifications) {
-      return notifications
-            .buffer(chunkSize)
+      return track(batch(notifications, n -> n.isValue() ? throttle.estimateSize(n.value()) : 0)
             .takeUntil(batch -> cancelled)
             // Here we receive a batch of notifications, a list with size up to chunkSize.
             // Although the notification list has the chunkSize the list contains not only data segments.
@@ -139,23 +169,115 @@ public CompletionStage<Void> execute(Flowable<SegmentPublisherSupplier.Notificat
 
                return Completable.fromCompletionStage(sendChunks(chunks));
             }, 1)
-            .toCompletionStage(null);
+            .toCompletionStage(null));
+   }
+
+   /**
+    * Starts sending the entries of the segments as they are serialized in the stores, one segment after the other, so
+    * that the target node can write them directly to its stores.
+    *
+    * @return a completion stage that completes when all the entries have been sent.
+    * @param storeEntries a function returning the entries of a segment from the stores
+    */
+   public CompletionStage<Void> executeSegmentTransfer(IntFunction<Publisher<MarshallableEntry<Object, Object>>> storeEntries) {
+      return sendSegments(segment -> batch(Flowable.fromPublisher(storeEntries.apply(segment)), StoreRecords::recordSize)
+            .map(entries -> new StateChunk(segment, StoreRecords.write(entries), false)));
+   }
+
+   /**
+    * Starts sending the entries of the segments that changed since the target node left the cluster, one segment after
+    * the other, together with the keys that were removed in the meantime.
+    *
+    * @return a completion stage that completes when all the changes have been sent.
+    * @param changes a function returning the changed keys of a segment, each with its current entry or with a
+    *                {@code null} value if the key was removed
+    */
+   public CompletionStage<Void> executeIncremental(IntFunction<Publisher<Map.Entry<Object, InternalCacheEntry<?, ?>>>> changes) {
+      return sendSegments(segment -> batch(Flowable.fromPublisher(changes.apply(segment)),
+                  change -> change.getValue() != null ? throttle.estimateSize(change.getValue()) :
+                        throttle.estimateSize(change.getKey()))
+            .map(batch -> {
+               List<InternalCacheEntry<?, ?>> entries = new ArrayList<>(batch.size());
+               List<Object> removedKeys = new ArrayList<>();
+               for (Map.Entry<Object, InternalCacheEntry<?, ?>> change : batch) {
+                  if (change.getValue() != null) {
+                     entries.add(change.getValue());
+                  } else {
+                     removedKeys.add(change.getKey());
+                  }
+               }
+               return new StateChunk(segment, entries, removedKeys, false);
+            }));
+   }
+
+   private CompletionStage<Void> sendSegments(IntFunction<Flowable<StateChunk>> segmentChunks) {
+      return track(Flowable.fromIterable(IntSets.from(segments.iterator()))
+            .concatMapCompletable(segment -> segmentChunks.apply(segment)
+                  .concatWith(Flowable.just(new StateChunk(segment, Collections.emptyList(), true)))
+                  // Also stops the transfer of a segment once it is cancelled
+                  .takeUntil(chunk -> cancelled || !segments.contains(segment))
+                  .concatMapCompletable(chunk -> Completable.fromCompletionStage(
+                        sendChunks(Collections.singletonMap(segment, chunk))), 1), 1)
+            .toCompletionStage(null));
+   }
+
+   private CompletionStage<Void> track(CompletionStage<Void> transferStage) {
+      if (throttle == null) {
+         return transferStage;
+      }
+      throttle.transferStarted(this);
+      return transferStage.whenComplete((ignored, throwable) -> throttle.transferCompleted(this));
+   }
+
+   /**
+    * Groups the items in batches of at most {@code chunkSize} items and, if the throttle sets a maximum chunk size in
+    * bytes, of at most that many estimated bytes. A batch always contains at least one item, even if it is larger.
+    */
+   private <T> Flowable<List<T>> batch(Flowable<T> items, ToLongFunction<? super T> sizeEstimator) {
+      if (throttle == null || throttle.chunkMaxBytes() <= 0) {
+         return items.buffer(chunkSize);
+      }
+      return Flowable.defer(() -> {
+         Batcher<T> batcher = new Batcher<>(chunkSize, throttle.chunkMaxBytes(), sizeEstimator);
+         return items.concatMapIterable(batcher::add)
+               .concatWith(Maybe.fromCallable(batcher::remaining));
+      });
    }
 
    private CompletionStage<Void> sendChunks(Map<Integer, StateChunk> chunks) {
       if (chunks.isEmpty())
          return CompletableFutures.completedNull();
 
+      if (throttle == null)
+         return sendChunks(chunks, 0);
+
+      long bytes = estimateSize(chunks.values());
+      // The chunks are not sent if the transfer is cancelled while waiting for the bandwidth
+      return throttle.acquire(bytes)
+            .thenCompose(ignored -> cancelled ? CompletableFutures.completedNull() : sendChunks(chunks, bytes));
+   }
+
+   private long estimateSize(Collection<StateChunk> chunks) {
+      long bytes = 0;
+      for (StateChunk chunk : chunks) {
+         bytes += throttle.estimateSize(chunk);
+      }
+      return bytes;
+   }
+
+   private CompletionStage<Void> sendChunks(Map<Integer, StateChunk> chunks, long bytes) {
       if (log.isTraceEnabled()) {
          long entriesSize = chunks.values().stream().mapToInt(v -> v.getCacheEntries().size()).sum();
          log.tracef("Sending to node %s %d cache entries from segments %s", destination, entriesSize, chunks.keySet());
       }
 
       StateResponseCommand cmd = commandsFactory.buildStateResponseCommand(topologyId, chunks.values(), applyState);
+      long startTime = throttle != null ? throttle.startChunk() : 0;
       try {
          return rpcManager.invokeCommand(destination, cmd, SingleResponseCollector.validOnly(), rpcOptions)
                           .handle((response, throwable) -> {
                              if (throwable == null) {
+                                onChunksSent(chunks.values(), bytes, startTime);
                                 onChunkReplicated.accept(chunks.values());
                                 return null;
                              }
@@ -174,6 +296,26 @@ private CompletionStage<Void> sendChunks(Map<Integer, StateChunk> chunks) {
       return CompletableFutures.completedNull();
    }
 
+   private void onChunksSent(Collection<StateChunk> chunks, long bytes, long startTime) {
+      int entries = 0;
+      for (StateChunk chunk : chunks) {
+         if (chunk.getStoreRecords() != null) {
+            entries += StoreRecords.count(chunk.getStoreRecords());
+         } else {
+            entries += chunk.getCacheEntries().size() + chunk.getRemovedKeys().size();
+         }
+         if (chunk.isLastChunk()) {
+            sentSegments.incrementAndGet();
+            if (throttle != null) {
+               throttle.segmentSent();
+            }
+         }
+      }
+      if (throttle != null) {
+         throttle.chunkSent(entries, bytes, startTime);
+      }
+   }
+
    private void logSendException(Throwable throwable) {
       Throwable t = CompletableFutures.extractException(throwable);
       if (t instanceof SuspectException) {
@@ -217,6 +359,40 @@ public boolean isCancelled() {
       return cancelled;
    }
 
+   /**
+    * Collects items until a batch reaches the maximum number of items or the maximum number of bytes.
+    */
+   private static final class Batcher<T> {
+      private final int maxItems;
+      private final long maxBytes;
+      private final ToLongFunction<? super T> sizeEstimator;
+      private List<T> batch = new ArrayList<>();
+      private long bytes;
+
+      Batcher(int maxItems, long maxBytes, ToLongFunction<? super T> sizeEstimator) {
+         this.maxItems = maxItems;
+         this.maxBytes = maxBytes;
+         this.sizeEstimator = sizeEstimator;
+      }
+
+      List<List<T>> add(T item) {
+         batch.add(item);
+         bytes += sizeEstimator.applyAsLong(item);
+         if (batch.size() < maxItems && bytes < maxBytes) {
+            return Collections.emptyList();
+         }
+         List<T> full = batch;
+         batch = new ArrayList<>();
+         bytes = 0;
+         return Collections.singletonList(full);
+      }
+
+      List<T> remaining() {
+         // A null value completes the Maybe without a batch
+         return batch.isEmpty() ? null : batch;
+      }
+   }
+
    @Override
    public String toString() {
       return "OutboundTransferTask{" +
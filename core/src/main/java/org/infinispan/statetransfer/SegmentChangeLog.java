@@ -0,0 +1,174 @@
+package org.infinispan.statetransfer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.infinispan.commons.time.TimeService;
+import org.infinispan.commons.util.IntSet;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.PersistenceConfiguration;
+import org.infinispan.configuration.cache.StateTransferConfiguration;
+import org.infinispan.configuration.cache.StoreConfiguration;
+import org.infinispan.configuration.global.GlobalConfiguration;
+
+/**
+ * Remembers the keys written or removed in each owned segment, with the wall clock time of the last change, so that a
+ * node restarting with the entries of its previous segments still in its stores only has to receive the entries that
+ * changed while it was down.
+ * <p>
+ * The log of a segment starts when the local node becomes a write owner of the segment, and only covers the changes
+ * after its start time. When a segment has more than {@link #MAX_KEYS} changed keys, or when the cache is cleared,
+ * the log of the segment is restarted and the nodes that left before that have to receive the whole segment again.
+ * The changes are only kept for the {@link StateTransferConfiguration#incrementalRetention() retention} period: at
+ * most every {@link #CLOCK_SKEW_MARGIN}, the start of all the logs is moved to the retention watermark, and the keys
+ * changed before it are discarded.
+ * <p>
+ * The log is only maintained when a retention is configured, as it relies on the wall clocks of the nodes being within
+ * {@link #CLOCK_SKEW_MARGIN} of each other.
+ *
+ * @since 16.0
+ */
+final class SegmentChangeLog {
+   static final int MAX_KEYS = 4096;
+   /**
+    * The changes are requested from this long before the watermark of the restarted node, to allow for clock skew
+    * between the nodes and for the writes that were still in progress when the node stopped.
+    */
+   static final long CLOCK_SKEW_MARGIN = TimeUnit.MINUTES.toMillis(1);
+
+   private final TimeService timeService;
+   private final long retention;
+   private final AtomicReferenceArray<Segment> segments;
+   private final AtomicLong nextTrim;
+
+   SegmentChangeLog(TimeService timeService, long retention, int numSegments) {
+      this.timeService = timeService;
+      this.retention = retention;
+      this.segments = new AtomicReferenceArray<>(numSegments);
+      this.nextTrim = new AtomicLong(timeService.wallClockTime() + CLOCK_SKEW_MARGIN);
+   }
+
+   /**
+    * The changes are only needed when the restarted node keeps its entries: the stores must be private, persistent and
+    * written synchronously, and the node must be able to persist its watermark in the global state.
+    */
+   static boolean isEnabled(GlobalConfiguration globalConfiguration, Configuration configuration) {
+      if (!globalConfiguration.globalState().enabled() ||
+            !configuration.clustering().cacheMode().needsStateTransfer() ||
+            !configuration.clustering().stateTransfer().fetchInMemoryState() ||
+            configuration.clustering().stateTransfer().incrementalRetention() <= 0) {
+         return false;
+      }
+      PersistenceConfiguration persistence = configuration.persistence();
+      if (!persistence.usingStores() || persistence.passivation() || persistence.usingAsyncStore()) {
+         return false;
+      }
+      for (StoreConfiguration store : persistence.stores()) {
+         if (store.shared() || store.purgeOnStartup() || store.ignoreModifications()) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   void start(IntSet segmentIds) {
+      long now = timeService.wallClockTime();
+      for (PrimitiveIterator.OfInt iter = segmentIds.iterator(); iter.hasNext(); ) {
+         segments.compareAndSet(iter.nextInt(), null, new Segment(now));
+      }
+   }
+
+   void stop(IntSet segmentIds) {
+      for (PrimitiveIterator.OfInt iter = segmentIds.iterator(); iter.hasNext(); ) {
+         segments.set(iter.nextInt(), null);
+      }
+   }
+
+   void restart() {
+      long now = timeService.wallClockTime();
+      for (int i = 0; i < segments.length(); i++) {
+         Segment segment = segments.get(i);
+         if (segment != null) {
+            segment.restart(now);
+         }
+      }
+   }
+
+   void record(int segmentId, Object key) {
+      Segment segment = segments.get(segmentId);
+      if (segment != null) {
+         long now = timeService.wallClockTime();
+         segment.changes.put(key, now);
+         if (segment.changes.size() > MAX_KEYS) {
+            segment.restart(now);
+         }
+         trim(now);
+      }
+   }
+
+   /**
+    * Discards the changes older than the retention period, in all the segments, so that the segments that are no
+    * longer written do not keep their keys forever.
+    */
+   private void trim(long now) {
+      long next = nextTrim.get();
+      if (now < next || !nextTrim.compareAndSet(next, now + CLOCK_SKEW_MARGIN))
+         return;
+
+      long watermark = now - retention;
+      for (int i = 0; i < segments.length(); i++) {
+         Segment segment = segments.get(i);
+         if (segment != null) {
+            segment.trim(watermark);
+         }
+      }
+   }
+
+   /**
+    * @return the keys changed in the segment since the given time, or {@code null} if the log does not go back that far
+    */
+   List<Object> changedKeys(int segmentId, long since) {
+      Segment segment = segments.get(segmentId);
+      if (segment == null || segment.start > since || since < timeService.wallClockTime() - retention) {
+         return null;
+      }
+      List<Object> keys = new ArrayList<>();
+      for (Map.Entry<Object, Long> change : segment.changes.entrySet()) {
+         if (change.getValue() >= since) {
+            keys.add(change.getKey());
+         }
+      }
+      // The log may have been restarted while iterating, dropping some of the keys
+      return segment.start > since ? null : keys;
+   }
+
+   private static final class Segment {
+      final Map<Object, Long> changes = new ConcurrentHashMap<>();
+      volatile long start;
+
+      Segment(long start) {
+         this.start = start;
+      }
+
+      void restart(long now) {
+         // Move the start first, the readers check it again after reading the changes
+         if (start < now) {
+            start = now;
+         }
+         changes.values().removeIf(time -> time <= now);
+      }
+
+      void trim(long watermark) {
+         if (start < watermark) {
+            start = watermark;
+         }
+         changes.values().removeIf(time -> time < watermark);
+      }
+   }
+}
@@ -1,5 +1,6 @@
 package org.infinispan.statetransfer;
 
+import java.util.Collections;
 import java.util.List;
 
 import org.infinispan.commons.marshall.ProtoStreamTypeIds;
@@ -36,18 +37,49 @@ public class StateChunk {
     */
    final List<InternalCacheEntry<?, ?>> cacheEntries;
 
+   /**
+    * The entries of the segment as serialized by the stores of the sender, see {@link StoreRecords}. When present,
+    * {@link #cacheEntries} is empty.
+    */
+   @ProtoField(4)
+   final byte[] storeRecords;
+
+   /**
+    * The keys removed since the receiver left the cluster, when the receiver only requested the changed entries.
+    */
+   final List<Object> removedKeys;
+
 
    @ProtoFactory
-   StateChunk(int segmentId, boolean isLastChunk, MarshallableList<InternalCacheEntry<?, ?>> entries) {
+   StateChunk(int segmentId, boolean isLastChunk, MarshallableList<InternalCacheEntry<?, ?>> entries,
+              byte[] storeRecords, MarshallableList<Object> wrappedRemovedKeys) {
       this.segmentId = segmentId;
       this.isLastChunk = isLastChunk;
       this.cacheEntries = MarshallableList.unwrap(entries);
+      this.storeRecords = storeRecords;
+      List<Object> removedKeys = MarshallableList.unwrap(wrappedRemovedKeys);
+      this.removedKeys = removedKeys != null ? removedKeys : Collections.emptyList();
    }
 
    public StateChunk(int segmentId, List<InternalCacheEntry<?, ?>> cacheEntries, boolean isLastChunk) {
+      this(segmentId, cacheEntries, Collections.emptyList(), isLastChunk);
+   }
+
+   public StateChunk(int segmentId, List<InternalCacheEntry<?, ?>> cacheEntries, List<Object> removedKeys,
+                     boolean isLastChunk) {
       this.segmentId = segmentId;
       this.cacheEntries = cacheEntries;
       this.isLastChunk = isLastChunk;
+      this.storeRecords = null;
+      this.removedKeys = removedKeys;
+   }
+
+   public StateChunk(int segmentId, byte[] storeRecords, boolean isLastChunk) {
+      this.segmentId = segmentId;
+      this.cacheEntries = Collections.emptyList();
+      this.isLastChunk = isLastChunk;
+      this.storeRecords = storeRecords;
+      this.removedKeys = Collections.emptyList();
    }
 
    public int getSegmentId() {
@@ -58,6 +90,18 @@ public int getSegmentId() {
       return cacheEntries;
    }
 
+   /**
+    * @return the entries of the segment as serialized by the stores of the sender, or {@code null} if the entries
+    * were sent as {@link #getCacheEntries()}
+    */
+   public byte[] getStoreRecords() {
+      return storeRecords;
+   }
+
+   public List<Object> getRemovedKeys() {
+      return removedKeys;
+   }
+
    public boolean isLastChunk() {
       return isLastChunk;
    }
@@ -67,11 +111,18 @@ public boolean isLastChunk() {
       return MarshallableList.create(cacheEntries);
    }
 
+   @ProtoField(5)
+   MarshallableList<Object> getWrappedRemovedKeys() {
+      return removedKeys.isEmpty() ? null : MarshallableList.create(removedKeys);
+   }
+
    @Override
    public String toString() {
       return "StateChunk{" +
             "segmentId=" + segmentId +
             ", cacheEntries=" + cacheEntries.size() +
+            (removedKeys.isEmpty() ? "" : ", removedKeys=" + removedKeys.size()) +
+            (storeRecords != null ? ", storeRecords=" + storeRecords.length + " bytes" : "") +
             ", isLastChunk=" + isLastChunk +
             '}';
    }
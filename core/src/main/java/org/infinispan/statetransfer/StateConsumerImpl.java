@@ -25,8 +25,10 @@
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.PrimitiveIterator;
 import java.util.Set;
+import java.util.StringJoiner;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
@@ -48,6 +50,7 @@
 import org.infinispan.commands.write.InvalidateCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commons.IllegalLifecycleStateException;
+import org.infinispan.commons.io.ByteBufferFactory;
 import org.infinispan.commons.time.TimeService;
 import org.infinispan.commons.util.EnumUtil;
 import org.infinispan.commons.util.IntSet;
@@ -58,9 +61,11 @@
 import org.infinispan.commons.util.concurrent.CompletionStages;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.Configurations;
+import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.conflict.impl.InternalConflictManager;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.container.impl.InternalDataContainer;
+import org.infinispan.container.impl.InternalEntryFactory;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.InvocationContextFactory;
 import org.infinispan.context.impl.FlagBitSets;
@@ -78,12 +83,18 @@
 import org.infinispan.factories.impl.ComponentRef;
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.globalstate.GlobalStateManager;
+import org.infinispan.globalstate.ScopedPersistentState;
+import org.infinispan.globalstate.impl.ScopedPersistentStateImpl;
 import org.infinispan.interceptors.AsyncInterceptorChain;
 import org.infinispan.metadata.impl.InternalMetadataImpl;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
 import org.infinispan.notifications.cachelistener.annotation.DataRehashed;
 import org.infinispan.notifications.cachelistener.cluster.ClusterListenerReplicateCallable;
+import org.infinispan.persistence.internal.PersistenceUtil;
 import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.persistence.spi.MarshallableEntry;
+import org.infinispan.persistence.spi.MarshallableEntryFactory;
 import org.infinispan.reactive.publisher.impl.LocalPublisherManager;
 import org.infinispan.remoting.inboundhandler.DeliverOrder;
 import org.infinispan.remoting.inboundhandler.PerCacheInboundInvocationHandler;
@@ -133,6 +144,10 @@ public class StateConsumerImpl implements StateConsumer {
                                                                         SKIP_INDEX_CLEANUP);
    protected static final long INVALIDATE_FLAGS = STATE_TRANSFER_FLAGS & ~FlagBitSets.PUT_FOR_STATE_TRANSFER;
    public static final String NO_KEY = "N/A";
+   private static final String WATERMARK_SCOPE_SUFFIX = "___watermark";
+   private static final String WATERMARK = "watermark";
+   private static final String WATERMARK_SEGMENTS = "segments";
+   private static final String WATERMARK_NUM_SEGMENTS = "numSegments";
 
    @Inject protected ComponentRef<Cache<Object, Object>> cache;
    @Inject protected Configuration configuration;
@@ -142,6 +157,9 @@ public class StateConsumerImpl implements StateConsumer {
    @Inject protected TransactionTable transactionTable;       // optional
    @Inject protected InternalDataContainer<Object, Object> dataContainer;
    @Inject protected PersistenceManager persistenceManager;
+   @Inject protected MarshallableEntryFactory<Object, Object> marshallableEntryFactory;
+   @Inject protected ByteBufferFactory byteBufferFactory;
+   @Inject protected InternalEntryFactory entryFactory;
    @Inject protected AsyncInterceptorChain interceptorChain;
    @Inject protected InvocationContextFactory icf;
    @Inject protected StateTransferLock stateTransferLock;
@@ -159,6 +177,8 @@ public class StateConsumerImpl implements StateConsumer {
    @Inject @ComponentName(TIMEOUT_SCHEDULE_EXECUTOR)
    ScheduledExecutorService timeoutExecutor;
    @Inject TimeService timeService;
+   @Inject GlobalConfiguration globalConfiguration;
+   @Inject GlobalStateManager globalStateManager; // optional
 
    protected String cacheName;
    protected long timeout;
@@ -225,6 +245,13 @@ public class StateConsumerImpl implements StateConsumer {
    private volatile boolean running;
    private int numSegments;
 
+   /**
+    * The wall clock time when the local node stopped, if it restarted with the entries of {@link #watermarkSegments} in
+    * its stores. The changes of those segments are requested instead of the whole segments.
+    */
+   private long watermark = -1;
+   private IntSet watermarkSegments;
+
    public StateConsumerImpl() {
    }
 
@@ -345,6 +372,7 @@ public CompletionStage<CompletionStage<Void>> onTopologyUpdate(CacheTopology cac
          if (!configuration.clustering().cacheMode().isInvalidation()) {
             // Owned segments
             dataContainer.addSegments(newWriteSegments);
+            commitManager.startChangeLog(newWriteSegments);
             // TODO Should we throw an exception if addSegments() returns false?
             return ignoreValue(persistenceManager.addSegments(newWriteSegments));
          }
@@ -692,14 +720,20 @@ private CompletionStage<Void> applyChunk(Address sender, IntSet mySegments, Stat
          transferMapsLock.unlock();
       }
       if (inboundTransfer != null) {
-         return doApplyState(sender, stateChunk.getSegmentId(), stateChunk.getCacheEntries())
-                   .thenAccept(v -> {
-                      boolean lastChunk = stateChunk.isLastChunk();
-                      inboundTransfer.onStateReceived(stateChunk.getSegmentId(), lastChunk);
-                      if (lastChunk) {
-                         onCompletedSegment(stateChunk.getSegmentId(), inboundTransfer);
-                      }
-                   });
+         CompletionStage<?> applyStage = stateChunk.getStoreRecords() != null ?
+               applyStoreRecords(sender, stateChunk.getSegmentId(), stateChunk.getStoreRecords()) :
+               doApplyState(sender, stateChunk.getSegmentId(), stateChunk.getCacheEntries());
+         if (!stateChunk.getRemovedKeys().isEmpty()) {
+            applyStage = applyStage.thenCompose(v -> applyRemovedKeys(sender, stateChunk.getSegmentId(),
+                                                                      stateChunk.getRemovedKeys()));
+         }
+         return applyStage.thenAccept(v -> {
+            boolean lastChunk = stateChunk.isLastChunk();
+            inboundTransfer.onStateReceived(stateChunk.getSegmentId(), lastChunk);
+            if (lastChunk) {
+               onCompletedSegment(stateChunk.getSegmentId(), inboundTransfer);
+            }
+         });
       } else {
          if (cache.wired().getStatus().allowInvocations()) {
             log.ignoringUnsolicitedState(sender, stateChunk.getSegmentId(), cacheName);
@@ -779,6 +813,41 @@ private CompletionStage<?> doApplyState(Address sender, int segmentId,
       }
    }
 
+   private CompletionStage<?> applyStoreRecords(Address sender, int segmentId, byte[] storeRecords) {
+      List<MarshallableEntry<Object, Object>> entries =
+            StoreRecords.read(storeRecords, marshallableEntryFactory, byteBufferFactory);
+      if (entries.isEmpty())
+         return CompletableFutures.completedNull();
+
+      if (!StoreRecords.isSupported(configuration, persistenceManager)) {
+         // The stores of this node cannot take the serialized entries, apply them to the cache instead
+         List<InternalCacheEntry<?, ?>> cacheEntries = new ArrayList<>(entries.size());
+         for (MarshallableEntry<Object, Object> entry : entries) {
+            cacheEntries.add(PersistenceUtil.convert(entry, entryFactory));
+         }
+         return doApplyState(sender, segmentId, cacheEntries);
+      }
+
+      if (log.isTraceEnabled()) log.tracef(
+            "Writing new state chunk for segment %d of cache %s from node %s to the stores: received %d entries",
+            segmentId, cacheName, sender, entries.size());
+
+      return commitManager.commitToStores(entries, PUT_FOR_STATE_TRANSFER, segmentId)
+            .exceptionally(t -> {
+               logApplyException(t, NO_KEY);
+               return null;
+            });
+   }
+
+   private CompletionStage<Void> applyRemovedKeys(Address sender, int segmentId, Collection<Object> removedKeys) {
+      if (log.isTraceEnabled()) log.tracef(
+            "Removing keys of segment %d of cache %s removed on node %s since this node stopped: %d keys",
+            segmentId, cacheName, sender, removedKeys.size());
+
+      // The keys updated since the state transfer started are not removed, the same as the received entries
+      return invalidateKeys(removedKeys, STATE_TRANSFER_FLAGS);
+   }
+
    private CompletionStage<?> invoke1PCPrepare(LocalTransaction localTransaction) {
       PrepareCommand prepareCommand;
       if (Configurations.isTxVersioned(configuration)) {
@@ -863,12 +932,72 @@ public void start() {
       rpcOptions = new RpcOptions(DeliverOrder.NONE, timeout, TimeUnit.MILLISECONDS);
 
       requestedTransactionalSegments = IntSets.concurrentSet(numSegments);
+      watermarkSegments = IntSets.concurrentSet(numSegments);
+      readWatermark();
 
       stateRequestExecutor = new LimitedExecutor("StateRequest-" + cacheName, nonBlockingExecutor, 1);
       progressTracker = new ProgressTracker("state-transfer-" + cacheName, timeoutExecutor, timeService, Math.min(30_000L, timeout >> 2), TimeUnit.MILLISECONDS);
       running = true;
    }
 
+   private boolean isWatermarkEnabled() {
+      return globalStateManager != null && SegmentChangeLog.isEnabled(globalConfiguration, configuration);
+   }
+
+   private void readWatermark() {
+      if (!isWatermarkEnabled())
+         return;
+
+      String scope = cacheName + WATERMARK_SCOPE_SUFFIX;
+      Optional<ScopedPersistentState> state = globalStateManager.readScopedState(scope);
+      if (state.isEmpty())
+         return;
+
+      // The stores may be modified from now on without updating the watermark
+      globalStateManager.deleteScopedState(scope);
+      // If the cache state was persisted on shutdown, the stores are either recovered as they are or cleared
+      if (globalStateManager.readScopedState(cacheName).isPresent())
+         return;
+
+      ScopedPersistentState watermarkState = state.get();
+      if (watermarkState.getIntProperty(WATERMARK_NUM_SEGMENTS) != numSegments)
+         return;
+
+      String segments = watermarkState.getProperty(WATERMARK_SEGMENTS);
+      if (!segments.isEmpty()) {
+         for (String segment : segments.split(",")) {
+            watermarkSegments.set(Integer.parseInt(segment));
+         }
+      }
+      watermark = Long.parseLong(watermarkState.getProperty(WATERMARK));
+      log.debugf("Cache %s stopped at %d with the entries of segments %s, requesting only the changes since then",
+                 cacheName, watermark, watermarkSegments);
+   }
+
+   private void writeWatermark() {
+      CacheTopology cacheTopology = this.cacheTopology;
+      if (!isWatermarkEnabled() || cacheTopology == null ||
+            !cacheTopology.getCurrentCH().getMembers().contains(rpcManager.getAddress()))
+         return;
+
+      // The segments with an inbound transfer in progress are not complete in the stores
+      IntSet segments = IntSets.mutableCopyFrom(getOwnedSegments(cacheTopology.getCurrentCH()));
+      transferMapsLock.lock();
+      try {
+         segments.removeAll(transfersBySegment.keySet());
+      } finally {
+         transferMapsLock.unlock();
+      }
+      StringJoiner segmentsProperty = new StringJoiner(",");
+      segments.forEach((int segment) -> segmentsProperty.add(String.valueOf(segment)));
+
+      ScopedPersistentState state = new ScopedPersistentStateImpl(cacheName + WATERMARK_SCOPE_SUFFIX);
+      state.setProperty(WATERMARK, String.valueOf(timeService.wallClockTime()));
+      state.setProperty(WATERMARK_NUM_SEGMENTS, numSegments);
+      state.setProperty(WATERMARK_SEGMENTS, segmentsProperty.toString());
+      globalStateManager.writeScopedState(state);
+   }
+
    private boolean isFetchEnabled() {
       return configuration.clustering().cacheMode().needsStateTransfer() &&
             configuration.clustering().stateTransfer().fetchInMemoryState();
@@ -883,6 +1012,8 @@ public void stop() {
       running = false;
 
       try {
+         writeWatermark();
+
          transferMapsLock.lock();
          try {
             // cancel all inbound transfers
@@ -1153,6 +1284,9 @@ protected CompletionStage<Void> removeStaleData(final IntSet removedSegments) {
          return CompletableFutures.completedNull();
       }
       log.debugf("Removing no longer owned entries for cache %s", cacheName);
+      commitManager.stopChangeLog(removedSegments);
+      // The entries of the removed segments are no longer in the stores
+      watermarkSegments.removeAll(removedSegments);
       if (keyInvalidationListener != null) {
          keyInvalidationListener.beforeInvalidation(removedSegments, IntSets.immutableEmptySet());
       }
@@ -1200,7 +1334,11 @@ private CompletionStage<Void> invalidateStaleEntries(IntSet removedSegments, Boo
    }
 
    protected CompletionStage<Void> invalidateBatch(Collection<Object> keysToRemove) {
-      InvalidateCommand invalidateCmd = commandsFactory.buildInvalidateCommand(INVALIDATE_FLAGS, keysToRemove.toArray());
+      return invalidateKeys(keysToRemove, INVALIDATE_FLAGS);
+   }
+
+   private CompletionStage<Void> invalidateKeys(Collection<Object> keysToRemove, long flags) {
+      InvalidateCommand invalidateCmd = commandsFactory.buildInvalidateCommand(flags, keysToRemove.toArray());
       InvocationContext ctx = icf.createNonTxInvocationContext();
       ctx.setLockOwner(invalidateCmd.getKeyLockOwner());
       return interceptorChain.invokeAsync(ctx, invalidateCmd)
@@ -1259,6 +1397,7 @@ private int getSegment(Object key) {
 
    private void addTransfer(Address source, IntSet segmentsFromSource) {
       final InboundTransferTask inboundTransfer;
+      final InboundTransferTask incrementalTransfer;
 
       transferMapsLock.lock();
       try {
@@ -1273,17 +1412,44 @@ private void addTransfer(Address source, IntSet segmentsFromSource) {
             return;
          }
 
-         inboundTransfer = new InboundTransferTask(segmentsFromSource, source, cacheTopology.getTopologyId(),
-                                                   rpcManager, commandsFactory, timeout, cacheName, true);
-         addTransfer(inboundTransfer, segmentsFromSource);
+         // Only request the changes of the segments this node still has in its stores
+         IntSet changedSegments = IntSets.mutableEmptySet(numSegments);
+         if (watermark >= 0) {
+            changedSegments.addAll(segmentsFromSource);
+            changedSegments.retainAll(watermarkSegments);
+            segmentsFromSource.removeAll(changedSegments);
+         }
+         incrementalTransfer = changedSegments.isEmpty() ? null :
+               new InboundTransferTask(changedSegments, source, cacheTopology.getTopologyId(), rpcManager,
+                                       commandsFactory, timeout, cacheName, true);
+         if (incrementalTransfer != null) {
+            addTransfer(incrementalTransfer, changedSegments);
+         }
+         inboundTransfer = segmentsFromSource.isEmpty() ? null :
+               new InboundTransferTask(segmentsFromSource, source, cacheTopology.getTopologyId(), rpcManager,
+                                       commandsFactory, timeout, cacheName, true);
+         if (inboundTransfer != null) {
+            addTransfer(inboundTransfer, segmentsFromSource);
+         }
       } finally {
          transferMapsLock.unlock();
       }
 
-      stateRequestExecutor.executeAsync(() -> {
-         CompletionStage<Void> transferStarted = inboundTransfer.requestSegments();
-         return transferStarted.whenComplete((aVoid, throwable) -> onTaskCompletion(inboundTransfer));
-      });
+      // The providers only send the entries as serialized by their stores if this node can write them to its stores
+      boolean storeRecords = StoreRecords.isSupported(configuration, persistenceManager);
+      if (incrementalTransfer != null) {
+         long watermark = this.watermark;
+         stateRequestExecutor.executeAsync(() -> {
+            CompletionStage<Void> transferStarted = incrementalTransfer.requestChanges(watermark, storeRecords);
+            return transferStarted.whenComplete((aVoid, throwable) -> onTaskCompletion(incrementalTransfer));
+         });
+      }
+      if (inboundTransfer != null) {
+         stateRequestExecutor.executeAsync(() -> {
+            CompletionStage<Void> transferStarted = inboundTransfer.requestSegments(storeRecords);
+            return transferStarted.whenComplete((aVoid, throwable) -> onTaskCompletion(inboundTransfer));
+         });
+      }
    }
 
    @GuardedBy("transferMapsLock")
@@ -56,7 +56,53 @@ public interface StateProvider {
     * @param segments
     * @param applyState
     */
-   void startOutboundTransfer(Address destination, int topologyId, IntSet segments, boolean applyState);
+   default void startOutboundTransfer(Address destination, int topologyId, IntSet segments, boolean applyState) {
+      startOutboundTransfer(destination, topologyId, segments, applyState, false);
+   }
+
+   /**
+    * Start to send cache entries that belong to the given set of segments. This is invoked in response to a
+    * {@link org.infinispan.commands.statetransfer.StateTransferStartCommand}.
+    *
+    * @param destination the address of the requester
+    * @param topologyId the topology id of the request
+    * @param segments the segments of the entries to send
+    * @param applyState whether the destination applies the entries to its cache
+    * @param storeRecords whether the destination can write the entries as serialized by the local stores directly to
+    *                     its own stores
+    */
+   void startOutboundTransfer(Address destination, int topologyId, IntSet segments, boolean applyState,
+                              boolean storeRecords);
+
+   /**
+    * Start to send the cache entries that belong to the given set of segments and whose keys map to the given
+    * {@link org.infinispan.container.impl.SegmentDigest} buckets, to be processed by the {@link StateReceiver} of the
+    * destination. This is invoked in response to a
+    * {@link org.infinispan.commands.statetransfer.ConflictResolutionStartCommand} for the buckets whose digests differ
+    * between the owners.
+    *
+    * @param destination the address of the requester
+    * @param topologyId the topology id of the request
+    * @param segments the segments of the entries to send
+    * @param buckets the buckets of the entries to send
+    */
+   void startConflictResolutionTransfer(Address destination, int topologyId, IntSet segments, IntSet buckets);
+
+   /**
+    * Start to send the cache entries of the given segments that changed since the destination left the cluster, and
+    * the keys that were removed since then. This is invoked in response to a
+    * {@link org.infinispan.commands.statetransfer.StateTransferStartCommand} from a node that restarted with the
+    * entries of the segments in its stores. The segments whose changes are not known locally are sent in full.
+    *
+    * @param destination the address of the requester
+    * @param topologyId the topology id of the request
+    * @param segments the segments of the entries to send
+    * @param watermark the wall clock time when the destination stopped
+    * @param storeRecords whether the destination can write the entries of the segments sent in full as serialized by
+    *                     the local stores directly to its own stores
+    */
+   void startIncrementalTransfer(Address destination, int topologyId, IntSet segments, long watermark,
+                                 boolean storeRecords);
 
    /**
     * Cancel sending of cache entries that belong to the given set of segments. This is invoked in response to a
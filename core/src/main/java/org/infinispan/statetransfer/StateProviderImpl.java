@@ -3,6 +3,7 @@
 import static org.infinispan.context.Flag.STATE_TRANSFER_PROGRESS;
 import static org.infinispan.util.logging.Log.CLUSTER;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -11,6 +12,7 @@
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.PrimitiveIterator;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
@@ -27,6 +29,7 @@
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.container.impl.InternalDataContainer;
 import org.infinispan.container.impl.InternalEntryFactory;
+import org.infinispan.container.impl.SegmentDigest;
 import org.infinispan.distribution.DistributionManager;
 import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.distribution.ch.KeyPartitioner;
@@ -55,8 +58,10 @@
 import org.infinispan.transaction.xa.GlobalTransaction;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
+import org.reactivestreams.Publisher;
 
 import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Single;
 
 /**
  * {@link StateProvider} implementation.
@@ -84,6 +89,8 @@ public class StateProviderImpl implements StateProvider {
    @Inject protected DistributionManager distributionManager;
    @Inject protected TransactionOriginatorChecker transactionOriginatorChecker;
    @Inject protected LocalPublisherManager<?, ?> localPublisherManager;
+   @Inject protected CommitManager commitManager;
+   @Inject protected StateTransferThrottle throttle;
    @ComponentName(KnownComponentNames.TIMEOUT_SCHEDULE_EXECUTOR)
    @Inject ScheduledExecutorService timeoutExecutor;
 
@@ -282,25 +289,132 @@ private void collectTransactionsToTransfer(Address destination,
    }
 
    @Override
-   public void startOutboundTransfer(Address destination, int requestTopologyId, IntSet segments, boolean applyState) {
+   public void startOutboundTransfer(Address destination, int requestTopologyId, IntSet segments, boolean applyState,
+                                     boolean storeRecords) {
       if (log.isTraceEnabled()) {
-         log.tracef("Starting outbound transfer to node %s for cache %s, topology id %d, segments %s", destination,
-                    cacheName, requestTopologyId, segments);
+         log.tracef("Starting outbound transfer to node %s for cache %s, topology id %d, segments %s, store records %s",
+                    destination, cacheName, requestTopologyId, segments, storeRecords);
       }
 
+      OutboundTransferTask outboundTransfer = createTransfer(destination, requestTopologyId, segments, applyState);
+      CompletionStage<Void> transferStage;
+      // Only send the entries as serialized by the stores when the destination can write them to its stores as well
+      if (applyState && storeRecords && isSegmentTransferEnabled()) {
+         transferStage = outboundTransfer.executeSegmentTransfer(this::readStoreEntries);
+      } else {
+         transferStage = outboundTransfer.execute(readEntries(segments));
+      }
+      onTransferStarted(outboundTransfer, transferStage);
+   }
+
+   @Override
+   public void startConflictResolutionTransfer(Address destination, int requestTopologyId, IntSet segments,
+                                               IntSet buckets) {
+      if (log.isTraceEnabled()) {
+         log.tracef("Starting conflict resolution transfer to node %s for cache %s, topology id %d, segments %s, " +
+                    "buckets %s", destination, cacheName, requestTopologyId, segments, buckets);
+      }
+
+      OutboundTransferTask outboundTransfer = createTransfer(destination, requestTopologyId, segments, false);
+      Flowable<SegmentPublisherSupplier.Notification<InternalCacheEntry<?, ?>>> entries = readEntries(segments)
+            .filter(notification -> !notification.isValue() ||
+                  buckets.contains(SegmentDigest.bucket(notification.value().getKey())));
+      onTransferStarted(outboundTransfer, outboundTransfer.execute(entries));
+   }
+
+   @Override
+   public void startIncrementalTransfer(Address destination, int requestTopologyId, IntSet segments, long watermark,
+                                        boolean storeRecords) {
+      if (log.isTraceEnabled()) {
+         log.tracef("Starting incremental outbound transfer to node %s for cache %s, topology id %d, segments %s, " +
+                    "watermark %d", destination, cacheName, requestTopologyId, segments, watermark);
+      }
+
+      int numSegments = configuration.clustering().hash().numSegments();
+      long since = watermark - SegmentChangeLog.CLOCK_SKEW_MARGIN;
+      Map<Integer, List<Object>> changedKeys = new HashMap<>();
+      IntSet changedSegments = IntSets.mutableEmptySet(numSegments);
+      IntSet fullSegments = IntSets.mutableEmptySet(numSegments);
+      for (PrimitiveIterator.OfInt iter = segments.iterator(); iter.hasNext(); ) {
+         int segment = iter.nextInt();
+         List<Object> keys = isIncrementalTransferEnabled() ? commitManager.changedKeys(segment, since) : null;
+         if (keys != null) {
+            changedKeys.put(segment, keys);
+            changedSegments.set(segment);
+         } else {
+            fullSegments.set(segment);
+         }
+      }
+      if (log.isTraceEnabled()) {
+         log.tracef("Sending the changes of segments %s and the whole segments %s", changedSegments, fullSegments);
+      }
+
+      if (!changedSegments.isEmpty()) {
+         OutboundTransferTask outboundTransfer = createTransfer(destination, requestTopologyId, changedSegments, true);
+         onTransferStarted(outboundTransfer,
+               outboundTransfer.executeIncremental(segment -> readChanges(segment, changedKeys.get(segment))));
+      }
+      if (!fullSegments.isEmpty()) {
+         startOutboundTransfer(destination, requestTopologyId, fullSegments, true, storeRecords);
+      }
+   }
+
+   private OutboundTransferTask createTransfer(Address destination, int requestTopologyId, IntSet segments,
+                                               boolean applyState) {
       // the destination node must already have an InboundTransferTask waiting for these segments
+      // Without limits, the chunks are sent without estimating their size
       OutboundTransferTask outboundTransfer =
          new OutboundTransferTask(destination, segments, this.configuration.clustering().hash().numSegments(),
                                   chunkSize, requestTopologyId, chunks -> {}, rpcManager,
-                                  commandsFactory, timeout, cacheName, applyState);
+                                  commandsFactory, timeout, cacheName, applyState,
+                                  throttle.isEnabled() ? throttle : null);
       addTransfer(outboundTransfer);
-      outboundTransfer.execute(readEntries(segments))
-                      .whenComplete((ignored, throwable) -> {
-                         if (throwable != null) {
-                            logError(outboundTransfer, throwable);
-                         }
-                         onTaskCompletion(outboundTransfer);
-                      });
+      return outboundTransfer;
+   }
+
+   private void onTransferStarted(OutboundTransferTask outboundTransfer, CompletionStage<Void> transferStage) {
+      transferStage.whenComplete((ignored, throwable) -> {
+         if (throwable != null) {
+            logError(outboundTransfer, throwable);
+         }
+         onTaskCompletion(outboundTransfer);
+      });
+   }
+
+   /**
+    * Whether the segments are sent as serialized by the stores instead of reading the entries through the data
+    * container, see {@link PersistenceManager#isSegmentTransferSupported()}.
+    */
+   protected boolean isSegmentTransferEnabled() {
+      return StoreRecords.isSupported(configuration, persistenceManager);
+   }
+
+   /**
+    * Whether the segments can be sent as the entries that changed since the destination left the cluster, see
+    * {@link CommitManager#changedKeys(int, long)}.
+    */
+   protected boolean isIncrementalTransferEnabled() {
+      return true;
+   }
+
+   protected Publisher<Map.Entry<Object, InternalCacheEntry<?, ?>>> readChanges(int segment, List<Object> keys) {
+      return Flowable.fromIterable(keys)
+            .concatMapSingle(key -> Single.fromCompletionStage(readChange(segment, key)));
+   }
+
+   private CompletionStage<Map.Entry<Object, InternalCacheEntry<?, ?>>> readChange(int segment, Object key) {
+      InternalCacheEntry<Object, Object> entry = dataContainer.peek(segment, key);
+      if (entry != null || persistenceManager == null) {
+         return CompletableFuture.completedFuture(new AbstractMap.SimpleImmutableEntry<>(key, entry));
+      }
+      // A null entry means the key was removed
+      return persistenceManager.<Object, Object>loadFromAllStores(key, segment, true, true)
+            .thenApply(me -> new AbstractMap.SimpleImmutableEntry<>(key, me != null ? defaultMapEntryFromStore(me) : null));
+   }
+
+   protected Publisher<MarshallableEntry<Object, Object>> readStoreEntries(int segment) {
+      return persistenceManager.publishEntries(IntSets.immutableSet(segment), null, true, true,
+            PersistenceManager.AccessMode.PRIVATE);
    }
 
    protected Flowable<SegmentPublisherSupplier.Notification<InternalCacheEntry<?, ?>>> readEntries(IntSet segments) {
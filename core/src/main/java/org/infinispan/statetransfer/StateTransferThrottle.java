@@ -0,0 +1,348 @@
+package org.infinispan.statetransfer;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.commons.marshall.WrappedBytes;
+import org.infinispan.commons.time.TimeService;
+import org.infinispan.commons.util.concurrent.CompletableFutures;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.StateTransferConfiguration;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.factories.annotations.ComponentName;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
+import org.infinispan.marshall.persistence.PersistenceMarshaller;
+
+/**
+ * Paces the chunks sent by the {@link OutboundTransferTask}s of a cache and tracks their progress.
+ * <p>
+ * All the outbound transfers of the cache take the estimated size of their chunks from a token bucket refilled at
+ * {@link StateTransferConfiguration#maxBandwidth()} bytes per second, holding at most one second worth of bytes. A
+ * chunk larger than the available bytes is still sent once the previous chunks are paid for, leaving the bucket in
+ * debt, so the chunks never wait for more than their own size.
+ * <p>
+ * With {@link StateTransferConfiguration#backoffLatency()}, the bandwidth also follows the moving average of the time
+ * it takes the destination to acknowledge a chunk: the bandwidth is halved when the average exceeds the threshold,
+ * and it grows again by a quarter while the average is below half the threshold, until it reaches the configured
+ * maximum. The bandwidth is changed at most once per threshold interval, and never below {@link #MIN_BANDWIDTH}.
+ * <p>
+ * When none of the limits is configured, the transfers don't use the throttle at all, so they don't estimate the size
+ * of their chunks and the statistics are not updated.
+ *
+ * @since 16.0
+ */
+@MBean(objectName = "StateTransferThrottle", description = "Bandwidth, progress and throughput of the state sent to other nodes")
+@Scope(Scopes.NAMED_CACHE)
+public final class StateTransferThrottle {
+   /**
+    * The back-off never reduces the bandwidth below this many bytes per second, so the transfers always progress.
+    */
+   static final long MIN_BANDWIDTH = 64 * 1024;
+   /**
+    * Estimated size of the metadata of an entry and of its framing in the chunk.
+    */
+   static final int ENTRY_OVERHEAD = 32;
+   private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+   @Inject Configuration configuration;
+   @Inject TimeService timeService;
+   @Inject @ComponentName(KnownComponentNames.PERSISTENCE_MARSHALLER)
+   PersistenceMarshaller marshaller;
+   @Inject @ComponentName(KnownComponentNames.NON_BLOCKING_EXECUTOR)
+   Executor nonBlockingExecutor;
+
+   private final Set<OutboundTransferTask> transfers = ConcurrentHashMap.newKeySet();
+   private final LongAdder bytesSent = new LongAdder();
+   private final LongAdder entriesSent = new LongAdder();
+   private final LongAdder chunksSent = new LongAdder();
+   private final LongAdder segmentsSent = new LongAdder();
+   private final LongAdder backoffs = new LongAdder();
+   private final LongAdder throttledTime = new LongAdder();
+
+   private long chunkMaxBytes;
+   private long maxBandwidth;
+   private long backoffLatency;
+
+   // The bucket and the latency average are guarded by this
+   private volatile long bandwidth;
+   private double tokens;
+   private long lastRefill;
+   private long lastAdjustment;
+   private volatile long averageLatency;
+   private long intervalStart;
+   private long intervalBytes;
+   private volatile long throughput;
+
+   @Start
+   public void start() {
+      StateTransferConfiguration stateTransfer = configuration.clustering().stateTransfer();
+      chunkMaxBytes = stateTransfer.chunkMaxBytes();
+      maxBandwidth = stateTransfer.maxBandwidth() > 0 ? stateTransfer.maxBandwidth() : -1;
+      backoffLatency = TimeUnit.MILLISECONDS.toNanos(stateTransfer.backoffLatency());
+      synchronized (this) {
+         bandwidth = maxBandwidth;
+         tokens = Math.max(bandwidth, 0);
+         long now = timeService.time();
+         lastRefill = now;
+         lastAdjustment = now;
+         intervalStart = now;
+      }
+   }
+
+   /**
+    * @return {@code true} if the chunks are limited in bytes, or paced by the bandwidth or by the acknowledgement
+    * latency, {@code false} if the transfers don't need to estimate the size of their chunks
+    */
+   boolean isEnabled() {
+      return chunkMaxBytes > 0 || maxBandwidth > 0 || backoffLatency > 0;
+   }
+
+   /**
+    * @return the maximum estimated size of a chunk, or -1 or less if the chunks are only limited by the number of
+    * entries
+    */
+   long chunkMaxBytes() {
+      return chunkMaxBytes;
+   }
+
+   long estimateSize(StateChunk chunk) {
+      if (chunk.getStoreRecords() != null) {
+         return chunk.getStoreRecords().length;
+      }
+      long size = 0;
+      for (InternalCacheEntry<?, ?> entry : chunk.getCacheEntries()) {
+         size += estimateSize(entry);
+      }
+      for (Object key : chunk.getRemovedKeys()) {
+         size += estimateSize(key);
+      }
+      return size;
+   }
+
+   long estimateSize(InternalCacheEntry<?, ?> entry) {
+      return ENTRY_OVERHEAD + estimateSize(entry.getKey()) + estimateSize(entry.getValue());
+   }
+
+   long estimateSize(Object object) {
+      if (object == null) {
+         return 0;
+      } else if (object instanceof WrappedBytes) {
+         return ((WrappedBytes) object).getLength();
+      } else if (object instanceof byte[]) {
+         return ((byte[]) object).length;
+      } else if (object instanceof String) {
+         return utf8Length((String) object);
+      }
+      // The predictor adapts to the size of the instances of the class marshalled so far
+      return marshaller.sizeEstimate(object);
+   }
+
+   /**
+    * @return the length of the string encoded as UTF-8, without encoding it
+    */
+   static long utf8Length(String s) {
+      long length = 0;
+      for (int i = 0; i < s.length(); i++) {
+         char c = s.charAt(i);
+         if (c < 0x80) {
+            length++;
+         } else if (c < 0x800 || Character.isSurrogate(c)) {
+            // Each half of a surrogate pair counts for half of its 4 bytes
+            length += 2;
+         } else {
+            length += 3;
+         }
+      }
+      return length;
+   }
+
+   void transferStarted(OutboundTransferTask transfer) {
+      if (transfers.isEmpty()) {
+         synchronized (this) {
+            // Don't count the time without transfers in the throughput
+            intervalStart = timeService.time();
+            intervalBytes = 0;
+         }
+      }
+      transfers.add(transfer);
+   }
+
+   void transferCompleted(OutboundTransferTask transfer) {
+      transfers.remove(transfer);
+   }
+
+   /**
+    * Takes the bytes of a chunk from the bucket.
+    *
+    * @return a stage that completes when the chunk can be sent
+    */
+   CompletionStage<Void> acquire(long bytes) {
+      long delay;
+      synchronized (this) {
+         if (bandwidth <= 0) {
+            return CompletableFutures.completedNull();
+         }
+         refill(timeService.time());
+         tokens -= bytes;
+         if (tokens >= 0) {
+            return CompletableFutures.completedNull();
+         }
+         delay = (long) (-tokens * SECOND_NANOS / bandwidth);
+      }
+      throttledTime.add(delay);
+      return CompletableFuture.runAsync(() -> {},
+            CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS, nonBlockingExecutor));
+   }
+
+   /**
+    * @return the time a chunk is sent, to be passed to {@link #chunkSent(int, long, long)}
+    */
+   long startChunk() {
+      return timeService.time();
+   }
+
+   void chunkSent(int entries, long bytes, long startTime) {
+      long now = timeService.time();
+      bytesSent.add(bytes);
+      entriesSent.add(entries);
+      chunksSent.increment();
+      synchronized (this) {
+         intervalBytes += bytes;
+         if (now - intervalStart >= SECOND_NANOS) {
+            throughput = intervalBytes * SECOND_NANOS / (now - intervalStart);
+            intervalStart = now;
+            intervalBytes = 0;
+         }
+         if (backoffLatency > 0) {
+            long latency = now - startTime;
+            averageLatency = averageLatency == 0 ? latency : averageLatency + (latency - averageLatency) / 8;
+            adjustBandwidth(now);
+         }
+      }
+   }
+
+   void segmentSent() {
+      segmentsSent.increment();
+   }
+
+   private void adjustBandwidth(long now) {
+      if (now - lastAdjustment < backoffLatency) {
+         return;
+      }
+      if (averageLatency > backoffLatency) {
+         // Without a limit, start from the current throughput
+         long current = bandwidth > 0 ? bandwidth : currentThroughput(now);
+         setBandwidth(now, Math.max(current / 2, MIN_BANDWIDTH));
+         backoffs.increment();
+      } else if (averageLatency < backoffLatency / 2 && bandwidth > 0 && bandwidth != maxBandwidth) {
+         long increased = bandwidth + bandwidth / 4;
+         if (maxBandwidth > 0) {
+            setBandwidth(now, Math.min(increased, maxBandwidth));
+         } else {
+            // Remove the limit once the transfers no longer use the bandwidth they have
+            setBandwidth(now, increased > 2 * currentThroughput(now) ? -1 : increased);
+         }
+      }
+   }
+
+   private void setBandwidth(long now, long newBandwidth) {
+      if (bandwidth > 0) {
+         refill(now);
+      }
+      bandwidth = newBandwidth;
+      tokens = Math.min(tokens, Math.max(newBandwidth, 0));
+      lastAdjustment = now;
+   }
+
+   private void refill(long now) {
+      tokens = Math.min(bandwidth, tokens + (double) (now - lastRefill) * bandwidth / SECOND_NANOS);
+      lastRefill = now;
+   }
+
+   private long currentThroughput(long now) {
+      long elapsed = now - intervalStart;
+      return elapsed > 0 && intervalBytes > 0 ? intervalBytes * SECOND_NANOS / elapsed : throughput;
+   }
+
+   @ManagedAttribute(description = "Number of outbound transfers in progress", displayName = "Active transfers")
+   public int getActiveTransfers() {
+      return transfers.size();
+   }
+
+   @ManagedAttribute(description = "Number of segments that the outbound transfers in progress have not sent yet",
+         displayName = "Pending segments")
+   public int getPendingSegments() {
+      int pending = 0;
+      for (OutboundTransferTask transfer : transfers) {
+         pending += transfer.getPendingSegmentCount();
+      }
+      return pending;
+   }
+
+   @ManagedAttribute(description = "Number of segments sent to other nodes",
+         displayName = "Segments sent", measurementType = MeasurementType.TRENDSUP)
+   public long getSegmentsSent() {
+      return segmentsSent.sum();
+   }
+
+   @ManagedAttribute(description = "Number of chunks sent to other nodes",
+         displayName = "Chunks sent", measurementType = MeasurementType.TRENDSUP)
+   public long getChunksSent() {
+      return chunksSent.sum();
+   }
+
+   @ManagedAttribute(description = "Number of entries and removed keys sent to other nodes",
+         displayName = "Entries sent", measurementType = MeasurementType.TRENDSUP)
+   public long getEntriesSent() {
+      return entriesSent.sum();
+   }
+
+   @ManagedAttribute(description = "Estimated bytes sent to other nodes",
+         displayName = "Bytes sent", units = Units.BYTES, measurementType = MeasurementType.TRENDSUP)
+   public long getBytesSent() {
+      return bytesSent.sum();
+   }
+
+   @ManagedAttribute(description = "Estimated bytes per second sent to other nodes, 0 if no transfer is in progress",
+         displayName = "Throughput", units = Units.PER_SECOND)
+   public long getThroughput() {
+      return transfers.isEmpty() ? 0 : throughput;
+   }
+
+   @ManagedAttribute(description = "Current limit of the bytes per second sent to other nodes, -1 if unlimited",
+         displayName = "Bandwidth", units = Units.PER_SECOND)
+   public long getBandwidth() {
+      return bandwidth;
+   }
+
+   @ManagedAttribute(description = "Moving average of the time for the destination to acknowledge a chunk, only tracked with a back-off latency",
+         displayName = "Average acknowledgement latency", units = Units.MILLISECONDS)
+   public long getAverageAcknowledgementLatency() {
+      return TimeUnit.NANOSECONDS.toMillis(averageLatency);
+   }
+
+   @ManagedAttribute(description = "Number of times the bandwidth was reduced because the acknowledgements were too slow",
+         displayName = "Back-offs", measurementType = MeasurementType.TRENDSUP)
+   public long getBackoffs() {
+      return backoffs.sum();
+   }
+
+   @ManagedAttribute(description = "Total time the chunks waited for the bandwidth limit",
+         displayName = "Throttled time", units = Units.MILLISECONDS, measurementType = MeasurementType.TRENDSUP)
+   public long getThrottledTime() {
+      return TimeUnit.NANOSECONDS.toMillis(throttledTime.sum());
+   }
+}
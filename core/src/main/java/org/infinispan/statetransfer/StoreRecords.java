@@ -0,0 +1,113 @@
+package org.infinispan.statetransfer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.io.ByteBufferFactory;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.persistence.spi.MarshallableEntry;
+import org.infinispan.persistence.spi.MarshallableEntryFactory;
+
+/**
+ * Serializes the entries of a segment as they are stored, so that state transfer can ship them in a {@link StateChunk}
+ * without unmarshalling the values and metadata.
+ * <p>
+ * Each record contains the lengths and bytes of the key, value, metadata and internal metadata, with a length of
+ * {@code -1} for a missing or empty one, followed by the created and last used timestamps.
+ *
+ * @since 16.0
+ */
+final class StoreRecords {
+   private static final int HEADER_SIZE = 4 * Integer.BYTES + 2 * Long.BYTES;
+
+   private StoreRecords() { }
+
+   /**
+    * Whether the entries of the segments can be sent as serialized by the stores and written directly to the stores
+    * of the receiving node, see {@link PersistenceManager#isSegmentTransferSupported()}.
+    */
+   static boolean isSupported(Configuration configuration, PersistenceManager persistenceManager) {
+      // Indexes and L1 entries are only updated when the received entries are applied to the cache
+      return persistenceManager != null && !configuration.indexing().enabled() &&
+            !configuration.clustering().l1().enabled() && persistenceManager.isSegmentTransferSupported();
+   }
+
+   static byte[] write(List<? extends MarshallableEntry<?, ?>> entries) {
+      int length = 0;
+      for (MarshallableEntry<?, ?> entry : entries) {
+         length += recordSize(entry);
+      }
+      java.nio.ByteBuffer buffer = java.nio.ByteBuffer.allocate(length);
+      for (MarshallableEntry<?, ?> entry : entries) {
+         writeBytes(buffer, entry.getKeyBytes());
+         writeBytes(buffer, entry.getValueBytes());
+         writeBytes(buffer, entry.getMetadataBytes());
+         writeBytes(buffer, entry.getInternalMetadataBytes());
+         buffer.putLong(entry.created());
+         buffer.putLong(entry.lastUsed());
+      }
+      return buffer.array();
+   }
+
+   static int recordSize(MarshallableEntry<?, ?> entry) {
+      return HEADER_SIZE + length(entry.getKeyBytes()) + length(entry.getValueBytes()) +
+            length(entry.getMetadataBytes()) + length(entry.getInternalMetadataBytes());
+   }
+
+   static <K, V> List<MarshallableEntry<K, V>> read(byte[] records, MarshallableEntryFactory<K, V> entryFactory,
+                                                     ByteBufferFactory byteBufferFactory) {
+      List<MarshallableEntry<K, V>> entries = new ArrayList<>();
+      java.nio.ByteBuffer buffer = java.nio.ByteBuffer.wrap(records);
+      while (buffer.hasRemaining()) {
+         ByteBuffer keyBytes = readBytes(buffer, records, byteBufferFactory);
+         ByteBuffer valueBytes = readBytes(buffer, records, byteBufferFactory);
+         ByteBuffer metadataBytes = readBytes(buffer, records, byteBufferFactory);
+         ByteBuffer internalMetadataBytes = readBytes(buffer, records, byteBufferFactory);
+         entries.add(entryFactory.create(keyBytes, valueBytes, metadataBytes, internalMetadataBytes, buffer.getLong(),
+               buffer.getLong()));
+      }
+      return entries;
+   }
+
+   static int count(byte[] records) {
+      int count = 0;
+      java.nio.ByteBuffer buffer = java.nio.ByteBuffer.wrap(records);
+      while (buffer.hasRemaining()) {
+         for (int i = 0; i < 4; i++) {
+            int length = buffer.getInt();
+            if (length > 0) {
+               buffer.position(buffer.position() + length);
+            }
+         }
+         buffer.position(buffer.position() + 2 * Long.BYTES);
+         count++;
+      }
+      return count;
+   }
+
+   private static int length(ByteBuffer bytes) {
+      return bytes == null ? 0 : bytes.getLength();
+   }
+
+   private static void writeBytes(java.nio.ByteBuffer buffer, ByteBuffer bytes) {
+      // Stores may return an empty buffer instead of null, e.g. for entries without metadata
+      if (bytes == null || bytes.getLength() == 0) {
+         buffer.putInt(-1);
+      } else {
+         buffer.putInt(bytes.getLength());
+         buffer.put(bytes.getBuf(), bytes.getOffset(), bytes.getLength());
+      }
+   }
+
+   private static ByteBuffer readBytes(java.nio.ByteBuffer buffer, byte[] bytes, ByteBufferFactory byteBufferFactory) {
+      int length = buffer.getInt();
+      if (length < 0) {
+         return null;
+      }
+      int offset = buffer.position();
+      buffer.position(offset + length);
+      return byteBufferFactory.newByteBuffer(bytes, offset, length);
+   }
+}
@@ -5,6 +5,8 @@
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.internal.CommonsBlockHoundIntegration;
 import org.infinispan.container.offheap.OffHeapConcurrentMap;
+import org.infinispan.container.offheap.OpenAddressingOffHeapMap;
+import org.infinispan.container.offheap.PooledOffHeapMemoryAllocator;
 import org.infinispan.container.offheap.SegmentedBoundedOffHeapDataContainer;
 import org.infinispan.executors.LimitedExecutor;
 import org.infinispan.expiration.impl.ClusterExpirationManager;
@@ -45,6 +47,8 @@ public void applyTo(BlockHound.Builder builder) {
       // Block designates methods that should only hold a lock very briefly
       {
          CommonsBlockHoundIntegration.allowPublicMethodsToBlock(builder, OffHeapConcurrentMap.class);
+         CommonsBlockHoundIntegration.allowPublicMethodsToBlock(builder, OpenAddressingOffHeapMap.class);
+         CommonsBlockHoundIntegration.allowPublicMethodsToBlock(builder, PooledOffHeapMemoryAllocator.class);
          // This acquires the lruLock and also OffHeapConcurrentMap stampedLocks when processing eviction
          builder.allowBlockingCallsInside(SegmentedBoundedOffHeapDataContainer.class.getName(), "ensureSize");
          CommonsBlockHoundIntegration.allowPublicMethodsToBlock(builder, StateTransferLockImpl.class);
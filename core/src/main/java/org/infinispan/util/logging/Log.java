@@ -35,6 +35,8 @@
 import org.infinispan.configuration.cache.BackupFailurePolicy;
 import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.OffHeapAllocatorType;
+import org.infinispan.configuration.cache.OffHeapTableType;
 import org.infinispan.container.versioning.EntryVersion;
 import org.infinispan.interceptors.impl.ContainerFullException;
 import org.infinispan.jmx.JmxDomainConflictException;
@@ -2431,4 +2433,36 @@ CacheConfigurationException storeConfiguredHasBothReadAndWriteOnly(String storeC
    @LogMessage(level = WARN)
    @Message(value = "Fallback to %s as required dependencies are not available", id = 714)
    void warnFallbackToNoOpMetrics(String clazz);
+
+   @Message(value = "Single file store compaction threshold (%f) should be between 0 (exclusively) and 1 (inclusively).", id = 715)
+   CacheConfigurationException invalidCompactionThreshold(float value);
+
+   @Message(value = "Single file store region size (%d) must be at least 1024 bytes", id = 716)
+   CacheConfigurationException invalidSingleFileStoreRegionSize(int value);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Compaction of the single file store of cache '%s' failed", id = 717)
+   void singleFileStoreCompactionFailed(String cacheName, @Cause Throwable t);
+
+   @Message(value = "Off-heap table type '%s' requires the OFF_HEAP storage", id = 718)
+   CacheConfigurationException offHeapTableTypeRequiresOffHeapStorage(OffHeapTableType tableType);
+
+   @Message(value = "Off-heap table type '%s' cannot be used with eviction, use the CHAINED table or the EXCEPTION strategy", id = 719)
+   CacheConfigurationException offHeapTableTypeNotSupportedWithEviction(OffHeapTableType tableType);
+
+   @Message(value = "Off-heap allocator type '%s' requires the OFF_HEAP storage", id = 720)
+   CacheConfigurationException offHeapAllocatorTypeRequiresOffHeapStorage(OffHeapAllocatorType allocatorType);
+
+   @Message(value = "Soft index file store group commit window (%d) must not be negative", id = 721)
+   CacheConfigurationException invalidGroupCommitWindow(long value);
+
+   @Message(value = "Soft index file store group commit size (%d) must be positive", id = 722)
+   CacheConfigurationException invalidGroupCommitSize(int value);
+
+   @Message(value = "Write-behind spill-to-disk requires a positive modification-queue-max-bytes", id = 723)
+   CacheConfigurationException spillToDiskRequiresModificationQueueMaxBytes();
+
+   @LogMessage(level = WARN)
+   @Message(value = "Unable to spill a write-behind modification to %s, it is kept in memory", id = 724)
+   void asyncStoreSpillFailed(Object path, @Cause Throwable t);
 }
@@ -36,6 +36,8 @@
 import org.infinispan.configuration.cache.IndexingMode;
 import org.infinispan.configuration.cache.IsolationLevel;
 import org.infinispan.configuration.cache.MemoryConfiguration;
+import org.infinispan.configuration.cache.OffHeapAllocatorType;
+import org.infinispan.configuration.cache.OffHeapTableType;
 import org.infinispan.configuration.cache.PartitionHandlingConfiguration;
 import org.infinispan.configuration.cache.PersistenceConfiguration;
 import org.infinispan.configuration.cache.QueryConfiguration;
@@ -114,6 +116,24 @@ public void testParseAndConstructUnifiedXmlFile(Path config) throws IOException
    }
 
    public enum ParserVersionCheck {
+      INFINISPAN_160(16, 0) {
+         @Override
+         public void check(ConfigurationBuilderHolder holder, int schemaMajor, int schemaMinor) {
+            MemoryConfiguration mc = getConfiguration(holder, "off_heap_no_eviction").memory();
+            assertEquals(OffHeapTableType.CHAINED, mc.tableType());
+
+            mc = getConfiguration(holder, "off_heap_open_addressing").memory();
+            assertEquals(StorageType.OFF_HEAP, mc.storage());
+            assertEquals(OffHeapTableType.OPEN_ADDRESSING, mc.tableType());
+
+            mc = getConfiguration(holder, "off_heap_eviction").memory();
+            assertEquals(OffHeapAllocatorType.UNPOOLED, mc.allocatorType());
+
+            mc = getConfiguration(holder, "off_heap_pooled").memory();
+            assertEquals(StorageType.OFF_HEAP, mc.storage());
+            assertEquals(OffHeapAllocatorType.POOLED, mc.allocatorType());
+         }
+      },
       INFINISPAN_151(15, 1) {
          @Override
          public void check(ConfigurationBuilderHolder holder, int schemaMajor, int schemaMinor) {
@@ -0,0 +1,102 @@
+package org.infinispan.conflict.impl;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.infinispan.Cache;
+import org.infinispan.commands.remote.CacheRpcCommand;
+import org.infinispan.commands.statetransfer.StateResponseCommand;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.conflict.ConflictManagerFactory;
+import org.infinispan.conflict.MergePolicy;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.container.impl.InternalDataContainer;
+import org.infinispan.container.impl.SegmentDigest;
+import org.infinispan.context.Flag;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.partitionhandling.PartitionHandling;
+import org.infinispan.remoting.inboundhandler.AbstractDelegatingHandler;
+import org.infinispan.remoting.inboundhandler.DeliverOrder;
+import org.infinispan.remoting.inboundhandler.Reply;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.statetransfer.StateChunk;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that conflict resolution only compares the entries of the {@link SegmentDigest} buckets that differ between
+ * the owners.
+ *
+ * @since 16.0
+ */
+@Test(groups = "functional", testName = "conflict.impl.SegmentDigestConflictTest")
+public class SegmentDigestConflictTest extends MultipleCacheManagersTest {
+   private static final int NUM_KEYS = 1000;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC);
+      builder.clustering().hash().numOwners(2)
+            .partitionHandling().whenSplit(PartitionHandling.ALLOW_READ_WRITES).mergePolicy(MergePolicy.PREFERRED_ALWAYS);
+      createClusteredCaches(2, builder);
+   }
+
+   public void testOnlyDifferingBucketsCompared() {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache(0).put("k" + i, "v" + i);
+      }
+      int segments = cache(0).getCacheConfiguration().clustering().hash().numSegments();
+      for (int segment = 0; segment < segments; segment++) {
+         assertEquals(digest(cache(0), segment).root(), digest(cache(1), segment).root());
+      }
+
+      String conflictKey = "k7";
+      cache(1).getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL).put(conflictKey, "conflict");
+      int conflictSegment = TestingUtil.extractComponent(cache(0), KeyPartitioner.class).getSegment(conflictKey);
+      assertTrue(digest(cache(0), conflictSegment).root() != digest(cache(1), conflictSegment).root());
+
+      AtomicInteger receivedEntries = new AtomicInteger();
+      TestingUtil.wrapInboundInvocationHandler(cache(0), handler -> new AbstractDelegatingHandler(handler) {
+         @Override
+         public void handle(CacheRpcCommand command, Reply reply, DeliverOrder order) {
+            if (command instanceof StateResponseCommand) {
+               for (StateChunk chunk : ((StateResponseCommand) command).getStateChunks()) {
+                  receivedEntries.addAndGet(chunk.getCacheEntries().size());
+               }
+            }
+            super.handle(command, reply, order);
+         }
+      });
+
+      List<Map<Address, CacheEntry<Object, Object>>> conflicts =
+            ConflictManagerFactory.get(cache(0).getAdvancedCache()).getConflicts().collect(Collectors.toList());
+      assertEquals(1, conflicts.size());
+      assertEquals(conflictKey, conflicts.get(0).values().iterator().next().getKey());
+      // Only the entries of the bucket of the conflicting key were sent by the other owner
+      assertTrue(receivedEntries.get() < NUM_KEYS / 10);
+   }
+
+   public void testValuesWithSameHashCodeDiffer() {
+      String key = "same-hash-code";
+      // "Aa" and "BB" have the same hash code
+      cache(0).getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL).put(key, "Aa");
+      cache(1).getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL).put(key, "BB");
+      int segment = TestingUtil.extractComponent(cache(0), KeyPartitioner.class).getSegment(key);
+      assertTrue(digest(cache(0), segment).root() != digest(cache(1), segment).root());
+      cache(0).remove(key);
+   }
+
+   private SegmentDigest digest(Cache<?, ?> cache, int segment) {
+      SegmentDigest digest = TestingUtil.extractComponent(cache, InternalDataContainer.class).segmentDigest(segment);
+      assertNotNull(digest);
+      return digest;
+   }
+}
@@ -0,0 +1,64 @@
+package org.infinispan.container.impl;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.time.ControlledTimeService;
+import org.infinispan.commons.time.TimeService;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the data container schedules the expiration of an entry again when a write changes its expiration time.
+ *
+ * @since 16.0
+ */
+@Test(groups = "functional", testName = "container.impl.ExpirationWheelDataContainerTest")
+public class ExpirationWheelDataContainerTest extends SingleCacheManagerTest {
+   private final ControlledTimeService timeService = new ControlledTimeService();
+
+   public ExpirationWheelDataContainerTest() {
+      cleanup = CleanupPhase.AFTER_METHOD;
+   }
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(new ConfigurationBuilder());
+      TestingUtil.replaceComponent(cm, TimeService.class, timeService, true);
+      return cm;
+   }
+
+   public void testShortenedLifespanIsRescheduled() {
+      InternalDataContainer<Object, Object> container = TestingUtil.extractComponent(cache, InternalDataContainer.class);
+      cache.put("shortened", "v1", 1, TimeUnit.DAYS);
+      // The update modifies the mortal entry in place
+      cache.put("shortened", "v2", 10, TimeUnit.SECONDS);
+
+      timeService.advance(TimeUnit.SECONDS.toMillis(11));
+      Iterator<InternalCacheEntry<Object, Object>> candidates = container.expirationCandidates(timeService.wallClockTime());
+      assertTrue(candidates.hasNext());
+      InternalCacheEntry<Object, Object> candidate = candidates.next();
+      assertEquals("shortened", candidate.getKey());
+      assertEquals("v2", candidate.getValue());
+      assertFalse(candidates.hasNext());
+   }
+
+   public void testExtendedLifespanIsNotDueEarly() {
+      InternalDataContainer<Object, Object> container = TestingUtil.extractComponent(cache, InternalDataContainer.class);
+      cache.put("extended", "v1", 10, TimeUnit.SECONDS);
+      cache.put("extended", "v2", 1, TimeUnit.DAYS);
+
+      timeService.advance(TimeUnit.SECONDS.toMillis(11));
+      assertFalse(container.expirationCandidates(timeService.wallClockTime()).hasNext());
+      assertEquals("v2", cache.get("extended"));
+   }
+}
@@ -0,0 +1,174 @@
+package org.infinispan.container.impl;
+
+import static org.mockito.Mockito.mock;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.infinispan.commons.time.ControlledTimeService;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.expiration.impl.InternalExpirationManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "container.impl.ExpirationWheelTest")
+public class ExpirationWheelTest extends AbstractInfinispanTest {
+   private static final long START = 1_700_000_000_123L;
+
+   public void testKeysAreReturnedWhenDue() {
+      ExpirationWheel<String> wheel = new ExpirationWheel<>(START);
+      wheel.schedule("a", START + 10);
+      wheel.schedule("b", START + 5_000);
+      wheel.schedule("c", START + 70_000);
+      assertEquals(3, wheel.size());
+
+      assertEquals(List.of("a"), wheel.advance(START + 10));
+      assertEquals(List.of(), wheel.advance(START + 4_000));
+      assertEquals(List.of("b"), wheel.advance(START + 5_000));
+      // The second level slot of c is due before c expires, the caller schedules it again
+      List<String> due = wheel.advance(START + 65_000);
+      assertEquals(List.of("c"), due);
+      wheel.schedule("c", START + 70_000);
+      assertEquals(List.of(), wheel.advance(START + 69_000));
+      assertEquals(List.of("c"), wheel.advance(START + 70_000));
+      assertEquals(0, wheel.size());
+   }
+
+   public void testCurrentTickIsCheckedAgain() {
+      ExpirationWheel<String> wheel = new ExpirationWheel<>(START);
+      long tickEnd = (START / ExpirationWheel.TICK_MILLIS + 1) * ExpirationWheel.TICK_MILLIS - 1;
+      assertEquals(List.of(), wheel.advance(START));
+      // Scheduled after the current tick was checked, but still expires in it
+      wheel.schedule("a", tickEnd);
+      assertEquals(List.of("a"), wheel.advance(tickEnd));
+   }
+
+   public void testPastExpirationIsDueImmediately() {
+      ExpirationWheel<String> wheel = new ExpirationWheel<>(START);
+      assertEquals(List.of(), wheel.advance(START + 10_000));
+      wheel.schedule("a", START);
+      assertEquals(List.of("a"), wheel.advance(START + 10_000));
+   }
+
+   public void testTimeGoingBackwards() {
+      ExpirationWheel<String> wheel = new ExpirationWheel<>(START);
+      wheel.schedule("a", START + 1_000);
+      assertEquals(List.of(), wheel.advance(START - 10_000));
+      assertEquals(List.of("a"), wheel.advance(START + 1_000));
+   }
+
+   public void testDistantExpiration() {
+      ExpirationWheel<String> wheel = new ExpirationWheel<>(START);
+      wheel.schedule("a", Long.MAX_VALUE);
+      assertEquals(List.of(), wheel.advance(START + TimeUnit.DAYS.toMillis(365)));
+      assertEquals(1, wheel.size());
+   }
+
+   public void testCancel() {
+      ExpirationWheel<String> wheel = new ExpirationWheel<>(START);
+      wheel.schedule("a", START + 10);
+      wheel.schedule("b", START + 70_000);
+      assertTrue(wheel.cancel("a"));
+      assertTrue(wheel.cancel("b"));
+      assertFalse(wheel.cancel("b"));
+      assertEquals(0, wheel.size());
+      assertEquals(List.of(), wheel.advance(START + 100_000));
+   }
+
+   public void testScheduleKeepsEarliestSlot() {
+      ExpirationWheel<String> wheel = new ExpirationWheel<>(START);
+      wheel.schedule("a", START + 70_000);
+      wheel.schedule("a", START + 2_000);
+      // A later expiration does not move the key
+      wheel.schedule("a", START + 5_000);
+      assertEquals(1, wheel.size());
+      assertEquals(List.of(), wheel.advance(START + 1_000));
+      assertEquals(List.of("a"), wheel.advance(START + 2_000));
+      assertEquals(0, wheel.size());
+      assertEquals(List.of(), wheel.advance(START + 100_000));
+   }
+
+   public void testContainerRemovesKeys() {
+      DefaultDataContainer<String, String> dc = createContainer(new ConfigurationBuilder().build());
+      Metadata mortal = new EmbeddedMetadata.Builder().lifespan(10, TimeUnit.MINUTES).build();
+      dc.put("removed", "v", mortal);
+      dc.put("updated", "v", mortal);
+      dc.put("computed", "v", mortal);
+      assertEquals(3, wheelSize(dc));
+
+      dc.remove("removed");
+      dc.put("updated", "v", new EmbeddedMetadata.Builder().build());
+      dc.compute("computed", (k, oldEntry, factory) -> null);
+      assertEquals(0, wheelSize(dc));
+   }
+
+   public void testNoWheelWithoutReaper() {
+      DefaultDataContainer<String, String> dc = createContainer(new ConfigurationBuilder().expiration().disableReaper().build());
+      dc.put("k", "v", new EmbeddedMetadata.Builder().lifespan(10, TimeUnit.MINUTES).build());
+      assertNull(TestingUtil.extractField(AbstractInternalDataContainer.class, dc, "expirationWheels"));
+      // Expiration still finds the entry by iterating over the container
+      assertTrue(dc.expirationCandidates(System.currentTimeMillis()).hasNext());
+   }
+
+   private static DefaultDataContainer<String, String> createContainer(Configuration configuration) {
+      DefaultDataContainer<String, String> dc = new DefaultDataContainer<>(16);
+      InternalEntryFactoryImpl internalEntryFactory = new InternalEntryFactoryImpl();
+      ControlledTimeService timeService = new ControlledTimeService();
+      TestingUtil.inject(internalEntryFactory, timeService);
+      TestingUtil.inject(dc, internalEntryFactory, timeService, mock(InternalExpirationManager.class), configuration);
+      return dc;
+   }
+
+   private static int wheelSize(AbstractInternalDataContainer<?, ?> dc) {
+      AtomicReferenceArray<ExpirationWheel<?>> wheels = TestingUtil.extractField(AbstractInternalDataContainer.class, dc, "expirationWheels");
+      int size = 0;
+      for (int i = 0; i < wheels.length(); i++) {
+         ExpirationWheel<?> wheel = wheels.get(i);
+         if (wheel != null) {
+            size += wheel.size();
+         }
+      }
+      return size;
+   }
+
+   public void testRandomSchedule() {
+      Random random = new Random(42);
+      ExpirationWheel<Integer> wheel = new ExpirationWheel<>(START);
+      Map<Integer, Long> expirations = new HashMap<>();
+      for (int i = 0; i < 10_000; i++) {
+         long expiration = START + (long) (random.nextDouble() * random.nextDouble() * TimeUnit.DAYS.toMillis(10));
+         expirations.put(i, expiration);
+         wheel.schedule(i, expiration);
+      }
+
+      long now = START;
+      List<Integer> expired = new ArrayList<>();
+      while (expired.size() < expirations.size()) {
+         now += random.nextInt((int) TimeUnit.HOURS.toMillis(2));
+         for (Integer key : wheel.advance(now)) {
+            long expiration = expirations.get(key);
+            if (expiration <= now) {
+               // Never returned later than the tick of its expiration
+               assertTrue(key + " returned late", now - expiration < TimeUnit.HOURS.toMillis(2) + ExpirationWheel.TICK_MILLIS);
+               expired.add(key);
+            } else {
+               wheel.schedule(key, expiration);
+            }
+         }
+      }
+      assertEquals(0, wheel.size());
+   }
+}
@@ -9,6 +9,7 @@
 import org.infinispan.Cache;
 import org.infinispan.commons.util.ByteQuantity;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.OffHeapAllocatorType;
 import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.versioning.NumericVersion;
@@ -134,4 +135,30 @@ public void testAllocatedAmountEqualWithVersionAndExpiration() {
 
       assertEquals(allocator.getAllocatedAmount(), container.currentSize);
    }
+
+   public void testAllocatedAmountEqualWithPooledAllocator() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.memory()
+            .maxSize(ByteQuantity.Unit.MB.toBytes(20))
+            .storage(StorageType.OFF_HEAP)
+            .allocatorType(OffHeapAllocatorType.POOLED);
+      EmbeddedCacheManager manager = TestCacheManagerFactory.createCacheManager(builder);
+      AdvancedCache<Object, Object> cache = manager.getCache().getAdvancedCache();
+
+      OffHeapMemoryAllocator allocator =  ComponentRegistry.componentOf(cache, OffHeapMemoryAllocator.class);
+      assertEquals(PooledOffHeapMemoryAllocator.class, allocator.getClass());
+      BoundedOffHeapDataContainer container = (BoundedOffHeapDataContainer) getContainer(cache);
+      assertEquals(allocator.getAllocatedAmount(), container.currentSize);
+
+      cache.put(1, 2);
+      cache.put("lifespan", "value", 1, TimeUnit.MINUTES);
+      cache.put("version", 2, new EmbeddedMetadata.Builder().version(new NumericVersion(23)).build());
+
+      // The container accounts for the size classes of the allocator
+      assertEquals(allocator.getAllocatedAmount(), container.currentSize);
+
+      cache.clear();
+
+      assertEquals(allocator.getAllocatedAmount(), container.currentSize);
+   }
 }
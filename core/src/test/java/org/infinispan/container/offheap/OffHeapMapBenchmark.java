@@ -0,0 +1,110 @@
+package org.infinispan.container.offheap;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.infinispan.commons.marshall.WrappedBytes;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.OffHeapTableType;
+import org.infinispan.container.entries.ImmortalCacheEntry;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.impl.InternalEntryFactoryImpl;
+import org.infinispan.container.impl.PeekableTouchableMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares lookups and updates of the chained {@link OffHeapConcurrentMap} with the {@link OpenAddressingOffHeapMap}.
+ */
+public class OffHeapMapBenchmark {
+
+   private static final int MEASUREMENT_ITERATIONS_COUNT = 10;
+   private static final int WARMUP_ITERATIONS_COUNT = 5;
+
+   public static void main(String[] args) throws Exception {
+      Options opt = new OptionsBuilder()
+            .include(OffHeapMapBenchmark.class.getName() + ".State.*")
+            .mode(Mode.AverageTime)
+            .timeUnit(TimeUnit.NANOSECONDS)
+            .warmupIterations(WARMUP_ITERATIONS_COUNT)
+            .measurementIterations(MEASUREMENT_ITERATIONS_COUNT)
+            .threads(4)
+            .forks(1)
+            .shouldFailOnError(true)
+            .build();
+
+      new Runner(opt).run();
+   }
+
+   @org.openjdk.jmh.annotations.State(Scope.Benchmark)
+   public static class State {
+      @Param({"CHAINED", "OPEN_ADDRESSING"})
+      OffHeapTableType tableType;
+
+      @Param({"10000", "1000000"})
+      int size;
+
+      WrappedBytes[] keys;
+      WrappedBytes[] missingKeys;
+      InternalCacheEntry<WrappedBytes, WrappedBytes>[] entries;
+      PeekableTouchableMap<WrappedBytes, WrappedBytes> map;
+
+      @Setup
+      @SuppressWarnings("unchecked")
+      public void setup() {
+         OffHeapMemoryAllocator allocator = new UnpooledOffHeapMemoryAllocator();
+         OffHeapEntryFactoryImpl offHeapEntryFactory = new OffHeapEntryFactoryImpl();
+         offHeapEntryFactory.allocator = allocator;
+         offHeapEntryFactory.internalEntryFactory = new InternalEntryFactoryImpl();
+         offHeapEntryFactory.configuration = new ConfigurationBuilder().build();
+         offHeapEntryFactory.start();
+         map = tableType == OffHeapTableType.OPEN_ADDRESSING ?
+               new OpenAddressingOffHeapMap(allocator, offHeapEntryFactory) :
+               new OffHeapConcurrentMap(allocator, offHeapEntryFactory, null);
+
+         keys = new WrappedBytes[size];
+         missingKeys = new WrappedBytes[size];
+         entries = new InternalCacheEntry[size];
+         WrappedBytes value = new WrappedByteArray(new byte[64]);
+         for (int i = 0; i < size; i++) {
+            keys[i] = new WrappedByteArray(("key-" + i).getBytes());
+            missingKeys[i] = new WrappedByteArray(("missing-" + i).getBytes());
+            entries[i] = new ImmortalCacheEntry(keys[i], value);
+            map.putNoReturn(keys[i], entries[i]);
+         }
+      }
+
+      @TearDown
+      public void tearDown() throws Exception {
+         ((AutoCloseable) map).close();
+      }
+
+      private int randomIndex() {
+         return ThreadLocalRandom.current().nextInt(size);
+      }
+
+      @Benchmark
+      public InternalCacheEntry<WrappedBytes, WrappedBytes> getHit() {
+         return map.get(keys[randomIndex()]);
+      }
+
+      @Benchmark
+      public InternalCacheEntry<WrappedBytes, WrappedBytes> getMiss() {
+         return map.get(missingKeys[randomIndex()]);
+      }
+
+      @Benchmark
+      public void replace() {
+         int index = randomIndex();
+         map.putNoReturn(keys[index], entries[index]);
+      }
+   }
+}
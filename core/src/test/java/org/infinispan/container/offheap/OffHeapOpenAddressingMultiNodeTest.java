@@ -0,0 +1,22 @@
+package org.infinispan.container.offheap;
+
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.OffHeapTableType;
+import org.infinispan.configuration.cache.StorageType;
+import org.testng.annotations.Test;
+
+@Test(groups = "functional", testName = "container.offheap.OffHeapOpenAddressingMultiNodeTest")
+public class OffHeapOpenAddressingMultiNodeTest extends OffHeapMultiNodeTest {
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder dcc = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      dcc.memory().storage(StorageType.OFF_HEAP).tableType(OffHeapTableType.OPEN_ADDRESSING);
+      dcc.clustering().stateTransfer().timeout(30, TimeUnit.SECONDS);
+      createCluster(dcc, 4);
+      waitForClusterToForm();
+   }
+}
@@ -0,0 +1,30 @@
+package org.infinispan.container.offheap;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.OffHeapTableType;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.container.impl.InternalDataContainer;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.Test;
+
+@Test(groups = "functional", testName = "container.offheap.OffHeapOpenAddressingSingleNodeTest")
+public class OffHeapOpenAddressingSingleNodeTest extends OffHeapSingleNodeTest {
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder dcc = getDefaultClusteredCacheConfig(CacheMode.LOCAL, false);
+      dcc.memory().storage(StorageType.OFF_HEAP).tableType(OffHeapTableType.OPEN_ADDRESSING);
+      // Only start up the 1 cache
+      addClusterEnabledCacheManager(dcc);
+
+      configureTimeService();
+   }
+
+   public void testMapType() {
+      InternalDataContainer<?, ?> container = TestingUtil.extractComponent(cache(0), InternalDataContainer.class);
+      container.forEachSegment((map, segment) -> assertEquals(OpenAddressingOffHeapMap.class, map.getClass()));
+   }
+}
@@ -0,0 +1,142 @@
+package org.infinispan.container.offheap;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.infinispan.commons.marshall.WrappedBytes;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.entries.ImmortalCacheEntry;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.impl.InternalEntryFactoryImpl;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "container.offheap.OpenAddressingOffHeapMapTest")
+public class OpenAddressingOffHeapMapTest extends AbstractInfinispanTest {
+   private UnpooledOffHeapMemoryAllocator allocator;
+   private OpenAddressingOffHeapMap map;
+
+   @BeforeMethod
+   void initializeMap() {
+      allocator = new UnpooledOffHeapMemoryAllocator();
+      OffHeapEntryFactoryImpl offHeapEntryFactory = new OffHeapEntryFactoryImpl();
+      offHeapEntryFactory.allocator = allocator;
+      offHeapEntryFactory.internalEntryFactory = new InternalEntryFactoryImpl();
+      offHeapEntryFactory.configuration = new ConfigurationBuilder().build();
+      offHeapEntryFactory.start();
+
+      map = new OpenAddressingOffHeapMap(allocator, offHeapEntryFactory);
+   }
+
+   @AfterMethod
+   void afterMethod() {
+      if (map != null) {
+         map.close();
+         // Every entry and table was freed
+         assertEquals(0, allocator.getAllocatedAmount());
+      }
+   }
+
+   public void testGroupMatching() {
+      // Bytes are numbered from the lowest: EMPTY, 5, DELETED, 5, 127, EMPTY, 0, 6
+      long group = bytes(0x80, 5, 0xFE, 5, 127, 0x80, 0, 6);
+      assertEquals(bytes(0, 0x80, 0, 0x80, 0, 0, 0, 0), OpenAddressingOffHeapMap.match(group, (byte) 5));
+      assertEquals(bytes(0x80, 0, 0, 0, 0, 0x80, 0, 0), OpenAddressingOffHeapMap.matchEmpty(group));
+      assertEquals(bytes(0x80, 0, 0x80, 0, 0, 0x80, 0, 0), OpenAddressingOffHeapMap.matchEmptyOrDeleted(group));
+      assertEquals(0, OpenAddressingOffHeapMap.match(group, (byte) 1));
+   }
+
+   public void testRandomOperationsMatchHashMap() {
+      Random random = new Random(42);
+      Map<WrappedBytes, WrappedBytes> expected = new HashMap<>();
+      // Few distinct keys, so that removed slots are reused and purged
+      int keyCount = 2_000;
+      for (int i = 0; i < 50_000; i++) {
+         WrappedBytes key = bytes("key-" + random.nextInt(keyCount));
+         WrappedBytes value = bytes("value-" + i);
+         switch (random.nextInt(5)) {
+            case 0, 1 -> {
+               InternalCacheEntry<WrappedBytes, WrappedBytes> prev = map.put(key, entry(key, value));
+               assertValue(expected.put(key, value), prev);
+            }
+            case 2 -> assertValue(expected.remove(key), map.remove(key));
+            case 3 -> {
+               InternalCacheEntry<WrappedBytes, WrappedBytes> prev = map.replace(key, entry(key, value));
+               assertValue(expected.replace(key, value), prev);
+            }
+            default -> assertValue(expected.get(key), map.get(key));
+         }
+      }
+      assertEquals(expected.size(), map.size());
+      int count = 0;
+      for (InternalCacheEntry<WrappedBytes, WrappedBytes> ice : map.values()) {
+         assertEquals(expected.get(ice.getKey()), ice.getValue());
+         count++;
+      }
+      assertEquals(expected.size(), count);
+   }
+
+   public void testConditionalOperations() {
+      WrappedBytes key = bytes("key");
+      WrappedBytes value = bytes("value");
+      WrappedBytes other = bytes("other");
+
+      // Like OffHeapConcurrentMap, putIfAbsent returns the entry in the map after the operation
+      assertEquals(value, map.putIfAbsent(key, entry(key, value)).getValue());
+      assertEquals(value, map.putIfAbsent(key, entry(key, other)).getValue());
+      assertFalse(map.replace(key, entry(key, other), entry(key, other)));
+      assertTrue(map.replace(key, entry(key, value), entry(key, other)));
+      assertFalse(map.remove(key, entry(key, value)));
+      assertTrue(map.remove(key, entry(key, other)));
+      assertNull(map.get(key));
+
+      map.compute(key, (k, v) -> entry(k, value));
+      assertEquals(value, map.peek(key).getValue());
+      map.compute(key, (k, v) -> null);
+      assertTrue(map.isEmpty());
+   }
+
+   public void testClear() {
+      for (int i = 0; i < 1_000; i++) {
+         WrappedBytes key = bytes("key-" + i);
+         map.putNoReturn(key, entry(key, key));
+      }
+      assertEquals(1_000, map.size());
+      map.clear();
+      assertEquals(0, map.size());
+      assertFalse(map.values().iterator().hasNext());
+
+      WrappedBytes key = bytes("key-1");
+      map.put(key, entry(key, key));
+      assertEquals(key, map.get(key).getValue());
+   }
+
+   private static long bytes(int... values) {
+      long group = 0;
+      for (int i = 0; i < values.length; i++) {
+         group |= (values[i] & 0xFFL) << (i * 8);
+      }
+      return group;
+   }
+
+   private static WrappedBytes bytes(String value) {
+      return new WrappedByteArray(value.getBytes());
+   }
+
+   private static InternalCacheEntry<WrappedBytes, WrappedBytes> entry(WrappedBytes key, WrappedBytes value) {
+      return new ImmortalCacheEntry(key, value);
+   }
+
+   private static void assertValue(WrappedBytes expected, InternalCacheEntry<WrappedBytes, WrappedBytes> actual) {
+      assertEquals(expected, actual == null ? null : actual.getValue());
+   }
+}
@@ -0,0 +1,150 @@
+package org.infinispan.container.offheap;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "container.offheap.PooledOffHeapMemoryAllocatorTest")
+public class PooledOffHeapMemoryAllocatorTest extends AbstractInfinispanTest {
+   private PooledOffHeapMemoryAllocator allocator;
+
+   @BeforeMethod
+   void createAllocator() {
+      allocator = new PooledOffHeapMemoryAllocator(1, -1);
+   }
+
+   @AfterMethod
+   void stopAllocator() {
+      allocator.stop();
+      assertEquals(0, allocator.getReservedAmount());
+   }
+
+   @DataProvider(name = "sizeClasses")
+   Object[][] sizeClasses() {
+      return new Object[][] {
+            { 1, 16 },
+            { 16, 16 },
+            { 17, 32 },
+            { 500, 512 },
+            { 512, 512 },
+            { 513, 640 },
+            { 1024, 1024 },
+            { 1025, 1280 },
+            { 20_000, 20_480 },
+            { 32_768, 32_768 },
+            { 32_769, 32_769 + 8 + 7 },
+      };
+   }
+
+   @Test(dataProvider = "sizeClasses")
+   public void testAllocationSize(long length, long expected) {
+      assertEquals(expected, allocator.allocationSize(length));
+   }
+
+   public void testSizeClassesAreContiguous() {
+      for (int sizeClass = 1; sizeClass < PooledOffHeapMemoryAllocator.SIZE_CLASSES; sizeClass++) {
+         long blockSize = PooledOffHeapMemoryAllocator.blockSize(sizeClass);
+         assertEquals(sizeClass, PooledOffHeapMemoryAllocator.sizeClass(blockSize));
+         assertEquals(sizeClass, PooledOffHeapMemoryAllocator.sizeClass(PooledOffHeapMemoryAllocator.blockSize(sizeClass - 1) + 1));
+      }
+   }
+
+   public void testFreedBlocksAreReused() {
+      Set<Long> addresses = new HashSet<>();
+      for (int i = 0; i < 100; i++) {
+         addresses.add(allocator.allocate(100));
+      }
+      assertEquals(100, addresses.size());
+      assertEquals(1, allocator.getSlabCount());
+      assertEquals(100 * 100, allocator.getRequestedAmount());
+      assertEquals(100 * 112, allocator.getAllocatedAmount());
+
+      for (long address : addresses) {
+         allocator.deallocate(address, 100);
+      }
+      assertEquals(0, allocator.getAllocatedAmount());
+      // A length of the same size class gets one of the freed blocks
+      for (int i = 0; i < 100; i++) {
+         assertTrue(addresses.contains(allocator.allocate(97)));
+      }
+      assertEquals(1, allocator.getSlabCount());
+   }
+
+   public void testSlabIsFilled() {
+      long blockSize = allocator.allocationSize(PooledOffHeapMemoryAllocator.MAX_POOLED_SIZE);
+      long blocks = PooledOffHeapMemoryAllocator.SLAB_SIZE / blockSize;
+      for (int i = 0; i < blocks; i++) {
+         allocator.allocate(PooledOffHeapMemoryAllocator.MAX_POOLED_SIZE);
+      }
+      assertEquals(1, allocator.getSlabCount());
+      assertEquals(0, allocator.getFragmentation(), 0.0001);
+      allocator.allocate(PooledOffHeapMemoryAllocator.MAX_POOLED_SIZE);
+      assertEquals(2, allocator.getSlabCount());
+      assertEquals(2 * PooledOffHeapMemoryAllocator.SLAB_SIZE, allocator.getReservedAmount());
+   }
+
+   public void testFragmentation() {
+      long address = allocator.allocate(8);
+      assertEquals(PooledOffHeapMemoryAllocator.SLAB_SIZE, allocator.getReservedAmount());
+      assertEquals(1 - 8.0 / PooledOffHeapMemoryAllocator.SLAB_SIZE, allocator.getFragmentation(), 0.0001);
+      allocator.deallocate(address, 8);
+      // The slab is kept until the allocator is stopped
+      assertEquals(1, allocator.getFragmentation(), 0.0001);
+   }
+
+   public void testBlockFreedByAnotherThreadReturnsToItsArena() throws Exception {
+      PooledOffHeapMemoryAllocator allocator = new PooledOffHeapMemoryAllocator(8, -1);
+      try {
+         long address = allocator.allocate(100);
+         fork(() -> allocator.deallocate(address, 100)).get(10, TimeUnit.SECONDS);
+         assertEquals(address, allocator.allocate(100));
+         assertEquals(1, allocator.getSlabCount());
+      } finally {
+         allocator.stop();
+      }
+   }
+
+   public void testSlabsAreBounded() {
+      PooledOffHeapMemoryAllocator allocator = new PooledOffHeapMemoryAllocator(1, PooledOffHeapMemoryAllocator.SLAB_SIZE);
+      try {
+         long blockSize = allocator.allocationSize(PooledOffHeapMemoryAllocator.MAX_POOLED_SIZE);
+         long blocks = PooledOffHeapMemoryAllocator.SLAB_SIZE / blockSize;
+         for (int i = 0; i < blocks; i++) {
+            allocator.allocate(PooledOffHeapMemoryAllocator.MAX_POOLED_SIZE);
+         }
+         // Another slab would exceed the bound, the block is allocated natively
+         long address = allocator.allocate(PooledOffHeapMemoryAllocator.MAX_POOLED_SIZE);
+         assertEquals(1, allocator.getSlabCount());
+         assertEquals(1, allocator.getUnpooledCount());
+         assertEquals(PooledOffHeapMemoryAllocator.SLAB_SIZE + blockSize, allocator.getReservedAmount());
+         assertEquals((blocks + 1) * blockSize, allocator.getAllocatedAmount());
+
+         // And released as soon as it is freed
+         allocator.deallocate(address, PooledOffHeapMemoryAllocator.MAX_POOLED_SIZE);
+         assertEquals(0, allocator.getUnpooledCount());
+         assertEquals(PooledOffHeapMemoryAllocator.SLAB_SIZE, allocator.getReservedAmount());
+      } finally {
+         allocator.stop();
+      }
+   }
+
+   public void testUnpooledAllocation() {
+      long length = PooledOffHeapMemoryAllocator.MAX_POOLED_SIZE + 1;
+      long address = allocator.allocate(length);
+      assertEquals(0, allocator.getSlabCount());
+      assertEquals(1, allocator.getUnpooledCount());
+      assertEquals(allocator.allocationSize(length), allocator.getReservedAmount());
+      allocator.deallocate(address, length);
+      assertEquals(0, allocator.getUnpooledCount());
+      assertEquals(0, allocator.getReservedAmount());
+   }
+}
@@ -1,5 +1,6 @@
 package org.infinispan.persistence.file;
 
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
@@ -28,6 +29,7 @@ public class SingleFileStoreTest extends BaseNonBlockingStoreTest {
 
    private final String tmpDirectory = CommonsTestingUtil.tmpDirectory(this.getClass());
    private boolean segmented;
+   private boolean appendOnly;
 
    @AfterClass(alwaysRun = true)
    protected void clearTempDir() {
@@ -39,17 +41,24 @@ public SingleFileStoreTest segmented(boolean segmented) {
       return this;
    }
 
+   public SingleFileStoreTest appendOnly(boolean appendOnly) {
+      this.appendOnly = appendOnly;
+      return this;
+   }
+
    @Factory
    public Object[] factory() {
       return new Object[] {
               new SingleFileStoreTest().segmented(false),
               new SingleFileStoreTest().segmented(true),
+              new SingleFileStoreTest().segmented(false).appendOnly(true),
+              new SingleFileStoreTest().segmented(true).appendOnly(true),
       };
    }
 
    @Override
    protected String parameters() {
-      return "[" + segmented + "]";
+      return appendOnly ? "[" + segmented + ", appendOnly]" : "[" + segmented + "]";
    }
 
    @Override
@@ -63,6 +72,10 @@ protected SingleFileStoreConfigurationBuilder createCacheStoreConfig(Persistence
       cfg.segmented(segmented);
       cfg.location(tmpDirectory);
       cfg.fragmentationFactor(0.5f);
+      if (appendOnly) {
+         // Small regions, so that the tests fill and compact several of them
+         cfg.appendOnly(true).regionSize(1024);
+      }
       return cfg;
    }
 
@@ -109,6 +122,49 @@ public void testSegmentsRemovedAndAdded() {
       assertTrue(store.contains(key));
    }
 
+   public void testAppendOnlyCompaction() {
+      if (!appendOnly)
+         return;
+
+      SingleFileStore<?, ?> singleFileStore = (SingleFileStore<?, ?>) store.delegate();
+      int numKeys = 20;
+      int rounds = 50;
+      for (int round = 0; round < rounds; round++) {
+         for (int i = 0; i < numKeys; i++) {
+            store.write(marshalledEntry("key-" + i, value(i, round)));
+         }
+         // Keys that are never updated keep the regions from becoming empty, unless they are compacted
+         store.write(marshalledEntry("cold-" + round, "cold-value"));
+      }
+      eventually(() -> singleFileStore.getFileSize() < 16 * 1024);
+      assertValues(numKeys, rounds - 1);
+      for (int round = 0; round < rounds; round++) {
+         assertEquals(store.loadEntry("cold-" + round).getValue(), "cold-value");
+      }
+
+      // The regions are rebuilt from the file, the store may resume compacting them
+      store.stopAndWait();
+      startStore(store);
+      eventually(() -> singleFileStore.getFileSize() < 16 * 1024);
+      assertValues(numKeys, rounds - 1);
+   }
+
+   private MarshallableEntry marshalledEntry(String key, String value) {
+      return MarshalledEntryUtil.create(TestInternalCacheEntryFactory.create(key, value), getMarshaller());
+   }
+
+   private static String value(int i, int round) {
+      // Vary the sizes, so that entries never fit exactly in the space of the removed ones
+      return "value-" + round + "-" + "x".repeat((i * 31 + round * 17) % 200);
+   }
+
+   private void assertValues(int numKeys, int round) {
+      for (int i = 0; i < numKeys; i++) {
+         MarshallableEntry entry = store.loadEntry("key-" + i);
+         assertEquals(entry.getValue(), value(i, round));
+      }
+   }
+
    public void testStopDuringClear() {
       InternalCacheEntry entry = TestInternalCacheEntryFactory.create("key", "value");
       MarshallableEntry me = MarshalledEntryUtil.create(entry, getMarshaller());
@@ -0,0 +1,87 @@
+package org.infinispan.persistence.sifs;
+
+import static org.infinispan.test.TestingUtil.assertNotDone;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the {@link CompactionBacklog} delays the log appender until compaction catches up.
+ */
+@Test(groups = "unit", testName = "persistence.sifs.CompactionBacklogTest")
+public class CompactionBacklogTest extends AbstractInfinispanTest {
+
+   public void testNotThrottledBelowLimit() {
+      CompactionBacklog backlog = new CompactionBacklog(2);
+      backlog.added(10);
+      backlog.added(20);
+      backlog.awaitCatchUp(() -> false);
+
+      assertEquals(2, backlog.getFiles());
+      assertEquals(30, backlog.getBytes());
+      assertEquals(0, backlog.getThrottledWrites());
+   }
+
+   public void testThrottledUntilCaughtUp() throws Exception {
+      CompactionBacklog backlog = new CompactionBacklog(1);
+      backlog.added(10);
+      backlog.added(20);
+      backlog.added(30);
+
+      Future<Void> write = fork(() -> backlog.awaitCatchUp(() -> false));
+      assertNotDone(write);
+
+      // Still above the limit
+      backlog.completed(10);
+      assertNotDone(write);
+
+      backlog.completed(20);
+      write.get(10, TimeUnit.SECONDS);
+      assertEquals(1, backlog.getFiles());
+      assertEquals(30, backlog.getBytes());
+      assertEquals(1, backlog.getThrottledWrites());
+   }
+
+   public void testNotThrottledWhenDisabled() {
+      CompactionBacklog backlog = new CompactionBacklog(0);
+      backlog.added(10);
+      backlog.added(20);
+      backlog.awaitCatchUp(() -> false);
+
+      assertEquals(2, backlog.getFiles());
+      assertEquals(0, backlog.getThrottledWrites());
+   }
+
+   public void testThrottlingIsBounded() throws Exception {
+      CompactionBacklog backlog = new CompactionBacklog(1);
+      backlog.added(10);
+      backlog.added(20);
+
+      // Nothing completes the compactions, the write must still proceed
+      fork(() -> backlog.awaitCatchUp(() -> false)).get(10, TimeUnit.SECONDS);
+      assertEquals(2, backlog.getFiles());
+      assertEquals(1, backlog.getThrottledWrites());
+      assertTrue(backlog.getThrottledTime(TimeUnit.NANOSECONDS) >= CompactionBacklog.MAX_WAIT_NANOS);
+   }
+
+   public void testReleasedWhenStopped() throws Exception {
+      CompactionBacklog backlog = new CompactionBacklog(1);
+      backlog.added(10);
+      backlog.added(20);
+      AtomicBoolean stopped = new AtomicBoolean();
+
+      Future<Void> write = fork(() -> backlog.awaitCatchUp(stopped::get));
+      assertNotDone(write);
+
+      stopped.set(true);
+      backlog.wakeUp();
+      write.get(10, TimeUnit.SECONDS);
+      assertEquals(2, backlog.getFiles());
+   }
+}
@@ -0,0 +1,80 @@
+package org.infinispan.persistence.sifs;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+
+import org.infinispan.commons.test.CommonsTestingUtil;
+import org.infinispan.commons.util.Util;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the {@link FileProvider} reads the sealed data files through memory mappings.
+ */
+@Test(groups = "unit", testName = "persistence.sifs.FileProviderMemoryMappedTest")
+public class FileProviderMemoryMappedTest extends AbstractInfinispanTest {
+   private final String tmpDirectory = CommonsTestingUtil.tmpDirectory(getClass());
+
+   @AfterMethod(alwaysRun = true)
+   protected void clearTempDir() {
+      Util.recursiveFileRemove(tmpDirectory);
+   }
+
+   public void testSealedFileMapped() throws IOException {
+      FileProvider fileProvider = new FileProvider(Paths.get(tmpDirectory), 4, "data-", 1000, true);
+      int fileId = writeFile(fileProvider);
+
+      try (FileProvider.Handle handle = fileProvider.getFile(fileId)) {
+         assertTrue(handle.isMemoryMapped());
+         assertContents(handle);
+         // Reads past the end of the mapping behave like channel reads
+         assertEquals(-1, handle.read(ByteBuffer.allocate(4), 10));
+      } finally {
+         fileProvider.stop();
+      }
+   }
+
+   public void testLogFileNotMapped() throws IOException {
+      FileProvider fileProvider = new FileProvider(Paths.get(tmpDirectory), 4, "data-", 1000, true);
+      try (FileProvider.Log log = fileProvider.getFileForLog()) {
+         log.fileChannel.write(ByteBuffer.wrap(new byte[]{0, 1, 2}));
+         try (FileProvider.Handle handle = fileProvider.getFile(log.fileId)) {
+            assertFalse(handle.isMemoryMapped());
+         }
+      } finally {
+         fileProvider.stop();
+      }
+   }
+
+   public void testMappingDisabled() throws IOException {
+      FileProvider fileProvider = new FileProvider(Paths.get(tmpDirectory), 4, "data-", 1000, false);
+      int fileId = writeFile(fileProvider);
+
+      try (FileProvider.Handle handle = fileProvider.getFile(fileId)) {
+         assertFalse(handle.isMemoryMapped());
+         assertContents(handle);
+      } finally {
+         fileProvider.stop();
+      }
+   }
+
+   private int writeFile(FileProvider fileProvider) throws IOException {
+      try (FileProvider.Log log = fileProvider.getFileForLog()) {
+         log.fileChannel.write(ByteBuffer.wrap(new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9}));
+         return log.fileId;
+      }
+   }
+
+   private void assertContents(FileProvider.Handle handle) throws IOException {
+      ByteBuffer buffer = ByteBuffer.allocate(4);
+      assertEquals(4, handle.read(buffer, 3));
+      assertEquals(3, buffer.get(0));
+      assertEquals(6, buffer.get(3));
+   }
+}
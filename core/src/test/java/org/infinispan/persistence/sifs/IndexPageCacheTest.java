@@ -0,0 +1,90 @@
+package org.infinispan.persistence.sifs;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "persistence.sifs.IndexPageCacheTest")
+public class IndexPageCacheTest extends AbstractInfinispanTest {
+   private static final int PAGE_SIZE = 64;
+
+   public void testReadInPlace() {
+      IndexPageCache cache = new IndexPageCache(4 * PAGE_SIZE, PAGE_SIZE);
+      cache.putIfAbsent(1, 100, page(10, 7));
+
+      assertTrue(cache.read(1, 100, (short) 10, buffer -> assertPage(buffer, 10, 7)));
+      // Same position, different node length or index file
+      assertFalse(cache.read(1, 100, (short) 12, buffer -> {}));
+      assertFalse(cache.read(2, 100, (short) 10, buffer -> {}));
+
+      // Nodes loaded from the file don't replace nodes written meanwhile
+      cache.put(1, 100, page(10, 8));
+      cache.putIfAbsent(1, 100, page(10, 7));
+      assertTrue(cache.read(1, 100, (short) 10, buffer -> assertPage(buffer, 10, 8)));
+
+      cache.remove(1, 100);
+      assertFalse(cache.read(1, 100, (short) 10, buffer -> {}));
+   }
+
+   public void testClockEviction() {
+      IndexPageCache cache = new IndexPageCache(4 * PAGE_SIZE, PAGE_SIZE);
+      for (int i = 0; i < 4; i++) {
+         cache.put(0, i * PAGE_SIZE, page(PAGE_SIZE, i));
+      }
+      // The first sweep clears all the reference bits and evicts the first frame
+      cache.put(0, 4 * PAGE_SIZE, page(PAGE_SIZE, 4));
+      assertFalse(cache.read(0, 0, (short) PAGE_SIZE, buffer -> {}));
+      // Node 1 is referenced again, so node 2 is evicted instead
+      assertTrue(cache.read(0, PAGE_SIZE, (short) PAGE_SIZE, buffer -> assertPage(buffer, PAGE_SIZE, 1)));
+      cache.put(0, 5 * PAGE_SIZE, page(PAGE_SIZE, 5));
+      assertTrue(cache.read(0, PAGE_SIZE, (short) PAGE_SIZE, buffer -> assertPage(buffer, PAGE_SIZE, 1)));
+      assertFalse(cache.read(0, 2 * PAGE_SIZE, (short) PAGE_SIZE, buffer -> {}));
+      assertEquals(2, cache.evictions());
+   }
+
+   public void testOversizedAndInvalidatedNodes() {
+      IndexPageCache cache = new IndexPageCache(4 * PAGE_SIZE, PAGE_SIZE);
+      cache.put(0, 0, page(PAGE_SIZE, 1));
+      cache.put(0, 0, page(PAGE_SIZE + 1, 2));
+      assertFalse(cache.read(0, 0, (short) PAGE_SIZE, buffer -> {}));
+
+      cache.put(0, 0, page(8, 1));
+      cache.put(3, 0, page(8, 3));
+      cache.invalidate(0);
+      assertFalse(cache.read(0, 0, (short) 8, buffer -> {}));
+      assertTrue(cache.read(3, 0, (short) 8, buffer -> assertPage(buffer, 8, 3)));
+   }
+
+   public void testStop() {
+      IndexPageCache cache = new IndexPageCache(4 * PAGE_SIZE, PAGE_SIZE);
+      cache.put(0, 0, page(8, 1));
+      cache.stop();
+      assertFalse(cache.read(0, 0, (short) 8, buffer -> {}));
+
+      // The memory is released, writes after stop are ignored
+      cache.put(0, 0, page(8, 1));
+      cache.putIfAbsent(0, 8, page(8, 1));
+      assertFalse(cache.read(0, 0, (short) 8, buffer -> {}));
+      cache.stop();
+   }
+
+   private static ByteBuffer page(int length, int value) {
+      ByteBuffer buffer = ByteBuffer.allocate(length);
+      while (buffer.hasRemaining()) {
+         buffer.put((byte) value);
+      }
+      return buffer.flip();
+   }
+
+   private static void assertPage(ByteBuffer buffer, int length, int value) {
+      assertEquals(length, buffer.remaining());
+      while (buffer.hasRemaining()) {
+         assertEquals((byte) value, buffer.get());
+      }
+   }
+}
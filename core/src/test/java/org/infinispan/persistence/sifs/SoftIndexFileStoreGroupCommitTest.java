@@ -0,0 +1,87 @@
+package org.infinispan.persistence.sifs;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.test.CommonsTestingUtil;
+import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the synchronous writes that arrive within the group commit window share a single fsync, and that a group
+ * is fsynced as soon as it reaches the group commit size.
+ */
+@Test(groups = "unit", testName = "persistence.sifs.SoftIndexFileStoreGroupCommitTest")
+public class SoftIndexFileStoreGroupCommitTest extends SingleCacheManagerTest {
+   private static final int WRITES = 50;
+
+   private final String tmpDirectory = CommonsTestingUtil.tmpDirectory(getClass());
+
+   @AfterClass(alwaysRun = true)
+   @Override
+   protected void destroyAfterClass() {
+      super.destroyAfterClass();
+      Util.recursiveFileRemove(tmpDirectory);
+   }
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      return TestCacheManagerFactory.createCacheManager(storeConfiguration("window", 1024 * 1024));
+   }
+
+   private ConfigurationBuilder storeConfiguration(String name, int groupCommitSize) {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.persistence()
+            .addSoftIndexFileStore()
+            .dataLocation(Paths.get(tmpDirectory, name, "data").toString())
+            .indexLocation(Paths.get(tmpDirectory, name, "index").toString())
+            .syncWrites(true)
+            .groupCommitWindow(TimeUnit.SECONDS.toMillis(1))
+            .groupCommitSize(groupCommitSize);
+      return builder;
+   }
+
+   public void testWritesInWindowGrouped() {
+      write(cache);
+      // All the writes are submitted well within the window
+      assertEquals(1, syncCount(cache));
+   }
+
+   public void testGroupSyncedWhenFull() {
+      cacheManager.defineConfiguration("full", storeConfiguration("full", 1).build());
+      Cache<Object, Object> fullCache = cacheManager.getCache("full");
+
+      write(fullCache);
+      // Every write fills the group, none of them waits for the window
+      assertEquals(WRITES, syncCount(fullCache));
+   }
+
+   private void write(Cache<Object, Object> cache) {
+      List<CompletableFuture<Object>> writes = new ArrayList<>(WRITES);
+      for (int i = 0; i < WRITES; i++) {
+         writes.add(cache.putAsync("k" + i, "v" + i));
+      }
+      writes.forEach(CompletableFuture::join);
+      for (int i = 0; i < WRITES; i++) {
+         assertEquals("v" + i, cache.get("k" + i));
+      }
+   }
+
+   private static long syncCount(Cache<?, ?> cache) {
+      NonBlockingSoftIndexFileStore<?, ?> store = TestingUtil.getFirstStore(cache);
+      LogAppender logAppender = TestingUtil.extractField(store, "logAppender");
+      return logAppender.getSyncCount();
+   }
+}
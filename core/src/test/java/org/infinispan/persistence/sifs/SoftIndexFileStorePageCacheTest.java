@@ -0,0 +1,91 @@
+package org.infinispan.persistence.sifs;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import org.infinispan.commons.CacheConfigurationException;
+import org.infinispan.commons.test.CommonsTestingUtil;
+import org.infinispan.commons.test.Exceptions;
+import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the index nodes are read from the index page cache and that its memory is released on stop.
+ */
+@Test(groups = "unit", testName = "persistence.sifs.SoftIndexFileStorePageCacheTest")
+public class SoftIndexFileStorePageCacheTest extends SingleCacheManagerTest {
+   private final String tmpDirectory = CommonsTestingUtil.tmpDirectory(getClass());
+
+   @AfterClass(alwaysRun = true)
+   @Override
+   protected void destroyAfterClass() {
+      super.destroyAfterClass();
+      Util.recursiveFileRemove(tmpDirectory);
+   }
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.persistence()
+            .addSoftIndexFileStore()
+            .dataLocation(Paths.get(tmpDirectory, "data").toString())
+            .indexLocation(Paths.get(tmpDirectory, "index").toString())
+            .indexPageCacheSize(16 * 4096);
+      return TestCacheManagerFactory.createCacheManager(builder);
+   }
+
+   public void testInvalidPageCacheSize() {
+      Exceptions.expectException(CacheConfigurationException.class, ".*29027.*", () -> new ConfigurationBuilder()
+            .persistence().addSoftIndexFileStore().maxNodeSize(4096).indexPageCacheSize(4095).build());
+      new ConfigurationBuilder().persistence().addSoftIndexFileStore().maxNodeSize(4096).indexPageCacheSize(0).build();
+      new ConfigurationBuilder().persistence().addSoftIndexFileStore().maxNodeSize(4096).indexPageCacheSize(4096).build();
+   }
+
+   public void testWrittenNodesRead() {
+      for (int i = 0; i < 100; i++) {
+         cache.put("k" + i, "v" + i);
+      }
+      NonBlockingSoftIndexFileStore<?, ?> store = TestingUtil.getFirstStore(cache);
+      Index index = TestingUtil.extractField(store, "index");
+      IndexPageCache pageCache = TestingUtil.extractField(index, "pageCache");
+      Index.Segment[] segments = TestingUtil.extractField(index, "segments");
+
+      eventually(() -> {
+         for (Index.Segment segment : segments) {
+            IndexNode root = TestingUtil.extractField(segment, "root");
+            long offset = TestingUtil.extractField(root, "offset");
+            if (offset >= 0) {
+               // Nodes written to the index file are read back from memory
+               long hits = pageCache.hits();
+               try {
+                  new IndexNode(segment, offset, TestingUtil.extractField(root, "occupiedSpace"));
+               } catch (IOException e) {
+                  throw new AssertionError(e);
+               }
+               assertEquals(hits + 1, pageCache.hits());
+               return true;
+            }
+         }
+         return false;
+      });
+   }
+
+   @Test(dependsOnMethods = "testWrittenNodesRead")
+   public void testReleasedOnStop() {
+      NonBlockingSoftIndexFileStore<?, ?> store = TestingUtil.getFirstStore(cache);
+      Index index = TestingUtil.extractField(store, "index");
+      IndexPageCache pageCache = TestingUtil.extractField(index, "pageCache");
+
+      cache.stop();
+      assertTrue(TestingUtil.<Boolean>extractField(pageCache, "stopped"));
+   }
+}
@@ -0,0 +1,136 @@
+package org.infinispan.persistence.support;
+
+import static org.infinispan.test.TestingUtil.getCacheObjectName;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.infinispan.commons.jmx.MBeanServerLookup;
+import org.infinispan.commons.jmx.TestMBeanServerLookup;
+import org.infinispan.commons.test.CommonsTestingUtil;
+import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the async store with a modification queue bounded by size, spilling to disk.
+ *
+ * @since 16.0
+ */
+@Test(groups = "functional", testName = "persistence.support.BoundedAsyncStoreTest")
+public class BoundedAsyncStoreTest extends SingleCacheManagerTest {
+   private static final String JMX_DOMAIN = BoundedAsyncStoreTest.class.getName();
+   private static final int MAX_BYTES = 4096;
+   private static final int VALUE_SIZE = 1024;
+
+   private final MBeanServerLookup mBeanServerLookup = TestMBeanServerLookup.create();
+   private final String tmpDirectory = CommonsTestingUtil.tmpDirectory(getClass());
+   private ObjectName statisticsObjectName;
+
+   public BoundedAsyncStoreTest() {
+      cleanup = CleanupPhase.AFTER_METHOD;
+   }
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      GlobalConfigurationBuilder global = new GlobalConfigurationBuilder().nonClusteredDefault();
+      global.jmx().enabled(true).domain(JMX_DOMAIN).mBeanServerLookup(mBeanServerLookup);
+      global.globalState().temporaryLocation(tmpDirectory);
+
+      ConfigurationBuilder builder = getDefaultStandaloneCacheConfig(false);
+      builder.persistence()
+            .addStore(DelayStore.ConfigurationBuilder.class)
+            .async()
+               .enable()
+               .modificationQueueMaxBytes(MAX_BYTES)
+               .spillToDisk(true);
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(global, null);
+      cm.defineConfiguration("test", builder.build());
+      cache = cm.getCache("test");
+      statisticsObjectName = getCacheObjectName(JMX_DOMAIN, "test(local)", "AsyncStore");
+      return cm;
+   }
+
+   @AfterClass(alwaysRun = true)
+   protected void clearTempDir() {
+      Util.recursiveFileRemove(tmpDirectory);
+   }
+
+   public void testSpillToDisk() throws Exception {
+      DelayStore store = TestingUtil.getFirstStore(cache);
+      store.delayBeforeModification(Integer.MAX_VALUE);
+      Map<String, String> expected = new HashMap<>();
+      try {
+         for (int i = 0; i < 20; i++) {
+            String value = String.valueOf(i).repeat(VALUE_SIZE);
+            cache.put("k" + i, value);
+            expected.put("k" + i, value);
+         }
+         assertTrue(this.<Long>statistic("SpilledWrites") > 0);
+         assertTrue(this.<Integer>statistic("SpilledModifications") > 0);
+         assertTrue(this.<Long>statistic("QueueBytes") <= MAX_BYTES + 20L * 64);
+
+         // Spilled entries are read back from disk
+         for (String key : expected.keySet()) {
+            cache.evict(key);
+         }
+         assertEquals(expected, new HashMap<>(cache));
+         for (Map.Entry<String, String> entry : expected.entrySet()) {
+            cache.evict(entry.getKey());
+            assertEquals(entry.getValue(), cache.get(entry.getKey()));
+         }
+      } finally {
+         store.endDelay();
+      }
+      eventuallyEquals(0, () -> this.<Integer>statistic("QueueSize"));
+      assertEquals(0, (int) statistic("SpilledModifications"));
+      assertEquals(expected.keySet(), store.keySet());
+      assertTrue(this.<Long>statistic("Flushes") > 0);
+
+      // The spill file is reused once the spilled entries are written
+      cache.put("k0", "v0");
+      cache.evict("k0");
+      assertEquals("v0", cache.get("k0"));
+   }
+
+   public void testCoalescedWrites() throws Exception {
+      DelayStore store = TestingUtil.getFirstStore(cache);
+      store.delayBeforeModification(Integer.MAX_VALUE);
+      try {
+         for (int i = 0; i < 10; i++) {
+            cache.put("k", "v" + i);
+         }
+         assertEquals(10L, (long) statistic("Writes"));
+         // The first write starts a batch, the second is queued and the others replace it
+         assertEquals(8L, (long) statistic("CoalescedWrites"));
+         assertEquals(0.8, this.<Double>statistic("CoalescingRatio"), 0.001);
+         assertEquals(2, (int) statistic("QueueSize"));
+      } finally {
+         store.endDelay();
+      }
+      eventuallyEquals(0, () -> this.<Integer>statistic("QueueSize"));
+      cache.evict("k");
+      assertEquals("v9", cache.get("k"));
+   }
+
+   @SuppressWarnings("unchecked")
+   private <T> T statistic(String name) {
+      MBeanServer mBeanServer = mBeanServerLookup.getMBeanServer();
+      try {
+         return (T) mBeanServer.getAttribute(statisticsObjectName, name);
+      } catch (Exception e) {
+         throw new AssertionError(e);
+      }
+   }
+}
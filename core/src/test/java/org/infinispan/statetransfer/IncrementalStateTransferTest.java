@@ -0,0 +1,153 @@
+package org.infinispan.statetransfer;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.commands.remote.CacheRpcCommand;
+import org.infinispan.commands.statetransfer.StateResponseCommand;
+import org.infinispan.commons.test.CommonsTestingUtil;
+import org.infinispan.commons.time.ControlledTimeService;
+import org.infinispan.commons.time.TimeService;
+import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.context.Flag;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.rpc.RpcOptions;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.remoting.transport.ResponseCollector;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.CleanupAfterMethod;
+import org.infinispan.util.AbstractDelegatingRpcManager;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that a node restarting with its global state and its store only receives the entries changed and the keys
+ * removed while it was down.
+ *
+ * @since 16.0
+ */
+@Test(groups = "functional", testName = "statetransfer.IncrementalStateTransferTest")
+@CleanupAfterMethod
+public class IncrementalStateTransferTest extends MultipleCacheManagersTest {
+   private static final String CACHE_NAME = "incremental";
+   private static final int NUM_KEYS = 200;
+
+   private final File tmpDir = new File(CommonsTestingUtil.tmpDirectory(getClass()));
+   private final ControlledTimeService timeService = new ControlledTimeService();
+   private ConfigurationBuilder builder;
+
+   @Override
+   protected void createCacheManagers() {
+      Util.recursiveFileRemove(tmpDir);
+      builder = getDefaultClusteredCacheConfig(CacheMode.REPL_SYNC);
+      builder.clustering().stateTransfer().incrementalRetention("1h");
+      builder.persistence().addSoftIndexFileStore();
+      for (int i = 0; i < 3; i++) {
+         addNode(i);
+      }
+      waitForClusterToForm(CACHE_NAME);
+   }
+
+   @AfterClass(alwaysRun = true)
+   protected void clearTempDir() {
+      Util.recursiveFileRemove(tmpDir);
+   }
+
+   private void addNode(int index) {
+      GlobalConfigurationBuilder global = GlobalConfigurationBuilder.defaultClusteredBuilder();
+      global.globalState().enable().persistentLocation(new File(tmpDir, String.valueOf(index)).getPath());
+      EmbeddedCacheManager manager = addClusterEnabledCacheManager(global, null);
+      TestingUtil.replaceComponent(manager, TimeService.class, timeService, true);
+      manager.defineConfiguration(CACHE_NAME, builder.build());
+      manager.getCache(CACHE_NAME);
+   }
+
+   public void testRestartedNodeOnlyReceivesChanges() {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache(0, CACHE_NAME).put("k" + i, "v" + i);
+      }
+
+      timeService.advance(TimeUnit.MINUTES.toMillis(10));
+      killMember(2, CACHE_NAME);
+
+      timeService.advance(TimeUnit.MINUTES.toMillis(10));
+      cache(0, CACHE_NAME).put("k0", "changed");
+      cache(1, CACHE_NAME).remove("k1");
+
+      AtomicInteger sentEntries = new AtomicInteger();
+      AtomicInteger removedKeys = new AtomicInteger();
+      countSentState(sentEntries, removedKeys);
+
+      addNode(2);
+      waitForClusterToForm(CACHE_NAME);
+
+      assertEquals(1, sentEntries.get());
+      assertEquals(1, removedKeys.get());
+      AdvancedCache<Object, Object> restarted = advancedCache(2, CACHE_NAME).withFlags(Flag.CACHE_MODE_LOCAL);
+      assertEquals("changed", restarted.get("k0"));
+      assertNull(restarted.get("k1"));
+      for (int i = 2; i < NUM_KEYS; i++) {
+         assertEquals("v" + i, restarted.get("k" + i));
+      }
+   }
+
+   public void testRestartedAfterRetentionReceivesWholeSegments() {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache(0, CACHE_NAME).put("k" + i, "v" + i);
+      }
+
+      timeService.advance(TimeUnit.MINUTES.toMillis(10));
+      killMember(2, CACHE_NAME);
+
+      // Longer than the default retention of the changes
+      timeService.advance(TimeUnit.HOURS.toMillis(2));
+      cache(0, CACHE_NAME).put("k0", "changed");
+      cache(1, CACHE_NAME).remove("k1");
+
+      AtomicInteger sentEntries = new AtomicInteger();
+      AtomicInteger removedKeys = new AtomicInteger();
+      countSentState(sentEntries, removedKeys);
+
+      addNode(2);
+      waitForClusterToForm(CACHE_NAME);
+
+      assertEquals(NUM_KEYS - 1, sentEntries.get());
+      assertEquals(0, removedKeys.get());
+      AdvancedCache<Object, Object> restarted = advancedCache(2, CACHE_NAME).withFlags(Flag.CACHE_MODE_LOCAL);
+      assertEquals("changed", restarted.get("k0"));
+   }
+
+   private void countSentState(AtomicInteger sentEntries, AtomicInteger removedKeys) {
+      for (int i = 0; i < 2; i++) {
+         TestingUtil.wrapComponent(cache(i, CACHE_NAME), RpcManager.class,
+               rpcManager -> new AbstractDelegatingRpcManager(rpcManager) {
+            @Override
+            protected <T> CompletionStage<T> performRequest(Collection<Address> targets, CacheRpcCommand command,
+                                                            ResponseCollector<Address, T> collector,
+                                                            Function<ResponseCollector<Address, T>, CompletionStage<T>> invoker,
+                                                            RpcOptions rpcOptions) {
+               if (command instanceof StateResponseCommand) {
+                  for (StateChunk chunk : ((StateResponseCommand) command).getStateChunks()) {
+                     sentEntries.addAndGet(chunk.getCacheEntries().size());
+                     removedKeys.addAndGet(chunk.getRemovedKeys().size());
+                  }
+               }
+               return super.performRequest(targets, command, collector, invoker, rpcOptions);
+            }
+         });
+      }
+   }
+}
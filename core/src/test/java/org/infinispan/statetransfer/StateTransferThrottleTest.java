@@ -0,0 +1,158 @@
+package org.infinispan.statetransfer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.statetransfer.StateResponseCommand;
+import org.infinispan.commons.time.ControlledTimeService;
+import org.infinispan.commons.util.IntSets;
+import org.infinispan.commons.util.concurrent.CompletableFutures;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.entries.ImmortalCacheEntry;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.marshall.persistence.PersistenceMarshaller;
+import org.infinispan.reactive.publisher.impl.Notifications;
+import org.infinispan.reactive.publisher.impl.SegmentPublisherSupplier;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.Test;
+
+import io.reactivex.rxjava3.core.Flowable;
+
+/**
+ * Tests the chunk sizing, the bandwidth limit and the back-off of {@link StateTransferThrottle}.
+ *
+ * @since 16.0
+ */
+@Test(groups = "unit", testName = "statetransfer.StateTransferThrottleTest")
+public class StateTransferThrottleTest extends AbstractInfinispanTest {
+   private final ControlledTimeService timeService = new ControlledTimeService();
+
+   private StateTransferThrottle throttle(ConfigurationBuilder builder) {
+      StateTransferThrottle throttle = new StateTransferThrottle();
+      throttle.configuration = builder.build();
+      throttle.timeService = timeService;
+      throttle.marshaller = mock(PersistenceMarshaller.class);
+      throttle.nonBlockingExecutor = testExecutor();
+      throttle.start();
+      return throttle;
+   }
+
+   private ConfigurationBuilder builder() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.clustering().cacheMode(CacheMode.DIST_SYNC);
+      return builder;
+   }
+
+   public void testDisabledWithoutLimits() {
+      assertFalse(throttle(builder()).isEnabled());
+
+      ConfigurationBuilder builder = builder();
+      builder.clustering().stateTransfer().maxBandwidth(1_000_000);
+      assertTrue(throttle(builder).isEnabled());
+   }
+
+   public void testStringSizeInUtf8() {
+      StateTransferThrottle throttle = throttle(builder());
+      assertEquals(5, throttle.estimateSize("ascii"));
+      assertEquals(2, throttle.estimateSize("\u00e9"));
+      assertEquals(3, throttle.estimateSize("\u20ac"));
+      assertEquals(4, throttle.estimateSize("\ud83d\ude00"));
+   }
+
+   public void testChunksLimitedByBytes() throws Exception {
+      ConfigurationBuilder builder = builder();
+      builder.clustering().stateTransfer().chunkMaxBytes(100);
+      StateTransferThrottle throttle = throttle(builder);
+
+      RpcManager rpcManager = mock(RpcManager.class);
+      CommandsFactory commandsFactory = mock(CommandsFactory.class);
+      ArgumentCaptor<Collection<StateChunk>> chunksCaptor = ArgumentCaptor.forClass(Collection.class);
+      when(commandsFactory.buildStateResponseCommand(anyInt(), chunksCaptor.capture(), anyBoolean()))
+            .thenReturn(mock(StateResponseCommand.class));
+      when(rpcManager.invokeCommand(any(Address.class), any(), any(), any()))
+            .thenAnswer(i -> CompletableFutures.completedNull());
+
+      OutboundTransferTask task = new OutboundTransferTask(Address.LOCAL, IntSets.immutableSet(0), 1, 512, 1,
+            chunks -> {}, rpcManager, commandsFactory, 10_000, "mock-cache", true, throttle);
+
+      // Each entry is larger than the limit, so each chunk has a single entry
+      String value = "v".repeat(70);
+      List<SegmentPublisherSupplier.Notification<InternalCacheEntry<?, ?>>> notifications = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+         notifications.add(Notifications.value(new ImmortalCacheEntry("k" + i, value), 0));
+      }
+      notifications.add(Notifications.segmentComplete(0));
+      task.execute(Flowable.fromIterable(notifications)).toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+      int entries = 0;
+      for (Collection<StateChunk> chunks : chunksCaptor.getAllValues()) {
+         for (StateChunk chunk : chunks) {
+            assertTrue(chunk.getCacheEntries().size() <= 1);
+            entries += chunk.getCacheEntries().size();
+         }
+      }
+      assertEquals(10, entries);
+      assertEquals(10, throttle.getEntriesSent());
+      assertEquals(1, throttle.getSegmentsSent());
+      assertEquals(10 * (StateTransferThrottle.ENTRY_OVERHEAD + 2 + 70), throttle.getBytesSent());
+      assertEquals(0, throttle.getActiveTransfers());
+   }
+
+   public void testBandwidthLimit() throws Exception {
+      ConfigurationBuilder builder = builder();
+      builder.clustering().stateTransfer().maxBandwidth(10_000);
+      StateTransferThrottle throttle = throttle(builder);
+
+      // The bucket starts with one second worth of bytes
+      assertTrue(throttle.acquire(8_000).toCompletableFuture().isDone());
+      CompletionStage<Void> delayed = throttle.acquire(4_000);
+      assertFalse(delayed.toCompletableFuture().isDone());
+      assertEquals(200, throttle.getThrottledTime());
+      delayed.toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+      // The debt is repaid as time passes
+      timeService.advance(1_000);
+      assertTrue(throttle.acquire(8_000).toCompletableFuture().isDone());
+   }
+
+   public void testBackoff() {
+      ConfigurationBuilder builder = builder();
+      builder.clustering().stateTransfer().maxBandwidth(1_000_000).backoffLatency(100);
+      StateTransferThrottle throttle = throttle(builder);
+
+      // Slow acknowledgements halve the bandwidth
+      long start = throttle.startChunk();
+      timeService.advance(500);
+      throttle.chunkSent(1, 1_000, start);
+      assertEquals(500_000, throttle.getBandwidth());
+      assertEquals(1, throttle.getBackoffs());
+
+      // Fast acknowledgements restore it gradually
+      for (int i = 0; i < 100; i++) {
+         timeService.advance(200);
+         start = throttle.startChunk();
+         timeService.advance(1);
+         throttle.chunkSent(1, 1_000, start);
+      }
+      assertEquals(1_000_000, throttle.getBandwidth());
+      assertTrue(throttle.getBackoffs() > 1);
+      assertTrue(throttle.getBackoffs() < 100);
+   }
+}
@@ -0,0 +1,93 @@
+package org.infinispan.statetransfer;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.test.CommonsTestingUtil;
+import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.container.impl.InternalDataContainer;
+import org.infinispan.context.Flag;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.LocalizedCacheTopology;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.CleanupAfterMethod;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that state transfer ships the segments as serialized by stores with the
+ * {@link org.infinispan.persistence.spi.NonBlockingStore.Characteristic#SEGMENT_TRANSFER} characteristic, and that
+ * the joiner writes them directly to its store.
+ *
+ * @since 16.0
+ */
+@Test(groups = "functional", testName = "statetransfer.StoreSegmentTransferTest")
+@CleanupAfterMethod
+public class StoreSegmentTransferTest extends MultipleCacheManagersTest {
+   private static final int NUM_KEYS = 200;
+
+   private final File tmpDir = new File(CommonsTestingUtil.tmpDirectory(getClass()));
+   private ConfigurationBuilder builder;
+
+   @Override
+   protected void createCacheManagers() {
+      Util.recursiveFileRemove(tmpDir);
+      builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC);
+      builder.clustering().hash().numOwners(2)
+            .stateTransfer().chunkSize(16)
+            .persistence().addSoftIndexFileStore();
+      addNode(0);
+      addNode(1);
+      waitForClusterToForm();
+   }
+
+   @AfterClass(alwaysRun = true)
+   protected void clearTempDir() {
+      Util.recursiveFileRemove(tmpDir);
+   }
+
+   private void addNode(int index) {
+      GlobalConfigurationBuilder global = GlobalConfigurationBuilder.defaultClusteredBuilder();
+      global.globalState().enable().persistentLocation(new File(tmpDir, String.valueOf(index)).getPath());
+      addClusterEnabledCacheManager(global, builder);
+   }
+
+   public void testJoinerAdoptsStoreSegments() {
+      assertTrue(TestingUtil.extractComponent(cache(0), PersistenceManager.class).isSegmentTransferSupported());
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache(0).put("k" + i, "v" + i, 10, TimeUnit.MINUTES);
+      }
+
+      addNode(2);
+      waitForClusterToForm();
+
+      Cache<Object, Object> joiner = cache(2);
+      // The entries received by the joiner were only written to its store
+      assertEquals(0, TestingUtil.extractComponent(joiner, InternalDataContainer.class).sizeIncludingExpired());
+      LocalizedCacheTopology topology = TestingUtil.extractComponent(joiner, DistributionManager.class).getCacheTopology();
+      int owned = 0;
+      for (int i = 0; i < NUM_KEYS; i++) {
+         String key = "k" + i;
+         CacheEntry<Object, Object> entry = joiner.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL).getCacheEntry(key);
+         if (topology.isWriteOwner(key)) {
+            owned++;
+            assertEquals("v" + i, entry.getValue());
+            assertEquals(TimeUnit.MINUTES.toMillis(10), entry.getLifespan());
+         }
+         assertEquals("v" + i, joiner.get(key));
+      }
+      assertTrue(owned > 0);
+      PersistenceManager persistenceManager = TestingUtil.extractComponent(joiner, PersistenceManager.class);
+      assertEquals(owned, (long) persistenceManager.size().toCompletableFuture().join());
+   }
+}
@@ -0,0 +1,332 @@
+package org.infinispan.multimap.impl;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * Immutable list made of fixed capacity chunks, used as the storage of {@link ListBucket}.
+ * <p>
+ * Similar to the Redis quicklist: the elements are split in arrays of at most {@link #CHUNK_SIZE} elements. Every
+ * update returns a new list that shares all the chunks it did not modify with the original one, so pushing or popping
+ * at either end only copies a single chunk plus the chunk references. Positional access binary searches the cumulative
+ * chunk sizes, which skips whole chunks instead of walking the elements.
+ * <p>
+ * Chunks are never modified once they are referenced by a list, and the methods inherited from {@link java.util.List}
+ * that would modify the list throw {@link UnsupportedOperationException}.
+ *
+ * @since 16.0
+ */
+final class ChunkedList<V> extends AbstractList<V> {
+   static final int CHUNK_SIZE = 128;
+
+   private static final Object[][] NO_CHUNKS = new Object[0][];
+   private static final ChunkedList<?> EMPTY = new ChunkedList<>(NO_CHUNKS);
+
+   private final Object[][] chunks;
+   // ends[i] is the number of elements in chunks 0 to i, both included
+   private final int[] ends;
+
+   private ChunkedList(Object[][] chunks) {
+      this.chunks = chunks;
+      this.ends = new int[chunks.length];
+      int total = 0;
+      for (int i = 0; i < chunks.length; i++) {
+         total += chunks[i].length;
+         ends[i] = total;
+      }
+   }
+
+   @SuppressWarnings("unchecked")
+   static <V> ChunkedList<V> empty() {
+      return (ChunkedList<V>) EMPTY;
+   }
+
+   static <V> ChunkedList<V> of(Collection<? extends V> values) {
+      return values.isEmpty() ? empty() : new ChunkedList<>(toChunks(values.toArray()));
+   }
+
+   private static Object[][] toChunks(Object[] values) {
+      Object[][] chunks = new Object[(values.length + CHUNK_SIZE - 1) / CHUNK_SIZE][];
+      for (int i = 0; i < chunks.length; i++) {
+         int from = i * CHUNK_SIZE;
+         chunks[i] = Arrays.copyOfRange(values, from, Math.min(from + CHUNK_SIZE, values.length));
+      }
+      return chunks;
+   }
+
+   @Override
+   public int size() {
+      return ends.length == 0 ? 0 : ends[ends.length - 1];
+   }
+
+   @Override
+   public boolean isEmpty() {
+      return chunks.length == 0;
+   }
+
+   private int chunkStart(int chunk) {
+      return chunk == 0 ? 0 : ends[chunk - 1];
+   }
+
+   private int chunkOf(int index) {
+      int pos = Arrays.binarySearch(ends, index);
+      // An exact match means the index is the first element of the following chunk
+      return pos >= 0 ? pos + 1 : -pos - 1;
+   }
+
+   private void checkIndex(int index) {
+      if (index < 0 || index >= size())
+         throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public V get(int index) {
+      checkIndex(index);
+      int chunk = chunkOf(index);
+      return (V) chunks[chunk][index - chunkStart(chunk)];
+   }
+
+   V first() {
+      if (isEmpty())
+         throw new NoSuchElementException();
+      return get(0);
+   }
+
+   V last() {
+      if (isEmpty())
+         throw new NoSuchElementException();
+      return get(size() - 1);
+   }
+
+   /**
+    * @return a new list with the element at the given position replaced, only the chunk holding it is copied.
+    */
+   ChunkedList<V> with(int index, V value) {
+      checkIndex(index);
+      int chunk = chunkOf(index);
+      Object[] copy = chunks[chunk].clone();
+      copy[index - chunkStart(chunk)] = value;
+      Object[][] newChunks = chunks.clone();
+      newChunks[chunk] = copy;
+      return new ChunkedList<>(newChunks);
+   }
+
+   /**
+    * @return a new list with the element inserted at the given position, splitting the target chunk if it is full.
+    */
+   ChunkedList<V> insert(int index, V value) {
+      if (index < 0 || index > size())
+         throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+      if (index == 0)
+         return prependAll(Collections.singletonList(value));
+      if (index == size())
+         return appendAll(Collections.singletonList(value));
+
+      int chunk = chunkOf(index);
+      Object[] source = chunks[chunk];
+      int offset = index - chunkStart(chunk);
+      Object[] merged = new Object[source.length + 1];
+      System.arraycopy(source, 0, merged, 0, offset);
+      merged[offset] = value;
+      System.arraycopy(source, offset, merged, offset + 1, source.length - offset);
+
+      if (merged.length <= CHUNK_SIZE) {
+         Object[][] newChunks = chunks.clone();
+         newChunks[chunk] = merged;
+         return new ChunkedList<>(newChunks);
+      }
+
+      int half = merged.length / 2;
+      Object[][] newChunks = new Object[chunks.length + 1][];
+      System.arraycopy(chunks, 0, newChunks, 0, chunk);
+      newChunks[chunk] = Arrays.copyOfRange(merged, 0, half);
+      newChunks[chunk + 1] = Arrays.copyOfRange(merged, half, merged.length);
+      System.arraycopy(chunks, chunk + 1, newChunks, chunk + 2, chunks.length - chunk - 1);
+      return new ChunkedList<>(newChunks);
+   }
+
+   /**
+    * @param values the elements to add, in the order they must appear at the head of the list
+    * @return a new list with the values added before the current elements
+    */
+   ChunkedList<V> prependAll(Collection<? extends V> values) {
+      if (values.isEmpty())
+         return this;
+      if (isEmpty())
+         return of(values);
+
+      Object[] head = values.toArray();
+      Object[] first = chunks[0];
+      if (head.length + first.length <= CHUNK_SIZE) {
+         Object[] merged = new Object[head.length + first.length];
+         System.arraycopy(head, 0, merged, 0, head.length);
+         System.arraycopy(first, 0, merged, head.length, first.length);
+         Object[][] newChunks = chunks.clone();
+         newChunks[0] = merged;
+         return new ChunkedList<>(newChunks);
+      }
+      // Chunk the new elements from the end, so that only the new first chunk may be partially filled
+      int headChunks = (head.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+      Object[][] newChunks = new Object[headChunks + chunks.length][];
+      int to = head.length;
+      for (int i = headChunks - 1; i >= 0; i--) {
+         int from = Math.max(0, to - CHUNK_SIZE);
+         newChunks[i] = Arrays.copyOfRange(head, from, to);
+         to = from;
+      }
+      System.arraycopy(chunks, 0, newChunks, headChunks, chunks.length);
+      return new ChunkedList<>(newChunks);
+   }
+
+   /**
+    * @param values the elements to add, in the order they must appear at the tail of the list
+    * @return a new list with the values added after the current elements
+    */
+   ChunkedList<V> appendAll(Collection<? extends V> values) {
+      if (values.isEmpty())
+         return this;
+      if (isEmpty())
+         return of(values);
+
+      Object[] tail = values.toArray();
+      Object[] last = chunks[chunks.length - 1];
+      if (last.length + tail.length <= CHUNK_SIZE) {
+         Object[] merged = Arrays.copyOf(last, last.length + tail.length);
+         System.arraycopy(tail, 0, merged, last.length, tail.length);
+         Object[][] newChunks = chunks.clone();
+         newChunks[chunks.length - 1] = merged;
+         return new ChunkedList<>(newChunks);
+      }
+      Object[][] tailChunks = toChunks(tail);
+      Object[][] newChunks = Arrays.copyOf(chunks, chunks.length + tailChunks.length);
+      System.arraycopy(tailChunks, 0, newChunks, chunks.length, tailChunks.length);
+      return new ChunkedList<>(newChunks);
+   }
+
+   /**
+    * Returns the elements between two positions, sharing every chunk that is fully contained in the range.
+    *
+    * @param from first position, inclusive
+    * @param to last position, exclusive
+    */
+   ChunkedList<V> slice(int from, int to) {
+      from = Math.max(from, 0);
+      to = Math.min(to, size());
+      if (from >= to)
+         return empty();
+      if (from == 0 && to == size())
+         return this;
+
+      int firstChunk = chunkOf(from);
+      int lastChunk = chunkOf(to - 1);
+      Object[][] newChunks = Arrays.copyOfRange(chunks, firstChunk, lastChunk + 1);
+      int lastOffset = to - chunkStart(lastChunk);
+      if (lastOffset < chunks[lastChunk].length) {
+         newChunks[newChunks.length - 1] = Arrays.copyOf(chunks[lastChunk], lastOffset);
+      }
+      int firstOffset = from - chunkStart(firstChunk);
+      if (firstOffset > 0) {
+         newChunks[0] = Arrays.copyOfRange(newChunks[0], firstOffset, newChunks[0].length);
+      }
+      return new ChunkedList<>(newChunks);
+   }
+
+   /**
+    * Copies the elements between two positions.
+    *
+    * @param from first position, inclusive
+    * @param to last position, exclusive
+    * @param reverse whether the elements are returned from <code>to - 1</code> down to <code>from</code>
+    */
+   List<V> copy(int from, int to, boolean reverse) {
+      from = Math.max(from, 0);
+      to = Math.min(to, size());
+      if (from >= to)
+         return new ArrayList<>(0);
+
+      List<V> result = new ArrayList<>(to - from);
+      Iterator<V> it = reverse ? descendingIterator(to) : iterator(from);
+      for (int i = from; i < to; i++) {
+         result.add(it.next());
+      }
+      return result;
+   }
+
+   @Override
+   public Iterator<V> iterator() {
+      return iterator(0);
+   }
+
+   /**
+    * @return an iterator starting at the given position and moving towards the tail
+    */
+   Iterator<V> iterator(int index) {
+      return new Iterator<>() {
+         int chunk = index < size() ? chunkOf(index) : chunks.length;
+         int offset = chunk < chunks.length ? index - chunkStart(chunk) : 0;
+
+         @Override
+         public boolean hasNext() {
+            return chunk < chunks.length;
+         }
+
+         @Override
+         @SuppressWarnings("unchecked")
+         public V next() {
+            if (!hasNext())
+               throw new NoSuchElementException();
+            V value = (V) chunks[chunk][offset++];
+            if (offset == chunks[chunk].length) {
+               chunk++;
+               offset = 0;
+            }
+            return value;
+         }
+      };
+   }
+
+   Iterator<V> descendingIterator() {
+      return descendingIterator(size());
+   }
+
+   /**
+    * @return an iterator starting at the position before <code>end</code> and moving towards the head
+    */
+   Iterator<V> descendingIterator(int end) {
+      return new Iterator<>() {
+         int chunk = end > 0 ? chunkOf(end - 1) : -1;
+         int offset = chunk >= 0 ? end - 1 - chunkStart(chunk) : -1;
+
+         @Override
+         public boolean hasNext() {
+            return chunk >= 0;
+         }
+
+         @Override
+         @SuppressWarnings("unchecked")
+         public V next() {
+            if (!hasNext())
+               throw new NoSuchElementException();
+            V value = (V) chunks[chunk][offset--];
+            if (offset < 0 && --chunk >= 0) {
+               offset = chunks[chunk].length - 1;
+            }
+            return value;
+         }
+      };
+   }
+
+   @Override
+   public Spliterator<V> spliterator() {
+      return Spliterators.spliterator(this, Spliterator.ORDERED);
+   }
+}
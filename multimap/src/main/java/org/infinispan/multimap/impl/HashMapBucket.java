@@ -45,11 +45,14 @@ Collection<BucketEntry<K, V>> getWrappedValues() {
    public HashMapBucketResponse<Integer, K, V> putAll(Map<K, V> map) {
       Map<MultimapObjectWrapper<K>, V> copied = new HashMap<>(values);
       int res = 0;
+      boolean changed = false;
       for (Map.Entry<K, V> entry : map.entrySet()) {
          V prev = copied.put(new MultimapObjectWrapper<>(entry.getKey()), entry.getValue());
          if (prev == null) res++;
+         changed |= prev == null || !equalValues(prev, entry.getValue());
       }
-      return new HashMapBucketResponse<>(res, new HashMapBucket<>(copied));
+      // Return the same instance when the values are unchanged, so callers can skip the write.
+      return new HashMapBucketResponse<>(res, changed ? new HashMapBucket<>(copied) : this);
    }
 
    public HashMapBucketResponse<Integer, K, V> putIfAbsent(Map<K, V> map) {
@@ -62,7 +65,7 @@ public HashMapBucketResponse<Integer, K, V> putIfAbsent(Map<K, V> map) {
             return entry.getValue();
          });
       }
-      return new HashMapBucketResponse<>(created.get(), new HashMapBucket<>(copied));
+      return new HashMapBucketResponse<>(created.get(), created.get() > 0 ? new HashMapBucket<>(copied) : this);
    }
 
    public Map<K, V> getAll(Set<K> keys) {
@@ -93,7 +96,7 @@ public HashMapBucketResponse<Integer, K, V> removeAll(Collection<K> keys) {
 
          copied.put(entry.getKey(), entry.getValue());
       }
-      return new HashMapBucketResponse<>(res, new HashMapBucket<>(copied));
+      return new HashMapBucketResponse<>(res, res > 0 ? new HashMapBucket<>(copied) : this);
    }
 
    public V get(K k) {
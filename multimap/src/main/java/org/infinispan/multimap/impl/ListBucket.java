@@ -28,35 +28,33 @@
 @ProtoTypeId(ProtoStreamTypeIds.MULTIMAP_LIST_BUCKET)
 public class ListBucket<V> implements SortableBucket<V> {
 
-   final Deque<V> values;
+   final ChunkedList<V> values;
 
    public ListBucket() {
-      this.values = new ArrayDeque<>(0);
+      this.values = ChunkedList.empty();
    }
 
    public ListBucket(V value) {
-      Deque<V> deque = new ArrayDeque<>(1);
-      deque.add(value);
-      this.values = deque;
+      this.values = ChunkedList.of(Collections.singletonList(value));
    }
 
-   private ListBucket(Deque<V> values) {
+   private ListBucket(ChunkedList<V> values) {
       this.values = values;
    }
 
    public static <V> ListBucket<V> create(Collection<V> value) {
-      return new ListBucket<>(new ArrayDeque<V>(value));
+      return new ListBucket<>(ChunkedList.of(value));
    }
 
    @ProtoFactory
    ListBucket(Collection<MarshallableUserObject<V>> wrappedValues) {
-      this((Deque<V>) wrappedValues.stream().map(MarshallableUserObject::get)
-            .collect(Collectors.toCollection(ArrayDeque::new)));
+      this(ChunkedList.of(wrappedValues.stream().map(MarshallableUserObject::get)
+            .collect(Collectors.toCollection(ArrayList::new))));
    }
 
    @ProtoField(number = 1, collectionImplementation = ArrayList.class)
    Collection<MarshallableUserObject<V>> getWrappedValues() {
-      return this.values.stream().map(MarshallableUserObject::new).collect(Collectors.toCollection(ArrayDeque::new));
+      return this.values.stream().map(MarshallableUserObject::new).collect(Collectors.toCollection(ArrayList::new));
    }
 
    public boolean contains(V value) {
@@ -89,17 +87,13 @@ public String toString() {
    }
 
    public ListBucket<V> offer(Collection<V> value, boolean first) {
-      Deque<V> newItems = new ArrayDeque<>(values);
       if (first) {
-         for (V v : value) {
-            newItems.offerFirst(v);
-         }
-      } else {
-         for (V v : value) {
-            newItems.offerLast(v);
-         }
+         // every value is offered in turn at the head, so they end up in reverse order
+         List<V> head = new ArrayList<>(value);
+         Collections.reverse(head);
+         return new ListBucket<>(values.prependAll(head));
       }
-      return new ListBucket<>(newItems);
+      return new ListBucket<>(values.appendAll(value));
    }
 
    public ListBucket<V> set(long index, V value) {
@@ -107,33 +101,8 @@ public ListBucket<V> set(long index, V value) {
          return null;
       }
 
-      ArrayDeque<V> newBucket = new ArrayDeque<>(values.size());
-      if (index >= 0) {
-         Iterator<V> ite = values.iterator();
-         int currentIndex = 0;
-         while (ite.hasNext()) {
-            V element = ite.next();
-            if (index == currentIndex) {
-               newBucket.offerLast(value);
-            } else {
-               newBucket.offerLast(element);
-            }
-            currentIndex++;
-         }
-      } else {
-         Iterator<V> ite = values.descendingIterator();
-         int currentIndex = -1;
-         while (ite.hasNext()) {
-            V element = ite.next();
-            if (index == currentIndex) {
-               newBucket.offerFirst(value);
-            } else {
-               newBucket.offerFirst(element);
-            }
-            currentIndex--;
-         }
-      }
-      return new ListBucket<>(newBucket);
+      int position = (int) (index >= 0 ? index : values.size() + index);
+      return new ListBucket<>(values.with(position, value));
    }
 
    public Collection<V> sublist(long from, long to) {
@@ -154,26 +123,13 @@ public Collection<V> sublist(long from, long to) {
          return Collections.emptyList();
       }
 
-      List<V> result = new ArrayList<>();
       long fromIte = from < 0 ? values.size() + from : from;
       long toIte = to < 0 ? values.size() + to : to;
+      return values.copy(clamp(fromIte), clamp(toIte + 1), false);
+   }
 
-      Iterator<V> ite = values.iterator();
-      int offset = 0;
-      while (ite.hasNext()) {
-         V element = ite.next();
-         if (offset < fromIte) {
-            offset++;
-            continue;
-         }
-         if (offset > toIte) {
-            break;
-         }
-
-         result.add(element);
-         offset++;
-      }
-      return result;
+   private int clamp(long position) {
+      return (int) Math.max(0, Math.min(position, values.size()));
    }
 
    public ListBucket<V> trim(long from, long to) {
@@ -195,28 +151,12 @@ public ListBucket<V> trim(long from, long to) {
 
       long startRemoveCount = from < 0 ? values.size() + from : from;
       long keepCount = (to < 0 ? values.size() + to : to) - startRemoveCount;
-
-      Deque<V> newValues = new ArrayDeque<>(values);
-      Iterator<V> ite = newValues.iterator();
-      while (ite.hasNext() && startRemoveCount > 0) {
-         ite.next();
-         ite.remove();
-         startRemoveCount--;
-      }
-
-      // keep elements
-      while (ite.hasNext() && keepCount >= 0) {
-         ite.next();
-         keepCount--;
-      }
-
-      // remove remaining elements
-      while (ite.hasNext()) {
-         ite.next();
-         ite.remove();
+      if (keepCount < 0) {
+         return new ListBucket<>();
       }
 
-      return new ListBucket<>(newValues);
+      long start = Math.max(startRemoveCount, 0);
+      return new ListBucket<>(values.slice(clamp(start), clamp(start + keepCount + 1)));
    }
 
    public Collection<Long> indexOf(V element, long count, long rank, long maxLen) {
@@ -254,33 +194,14 @@ public Collection<Long> indexOf(V element, long count, long rank, long maxLen) {
    }
 
    public ListBucket<V> insert(boolean before, V pivot, V element) {
-      Deque<V> newValues = new ArrayDeque<>(values.size() + 1);
-
-      Iterator<V> iterator = values.iterator();
-      boolean found = false;
-      while (iterator.hasNext()) {
-         V next = iterator.next();
-         if (found) {
-            newValues.offerLast(next);
-         } else {
-            if (Objects.deepEquals(pivot, next)) {
-               found = true;
-               if (before) {
-                  newValues.offerLast(element);
-                  newValues.offerLast(next);
-               } else {
-                  newValues.offerLast(next);
-                  newValues.offerLast(element);
-               }
-            } else {
-               newValues.offerLast(next);
-            }
+      int pos = 0;
+      for (V next : values) {
+         if (Objects.deepEquals(pivot, next)) {
+            return new ListBucket<>(values.insert(before ? pos : pos + 1, element));
          }
+         pos++;
       }
-      if (!found) {
-         return null;
-      }
-      return new ListBucket<>(newValues);
+      return null;
    }
 
    public ListBucketResult<Long, V> remove(long count, V element) {
@@ -308,20 +229,28 @@ public ListBucketResult<Long, V> remove(long count, V element) {
          }
       }
 
-      return new ListBucketResult<>(removedElements, new ListBucket<>(newItems));
+      if (removedElements == 0) {
+         return new ListBucketResult<>(0L, this);
+      }
+      return new ListBucketResult<>(removedElements, new ListBucket<>(ChunkedList.of(newItems)));
    }
 
    public ListBucketResult<V, V> rotate(boolean rotateRight) {
-      Deque<V> newItems = new ArrayDeque<>(values);
+      if (values.isEmpty()) {
+         return new ListBucketResult<>(null, this);
+      }
+
       V element;
+      ChunkedList<V> newItems;
+      int size = values.size();
       if (rotateRight) {
          // from head to tail
-         element = newItems.pollFirst();
-         newItems.offerLast(element);
+         element = values.first();
+         newItems = values.slice(1, size).appendAll(Collections.singletonList(element));
       } else {
          // from tail to head
-         element = newItems.pollLast();
-         newItems.offerFirst(element);
+         element = values.last();
+         newItems = values.slice(0, size - 1).prependAll(Collections.singletonList(element));
       }
       return new ListBucketResult<>(element, new ListBucket<>(newItems));
    }
@@ -351,7 +280,7 @@ public List<ScoredValue<V>> sort(SortOptions sortOptions) {
 
    public ListBucket<V> replace(Deque<V> list) {
       if (list != null && !list.isEmpty()) {
-         return new ListBucket<>(list);
+         return new ListBucket<>(ChunkedList.of(list));
       }
 
       return new ListBucket<>();
@@ -360,61 +289,36 @@ public ListBucket<V> replace(Deque<V> list) {
    public record ListBucketResult<R, E>(R result, ListBucket<E> bucket) { }
 
    public ListBucketResult<Collection<V>, V> poll(boolean first, long count) {
-      List<V> polledValues = new ArrayList<>();
-      if (count >= values.size()) {
-         if (first) {
-            polledValues.addAll(values);
-         } else {
-            Iterator<V> ite = values.descendingIterator();
-            while (ite.hasNext()) {
-               polledValues.add(ite.next());
-            }
-         }
-         return new ListBucketResult<>(polledValues, new ListBucket<>());
+      int size = values.size();
+      if (count >= size) {
+         return new ListBucketResult<>(values.copy(0, size, !first), new ListBucket<>());
       }
 
-      Deque<V> newItems = new ArrayDeque<>(values);
-      for (int i = 0; i < count; i++) {
-         if (first) {
-            polledValues.add(newItems.pollFirst());
-         } else {
-            polledValues.add(newItems.pollLast());
-         }
+      int polled = (int) Math.max(count, 0);
+      if (first) {
+         return new ListBucketResult<>(values.copy(0, polled, false), new ListBucket<>(values.slice(polled, size)));
       }
-      return new ListBucketResult<>(polledValues, new ListBucket<>(newItems));
+      return new ListBucketResult<>(values.copy(size - polled, size, true), new ListBucket<>(values.slice(0, size - polled)));
    }
 
    public V index(long index) {
       if (index == 0) {
-         return values.element();
+         return values.first();
       }
       if (index == values.size() - 1 || index == -1) {
-         return values.getLast();
+         return values.last();
       }
-      V result = null;
       if (index > 0) {
          if (index >= values.size()) {
             return null;
          }
-
-         Iterator<V> iterator = values.iterator();
-         int currentIndex = 0;
-         while (currentIndex++ <= index) {
-            result = iterator.next();
-         }
-      } else {
-         long currentIndex = Math.abs(index);
-         if (currentIndex > values.size()) {
-            return null;
-         }
-
-         Iterator<V> iterator = values.descendingIterator();
-         while (currentIndex-- > 0) {
-            result = iterator.next();
-         }
+         return values.get((int) index);
       }
 
-      return result;
+      if (Math.abs(index) > values.size()) {
+         return null;
+      }
+      return values.get((int) (values.size() + index));
    }
 
    @Override
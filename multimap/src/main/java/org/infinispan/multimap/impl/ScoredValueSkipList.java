@@ -0,0 +1,420 @@
+package org.infinispan.multimap.impl;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Indexable skip list holding the members of a {@link SortedSetBucket} in {@link ScoredValue} order.
+ * <p>
+ * Modelled after the Redis <code>zskiplist</code>: every forward link records how many nodes of the bottom level it
+ * skips, so both the rank of a member and the member at a given rank are found in O(log n) expected time. The bottom
+ * level is also linked backwards, which allows reverse range traversal from any position.
+ * <p>
+ * The span of a forward link is only meaningful while the link is not <code>null</code>.
+ * This class is not thread safe.
+ *
+ * @since 16.0
+ */
+final class ScoredValueSkipList<V> extends AbstractSet<ScoredValue<V>> {
+   private static final int MAX_LEVEL = 32;
+   // A node is promoted to the next level with a 1/4 probability, same as Redis
+   private static final int PROMOTION_MASK = 0x3;
+
+   private final Node<V> header = new Node<>(null, MAX_LEVEL);
+   private Node<V> tail;
+   private int level = 1;
+   private int size;
+
+   ScoredValueSkipList() {
+   }
+
+   ScoredValueSkipList(Collection<ScoredValue<V>> values) {
+      if (isStrictlyAscending(values)) {
+         appendAll(values);
+      } else {
+         addAll(values);
+      }
+   }
+
+   private static <V> boolean isStrictlyAscending(Collection<ScoredValue<V>> values) {
+      if (values instanceof ScoredValueSkipList)
+         return true;
+
+      ScoredValue<V> previous = null;
+      for (ScoredValue<V> value : values) {
+         if (previous != null && previous.compareTo(value) >= 0)
+            return false;
+         previous = value;
+      }
+      return true;
+   }
+
+   /**
+    * Builds the list in linear time from values that are already in strictly ascending order. Only invoked on an
+    * empty list.
+    */
+   @SuppressWarnings("unchecked")
+   private void appendAll(Iterable<ScoredValue<V>> values) {
+      Node<V>[] last = new Node[MAX_LEVEL];
+      int[] lastRank = new int[MAX_LEVEL];
+      for (int i = 0; i < MAX_LEVEL; i++) {
+         last[i] = header;
+      }
+
+      for (ScoredValue<V> value : values) {
+         int nodeLevel = randomLevel();
+         Node<V> node = new Node<>(value, nodeLevel);
+         int rank = ++size;
+         for (int i = 0; i < nodeLevel; i++) {
+            last[i].next[i] = node;
+            last[i].span[i] = rank - lastRank[i];
+            last[i] = node;
+            lastRank[i] = rank;
+         }
+         node.prev = tail;
+         tail = node;
+         if (nodeLevel > level) {
+            level = nodeLevel;
+         }
+      }
+   }
+
+   private static int randomLevel() {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      int level = 1;
+      while (level < MAX_LEVEL && (random.nextInt() & PROMOTION_MASK) == 0) {
+         level++;
+      }
+      return level;
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public boolean add(ScoredValue<V> value) {
+      Node<V>[] update = new Node[MAX_LEVEL];
+      int[] rank = new int[MAX_LEVEL];
+      Node<V> x = header;
+      for (int i = level - 1; i >= 0; i--) {
+         rank[i] = i == level - 1 ? 0 : rank[i + 1];
+         while (x.next[i] != null && x.next[i].value.compareTo(value) < 0) {
+            rank[i] += x.span[i];
+            x = x.next[i];
+         }
+         update[i] = x;
+      }
+
+      if (x.next[0] != null && x.next[0].value.compareTo(value) == 0)
+         return false;
+
+      int nodeLevel = randomLevel();
+      if (nodeLevel > level) {
+         for (int i = level; i < nodeLevel; i++) {
+            rank[i] = 0;
+            update[i] = header;
+            header.span[i] = size;
+         }
+         level = nodeLevel;
+      }
+
+      Node<V> node = new Node<>(value, nodeLevel);
+      for (int i = 0; i < nodeLevel; i++) {
+         node.next[i] = update[i].next[i];
+         update[i].next[i] = node;
+         node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+         update[i].span[i] = (rank[0] - rank[i]) + 1;
+      }
+      for (int i = nodeLevel; i < level; i++) {
+         update[i].span[i]++;
+      }
+
+      node.prev = update[0] == header ? null : update[0];
+      if (node.next[0] != null) {
+         node.next[0].prev = node;
+      } else {
+         tail = node;
+      }
+      size++;
+      return true;
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public boolean remove(Object o) {
+      if (!(o instanceof ScoredValue))
+         return false;
+
+      ScoredValue<V> value = (ScoredValue<V>) o;
+      Node<V>[] update = new Node[MAX_LEVEL];
+      Node<V> x = header;
+      for (int i = level - 1; i >= 0; i--) {
+         while (x.next[i] != null && x.next[i].value.compareTo(value) < 0) {
+            x = x.next[i];
+         }
+         update[i] = x;
+      }
+
+      x = x.next[0];
+      if (x == null || x.value.compareTo(value) != 0)
+         return false;
+
+      for (int i = 0; i < level; i++) {
+         if (update[i].next[i] == x) {
+            update[i].span[i] += x.span[i] - 1;
+            update[i].next[i] = x.next[i];
+         } else {
+            update[i].span[i]--;
+         }
+      }
+      if (x.next[0] != null) {
+         x.next[0].prev = x.prev;
+      } else {
+         tail = x.prev;
+      }
+      while (level > 1 && header.next[level - 1] == null) {
+         level--;
+      }
+      size--;
+      return true;
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public boolean contains(Object o) {
+      if (!(o instanceof ScoredValue))
+         return false;
+
+      ScoredValue<V> value = (ScoredValue<V>) o;
+      Node<V> x = header;
+      for (int i = level - 1; i >= 0; i--) {
+         while (x.next[i] != null && x.next[i].value.compareTo(value) < 0) {
+            x = x.next[i];
+         }
+      }
+      x = x.next[0];
+      return x != null && x.value.compareTo(value) == 0;
+   }
+
+   /**
+    * Counts the members ordered before the given value, or before and equal to it when <code>inclusive</code>.
+    * <p>
+    * The result is also the index at which the value is, or would be, stored. A value created with
+    * {@link ScoredValue#of(double)} compares equal to every member with the same score.
+    *
+    * @param value the value to rank
+    * @param inclusive whether members equal to the value are counted
+    * @return the number of members before the value
+    */
+   int rank(ScoredValue<V> value, boolean inclusive) {
+      Node<V> x = header;
+      int rank = 0;
+      for (int i = level - 1; i >= 0; i--) {
+         Node<V> next;
+         while ((next = x.next[i]) != null && isBefore(next.value, value, inclusive)) {
+            rank += x.span[i];
+            x = next;
+         }
+      }
+      return rank;
+   }
+
+   private static <V> boolean isBefore(ScoredValue<V> member, ScoredValue<V> value, boolean inclusive) {
+      int compare = member.compareTo(value);
+      return inclusive ? compare <= 0 : compare < 0;
+   }
+
+   /**
+    * @param index zero based position in ascending order
+    * @return the member stored at the given position
+    * @throws IndexOutOfBoundsException if the index is not between 0 (inclusive) and the size (exclusive)
+    */
+   ScoredValue<V> get(int index) {
+      return nodeAt(index).value;
+   }
+
+   private Node<V> nodeAt(int index) {
+      if (index < 0 || index >= size)
+         throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+
+      int target = index + 1;
+      int traversed = 0;
+      Node<V> x = header;
+      for (int i = level - 1; i >= 0; i--) {
+         while (x.next[i] != null && traversed + x.span[i] <= target) {
+            traversed += x.span[i];
+            x = x.next[i];
+         }
+         if (traversed == target)
+            return x;
+      }
+      throw new IllegalStateException("Inconsistent skip list spans");
+   }
+
+   /**
+    * Copies the members between two positions of the ascending order.
+    *
+    * @param from zero based first position, inclusive
+    * @param to last position, exclusive
+    * @param reverse whether the members are returned in descending order, starting from <code>to - 1</code>
+    * @return a new list with the members in the range, empty if <code>from >= to</code>
+    */
+   List<ScoredValue<V>> range(int from, int to, boolean reverse) {
+      from = Math.max(from, 0);
+      to = Math.min(to, size);
+      if (from >= to)
+         return Collections.emptyList();
+
+      int count = to - from;
+      List<ScoredValue<V>> result = new ArrayList<>(count);
+      if (reverse) {
+         for (Node<V> x = nodeAt(to - 1); result.size() < count; x = x.prev) {
+            result.add(x.value);
+         }
+      } else {
+         for (Node<V> x = nodeAt(from); result.size() < count; x = x.next[0]) {
+            result.add(x.value);
+         }
+      }
+      return result;
+   }
+
+   ScoredValue<V> first() {
+      if (size == 0)
+         throw new NoSuchElementException();
+      return header.next[0].value;
+   }
+
+   ScoredValue<V> last() {
+      if (size == 0)
+         throw new NoSuchElementException();
+      return tail.value;
+   }
+
+   @Override
+   public int size() {
+      return size;
+   }
+
+   /**
+    * @return a copy of the values, built in linear time from the order of the list
+    */
+   TreeSet<ScoredValue<V>> toTreeSet() {
+      // TreeSet only copies a SortedSet without comparing its elements
+      return new TreeSet<>(new SortedView());
+   }
+
+   @Override
+   public Iterator<ScoredValue<V>> iterator() {
+      return new Iterator<>() {
+         private Node<V> next = header.next[0];
+
+         @Override
+         public boolean hasNext() {
+            return next != null;
+         }
+
+         @Override
+         public ScoredValue<V> next() {
+            if (next == null)
+               throw new NoSuchElementException();
+            ScoredValue<V> value = next.value;
+            next = next.next[0];
+            return value;
+         }
+      };
+   }
+
+   Iterator<ScoredValue<V>> descendingIterator() {
+      return new Iterator<>() {
+         private Node<V> next = tail;
+
+         @Override
+         public boolean hasNext() {
+            return next != null;
+         }
+
+         @Override
+         public ScoredValue<V> next() {
+            if (next == null)
+               throw new NoSuchElementException();
+            ScoredValue<V> value = next.value;
+            next = next.prev;
+            return value;
+         }
+      };
+   }
+
+   @Override
+   public Spliterator<ScoredValue<V>> spliterator() {
+      return Spliterators.spliterator(this, Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL);
+   }
+
+   /**
+    * Read-only {@link SortedSet} view of the list in natural order, without support for the subsets.
+    */
+   private final class SortedView extends AbstractSet<ScoredValue<V>> implements SortedSet<ScoredValue<V>> {
+      @Override
+      public Iterator<ScoredValue<V>> iterator() {
+         return ScoredValueSkipList.this.iterator();
+      }
+
+      @Override
+      public int size() {
+         return size;
+      }
+
+      @Override
+      public Comparator<? super ScoredValue<V>> comparator() {
+         return null;
+      }
+
+      @Override
+      public SortedSet<ScoredValue<V>> subSet(ScoredValue<V> fromElement, ScoredValue<V> toElement) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public SortedSet<ScoredValue<V>> headSet(ScoredValue<V> toElement) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public SortedSet<ScoredValue<V>> tailSet(ScoredValue<V> fromElement) {
+         throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public ScoredValue<V> first() {
+         return ScoredValueSkipList.this.first();
+      }
+
+      @Override
+      public ScoredValue<V> last() {
+         return ScoredValueSkipList.this.last();
+      }
+   }
+
+   private static final class Node<V> {
+      final ScoredValue<V> value;
+      final Node<V>[] next;
+      final int[] span;
+      Node<V> prev;
+
+      @SuppressWarnings("unchecked")
+      Node(ScoredValue<V> value, int level) {
+         this.value = value;
+         this.next = new Node[level];
+         this.span = new int[level];
+      }
+   }
+}
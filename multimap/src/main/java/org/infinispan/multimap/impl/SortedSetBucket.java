@@ -9,11 +9,9 @@
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.NavigableSet;
 import java.util.Objects;
 import java.util.Set;
 import java.util.SortedSet;
-import java.util.TreeSet;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -33,7 +31,7 @@
  */
 @ProtoTypeId(ProtoStreamTypeIds.MULTIMAP_SORTED_SET_BUCKET)
 public class SortedSetBucket<V> implements SortableBucket<V>, BaseSetBucket<V> {
-   private final TreeSet<ScoredValue<V>> scoredEntries;
+   private final ScoredValueSkipList<V> scoredEntries;
    private final Map<MultimapObjectWrapper<V>, Double> entries;
 
    @Proto
@@ -80,7 +78,7 @@ public Double getScore(MultimapObjectWrapper<V> key) {
    public List<ScoredValue<V>> randomMembers(int count) {
       if (count == 1 || count == -1) {
          int rank = ThreadLocalRandom.current().nextInt(scoredEntries.size());
-         return this.subsetByIndex(rank, rank, false);
+         return List.of(scoredEntries.get(rank));
       }
 
       if (count < 0) {
@@ -88,7 +86,7 @@ public List<ScoredValue<V>> randomMembers(int count) {
          int totalCount = Math.abs(count);
          List<ScoredValue<V>> randomEntries = new ArrayList<>(totalCount);
          ThreadLocalRandom.current().ints(totalCount, 0, entries.size())
-               .forEach(randomPos -> randomEntries.add(this.subsetByIndex(randomPos, randomPos, false).get(0)));
+               .forEach(randomPos -> randomEntries.add(scoredEntries.get(randomPos)));
          return randomEntries;
       }
 
@@ -103,7 +101,7 @@ public List<ScoredValue<V>> randomMembers(int count) {
       Iterator<Integer> ite = positions.iterator();
       while (randomEntries.size() < count && randomEntries.size() < entries.size()) {
          Integer pos = ite.next();
-         randomEntries.add(this.subsetByIndex(pos, pos, false).get(0));
+         randomEntries.add(scoredEntries.get(pos));
       }
 
       return randomEntries;
@@ -112,8 +110,7 @@ public List<ScoredValue<V>> randomMembers(int count) {
 
    @ProtoFactory
    SortedSetBucket(Collection<ScoredValue<V>> wrappedValues) {
-      scoredEntries = new TreeSet<>();
-      scoredEntries.addAll(wrappedValues);
+      scoredEntries = new ScoredValueSkipList<>(wrappedValues);
       entries = new HashMap<>();
       wrappedValues.forEach(e -> entries.put(e.wrappedValue(), e.score()));
    }
@@ -128,7 +125,7 @@ Collection<ScoredValue<V>> getWrappedValues() {
     * @return entries copy
     */
    public SortedSet<ScoredValue<V>> getScoredEntries() {
-      return new TreeSet<>(scoredEntries);
+      return scoredEntries.toTreeSet();
    }
 
    /**
@@ -140,25 +137,21 @@ public List<ScoredValue<V>> getScoredEntriesAsList() {
    }
 
    public SortedSetBucket() {
-      this.scoredEntries = new TreeSet<>();
+      this.scoredEntries = new ScoredValueSkipList<>();
       this.entries = new HashMap<>();
    }
 
    public SortedSetResult<Collection<ScoredValue<V>>, V> pop(boolean min, long count) {
-      Iterator<ScoredValue<V>> it = min
-            ? scoredEntries.iterator()
-            : scoredEntries.descendingIterator();
-
-      int i = 0;
-      List<ScoredValue<V>> popped = new ArrayList<>();
-      List<ScoredValue<V>> remaining = new ArrayList<>();
-      while (it.hasNext()) {
-         ScoredValue<V> sv = it.next();
-         if (++i > count) {
-            remaining.add(sv);
-         } else {
-            popped.add(sv);
-         }
+      int size = scoredEntries.size();
+      int popCount = (int) Math.min(Math.max(count, 0), size);
+      List<ScoredValue<V>> popped;
+      List<ScoredValue<V>> remaining;
+      if (min) {
+         popped = scoredEntries.range(0, popCount, false);
+         remaining = scoredEntries.range(popCount, size, false);
+      } else {
+         popped = scoredEntries.range(size - popCount, size, true);
+         remaining = scoredEntries.range(0, size - popCount, false);
       }
       return new SortedSetResult<>(popped, new SortedSetBucket<>(remaining));
    }
@@ -173,9 +166,9 @@ public IndexValue indexOf(V member, boolean isRev) {
       if (score == null) {
          return null;
       }
-      SortedSet<ScoredValue<V>> tailedHead = scoredEntries.headSet(new ScoredValue<>(score, wrapMember));
-      return isRev? IndexValue.of(score, scoredEntries.size() - tailedHead.size() - 1)
-            : IndexValue.of(score, tailedHead.size());
+      int rank = scoredEntries.rank(new ScoredValue<>(score, wrapMember), false);
+      return isRev? IndexValue.of(score, scoredEntries.size() - rank - 1)
+            : IndexValue.of(score, rank);
    }
 
    public SortedSetBucket<V> replace(Collection<ScoredValue<V>> scoredValues) {
@@ -319,61 +312,70 @@ public SortedSetResult<Long, V> removeAll(Double min, boolean includeMin, Double
    }
 
    public SortedSetResult<Long, V> removeAll(Long min, Long max) {
-      List<ScoredValue<V>> subset = subsetByIndex(min, max, false);
-      return removeAllInternal(subset);
+      int[] range = indexRange(min, max);
+      if (range == null)
+         return new SortedSetResult<>(0L, this);
+
+      long size = range[1] - range[0];
+      List<ScoredValue<V>> remaining = new ArrayList<>((int) (scoredEntries.size() - size));
+      remaining.addAll(scoredEntries.range(0, range[0], false));
+      remaining.addAll(scoredEntries.range(range[1], scoredEntries.size(), false));
+      return new SortedSetResult<>(size, new SortedSetBucket<>(remaining));
    }
 
    private SortedSetResult<Long, V> removeAllInternal(Collection<ScoredValue<V>> subset) {
       if (subset.isEmpty())
          return new SortedSetResult<>(0L, this);
 
-      List<ScoredValue<V>> remaining = new ArrayList<>(scoredEntries.size());
-      for (ScoredValue<V> sv : scoredEntries) {
-         if (!subset.contains(sv)) remaining.add(sv);
+      SortedSetBucket<V> next = new SortedSetBucket<>(scoredEntries);
+      for (ScoredValue<V> sv : subset) {
+         next.scoredEntries.remove(sv);
+         next.entries.remove(sv.wrappedValue());
       }
       long size = subset.size();
-      return new SortedSetResult<>(size, new SortedSetBucket<>(remaining));
+      return new SortedSetResult<>(size, next);
    }
 
    public List<ScoredValue<V>> subsetByIndex(long from, long to, boolean rev) {
+      int[] range = indexRange(from, to);
+      if (range == null) {
+         return Collections.emptyList();
+      }
+
+      if (rev) {
+         int size = scoredEntries.size();
+         return scoredEntries.range(size - range[1], size - range[0], true);
+      }
+      return scoredEntries.range(range[0], range[1], false);
+   }
+
+   /**
+    * Resolves the possibly negative, inclusive indexes of a range command against the current size.
+    *
+    * @return the first (inclusive) and last (exclusive) positions, or null if the range is empty
+    */
+   private int[] indexRange(long from, long to) {
       // from and to are + but from is bigger
       // example: from 2 > to 1 -> empty result
       // from and to are - and to is smaller
       // example: from -1 > to -2 -> empty result
       if ((from > 0 && to > 0 && from > to) || (from < 0 && to < 0 && from > to)) {
-         return Collections.emptyList();
+         return null;
       }
 
-      long fromIte = from < 0 ? scoredEntries.size() + from : from;
-      long toIte = to < 0 ? scoredEntries.size() + to : to;
+      int size = scoredEntries.size();
+      long fromIte = from < 0 ? size + from : from;
+      long toIte = to < 0 ? size + to : to;
 
       if (fromIte > toIte) {
-         return Collections.emptyList();
-      }
-
-      List<ScoredValue<V>> results = new ArrayList<>();
-      Iterator<ScoredValue<V>> ite;
-      if (rev) {
-         ite = scoredEntries.descendingIterator();
-      } else {
-         ite = scoredEntries.iterator();
-      }
-
-      long pos = 0;
-      while ((pos < fromIte) && ite.hasNext()) {
-         ite.next();
-         pos++;
-      }
-
-      while ((pos <= toIte) && ite.hasNext()) {
-         results.add(ite.next());
-         pos++;
+         return null;
       }
 
-      return results;
+      int start = (int) Math.max(fromIte, 0);
+      int end = (int) (Math.min(toIte, size - 1) + 1);
+      return start < end ? new int[] { start, end } : null;
    }
 
-   @SuppressWarnings({ "unchecked", "rawtypes" })
    public List<ScoredValue<V>> subset(Double startScore, boolean includeStart, Double stopScore, boolean includeStop, boolean isRev, Long offset, Long count) {
       if ((stopScore != null && stopScore.equals(startScore) && (!includeStart || !includeStop)) || (count != null && count == 0) || (offset != null && offset.equals(entries.size()))) {
          return Collections.emptyList();
@@ -386,53 +388,9 @@ public List<ScoredValue<V>> subset(Double startScore, boolean includeStart, Doub
       boolean unboundedMin = min == null || min == Double.MIN_VALUE;
       boolean unboundedMax = max == null || max == Double.MAX_VALUE;
 
-      if (unboundedMin && unboundedMax) {
-         return applyLimit(scoredEntries, offset, count, isRev);
-      }
-
-      ScoredValue<V> startSv;
-      ScoredValue<V> stopSv;
-      if (unboundedMin) {
-         startSv = scoredEntries.first();
-      } else {
-         if (includeMin) {
-            startSv = scoredEntries.lower(ScoredValue.of(min));
-            if (startSv == null) {
-               startSv = scoredEntries.first();
-            }
-         } else {
-            startSv = scoredEntries.higher(ScoredValue.of(min));
-            if (startSv == null) {
-               startSv = scoredEntries.last();
-            }
-         }
-      }
-
-      if (unboundedMax) {
-         stopSv = scoredEntries.last();
-      } else {
-         if (includeMax) {
-            stopSv = scoredEntries.higher(ScoredValue.of(max));
-         } else {
-            stopSv = scoredEntries.lower(ScoredValue.of(max));
-         }
-
-         if (stopSv == null) {
-            stopSv = scoredEntries.last();
-         }
-      }
-
-      if (startSv.score() > stopSv.score()) {
-         return Collections.emptyList();
-      }
-
-      NavigableSet<ScoredValue<V>> subset = scoredEntries.subSet(
-            startSv,
-            unboundedMin || (startSv.score() > min || (includeMin && startSv.score().equals(min))),
-            stopSv,
-            unboundedMax || (stopSv.score() < max || (includeMax && stopSv.score().equals(max))));
-
-      return applyLimit(subset, offset, count, isRev);
+      int from = unboundedMin ? 0 : scoredEntries.rank(ScoredValue.of(min), !includeMin);
+      int to = unboundedMax ? scoredEntries.size() : scoredEntries.rank(ScoredValue.of(max), includeMax);
+      return applyLimit(from, to, offset, count, isRev);
    }
 
    public List<ScoredValue<V>> subset(V startValue, boolean includeStart, V stopValue, boolean includeStop, boolean isRev, Long offset, Long count) {
@@ -448,65 +406,37 @@ public List<ScoredValue<V>> subset(V startValue, boolean includeStart, V stopVal
       boolean unboundedMax = maxValue == null;
 
       if (unboundedMin && unboundedMax) {
-         return applyLimit(scoredEntries, offset, count, isRev);
+         return applyLimit(0, scoredEntries.size(), offset, count, isRev);
+      }
+      if (scoredEntries.isEmpty()) {
+         return Collections.emptyList();
       }
       // if all the scoredEntries have the same score, then we can pick up first score for lex
       // when all the entries don't have the same score, this method can't work. This is the expected behaviour.
       double score = scoredEntries.first().score();
 
-      ScoredValue<V> minScoredValue = ScoredValue.of(score, minValue);
-      ScoredValue<V> maxScoredValue = ScoredValue.of(score, maxValue);
-
-      if (unboundedMin) {
-         NavigableSet<ScoredValue<V>> entries = scoredEntries.headSet(maxScoredValue, includeMax);
-         return applyLimit(entries, offset, count, isRev);
-      }
-
-      if (unboundedMax) {
-         NavigableSet<ScoredValue<V>> entries = scoredEntries.tailSet(minScoredValue, includeMin);
-         return applyLimit(entries, offset, count, isRev);
-      }
-
-      try {
-         NavigableSet<ScoredValue<V>> entries = scoredEntries.subSet(minScoredValue, includeMin, maxScoredValue, includeMax);
-         return applyLimit(entries, offset, count, isRev);
-      } catch (IllegalArgumentException e) {
-         return Collections.emptyList();
-      }
+      int from = unboundedMin ? 0 : scoredEntries.rank(ScoredValue.of(score, minValue), !includeMin);
+      int to = unboundedMax ? scoredEntries.size() : scoredEntries.rank(ScoredValue.of(score, maxValue), includeMax);
+      return applyLimit(from, to, offset, count, isRev);
    }
 
-   private List<ScoredValue<V>> applyLimit(NavigableSet<ScoredValue<V>> subset, final Long offset, final Long count, boolean isRev) {
-      if (!isLimited(offset, count)) {
-         List<ScoredValue<V>> result = new ArrayList<>(entries.size());
-         Iterator<ScoredValue<V>> ite = isRev ? subset.descendingIterator() : subset.iterator();
-         while (ite.hasNext()) {
-            result.add(ite.next());
-         }
-         return result;
+   private List<ScoredValue<V>> applyLimit(int from, int to, Long offset, Long count, boolean isRev) {
+      if (from >= to) {
+         return Collections.emptyList();
       }
 
-      List<ScoredValue<V>> result = new ArrayList<>();
-      Iterator<ScoredValue<V>> ite = isRev ? subset.descendingIterator() : subset.iterator();
-      if (count < 0) {
-         skipOffset(offset, ite);
-         while (ite.hasNext()) {
-            result.add(ite.next());
-         }
-      } else {
-         skipOffset(offset, ite);
-         long localCount = 0;
-         while (ite.hasNext() && localCount++ < count) {
-            result.add(ite.next());
+      if (isLimited(offset, count)) {
+         int skip = (int) Math.min(Math.max(offset, 0), to - from);
+         int limit = (int) (count < 0 ? to - from - skip : Math.min(count, to - from - skip));
+         if (isRev) {
+            to -= skip;
+            from = to - limit;
+         } else {
+            from += skip;
+            to = from + limit;
          }
       }
-      return result;
-   }
-
-   private void skipOffset(Long offset, Iterator<ScoredValue<V>> ite) {
-      long localOffset = 0;
-      while (localOffset++ < offset && ite.hasNext()) {
-         ite.next();
-      }
+      return scoredEntries.range(from, to, isRev);
    }
 
    private static boolean isLimited(Long offset, Long count) {
@@ -514,7 +444,7 @@ private static boolean isLimited(Long offset, Long count) {
    }
 
    public Collection<ScoredValue<V>> toTreeSet() {
-      return new TreeSet<>(scoredEntries);
+      return scoredEntries.toTreeSet();
    }
 
    public long size() {
@@ -67,7 +67,9 @@ public Integer apply(EntryView.ReadWriteEntryView<K, HashMapBucket<HK, HV>> view
       HashMapBucket.HashMapBucketResponse<Integer, HK, HV> res = putIfAbsent
             ? bucket.putIfAbsent(values)
             : bucket.putAll(values);
-      view.set(res.bucket());
+      if (res.bucket() != bucket) {
+         view.set(res.bucket());
+      }
 
       return res.response();
    }
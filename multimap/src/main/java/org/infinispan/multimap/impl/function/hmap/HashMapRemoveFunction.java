@@ -37,6 +37,7 @@ public Integer apply(EntryView.ReadWriteEntryView<K, HashMapBucket<HK, HV>> view
 
       HashMapBucket<HK, HV> bucket = existing.get();
       var res = bucket.removeAll(keys);
+      if (res.response() == 0) return 0;
 
       if (res.bucket().isEmpty()) {
          view.remove();
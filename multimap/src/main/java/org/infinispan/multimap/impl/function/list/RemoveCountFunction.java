@@ -47,6 +47,9 @@ public Long apply(EntryView.ReadWriteEntryView<K, ListBucket<V>> entryView) {
       if (existing.isPresent()) {
          ListBucket<V> prevBucket = existing.get();
          ListBucket.ListBucketResult<Long, V> result = prevBucket.remove(count, element);
+         if (result.result() == 0) {
+            return 0L;
+         }
          if (result.bucket().isEmpty()) {
             // if the list is empty, remove
             entryView.remove();
@@ -0,0 +1,12 @@
+/**
+ * Functions applied to the multimap buckets.
+ * <p>
+ * The functions run on the primary owner and are applied again by each backup owner, so the bucket itself is not
+ * sent to the backups. A function that leaves the bucket unchanged returns without setting it on the entry view, so
+ * no owner writes an identical bucket to its data container and cache stores, and the cache listeners are not notified
+ * of a modification.
+ * <p>
+ * The owners still store and persist the whole bucket when it changes: there is no delta persistence of the changed
+ * elements.
+ */
+package org.infinispan.multimap.impl.function;
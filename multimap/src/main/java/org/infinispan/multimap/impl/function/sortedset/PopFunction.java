@@ -42,6 +42,9 @@ public Collection<ScoredValue<V>> apply(EntryView.ReadWriteEntryView<K, SortedSe
          SortedSetBucket<V> sortedSetBucket = existing.get();
          var result = sortedSetBucket.pop(min, count);
          Collection<ScoredValue<V>> poppedValues = result.result();
+         if (poppedValues.isEmpty()) {
+            return poppedValues;
+         }
          if (result.bucket().size() == 0) {
             entryView.remove();
          } else {
@@ -78,6 +78,10 @@ public Long apply(EntryView.ReadWriteEntryView<K, SortedSetBucket<V>> entryView)
             default -> bucket.removeAll(unchecked(values));
          };
 
+         if (result.result() == 0) {
+            return 0L;
+         }
+
          SortedSetBucket<V> next = result.bucket();
          if (next.size() == 0) {
             entryView.remove();
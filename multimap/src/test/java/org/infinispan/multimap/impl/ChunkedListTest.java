@@ -0,0 +1,114 @@
+package org.infinispan.multimap.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "multimap.ChunkedListTest")
+public class ChunkedListTest extends AbstractInfinispanTest {
+
+   public void testRandomOperationsMatchArrayList() {
+      Random random = new Random(42);
+      ChunkedList<Integer> list = ChunkedList.empty();
+      List<Integer> expected = new ArrayList<>();
+      for (int i = 0; i < 2_000; i++) {
+         int size = expected.size();
+         switch (random.nextInt(6)) {
+            case 0 -> {
+               List<Integer> values = values(random.nextInt(300), i);
+               list = list.appendAll(values);
+               expected.addAll(values);
+            }
+            case 1 -> {
+               List<Integer> values = values(random.nextInt(300), i);
+               list = list.prependAll(values);
+               expected.addAll(0, values);
+            }
+            case 2 -> {
+               int index = random.nextInt(size + 1);
+               list = list.insert(index, -i);
+               expected.add(index, -i);
+            }
+            case 3 -> {
+               if (size > 0) {
+                  int index = random.nextInt(size);
+                  list = list.with(index, i);
+                  expected.set(index, i);
+               }
+            }
+            case 4 -> {
+               int from = random.nextInt(size + 1);
+               int to = from + random.nextInt(size - from + 1);
+               ChunkedList<Integer> slice = list.slice(from, to);
+               assertThat(slice).containsExactlyElementsOf(expected.subList(from, to));
+            }
+            default -> {
+               if (size > 10) {
+                  int from = random.nextInt(size / 4);
+                  int to = size - random.nextInt(size / 4);
+                  list = list.slice(from, to);
+                  expected = new ArrayList<>(expected.subList(from, to));
+               }
+            }
+         }
+         assertThat(list).hasSize(expected.size());
+      }
+      assertSameContent(list, expected);
+   }
+
+   public void testUpdatesDoNotChangeOriginal() {
+      List<Integer> values = values(1_000, 0);
+      ChunkedList<Integer> list = ChunkedList.of(values);
+
+      list.with(500, -1);
+      list.insert(300, -1);
+      list.prependAll(List.of(-1, -2));
+      list.appendAll(List.of(-1, -2));
+      list.slice(10, 20);
+
+      assertSameContent(list, values);
+   }
+
+   public void testCopy() {
+      List<Integer> values = values(300, 0);
+      ChunkedList<Integer> list = ChunkedList.of(values);
+      List<Integer> reversed = new ArrayList<>(values.subList(100, 250));
+      Collections.reverse(reversed);
+
+      assertThat(list.copy(100, 250, false)).containsExactlyElementsOf(values.subList(100, 250));
+      assertThat(list.copy(100, 250, true)).containsExactlyElementsOf(reversed);
+      assertThat(list.copy(-5, 1_000, false)).containsExactlyElementsOf(values);
+      assertThat(list.copy(5, 5, false)).isEmpty();
+   }
+
+   private static List<Integer> values(int count, int base) {
+      return IntStream.range(0, count).mapToObj(i -> base * 1_000 + i).collect(Collectors.toList());
+   }
+
+   private static void assertSameContent(ChunkedList<Integer> list, List<Integer> expected) {
+      assertThat(list).containsExactlyElementsOf(expected);
+      for (int i = 0; i < expected.size(); i++) {
+         assertThat(list.get(i)).isEqualTo(expected.get(i));
+      }
+      List<Integer> descending = new ArrayList<>();
+      list.descendingIterator().forEachRemaining(descending::add);
+      List<Integer> reversed = new ArrayList<>(expected);
+      Collections.reverse(reversed);
+      assertThat(descending).containsExactlyElementsOf(reversed);
+
+      if (!expected.isEmpty()) {
+         int middle = expected.size() / 2;
+         Iterator<Integer> it = list.iterator(middle);
+         assertThat(it.next()).isEqualTo(expected.get(middle));
+      }
+   }
+}
@@ -0,0 +1,110 @@
+package org.infinispan.multimap.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.infinispan.functional.FunctionalTestUtils.await;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryRemoved;
+import org.infinispan.notifications.cachelistener.event.CacheEntryEvent;
+import org.infinispan.persistence.dummy.DummyInMemoryStore;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the multimap mutations that leave the bucket unchanged neither write the bucket to the store nor notify
+ * the cache listeners.
+ *
+ * @since 16.0
+ */
+@Test(groups = "functional", testName = "multimap.impl.MultimapNoOpWriteTest")
+public class MultimapNoOpWriteTest extends SingleCacheManagerTest {
+   private static final String KEY = "k";
+
+   private final EventCounter events = new EventCounter();
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(MultimapSCI.INSTANCE);
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.persistence().addStore(DummyInMemoryStoreConfigurationBuilder.class);
+      cm.defineConfiguration("hash", builder.build());
+      cm.defineConfiguration("list", builder.build());
+      cm.defineConfiguration("sortedset", builder.build());
+      return cm;
+   }
+
+   public void testHashMapNoOps() {
+      Cache<String, HashMapBucket<String, String>> cache = cacheManager.getCache("hash");
+      EmbeddedMultimapPairCache<String, String, String> pairCache = new EmbeddedMultimapPairCache<>(cache);
+      await(pairCache.set(KEY, Map.entry("f", "v")));
+
+      assertNoWrite(cache, () -> {
+         // HSET with the same value, HSETNX of an existing field, HDEL of a missing field
+         assertThat(await(pairCache.set(KEY, Map.entry("f", "v")))).isZero();
+         assertThat(await(pairCache.setIfAbsent(KEY, "f", "other"))).isFalse();
+         assertThat(await(pairCache.remove(KEY, "missing"))).isZero();
+      });
+      assertThat(await(pairCache.get(KEY, "f"))).isEqualTo("v");
+   }
+
+   public void testListNoOps() {
+      Cache<String, ListBucket<String>> cache = cacheManager.getCache("list");
+      EmbeddedMultimapListCache<String, String> listCache = new EmbeddedMultimapListCache<>(cache);
+      await(listCache.offerLast(KEY, "a"));
+
+      // LREM of a missing element
+      assertNoWrite(cache, () -> assertThat(await(listCache.remove(KEY, 0, "missing"))).isZero());
+      assertThat(await(listCache.size(KEY))).isEqualTo(1L);
+   }
+
+   public void testSortedSetNoOps() {
+      Cache<String, SortedSetBucket<String>> cache = cacheManager.getCache("sortedset");
+      EmbeddedMultimapSortedSetCache<String, String> sortedSetCache = new EmbeddedMultimapSortedSetCache<>(cache);
+      await(sortedSetCache.addMany(KEY, List.of(ScoredValue.of(1, "a")), SortedSetAddArgs.create().build()));
+
+      assertNoWrite(cache, () -> {
+         // ZREM of a missing member, ZREMRANGEBYSCORE of an empty range, ZPOP of no members
+         assertThat(await(sortedSetCache.removeAll(KEY, List.of("missing")))).isZero();
+         assertThat(await(sortedSetCache.removeAll(KEY, 5d, true, 10d, true))).isZero();
+         assertThat(await(sortedSetCache.pop(KEY, true, 0))).isEmpty();
+      });
+      assertThat(await(sortedSetCache.size(KEY))).isEqualTo(1L);
+   }
+
+   private <K, V> void assertNoWrite(Cache<K, V> cache, Runnable noOps) {
+      DummyInMemoryStore<K, V> store = TestingUtil.getFirstStore(cache);
+      int writes = store.stats().get("write");
+      cache.addListener(events);
+      try {
+         noOps.run();
+      } finally {
+         cache.removeListener(events);
+      }
+      assertThat(store.stats().get("write")).isEqualTo(writes);
+      assertThat(events.count.get()).isZero();
+   }
+
+   @Listener
+   public static class EventCounter {
+      final AtomicInteger count = new AtomicInteger();
+
+      @CacheEntryCreated
+      @CacheEntryModified
+      @CacheEntryRemoved
+      public void onEvent(CacheEntryEvent<?, ?> event) {
+         count.incrementAndGet();
+      }
+   }
+}
@@ -0,0 +1,85 @@
+package org.infinispan.multimap.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "multimap.ScoredValueSkipListTest")
+public class ScoredValueSkipListTest extends AbstractInfinispanTest {
+
+   public void testRankAndIndexMatchTreeSet() {
+      Random random = new Random(42);
+      ScoredValueSkipList<Integer> list = new ScoredValueSkipList<>();
+      TreeSet<ScoredValue<Integer>> expected = new TreeSet<>();
+      for (int i = 0; i < 5_000; i++) {
+         ScoredValue<Integer> sv = ScoredValue.of(random.nextInt(100), random.nextInt(2_000));
+         assertThat(list.add(sv)).isEqualTo(expected.add(sv));
+         if (i % 3 == 0) {
+            ScoredValue<Integer> toRemove = ScoredValue.of(random.nextInt(100), random.nextInt(2_000));
+            assertThat(list.remove(toRemove)).isEqualTo(expected.remove(toRemove));
+         }
+      }
+      assertSameContent(list, expected);
+   }
+
+   public void testBuildFromSortedAndUnsortedValues() {
+      List<ScoredValue<String>> values = new ArrayList<>();
+      for (int i = 0; i < 1_000; i++) {
+         values.add(ScoredValue.of(i / 10, "v" + i));
+      }
+      TreeSet<ScoredValue<String>> expected = new TreeSet<>(values);
+      assertSameContent(new ScoredValueSkipList<>(expected), expected);
+
+      Collections.shuffle(values, new Random(7));
+      ScoredValueSkipList<String> list = new ScoredValueSkipList<>(values);
+      assertSameContent(list, expected);
+
+      ScoredValueSkipList<String> copy = new ScoredValueSkipList<>(list);
+      assertThat(copy.remove(ScoredValue.of(0, "v0"))).isTrue();
+      assertThat(copy.add(ScoredValue.of(1_000, "last"))).isTrue();
+      assertSameContent(list, expected);
+      assertThat(copy.last()).isEqualTo(ScoredValue.of(1_000, "last"));
+   }
+
+   public void testScoreRank() {
+      ScoredValueSkipList<String> list = new ScoredValueSkipList<>();
+      list.add(ScoredValue.of(1, "a"));
+      list.add(ScoredValue.of(2, "b"));
+      list.add(ScoredValue.of(2, "c"));
+      list.add(ScoredValue.of(3, "d"));
+
+      assertThat(list.rank(ScoredValue.of(2), false)).isEqualTo(1);
+      assertThat(list.rank(ScoredValue.of(2), true)).isEqualTo(3);
+      assertThat(list.rank(ScoredValue.of(0), true)).isZero();
+      assertThat(list.rank(ScoredValue.of(5), false)).isEqualTo(4);
+      assertThat(list.range(1, 3, true)).containsExactly(ScoredValue.of(2, "c"), ScoredValue.of(2, "b"));
+      assertThat(list.range(3, 10, false)).containsExactly(ScoredValue.of(3, "d"));
+      assertThat(list.range(2, 2, false)).isEmpty();
+   }
+
+   private static <V> void assertSameContent(ScoredValueSkipList<V> list, TreeSet<ScoredValue<V>> expected) {
+      assertThat(list).hasSameSizeAs(expected);
+      assertThat(list).containsExactlyElementsOf(expected);
+      assertThat(list.toTreeSet()).containsExactlyElementsOf(expected);
+      List<ScoredValue<V>> descending = new ArrayList<>();
+      list.descendingIterator().forEachRemaining(descending::add);
+      assertThat(descending).containsExactlyElementsOf(expected.descendingSet());
+
+      int index = 0;
+      for (ScoredValue<V> sv : expected) {
+         assertThat(list.get(index)).isEqualTo(sv);
+         assertThat(list.rank(sv, false)).isEqualTo(index);
+         assertThat(list.rank(sv, true)).isEqualTo(index + 1);
+         assertThat(list.contains(sv)).isTrue();
+         index++;
+      }
+      assertThat(list.range(0, expected.size(), false)).containsExactlyElementsOf(expected);
+   }
+}
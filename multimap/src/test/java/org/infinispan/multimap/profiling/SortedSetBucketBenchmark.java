@@ -0,0 +1,102 @@
+package org.infinispan.multimap.profiling;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.multimap.impl.ScoredValue;
+import org.infinispan.multimap.impl.SortedSetBucket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares rank and range-by-index lookups of {@link SortedSetBucket} with the <code>TreeSet</code> traversal the
+ * bucket used before it was backed by an indexable skip list.
+ */
+public class SortedSetBucketBenchmark {
+
+   private static final int MEASUREMENT_ITERATIONS_COUNT = 10;
+   private static final int WARMUP_ITERATIONS_COUNT = 5;
+
+   public static void main(String[] args) throws Exception {
+      Options opt = new OptionsBuilder()
+            .include(SortedSetBucketBenchmark.class.getName() + ".State.*")
+            .mode(Mode.AverageTime)
+            .timeUnit(TimeUnit.MICROSECONDS)
+            .warmupIterations(WARMUP_ITERATIONS_COUNT)
+            .measurementIterations(MEASUREMENT_ITERATIONS_COUNT)
+            .threads(1)
+            .forks(1)
+            .shouldFailOnError(true)
+            .build();
+
+      new Runner(opt).run();
+   }
+
+   @org.openjdk.jmh.annotations.State(Scope.Benchmark)
+   public static class State {
+      @Param({"10000", "1000000"})
+      int size;
+
+      List<ScoredValue<String>> values;
+      SortedSetBucket<String> bucket;
+      TreeSet<ScoredValue<String>> treeSet;
+
+      @Setup
+      public void setup() {
+         values = new ArrayList<>(size);
+         for (int i = 0; i < size; i++) {
+            values.add(ScoredValue.of(ThreadLocalRandom.current().nextDouble(), "member" + i));
+         }
+         bucket = new SortedSetBucket<String>().addMany(values, false, false, false, false).bucket();
+         treeSet = new TreeSet<>(values);
+      }
+
+      private int randomIndex() {
+         return ThreadLocalRandom.current().nextInt(size);
+      }
+
+      @Benchmark
+      public SortedSetBucket.IndexValue rankSkipList() {
+         return bucket.indexOf(values.get(randomIndex()).getValue(), false);
+      }
+
+      @Benchmark
+      public int rankTreeSet() {
+         // The score is already known, as the previous implementation read it from its map
+         return treeSet.headSet(values.get(randomIndex())).size();
+      }
+
+      @Benchmark
+      public List<ScoredValue<String>> rangeByIndexSkipList() {
+         int from = randomIndex();
+         return bucket.subsetByIndex(from, from + 10, false);
+      }
+
+      @Benchmark
+      public List<ScoredValue<String>> rangeByIndexTreeSet() {
+         int from = randomIndex();
+         List<ScoredValue<String>> result = new ArrayList<>(11);
+         Iterator<ScoredValue<String>> it = treeSet.iterator();
+         int pos = 0;
+         while (pos < from && it.hasNext()) {
+            it.next();
+            pos++;
+         }
+         while (pos <= from + 10 && it.hasNext()) {
+            result.add(it.next());
+            pos++;
+         }
+         return result;
+      }
+   }
+}
@@ -12,15 +12,21 @@
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.PrimitiveIterator;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Predicate;
 
 import org.infinispan.commons.io.ByteBuffer;
 import org.infinispan.commons.marshall.ProtoStreamTypeIds;
+import org.infinispan.commons.util.ByRef;
 import org.infinispan.commons.util.IntSet;
 import org.infinispan.commons.util.Util;
 import org.infinispan.commons.util.Version;
+import org.infinispan.commons.util.concurrent.CompletionStages;
 import org.infinispan.marshall.persistence.PersistenceMarshaller;
 import org.infinispan.persistence.jdbc.common.JdbcUtil;
 import org.infinispan.persistence.jdbc.common.connectionfactory.ConnectionFactory;
@@ -36,10 +42,14 @@
 import org.infinispan.persistence.spi.MarshallableEntry;
 import org.infinispan.persistence.spi.MarshallableEntryFactory;
 import org.infinispan.persistence.spi.MarshalledValue;
+import org.infinispan.persistence.spi.NonBlockingStore;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.protostream.annotations.ProtoFactory;
 import org.infinispan.protostream.annotations.ProtoField;
 import org.infinispan.protostream.annotations.ProtoTypeId;
+import org.reactivestreams.Publisher;
+
+import io.reactivex.rxjava3.core.Flowable;
 
 /**
  * @author Ryan Emerson
@@ -49,6 +59,8 @@
    private static final String DEFAULT_IDENTIFIER_QUOTE_STRING = "\"";
    private static final String META_TABLE_SUFFIX = "_META";
    private static final String META_TABLE_DATA_COLUMN = "data";
+   // Keeps the statements of a batch below the limits of the databases, e.g. Oracle allows 1000 expressions in a list
+   static final int MAX_ROWS_PER_STATEMENT = 1000;
 
    private final Log log;
    protected final InitializationContext ctx;
@@ -80,6 +92,11 @@
    private final String loadAllNonExpiredRowsSql;
    private final String deleteAllRows;
    private final String selectExpiredRowsSql;
+   // the statements writing or deleting several rows at once in a batch
+   private final int upsertRowsPerStatement;
+   private final String upsertRowsSql;
+   private final int deleteRowsPerStatement;
+   private final String deleteRowsSql;
 
    AbstractTableManager(InitializationContext ctx, ConnectionFactory connectionFactory, JdbcStringBasedStoreConfiguration jdbcConfig,
          DbMetaData dbMetadata, String cacheName, Log log) {
@@ -116,6 +133,12 @@
       this.loadAllNonExpiredRowsSql = initLoadNonExpiredAllRowsSql();
       this.deleteAllRows = initDeleteAllRowsSql();
       this.selectExpiredRowsSql = initSelectOnlyExpiredRowsSql();
+      int rowsPerStatement = Math.max(1, Math.min(jdbcConfig.maxBatchSize(), MAX_ROWS_PER_STATEMENT));
+      String sql = rowsPerStatement > 1 ? initUpsertRowsSql(rowsPerStatement) : null;
+      this.upsertRowsPerStatement = sql == null ? 1 : rowsPerStatement;
+      this.upsertRowsSql = sql == null ? upsertRowSql : sql;
+      this.deleteRowsPerStatement = rowsPerStatement;
+      this.deleteRowsSql = initDeleteRowsSql(rowsPerStatement);
 
       // ISPN-14108 only initiate variables from InitializationContext if not null. Required for StoreMigrator
       if (ctx != null) {
@@ -533,6 +556,43 @@ protected String initUpsertRowSql() {
       }
    }
 
+   /**
+    * Returns the statement inserting or updating the given amount of rows at once, with the parameters of every row in
+    * the same order as in the statement returned by {@link #initUpsertRowSql()}. When the database does not support
+    * it, this method returns <code>null</code> and the rows are upserted with a JDBC batch of single row statements.
+    */
+   protected String initUpsertRowsSql(int rows) {
+      return null;
+   }
+
+   protected String initDeleteRowsSql(int rows) {
+      return String.format("DELETE FROM %s WHERE %s IN (%s)", dataTableName, config.idColumnName(),
+            String.join(", ", Collections.nCopies(rows, "?")));
+   }
+
+   /**
+    * @return the columns of the data table, in the order of the parameters of {@link #initInsertRowSql()}
+    */
+   protected String insertColumns() {
+      if (dbMetadata.isSegmentedDisabled()) {
+         return String.format("%s, %s, %s", config.dataColumnName(), config.timestampColumnName(), config.idColumnName());
+      } else {
+         return String.format("%s, %s, %s, %s", config.dataColumnName(), config.timestampColumnName(),
+               config.idColumnName(), config.segmentColumnName());
+      }
+   }
+
+   /**
+    * @return the parameters of the given amount of rows, as a list of values
+    */
+   protected String rowsParameters(int rows) {
+      return String.join(", ", Collections.nCopies(rows, dbMetadata.isSegmentedDisabled() ? "(?, ?, ?)" : "(?, ?, ?, ?)"));
+   }
+
+   private int parametersPerRow() {
+      return dbMetadata.isSegmentedDisabled() ? 3 : 4;
+   }
+
    @Override
    public boolean isStringEncodingRequired() {
       return false;
@@ -697,16 +757,176 @@ public void upsertEntry(Connection connection, int segment, MarshallableEntry<?
 
    @Override
    protected final void prepareValueStatement(PreparedStatement ps, int segment, MarshallableEntry<? extends K, ? extends V> entry) throws SQLException {
-      prepareValueStatement(ps, segment, key2Str(entry.getKey()), marshall(entry.getMarshalledValue(), marshaller), entry.expiryTime());
+      prepareValueStatement(ps, 0, segment, key2Str(entry.getKey()), marshall(entry.getMarshalledValue(), marshaller), entry.expiryTime());
    }
 
-   protected void prepareValueStatement(PreparedStatement ps, int segment, String keyStr, ByteBuffer valueBytes, long expiryTime) throws SQLException {
-      ps.setBinaryStream(1, new ByteArrayInputStream(valueBytes.getBuf(), valueBytes.getOffset(),
+   /**
+    * Sets the parameters of a row, starting after the given offset so that several rows can be set in a statement.
+    */
+   protected void prepareValueStatement(PreparedStatement ps, int offset, int segment, String keyStr, ByteBuffer valueBytes, long expiryTime) throws SQLException {
+      ps.setBinaryStream(offset + 1, new ByteArrayInputStream(valueBytes.getBuf(), valueBytes.getOffset(),
             valueBytes.getLength()), valueBytes.getLength());
-      ps.setLong(2, expiryTime);
-      ps.setString(3, keyStr);
+      ps.setLong(offset + 2, expiryTime);
+      ps.setString(offset + 3, keyStr);
       if (!dbMetadata.isSegmentedDisabled()) {
-         ps.setInt(4, segment);
+         ps.setInt(offset + 4, segment);
+      }
+   }
+
+   // This method invokes some blocking methods, but this method is itself only blocking
+   @SuppressWarnings("checkstyle:ForbiddenMethod")
+   @Override
+   public void batchUpdates(Connection connection, int writePublisherCount, Publisher<Object> removePublisher,
+         Publisher<NonBlockingStore.SegmentedPublisher<MarshallableEntry<K, V>>> writePublisher) throws SQLException {
+      if (!isUpsertSupported()) {
+         super.batchUpdates(connection, writePublisherCount, removePublisher, writePublisher);
+         return;
+      }
+      if (log.isTraceEnabled()) {
+         log.tracef("Running batch upsert sql '%s'", upsertRowsSql);
+         log.tracef("Running batch delete sql '%s'", deleteRowsSql);
+      }
+      try (RowBatch<String> deleteBatch = new DeleteBatch(connection);
+           RowBatch<UpsertRow> upsertBatch = new UpsertBatch(connection)) {
+
+         // Note this one is non blocking as we need to subscribe to both Publishers before anything is processed.
+         CompletionStage<Void> removeStage = Flowable.fromPublisher(removePublisher)
+               .doOnNext(key -> {
+                  String keyStr = key2Str(key);
+                  deleteBatch.add(keyStr, keyStr);
+               })
+               .ignoreElements()
+               .doOnComplete(deleteBatch::execute)
+               .toCompletionStage(null);
+
+         ByRef<Throwable> throwableRef = new ByRef<>(null);
+         Flowable.fromPublisher(writePublisher)
+               .concatMapEager(sp ->
+                     Flowable.fromPublisher(sp)
+                           .doOnNext(me -> upsertBatch.add(key2Str(me.getKey()), new UpsertRow(sp.getSegment(),
+                                 marshall(me.getMarshalledValue(), marshaller), me.expiryTime()))),
+                     writePublisherCount, writePublisherCount
+               ).ignoreElements()
+               .blockingSubscribe(() -> { }, throwableRef::set);
+
+         Throwable t = throwableRef.get();
+         if (t != null) {
+            if (t instanceof SQLException) {
+               throw (SQLException) t;
+            }
+            throw Util.rewrapAsCacheException(t);
+         }
+         upsertBatch.execute();
+
+         CompletionStages.join(removeStage);
+      }
+   }
+
+   /**
+    * Gathers the rows of a batch into statements of several rows each. All the statements with the maximum amount of
+    * rows are sent in a single JDBC batch, the remaining rows are sent in one more statement. Only the last write of
+    * a key is kept in a statement, as some databases reject a statement that modifies the same row twice.
+    */
+   private abstract class RowBatch<R> implements AutoCloseable {
+      private final Connection connection;
+      private final int rowsPerStatement;
+      private final String fullStatementSql;
+      private final int parametersPerRow;
+      private final Map<String, R> rows = new HashMap<>();
+      private PreparedStatement statement;
+
+      RowBatch(Connection connection, int rowsPerStatement, String fullStatementSql, int parametersPerRow) {
+         this.connection = connection;
+         this.rowsPerStatement = rowsPerStatement;
+         this.fullStatementSql = fullStatementSql;
+         this.parametersPerRow = parametersPerRow;
+      }
+
+      abstract String rowsSql(int rows);
+
+      abstract void prepareRow(PreparedStatement ps, int offset, String keyStr, R row) throws SQLException;
+
+      void add(String keyStr, R row) throws SQLException {
+         rows.put(keyStr, row);
+         if (rows.size() == rowsPerStatement) {
+            if (statement == null) {
+               statement = connection.prepareStatement(fullStatementSql);
+               statement.setQueryTimeout(configuration.writeQueryTimeout());
+            }
+            prepareRows(statement);
+            statement.addBatch();
+         }
+      }
+
+      void execute() throws SQLException {
+         if (statement != null) {
+            statement.executeBatch();
+         }
+         if (!rows.isEmpty()) {
+            try (PreparedStatement ps = connection.prepareStatement(rowsSql(rows.size()))) {
+               ps.setQueryTimeout(configuration.writeQueryTimeout());
+               prepareRows(ps);
+               ps.executeUpdate();
+            }
+         }
+      }
+
+      private void prepareRows(PreparedStatement ps) throws SQLException {
+         int offset = 0;
+         for (Map.Entry<String, R> entry : rows.entrySet()) {
+            prepareRow(ps, offset, entry.getKey(), entry.getValue());
+            offset += parametersPerRow;
+         }
+         rows.clear();
+      }
+
+      @Override
+      public void close() {
+         JdbcUtil.safeClose(statement);
+      }
+   }
+
+   private class DeleteBatch extends RowBatch<String> {
+      DeleteBatch(Connection connection) {
+         super(connection, deleteRowsPerStatement, deleteRowsSql, 1);
+      }
+
+      @Override
+      String rowsSql(int rows) {
+         return initDeleteRowsSql(rows);
+      }
+
+      @Override
+      void prepareRow(PreparedStatement ps, int offset, String keyStr, String row) throws SQLException {
+         ps.setString(offset + 1, keyStr);
+      }
+   }
+
+   private class UpsertBatch extends RowBatch<UpsertRow> {
+      UpsertBatch(Connection connection) {
+         super(connection, upsertRowsPerStatement, upsertRowsSql, parametersPerRow());
+      }
+
+      @Override
+      String rowsSql(int rows) {
+         return initUpsertRowsSql(rows);
+      }
+
+      @Override
+      void prepareRow(PreparedStatement ps, int offset, String keyStr, UpsertRow row) throws SQLException {
+         prepareValueStatement(ps, offset, row.segment, keyStr, row.valueBytes, row.expiryTime);
+      }
+   }
+
+   private static class UpsertRow {
+      final int segment;
+      final ByteBuffer valueBytes;
+      final long expiryTime;
+
+      UpsertRow(int segment, ByteBuffer valueBytes, long expiryTime) {
+         this.segment = segment;
+         this.valueBytes = valueBytes;
+         this.expiryTime = expiryTime;
       }
    }
 
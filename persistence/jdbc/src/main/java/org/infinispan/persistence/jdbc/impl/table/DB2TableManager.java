@@ -61,12 +61,12 @@ protected String initUpsertRowSql() {
    }
 
    @Override
-   protected void prepareValueStatement(PreparedStatement ps, int segment, String keyStr, ByteBuffer valueBytes, long expiryTime) throws SQLException {
-      ps.setString(1, keyStr);
-      ps.setLong(2, expiryTime);
-      ps.setBinaryStream(3, new ByteArrayInputStream(valueBytes.getBuf(), valueBytes.getOffset(), valueBytes.getLength()), valueBytes.getLength());
+   protected void prepareValueStatement(PreparedStatement ps, int offset, int segment, String keyStr, ByteBuffer valueBytes, long expiryTime) throws SQLException {
+      ps.setString(offset + 1, keyStr);
+      ps.setLong(offset + 2, expiryTime);
+      ps.setBinaryStream(offset + 3, new ByteArrayInputStream(valueBytes.getBuf(), valueBytes.getOffset(), valueBytes.getLength()), valueBytes.getLength());
       if (!dbMetadata.isSegmentedDisabled()) {
-         ps.setInt(4, segment);
+         ps.setInt(offset + 4, segment);
       }
    }
 
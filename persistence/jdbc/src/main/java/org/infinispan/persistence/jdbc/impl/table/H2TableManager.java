@@ -31,6 +31,12 @@ protected String initUpsertRowSql() {
       }
    }
 
+   @Override
+   protected String initUpsertRowsSql(int rows) {
+      return String.format("MERGE INTO %s (%s) KEY(%s) VALUES %s", dataTableName, insertColumns(),
+            config.idColumnName(), rowsParameters(rows));
+   }
+
    @Override
    protected void dropIndex(Connection conn, String indexName) throws PersistenceException {
       String dropIndexDdl = String.format("DROP INDEX IF EXISTS  %s", getIndexName(dbMetadata.getMaxTableNameLength(), true, indexName));
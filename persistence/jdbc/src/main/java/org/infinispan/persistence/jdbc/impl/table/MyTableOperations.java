@@ -32,4 +32,16 @@ public String initUpsertRowSql() {
                config.dataColumnName(), config.timestampColumnName(), config.segmentColumnName());
       }
    }
+
+   @Override
+   protected String initUpsertRowsSql(int rows) {
+      if (dbMetadata.isSegmentedDisabled()) {
+         return String.format("INSERT INTO %1$s (%2$s) VALUES %3$s ON DUPLICATE KEY UPDATE %4$s = VALUES(%4$s), %5$s = VALUES(%5$s)",
+               dataTableName, insertColumns(), rowsParameters(rows), config.dataColumnName(), config.timestampColumnName());
+      } else {
+         return String.format("INSERT INTO %1$s (%2$s) VALUES %3$s ON DUPLICATE KEY UPDATE %4$s = VALUES(%4$s), %5$s = VALUES(%5$s), %6$s = VALUES(%6$s)",
+               dataTableName, insertColumns(), rowsParameters(rows), config.dataColumnName(), config.timestampColumnName(),
+               config.segmentColumnName());
+      }
+   }
 }
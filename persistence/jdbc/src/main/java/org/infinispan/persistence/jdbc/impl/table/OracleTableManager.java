@@ -137,13 +137,43 @@ public String initUpsertRowSql() {
    }
 
    @Override
-   protected void prepareValueStatement(PreparedStatement ps, int segment, String keyStr, ByteBuffer valueBytes, long expiryTime) throws SQLException {
-      ps.setString(1, keyStr);
-      ps.setLong(2, expiryTime);
+   protected String initUpsertRowsSql(int rows) {
+      // The rows are selected from dual, only the first one needs the column aliases
+      boolean segmented = !dbMetadata.isSegmentedDisabled();
+      StringBuilder using = new StringBuilder(String.format("SELECT ? %s, ? %s, ? %s", config.idColumnName(),
+            config.timestampColumnName(), config.dataColumnName()));
+      if (segmented) {
+         using.append(", ? ").append(config.segmentColumnName());
+      }
+      using.append(" from dual");
+      String row = segmented ? " UNION ALL SELECT ?, ?, ?, ? from dual" : " UNION ALL SELECT ?, ?, ? from dual";
+      for (int i = 1; i < rows; i++) {
+         using.append(row);
+      }
+      if (!segmented) {
+         return String.format("MERGE INTO %1$s t " +
+                     "USING (%5$s) tmp ON (t.%2$s = tmp.%2$s) " +
+                     "WHEN MATCHED THEN UPDATE SET t.%3$s = tmp.%3$s, t.%4$s = tmp.%4$s " +
+                     "WHEN NOT MATCHED THEN INSERT (%2$s, %3$s, %4$s) VALUES (tmp.%2$s, tmp.%3$s, tmp.%4$s)",
+               dataTableName, config.idColumnName(), config.timestampColumnName(), config.dataColumnName(), using);
+      } else {
+         return String.format("MERGE INTO %1$s t " +
+                     "USING (%6$s) tmp ON (t.%2$s = tmp.%2$s) " +
+                     "WHEN MATCHED THEN UPDATE SET t.%3$s = tmp.%3$s, t.%4$s = tmp.%4$s " +
+                     "WHEN NOT MATCHED THEN INSERT (%2$s, %3$s, %4$s, %5$s) VALUES (tmp.%2$s, tmp.%3$s, tmp.%4$s, tmp.%5$s)",
+               dataTableName, config.idColumnName(), config.timestampColumnName(), config.dataColumnName(),
+               config.segmentColumnName(), using);
+      }
+   }
+
+   @Override
+   protected void prepareValueStatement(PreparedStatement ps, int offset, int segment, String keyStr, ByteBuffer valueBytes, long expiryTime) throws SQLException {
+      ps.setString(offset + 1, keyStr);
+      ps.setLong(offset + 2, expiryTime);
       // We must use BLOB here to avoid ORA-01461 caused by implicit casts on dual
-      ps.setBlob(3, new ByteArrayInputStream(valueBytes.getBuf(), valueBytes.getOffset(), valueBytes.getLength()), valueBytes.getLength());
+      ps.setBlob(offset + 3, new ByteArrayInputStream(valueBytes.getBuf(), valueBytes.getOffset(), valueBytes.getLength()), valueBytes.getLength());
       if (!dbMetadata.isSegmentedDisabled()) {
-         ps.setInt(4, segment);
+         ps.setInt(offset + 4, segment);
       }
    }
 
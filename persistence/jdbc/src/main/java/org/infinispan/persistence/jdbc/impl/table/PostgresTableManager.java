@@ -1,6 +1,7 @@
 package org.infinispan.persistence.jdbc.impl.table;
 
 import java.sql.Connection;
+import java.util.Collections;
 
 import org.infinispan.persistence.jdbc.common.connectionfactory.ConnectionFactory;
 import org.infinispan.persistence.jdbc.common.logging.Log;
@@ -66,4 +67,17 @@ public String initUpsertRowSql() {
                getInsertRowSql(), config.idColumnName(), config.dataColumnName(),
                config.timestampColumnName());
    }
+
+   @Override
+   protected String initUpsertRowsSql(int rows) {
+      return String.format("INSERT INTO %1$s (%2$s) VALUES %3$s ON CONFLICT (%4$s) DO UPDATE SET %5$s = EXCLUDED.%5$s, %6$s = EXCLUDED.%6$s",
+            dataTableName, insertColumns(), rowsParameters(rows), config.idColumnName(), config.dataColumnName(),
+            config.timestampColumnName());
+   }
+
+   @Override
+   protected String initDeleteRowsSql(int rows) {
+      return String.format("DELETE FROM %s WHERE %s IN (%s)", dataTableName, config.idColumnName(),
+            String.join(", ", Collections.nCopies(rows, "cast(? as " + config.idColumnType() + ")")));
+   }
 }
@@ -1,5 +1,6 @@
 package org.infinispan.persistence.jdbc.impl.table;
 
+import static org.testng.AssertJUnit.assertEquals;
 import static org.testng.AssertJUnit.assertFalse;
 
 import org.infinispan.configuration.cache.Configuration;
@@ -20,6 +21,23 @@
 public class OracleTableManagerTest {
 
    public void testShortIndexNamesOverlap() {
+      OracleTableManager tableManager = createTableManager();
+      String segmentIndexName = tableManager.getIndexName(30, true, "segment_index");
+      String timestampIndexName = tableManager.getIndexName(30, true, "timestamp_index");
+      assertFalse(segmentIndexName.equals(timestampIndexName));
+   }
+
+   public void testUpsertRowsSql() {
+      OracleTableManager tableManager = createTableManager();
+      String sql = tableManager.initUpsertRowsSql(3);
+      assertEquals("MERGE INTO \"TBL_ALongishCacheName\" t USING (" +
+            "SELECT ? IDC, ? TSC, ? DTC, ? SGC from dual UNION ALL SELECT ?, ?, ?, ? from dual UNION ALL SELECT ?, ?, ?, ? from dual) tmp " +
+            "ON (t.IDC = tmp.IDC) WHEN MATCHED THEN UPDATE SET t.TSC = tmp.TSC, t.DTC = tmp.DTC " +
+            "WHEN NOT MATCHED THEN INSERT (IDC, TSC, DTC, SGC) VALUES (tmp.IDC, tmp.TSC, tmp.DTC, tmp.SGC)", sql);
+      assertEquals("DELETE FROM \"TBL_ALongishCacheName\" WHERE IDC IN (?, ?)", tableManager.initDeleteRowsSql(2));
+   }
+
+   private OracleTableManager createTableManager() {
       DbMetaData dbMetaData = new DbMetaData(DatabaseType.ORACLE, 12, 0, 30, false, false, false);
       ConfigurationBuilder builder = new ConfigurationBuilder();
       builder.persistence().addStore(JdbcStringBasedStoreConfigurationBuilder.class)
@@ -33,9 +51,6 @@ public void testShortIndexNamesOverlap() {
       Configuration configuration = builder.build();
       JdbcStringBasedStoreConfiguration storeConfiguration = (JdbcStringBasedStoreConfiguration) configuration.persistence().stores().get(0);
       InitializationContextImpl context = new InitializationContextImpl(null, null, null, Mockito.mock(PersistenceMarshaller.class), null, null, null, null, null, null, null);
-      OracleTableManager tableManager = new OracleTableManager(context, null, storeConfiguration, dbMetaData, "ALongishCacheName");
-      String segmentIndexName = tableManager.getIndexName(30, true, "segment_index");
-      String timestampIndexName = tableManager.getIndexName(30, true, "timestamp_index");
-      assertFalse(segmentIndexName.equals(timestampIndexName));
+      return new OracleTableManager(context, null, storeConfiguration, dbMetaData, "ALongishCacheName");
    }
 }
@@ -1,13 +1,25 @@
 package org.infinispan.persistence.jdbc.stringbased;
 
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import org.infinispan.commons.test.Exceptions;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.persistence.BaseNonBlockingStoreTest;
 import org.infinispan.persistence.jdbc.UnitTestDatabaseManager;
 import org.infinispan.persistence.jdbc.configuration.JdbcStringBasedStoreConfigurationBuilder;
+import org.infinispan.persistence.spi.MarshallableEntry;
+import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.test.TestingUtil;
 import org.testng.annotations.Factory;
 import org.testng.annotations.Test;
 
+import io.reactivex.rxjava3.core.Flowable;
+
 /**
  * Tester class  for {@link JdbcStringBasedStore}.
  *
@@ -51,4 +63,35 @@ protected Configuration buildConfig(ConfigurationBuilder configurationBuilder) {
       UnitTestDatabaseManager.buildTableManipulation(storeBuilder.table());
       return configurationBuilder.build();
    }
+
+   public void testLargeBatchWithRepeatedKeys() {
+      int numberOfEntries = 1050;
+      // Every key is written twice, the statements of several rows must keep the last value
+      Flowable<MarshallableEntry<Object, Object>> entries = Flowable.concat(
+            Flowable.range(0, numberOfEntries).map(i -> marshalledEntry(internalCacheEntry(i.toString(), "A" + i, -1))),
+            Flowable.range(0, numberOfEntries).map(i -> marshalledEntry(internalCacheEntry(i.toString(), "B" + i, -1))));
+      store.batchUpdate(segmentCount, Flowable.empty(),
+            TestingUtil.multipleSegmentPublisher(entries, MarshallableEntry::getKey, keyPartitioner));
+      assertEquals(numberOfEntries, store.sizeWait(segments));
+      for (int i = 0; i < numberOfEntries; i++) {
+         assertEquals(valueToStorage("B" + i), store.loadEntry(keyToStorage(Integer.toString(i))).getValue());
+      }
+
+      Flowable<Object> keys = Flowable.range(0, numberOfEntries - 1).map(i -> keyToStorage(i.toString()));
+      store.batchUpdate(segmentCount, TestingUtil.multipleSegmentPublisher(keys, Function.identity(), keyPartitioner),
+            Flowable.empty());
+      assertEquals(1, store.sizeWait(segments));
+      assertNull(store.loadEntry(keyToStorage("0")));
+   }
+
+   public void testBatchFailsWhenStatementFails() {
+      // The id column only holds 255 characters, so the statement writing the rows fails when it is executed
+      Flowable<MarshallableEntry<Object, Object>> entries = Flowable.just(
+            marshalledEntry(internalCacheEntry("k", "v", -1)),
+            marshalledEntry(internalCacheEntry("k".repeat(300), "v", -1)));
+      Exceptions.expectExceptionNonStrict(CompletionException.class, PersistenceException.class,
+            () -> store.batchUpdate(segmentCount, Flowable.empty(),
+                  TestingUtil.multipleSegmentPublisher(entries, MarshallableEntry::getKey, keyPartitioner)));
+      assertNull(store.loadEntry(keyToStorage("k")));
+   }
 }
@@ -2,6 +2,8 @@
 
 import java.io.StreamCorruptedException;
 import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -45,6 +47,8 @@
 
 class CacheRequestProcessor extends BaseRequestProcessor {
    private static final Log log = LogFactory.getLog(CacheRequestProcessor.class, Log.class);
+   // Number of keys read at once by a getAll that streams its response, since protocol 4.2
+   private static final int GET_ALL_KEY_BATCH_SIZE = Integer.getInteger("infinispan.server.hotrod.get-all-key-batch-size", 256);
 
    private final ClientListenerRegistry listenerRegistry;
    private final InfinispanTelemetry telemetryService;
@@ -140,7 +144,8 @@ private void getInternal(HotRodHeader header, AdvancedCache<byte[], byte[]> cach
       }
    }
 
-   void addToFilter(String cacheName, byte[] key) {
+   void addToFilter(HotRodHeader header, byte[] key) {
+      String cacheName = header.cacheName;
       BloomFilter<byte[]> bloomFilter = bloomFilters.get(cacheName);
       // TODO: Need to think harder about this because we could have a concurrent write as we are doing our get
       // and we could have just have had an invalidation come through that didn't pass the bloom filter
@@ -153,6 +158,7 @@ void addToFilter(String cacheName, byte[] key) {
          }
          bloomFilter.addToFilter(key);
       }
+      listenerRegistry.trackKey(header, key);
    }
 
    private void handleGet(HotRodHeader header, CacheEntry<byte[], byte[]> result, Throwable throwable,
@@ -203,7 +209,7 @@ void getWithMetadata(HotRodHeader header, Subject subject, byte[] key, int offse
    private void getWithMetadataInternal(HotRodHeader header, AdvancedCache<byte[], byte[]> cache, byte[] key, int offset) {
       // We have to set before retrieving the value in case of a concurrent write
       // This can cause unneeded invalidations for a miss, but is required for consistency
-      addToFilter(header.cacheName, key);
+      addToFilter(header, key);
       CompletableFuture<CacheEntry<byte[], byte[]>> get = cache.getCacheEntryAsync(key);
       if (get.isDone() && !get.isCompletedExceptionally()) {
          handleGetWithMetadata(header, offset, get.join(), null);
@@ -529,8 +535,45 @@ void getAll(HotRodHeader header, Subject subject, Set<?> keys) {
    }
 
    private void getAllInternal(HotRodHeader header, AdvancedCache<byte[], byte[]> cache, Set<?> keys) {
-      cache.getAllAsync(keys)
-            .whenComplete((map, throwable) -> handleGetAll(header, map, throwable));
+      if (HotRodVersion.HOTROD_42.isOlder(header.version) || keys.size() <= GET_ALL_KEY_BATCH_SIZE) {
+         cache.getAllAsync(keys)
+               .whenComplete((map, throwable) -> handleGetAll(header, map, throwable));
+      } else {
+         getAllBatch(header, cache, keys.iterator());
+      }
+   }
+
+   /**
+    * Reads the next batch of keys and writes their entries before reading the following batch, so that the entries
+    * of all the keys are never held in memory at the same time.
+    */
+   private void getAllBatch(HotRodHeader header, AdvancedCache<byte[], byte[]> cache, Iterator<?> keys) {
+      Set<Object> batch = new HashSet<>(GET_ALL_KEY_BATCH_SIZE);
+      while (keys.hasNext() && batch.size() < GET_ALL_KEY_BATCH_SIZE) {
+         batch.add(keys.next());
+      }
+      boolean last = !keys.hasNext();
+      cache.getAllAsync(batch).whenComplete((map, throwable) -> {
+         if (throwable != null) {
+            writeException(header, throwable);
+            return;
+         }
+         Iterator<Map.Entry<byte[], byte[]>> entries = map.entrySet().iterator();
+         while (entries.hasNext()) {
+            ByteBuf buf = header.encoder().getAllChunkResponse(header, server, channel, entries, last);
+            if (last && !entries.hasNext()) {
+               writeResponse(header, buf);
+               return;
+            }
+            channel.writeAndFlush(buf, channel.voidPromise());
+         }
+         if (last) {
+            // The entries of the last batch were all written with more frames expected, or there were none
+            writeResponse(header, header.encoder().getAllChunkResponse(header, server, channel, entries, true));
+         } else {
+            getAllBatch(header, cache, keys);
+         }
+      });
    }
 
    private void handleGetAll(HotRodHeader header, Map<byte[], byte[]> map, Throwable throwable) {
@@ -616,7 +659,8 @@ private void queryInternal(HotRodHeader header, AdvancedCache<byte[], byte[]> ca
 
    void addClientListener(HotRodHeader header, Subject subject, byte[] listenerId, boolean includeCurrentState,
                           String filterFactory, List<byte[]> filterParams, String converterFactory,
-                          List<byte[]> converterParams, boolean useRawData, int listenerInterests, int bloomBits) {
+                          List<byte[]> converterParams, boolean useRawData, int listenerInterests, int bloomBits,
+                          int maxTrackedKeys) {
       var cacheInfo = server.getCacheInfo(header);
       AdvancedCache<byte[], byte[]> cache = server.cache(cacheInfo, header, subject);
       var span = requestStart(header, cacheInfo.getInfinispanSpanAttributes());
@@ -632,7 +676,7 @@ void addClientListener(HotRodHeader header, Subject subject, byte[] listenerId,
          }
          CompletionStage<Void> stage = listenerRegistry.addClientListener(channel, header, listenerId, cache,
                includeCurrentState, filterFactory, filterParams, converterFactory, converterParams, useRawData,
-               listenerInterests, bloomFilter);
+               listenerInterests, bloomFilter, maxTrackedKeys);
          stage.whenComplete((ignore, cause) -> {
             try {
                if (cause != null) {
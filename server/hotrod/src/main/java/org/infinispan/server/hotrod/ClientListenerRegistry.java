@@ -15,6 +15,7 @@
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
@@ -119,13 +120,22 @@ CompletionStage<Void> addClientListener(Channel ch, HotRodHeader h, byte[] liste
                           AdvancedCache<byte[], byte[]> cache, boolean includeState,
                           String filterFactory, List<byte[]> binaryFilterParams,
                           String converterFactory, List<byte[]> binaryConverterParams,
-                          boolean useRawData, int listenerInterests, BloomFilter<byte[]> bloomFilter) {
+                          boolean useRawData, int listenerInterests, BloomFilter<byte[]> bloomFilter,
+                          int maxTrackedKeys) {
 
       CacheEventFilter<byte[], byte[]> filter;
       CacheEventConverter<byte[], byte[], byte[]> converter;
       ClientEventType eventType;
 
-      if (bloomFilter != null) {
+      NearCacheKeyTracker keyTracker = null;
+      if (maxTrackedKeys >= 0) {
+         keyTracker = new NearCacheKeyTracker(maxTrackedKeys);
+         if (log.isTraceEnabled()) {
+            log.tracef("Installing key tracker %s for listener %s on cache %s", keyTracker, Util.toStr(listenerId), h.cacheName);
+         }
+      }
+
+      if (bloomFilter != null || keyTracker != null) {
          assert filterFactory == null || filterFactory.isEmpty();
          assert converterFactory == null || converterFactory.isEmpty();
          assert !includeState;
@@ -163,7 +173,8 @@ CompletionStage<Void> addClientListener(Channel ch, HotRodHeader h, byte[] liste
          }
       }
       BaseClientEventSender clientEventSender = getClientEventSender(includeState, ch, h.encoder(), h.version, cache,
-                                                                     listenerId, eventType, h.messageId, bloomFilter);
+                                                                     listenerId, eventType, h.messageId, bloomFilter,
+                                                                     keyTracker);
 
       eventSenders.put(new WrappedByteArray(listenerId), clientEventSender);
 
@@ -240,6 +251,27 @@ private List<?> unmarshallParams(MediaType requestMedia, List<byte[]> binaryPara
       return binaryParams.stream().map(bp -> encoderRegistry.convert(bp, requestMedia, APPLICATION_OBJECT)).collect(Collectors.toList());
    }
 
+   /**
+    * Tracks a key read by a near cache with key tracking, so that the listener of the near cache sends an invalidation
+    * when the key is modified. The keys are tracked for the listener id sent in the header of the read, whichever
+    * connection the client used for it.
+    */
+   void trackKey(HotRodHeader header, byte[] key) {
+      byte[] listenerId = header.otherParams == null ? null : header.otherParams.get(HotRodConstants.NEAR_CACHE_LISTENER_ID_PARAM);
+      if (listenerId == null) {
+         return;
+      }
+      Object sender = eventSenders.get(new WrappedByteArray(listenerId));
+      if (sender instanceof KeyTrackingClientEventSender trackingSender) {
+         if (log.isTraceEnabled()) {
+            log.tracef("Tracking key %s for listener %s", Util.toStr(key), Util.toStr(listenerId));
+         }
+         trackingSender.keyTracker.track(key);
+      } else if (log.isTraceEnabled()) {
+         log.tracef("No key tracking listener %s to track key %s", Util.toStr(listenerId), Util.toStr(key));
+      }
+   }
+
    CompletionStage<Boolean> removeClientListener(byte[] listenerId, Cache cache) {
       Object sender = eventSenders.remove(new WrappedByteArray(listenerId));
       if (sender != null) {
@@ -316,6 +348,40 @@ boolean isSendEvent(CacheEntryEvent<byte[], byte[]> event) {
       }
    }
 
+   @Listener(clustered = true)
+   private class KeyTrackingClientEventSender extends StatelessClientEventSender {
+      private final NearCacheKeyTracker keyTracker;
+
+      KeyTrackingClientEventSender(Cache cache, Channel ch, VersionedEncoder encoder, byte[] listenerId,
+                                   byte version, ClientEventType targetEventType, NearCacheKeyTracker keyTracker) {
+         super(cache, ch, encoder, listenerId, version, targetEventType);
+         this.keyTracker = keyTracker;
+         Runnable flush = this::flush;
+         keyTracker.setFlushScheduler(() -> ch.eventLoop().schedule(flush, NearCacheKeyTracker.FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS));
+      }
+
+      @Override
+      CompletionStage<Void> sendEvent(byte[] key, byte[] value, long dataVersion, CacheEntryEvent event) {
+         // Only the tracked keys are invalidated, and they are sent in batches instead of an event per key
+         keyTracker.invalidate(key);
+         return null;
+      }
+
+      // This method can only be invoked from the Event Loop thread!
+      private void flush() {
+         byte[] invalidations = keyTracker.drainInvalidations();
+         if (invalidations == null || isChannelDisconnected()) {
+            return;
+         }
+         Events.Event event = new Events.CustomRawEvent(version, 0, HotRodOperation.CACHE_ENTRY_REMOVED_EVENT,
+               listenerId, false, invalidations, CompletableFutures.completedNull());
+         if (log.isTraceEnabled()) log.tracef("Queue invalidations %s for %s", event, keyTracker);
+         eventSize.incrementAndGet();
+         eventQueue.add(event);
+         writeEventsIfPossible();
+      }
+   }
+
    private abstract class BaseClientEventSender {
       protected final Channel ch;
       protected final VersionedEncoder encoder;
@@ -511,12 +577,15 @@ private KeyValuePair<HotRodOperation, Boolean> getEventResponseType(CacheEntryEv
    private BaseClientEventSender getClientEventSender(boolean includeState, Channel ch, VersionedEncoder encoder,
                                                       byte version, Cache cache, byte[] listenerId,
                                                       ClientEventType eventType, long messageId,
-                                                      BloomFilter<byte[]> bloomFilter) {
+                                                      BloomFilter<byte[]> bloomFilter,
+                                                      NearCacheKeyTracker keyTracker) {
       BaseClientEventSender bces;
       if (includeState) {
          bces = new StatefulClientEventSender(cache, ch, encoder, listenerId, version, eventType, messageId);
       } else {
-         if (bloomFilter != null) {
+         if (keyTracker != null) {
+            bces = new KeyTrackingClientEventSender(cache, ch, encoder, listenerId, version, eventType, keyTracker);
+         } else if (bloomFilter != null) {
             bces = new BloomAwareStatelessClientEventSender(cache, ch, encoder, listenerId, version, eventType,
                                                             bloomFilter);
          } else {
@@ -1,5 +1,10 @@
 package org.infinispan.server.hotrod;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
 import org.infinispan.commons.logging.LogFactory;
 import org.infinispan.commons.util.Util;
 import org.infinispan.container.entries.CacheEntry;
@@ -13,6 +18,8 @@
 public class Encoder4x extends Encoder2x {
    private static final Log log = LogFactory.getLog(Encoder2x.class, Log.class);
    private static final Encoder4x INSTANCE = new Encoder4x();
+   // Size after which the entries of a getAll response are split into another frame, since protocol 4.2
+   private static final int getAllChunkSize = Integer.getInteger("infinispan.server.hotrod.get-all-chunk-size", 64 * 1024);
 
    public static Encoder4x instance() {
       return INSTANCE;
@@ -51,4 +58,51 @@ public ByteBuf putStreamStartResponse(HotRodHeader header, HotRodServer server,
       buf.writeInt(id);
       return buf;
    }
+
+   /**
+    * Since protocol 4.2 the entries are split into several frames with the same message id, so that neither the
+    * server nor the client have to hold the whole response in a single buffer.
+    */
+   @Override
+   public ByteBuf getAllResponse(HotRodHeader header, HotRodServer server, Channel channel, Map<byte[], byte[]> entries) {
+      if (HotRodVersion.HOTROD_42.isOlder(header.version)) {
+         return super.getAllResponse(header, server, channel, entries);
+      }
+      Iterator<Map.Entry<byte[], byte[]>> iterator = entries.entrySet().iterator();
+      ByteBuf buf = getAllChunkResponse(header, server, channel, iterator, true);
+      while (iterator.hasNext()) {
+         // Flushed right away so that the client can decode the chunk while the next one is written
+         channel.writeAndFlush(buf, channel.voidPromise());
+         buf = getAllChunkResponse(header, server, channel, iterator, true);
+      }
+      return buf;
+   }
+
+   /**
+    * Every frame contains the number of entries, the entries and a boolean that is true when more frames follow. The
+    * entries are taken from the iterator until the frame reaches the chunk size.
+    */
+   @Override
+   public ByteBuf getAllChunkResponse(HotRodHeader header, HotRodServer server, Channel channel,
+                                      Iterator<Map.Entry<byte[], byte[]>> entries, boolean last) {
+      List<Map.Entry<byte[], byte[]>> chunk = new ArrayList<>();
+      int chunkSize = 0;
+      while (entries.hasNext() && chunkSize < getAllChunkSize) {
+         Map.Entry<byte[], byte[]> entry = entries.next();
+         chunk.add(entry);
+         chunkSize += entry.getKey().length + entry.getValue().length;
+      }
+      ByteBuf buf = writeHeader(header, server, channel, OperationStatus.Success);
+      ExtendedByteBuf.writeUnsignedInt(chunk.size(), buf);
+      for (Map.Entry<byte[], byte[]> entry : chunk) {
+         ExtendedByteBuf.writeRangedBytes(entry.getKey(), buf);
+         ExtendedByteBuf.writeRangedBytes(entry.getValue(), buf);
+      }
+      boolean more = entries.hasNext() || !last;
+      buf.writeBoolean(more);
+      if (log.isTraceEnabled()) {
+         log.tracef("Write getAll chunk to messageId=%d with %d entries, more=%b", header.messageId, chunk.size(), more);
+      }
+      return buf;
+   }
 }
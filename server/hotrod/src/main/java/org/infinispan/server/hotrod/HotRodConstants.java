@@ -17,6 +17,7 @@ public interface HotRodConstants {
    byte VERSION_31 = HotRodVersion.HOTROD_31.getVersion();
    byte VERSION_40 = HotRodVersion.HOTROD_40.getVersion();
    byte VERSION_41 = HotRodVersion.HOTROD_41.getVersion();
+   byte VERSION_42 = HotRodVersion.HOTROD_42.getVersion();
 
    //requests
    byte PUT_REQUEST = 0x01;
@@ -54,6 +55,7 @@ public interface HotRodConstants {
    byte ROLLBACK_TX = 0x3F;
    byte ADD_BLOOM_FILTER_NEAR_CACHE_LISTENER_REQUEST = 0x41;
    byte UPDATE_BLOOM_FILTER_REQUEST = 0x43;
+   byte ADD_TRACKING_NEAR_CACHE_LISTENER_REQUEST = 0x45;
    byte FORGET_TX = 0x79;
    byte FETCH_TX_RECOVERY = 0x7B;
    byte PREPARE_TX_2 = 0x7D;
@@ -90,4 +92,7 @@ public interface HotRodConstants {
    byte START_GET_STREAM_REQUEST = -0x17;
    byte NEXT_GET_STREAM_REQUEST = -0x19;
    byte END_GET_STREAM_REQUEST = -0x1B;
+
+   // Header parameter with the id of the key tracking near cache listener a read is tracked for
+   String NEAR_CACHE_LISTENER_ID_PARAM = "near-cache-listener-id";
 }
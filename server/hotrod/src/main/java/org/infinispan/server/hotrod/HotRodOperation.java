@@ -48,6 +48,7 @@ public enum HotRodOperation {
 
    ADD_BLOOM_FILTER_CLIENT_LISTENER(HotRodConstants.ADD_BLOOM_FILTER_NEAR_CACHE_LISTENER_REQUEST, HotRodConstants.ADD_BLOOM_FILTER_NEAR_CACHE_LISTENER_REQUEST + 1, EnumSet.of(OpReqs.REQUIRES_AUTH)),
    UPDATE_BLOOM_FILTER(HotRodConstants.UPDATE_BLOOM_FILTER_REQUEST, HotRodConstants.UPDATE_BLOOM_FILTER_REQUEST + 1, EnumSet.of(OpReqs.REQUIRES_AUTH)),
+   ADD_TRACKING_NEAR_CACHE_LISTENER(HotRodConstants.ADD_TRACKING_NEAR_CACHE_LISTENER_REQUEST, HotRodConstants.ADD_TRACKING_NEAR_CACHE_LISTENER_REQUEST + 1, EnumSet.of(OpReqs.REQUIRES_AUTH)),
 
    // Operations that end after a Custom Value is read
    PUT_ALL(0x2D, 0x2E, EnumSet.of(OpReqs.REQUIRES_AUTH, OpReqs.CAN_SKIP_INDEXING, OpReqs.CAN_SKIP_CACHE_LOAD)),
@@ -0,0 +1,152 @@
+package org.infinispan.server.hotrod;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.infinispan.server.hotrod.transport.ExtendedByteBuf;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Tracks the keys a near cache read through a connection, so that the server only sends invalidations for keys the
+ * client may have cached.
+ * <p>
+ * A key is tracked when it is read and stops being tracked when it is invalidated, until it is read again. The
+ * invalidated keys are collected until the next flush, which sends all of them in a single event. When more keys are
+ * tracked or pending than allowed, the keys are forgotten and the next flush tells the client to clear its whole near
+ * cache instead.
+ * <p>
+ * The invalidations are sent as the data of a raw custom event: a byte that is 1 when the whole near cache must be
+ * cleared, the number of keys as a vInt, followed by every key as a ranged byte array.
+ *
+ * @since 16.0
+ */
+class NearCacheKeyTracker {
+   // Upper limit on the keys tracked for a single near cache, regardless of what the client asks for
+   static final int MAX_TRACKED_KEYS = Integer.getInteger("infinispan.server.hotrod.near-cache.max-tracked-keys", 1 << 20);
+   // Delay between the first pending invalidation and the event that sends it
+   static final long FLUSH_INTERVAL_MILLIS = Long.getLong("infinispan.server.hotrod.near-cache.flush-interval", 10);
+
+   private final int maxTrackedKeys;
+   private final Set<WrappedByteArray> trackedKeys = ConcurrentHashMap.newKeySet();
+   // Guarded by this
+   private Set<WrappedByteArray> pendingKeys = new HashSet<>();
+   // Guarded by this
+   private boolean flushAll;
+   private volatile Runnable flushScheduler;
+
+   NearCacheKeyTracker(int maxTrackedKeys) {
+      this.maxTrackedKeys = maxTrackedKeys <= 0 ? MAX_TRACKED_KEYS : Math.min(maxTrackedKeys, MAX_TRACKED_KEYS);
+   }
+
+   /**
+    * Tracks a key that is about to be read. Must be invoked before reading the value, so that a concurrent write
+    * invalidates the value that is returned.
+    */
+   void track(byte[] key) {
+      if (trackedKeys.add(new WrappedByteArray(key)) && trackedKeys.size() > maxTrackedKeys) {
+         invalidateAll();
+      }
+   }
+
+   /**
+    * Adds the key to the pending invalidations if it is tracked. The first pending invalidation schedules a flush.
+    */
+   void invalidate(byte[] key) {
+      WrappedByteArray wrappedKey = new WrappedByteArray(key);
+      if (!trackedKeys.remove(wrappedKey)) {
+         return;
+      }
+      boolean schedule;
+      synchronized (this) {
+         if (flushAll) {
+            return;
+         }
+         schedule = pendingKeys.isEmpty();
+         pendingKeys.add(wrappedKey);
+         if (pendingKeys.size() > maxTrackedKeys) {
+            pendingKeys.clear();
+            flushAll = true;
+         }
+      }
+      if (schedule) {
+         scheduleFlush();
+      }
+   }
+
+   /**
+    * Forgets all the tracked keys, the next flush tells the client to clear its near cache.
+    */
+   void invalidateAll() {
+      trackedKeys.clear();
+      boolean schedule;
+      synchronized (this) {
+         schedule = pendingKeys.isEmpty() && !flushAll;
+         pendingKeys.clear();
+         flushAll = true;
+      }
+      if (schedule) {
+         scheduleFlush();
+      }
+   }
+
+   /**
+    * Sets the task that schedules a flush, which must eventually invoke {@link #drainInvalidations()}.
+    */
+   void setFlushScheduler(Runnable flushScheduler) {
+      this.flushScheduler = flushScheduler;
+   }
+
+   private void scheduleFlush() {
+      Runnable scheduler = flushScheduler;
+      if (scheduler != null) {
+         scheduler.run();
+      }
+   }
+
+   /**
+    * Removes the pending invalidations and encodes them as the data of an event.
+    *
+    * @return the encoded invalidations or {@code null} if there is nothing to send
+    */
+   byte[] drainInvalidations() {
+      Set<WrappedByteArray> keys;
+      boolean all;
+      synchronized (this) {
+         if (pendingKeys.isEmpty() && !flushAll) {
+            return null;
+         }
+         keys = pendingKeys;
+         all = flushAll;
+         pendingKeys = new HashSet<>();
+         flushAll = false;
+      }
+      ByteBuf buf = Unpooled.buffer();
+      try {
+         buf.writeByte(all ? 1 : 0);
+         ExtendedByteBuf.writeUnsignedInt(keys.size(), buf);
+         for (WrappedByteArray key : keys) {
+            ExtendedByteBuf.writeRangedBytes(key.getBytes(), buf);
+         }
+         return ByteBufUtil.getBytes(buf);
+      } finally {
+         buf.release();
+      }
+   }
+
+   int trackedCount() {
+      return trackedKeys.size();
+   }
+
+   @Override
+   public String toString() {
+      return "NearCacheKeyTracker{" +
+            "maxTrackedKeys=" + maxTrackedKeys +
+            ", trackedKeys=" + trackedKeys.size() +
+            '}';
+   }
+}
@@ -1,6 +1,7 @@
 package org.infinispan.server.hotrod;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
@@ -71,6 +72,15 @@ default ByteBuf putStreamStartResponse(HotRodHeader header, HotRodServer server,
 
    ByteBuf getAllResponse(HotRodHeader header, HotRodServer server, Channel channel, Map<byte[], byte[]> map);
 
+   /**
+    * Writes a frame of a getAll response with entries taken from the iterator.
+    *
+    * @param last whether the iterator holds the last entries of the response
+    */
+   default ByteBuf getAllChunkResponse(HotRodHeader header, HotRodServer server, Channel channel, Iterator<Map.Entry<byte[], byte[]>> entries, boolean last) {
+      throw new UnsupportedOperationException("getAllChunkResponse requires HR 4.2 or newer!");
+   }
+
    ByteBuf bulkGetKeysResponse(HotRodHeader header, HotRodServer server, Channel channel, CloseableIterator<byte[]> iterator);
 
    ByteBuf iterationStartResponse(HotRodHeader header, HotRodServer server, Channel channel, String iterationId);
@@ -0,0 +1,100 @@
+package org.infinispan.server.hotrod;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.infinispan.commons.marshall.WrappedByteArray;
+import org.infinispan.server.hotrod.transport.ExtendedByteBuf;
+import org.testng.annotations.Test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * @since 16.0
+ **/
+@Test(groups = "unit", testName = "server.hotrod.NearCacheKeyTrackerTest")
+public class NearCacheKeyTrackerTest {
+
+   public void testOnlyTrackedKeysAreInvalidated() {
+      NearCacheKeyTracker tracker = new NearCacheKeyTracker(10);
+      AtomicInteger flushes = new AtomicInteger();
+      tracker.setFlushScheduler(flushes::incrementAndGet);
+
+      tracker.track(key(1));
+      tracker.track(key(2));
+      tracker.invalidate(key(3));
+      assertEquals(0, flushes.get());
+      assertNull(tracker.drainInvalidations());
+
+      tracker.invalidate(key(1));
+      tracker.invalidate(key(2));
+      // A flush is scheduled for the first pending invalidation only
+      assertEquals(1, flushes.get());
+      assertEquals(0, tracker.trackedCount());
+      assertInvalidations(tracker.drainInvalidations(), false, key(1), key(2));
+
+      // The key is no longer tracked until it is read again
+      tracker.invalidate(key(1));
+      assertNull(tracker.drainInvalidations());
+      tracker.track(key(1));
+      tracker.invalidate(key(1));
+      assertEquals(2, flushes.get());
+      assertInvalidations(tracker.drainInvalidations(), false, key(1));
+   }
+
+   public void testTooManyTrackedKeysFlushesAll() {
+      NearCacheKeyTracker tracker = new NearCacheKeyTracker(3);
+      AtomicInteger flushes = new AtomicInteger();
+      tracker.setFlushScheduler(flushes::incrementAndGet);
+
+      for (int i = 0; i < 4; i++) {
+         tracker.track(key(i));
+      }
+      assertEquals(1, flushes.get());
+      assertEquals(0, tracker.trackedCount());
+      // Invalidations of the forgotten keys are not sent
+      tracker.invalidate(key(0));
+      assertInvalidations(tracker.drainInvalidations(), true);
+      assertNull(tracker.drainInvalidations());
+   }
+
+   public void testTooManyPendingKeysFlushesAll() {
+      NearCacheKeyTracker tracker = new NearCacheKeyTracker(3);
+      AtomicInteger flushes = new AtomicInteger();
+      tracker.setFlushScheduler(flushes::incrementAndGet);
+
+      for (int i = 0; i < 3; i++) {
+         tracker.track(key(i));
+         tracker.invalidate(key(i));
+      }
+      tracker.track(key(3));
+      tracker.invalidate(key(3));
+      assertEquals(1, flushes.get());
+      assertInvalidations(tracker.drainInvalidations(), true);
+   }
+
+   private static byte[] key(int i) {
+      return new byte[]{(byte) i};
+   }
+
+   private static void assertInvalidations(byte[] invalidations, boolean flushAll, byte[]... keys) {
+      ByteBuf buf = Unpooled.wrappedBuffer(invalidations);
+      assertEquals(flushAll ? 1 : 0, buf.readByte());
+      int count = ExtendedByteBuf.readUnsignedInt(buf);
+      Set<WrappedByteArray> actual = new HashSet<>();
+      for (int i = 0; i < count; i++) {
+         actual.add(new WrappedByteArray(ExtendedByteBuf.readRangedBytes(buf)));
+      }
+      Set<WrappedByteArray> expected = new HashSet<>();
+      for (byte[] key : keys) {
+         expected.add(new WrappedByteArray(key));
+      }
+      assertEquals(expected, actual);
+      assertEquals(0, buf.readableBytes());
+   }
+}
@@ -62,6 +62,11 @@ protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
             .description("Time elapsed in seconds since the last statistics reset")
             .register(registry);
 
+      Gauge.builder("cache.hot.keys", getCache(), cache -> cache.clientStatistics().getHotKeyCount())
+            .tags(getTagsWithCacheName())
+            .description("The number of keys whose reads are spread across all their owners")
+            .register(registry);
+
       averages(registry);
       nearCacheMetrics(registry);
    }
@@ -100,6 +105,11 @@ private void nearCacheMetrics(MeterRegistry registry) {
                .description("The number of invalidations of near cache entries owned by this client")
                .register(registry);
 
+         Gauge.builder("cache.near.evictions", getCache(), cache -> cache.clientStatistics().getNearCacheEvictions())
+               .tags(getTagsWithCacheName())
+               .description("The number of evictions of near cache entries owned by this client")
+               .register(registry);
+
          Gauge.builder("cache.near.size", getCache(), cache -> cache.clientStatistics().getNearCacheSize())
                .tags(getTagsWithCacheName())
                .description("The size of the near cache owned by this client")